@@ -4,31 +4,35 @@ package fmsGUI;
 public class Aircraft {
     // --- Properties ---
     // Private fields for encapsulation
-    private String registrationNumber; // e.g., 9M-ABC
-    private String brand;              // e.g., Boeing
-    private String model;              // e.g., 737
+    // Stored as SymbolTable ids; names are resolved for display
+    private int registrationId;        // e.g., 9M-ABC
+    private int brandId;               // e.g., Boeing
+    private int modelId;               // e.g., 737
     private int capacity;              // e.g., 180
-    private String status;             // e.g., "Available"
+    // Flights not yet Arrived or Cancelled; kept by FleetStatus, status is derived from it
+    private volatile int activeFlights;
 
     // --- Constructor ---
-    public Aircraft(String registrationNumber, String brand, String model, int capacity, String status) {
-        this.registrationNumber = registrationNumber;
-        this.brand = brand;
-        this.model = model;
+    public Aircraft(String registrationNumber, String brand, String model, int capacity) {
+        this.registrationId = SymbolTable.REGISTRATIONS.id(registrationNumber);
+        this.brandId = SymbolTable.BRANDS.id(brand);
+        this.modelId = SymbolTable.MODELS.id(model);
         this.capacity = capacity;
-        this.status = status;
     }
 
     // --- Getters ---
-    public String getRegistrationNumber() { return registrationNumber; }
-    public String getBrand() { return brand; }
-    public String getModel() { return model; }
+    public String getRegistrationNumber() { return SymbolTable.REGISTRATIONS.name(registrationId); }
+    public String getBrand() { return SymbolTable.BRANDS.name(brandId); }
+    public String getModel() { return SymbolTable.MODELS.name(modelId); }
+    public int getRegistrationId() { return registrationId; }
+    public int getBrandId() { return brandId; }
+    public int getModelId() { return modelId; }
     public int getCapacity() { return capacity; }
-    public String getStatus() { return status; }
-    
-    // --- Setters ---
-    // Only status updates are allowed for now
-    public void setStatus(String status) { 
-        this.status = status; 
+    public String getStatus() { return activeFlights > 0 ? "Scheduled" : "Available"; }
+    public int getActiveFlights() { return activeFlights; }
+
+    // Called only by FleetStatus (under its lock)
+    void adjustActiveFlights(int delta) {
+        activeFlights += delta;
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package fmsGUI;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+// Where the fleet is kept outside the running system (see FlightRepository)
+public interface AircraftRepository extends Closeable {
+    List<Aircraft> findAll() throws IOException;
+    Aircraft find(String registration) throws IOException;
+    // Insert or replace by registration
+    void save(Aircraft aircraft) throws IOException;
+    void delete(String registration) throws IOException;
+    void flush() throws IOException;
+}
@@ -0,0 +1,306 @@
+package fmsGUI;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Operational rules declared once and kept evaluated against the change feed. Flight rules look
+// at one flight; pair rules look at two (non-cancelled) legs of one tail: consecutive legs, or,
+// for rules about the aircraft being back (overlap, turnaround), the earlier leg that arrives
+// last, tracked as a running busy-until like ScheduleAudit does. A change re-checks only the
+// flight itself, the legs next to its old and new place in the rotation, and the legs whose
+// busy-until it moves, so a busy schedule is monitored without rescans. Violations stay in the
+// alert list until fixed.
+public class AlertEngine implements FlightChangeListener {
+
+    public static final int EXCESSIVE_DELAY_MINUTES = 180;
+
+    // --- Rules ---
+    public static class FlightRule {
+        private final String name;
+        private final Function<Flight, String> check; // message, or null if the flight passes
+
+        public FlightRule(String name, Function<Flight, String> check) {
+            this.name = name;
+            this.check = check;
+        }
+
+        public String getName() { return name; }
+    }
+
+    public static class PairRule {
+        private final String name;
+        private final BiFunction<Flight, Flight, String> check; // (previous leg, next leg)
+        // Previous leg = the earlier leg with the latest arrival, not the one just before
+        private final boolean latestArrival;
+
+        public PairRule(String name, BiFunction<Flight, Flight, String> check) {
+            this(name, check, false);
+        }
+
+        public PairRule(String name, BiFunction<Flight, Flight, String> check, boolean latestArrival) {
+            this.name = name;
+            this.check = check;
+            this.latestArrival = latestArrival;
+        }
+
+        public String getName() { return name; }
+        public boolean isLatestArrival() { return latestArrival; }
+    }
+
+    public static final FlightRule CAPACITY = new FlightRule("Capacity", f ->
+            !(f instanceof CargoFlight) && f.getAircraft() != null && f.getBookedPassengers() > f.getAircraft().getCapacity()
+                    ? f.getBookedPassengers() + " passengers booked on " + f.getAircraft().getCapacity() + " seats"
+                    : null);
+
+    public static final FlightRule EXCESSIVE_DELAY = new FlightRule("Excessive Delay", f ->
+            f.getDelayMinutes() > EXCESSIVE_DELAY_MINUTES && !"Arrived".equalsIgnoreCase(f.getStatus())
+                    ? "Delayed " + f.getDelayMinutes() + " min in total"
+                    : null);
+
+    public static final PairRule OVERLAP = new PairRule("Overlap", (prev, next) -> {
+        int overlap = TailAssigner.minute(prev.getArrivalTime()) - TailAssigner.minute(next.getDepartureTime());
+        return overlap > 0 ? "Leaves " + overlap + " min before " + prev.getKey() + " is in" : null;
+    }, true);
+
+    public static final PairRule TURNAROUND = new PairRule("Turnaround", (prev, next) -> {
+        int ground = TailAssigner.minute(next.getDepartureTime()) - TailAssigner.minute(prev.getArrivalTime());
+        return ground >= 0 && ground < FlightManagementSystem.MIN_TURNAROUND_MINUTES
+                ? "Only " + ground + " min on the ground after " + prev.getKey()
+                : null;
+    }, true);
+
+    // A leg under way (or done) while the one before it hasn't arrived
+    public static final PairRule SEQUENCE = new PairRule("Sequence", (prev, next) -> {
+        String s = next.getStatus();
+        boolean started = "Boarding".equalsIgnoreCase(s) || "Departed".equalsIgnoreCase(s)
+                || "In Flight".equalsIgnoreCase(s) || "Arrived".equalsIgnoreCase(s);
+        return started && !"Arrived".equalsIgnoreCase(prev.getStatus())
+                ? s + " while " + prev.getKey() + " is " + prev.getStatus()
+                : null;
+    });
+
+    private final List<FlightRule> flightRules;
+    private final List<PairRule> pairRules;
+
+    // Each tail's non-cancelled legs ordered by (departure minute, filing sequence)
+    private final Map<Integer, TreeMap<Long, Flight>> chains = new HashMap<>();
+    // Where each flight sits (events carry no old values)
+    private final Map<Flight, Position> filed = new IdentityHashMap<>();
+    // Open alerts per flight, by rule name (pair alerts belong to the later leg)
+    private final Map<Flight, Map<String, Alert>> open = new IdentityHashMap<>();
+    private int nextSequence;
+    private long raisedCount;
+    private long clearedCount;
+
+    private static class Position {
+        final int sequence;
+        int tail;
+        Long key; // null = not in a chain (cancelled)
+        Flight busyWith; // earlier leg in the chain that arrives last, null if none
+
+        Position(int sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    public AlertEngine() {
+        this(List.of(CAPACITY, EXCESSIVE_DELAY), List.of(OVERLAP, TURNAROUND, SEQUENCE));
+    }
+
+    public AlertEngine(List<FlightRule> flightRules, List<PairRule> pairRules) {
+        this.flightRules = new ArrayList<>(flightRules);
+        this.pairRules = new ArrayList<>(pairRules);
+    }
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public synchronized void flightAdded(Flight f) {
+        if (!filed.containsKey(f)) filed.put(f, new Position(nextSequence++));
+        update(f);
+    }
+
+    @Override
+    public synchronized void flightRemoved(Flight f) {
+        Position p = filed.remove(f);
+        if (p == null) return;
+        unlink(f, p);
+        Map<String, Alert> alerts = open.remove(f);
+        if (alerts != null) clearedCount += alerts.size();
+    }
+
+    @Override
+    public synchronized void flightsChanged(Collection<Flight> changed) {
+        for (Flight f : changed) {
+            if (filed.containsKey(f)) update(f);
+        }
+    }
+
+    // Re-file 'f' in its tail's chain and re-check everything whose neighbours changed
+    private void update(Flight f) {
+        Position p = filed.get(f);
+        for (FlightRule rule : flightRules) set(f, rule.name, rule.check.apply(f));
+
+        if ("Cancelled".equalsIgnoreCase(f.getStatus()) || f.getAircraft() == null) {
+            unlink(f, p);
+            for (PairRule rule : pairRules) set(f, rule.name, null);
+            return;
+        }
+        int tail = f.getAircraft().getRegistrationId();
+        long key = ((long) TailAssigner.minute(f.getDepartureTime()) << 32) | p.sequence;
+        // Status-only changes keep their place; only the two pairs around it are re-checked
+        if (p.key == null || p.key != key || p.tail != tail) {
+            unlink(f, p);
+            p.tail = tail;
+            p.key = key;
+            chains.computeIfAbsent(tail, k -> new TreeMap<>()).put(key, f);
+        }
+        TreeMap<Long, Flight> chain = chains.get(tail);
+        Map.Entry<Long, Flight> prev = chain.lowerEntry(p.key);
+        Map.Entry<Long, Flight> next = chain.higherEntry(p.key);
+        checkPair(prev == null ? null : prev.getValue(), f);
+        if (next != null) checkPair(f, next.getValue());
+        // Its arrival may have moved too, so the walk goes on past it while it is the busy leg
+        sweep(chain, p.key, p.key, f);
+    }
+
+    // Take 'f' out of its chain; its old neighbours become consecutive
+    private void unlink(Flight f, Position p) {
+        if (p.key == null) return;
+        TreeMap<Long, Flight> chain = chains.get(p.tail);
+        chain.remove(p.key);
+        Map.Entry<Long, Flight> next = chain.higherEntry(p.key);
+        if (next != null) {
+            Map.Entry<Long, Flight> prev = chain.lowerEntry(p.key);
+            checkPair(prev == null ? null : prev.getValue(), next.getValue());
+        }
+        sweep(chain, p.key, p.key, f);
+        if (chain.isEmpty()) chains.remove(p.tail);
+        p.key = null;
+        p.busyWith = null;
+    }
+
+    // Rules on consecutive legs
+    private void checkPair(Flight prev, Flight next) {
+        for (PairRule rule : pairRules) {
+            if (!rule.latestArrival) set(next, rule.name, prev == null ? null : rule.check.apply(prev, next));
+        }
+    }
+
+    // Re-derives busyWith for the legs from 'from' on and re-checks the latest-arrival rules.
+    // The walk covers everything up to 'through'; after that it stops at the first leg whose
+    // busy leg is unchanged (and isn't 'changed' itself), since every later leg then sees the
+    // same earlier legs as before.
+    private void sweep(TreeMap<Long, Flight> chain, long from, long through, Flight changed) {
+        Map.Entry<Long, Flight> before = chain.lowerEntry(from);
+        Flight busy = before == null ? null : later(filed.get(before.getValue()).busyWith, before.getValue());
+        for (Map.Entry<Long, Flight> e : chain.tailMap(from, true).entrySet()) {
+            Flight leg = e.getValue();
+            Position p = filed.get(leg);
+            if (e.getKey() > through && p.busyWith == busy && busy != changed) break;
+            p.busyWith = busy;
+            for (PairRule rule : pairRules) {
+                if (rule.latestArrival) set(leg, rule.name, busy == null ? null : rule.check.apply(busy, leg));
+            }
+            busy = later(busy, leg);
+        }
+    }
+
+    // The aircraft is busy until the latest arrival so far (the earlier leg wins a tie)
+    private static Flight later(Flight busy, Flight leg) {
+        if (busy == null) return leg;
+        return TailAssigner.minute(leg.getArrivalTime()) > TailAssigner.minute(busy.getArrivalTime()) ? leg : busy;
+    }
+
+    // Raise, keep (same rule still failing keeps its raise time) or clear one alert
+    private void set(Flight f, String rule, String message) {
+        Map<String, Alert> alerts = open.get(f);
+        if (message == null) {
+            if (alerts == null || alerts.remove(rule) == null) return;
+            clearedCount++;
+            if (alerts.isEmpty()) open.remove(f);
+            return;
+        }
+        if (alerts == null) {
+            alerts = new LinkedHashMap<>();
+            open.put(f, alerts);
+        }
+        Alert existing = alerts.get(rule);
+        if (existing != null && existing.message.equals(message)) return;
+        if (existing == null) raisedCount++;
+        alerts.put(rule, new Alert(rule, f, message, existing == null ? LocalDateTime.now() : existing.raisedAt));
+    }
+
+    // --- Queries ---
+    // Open alerts, newest first
+    public synchronized List<Alert> getAlerts() {
+        List<Alert> result = new ArrayList<>();
+        for (Map<String, Alert> alerts : open.values()) result.addAll(alerts.values());
+        result.sort(Comparator.comparing(Alert::getRaisedAt).reversed());
+        return result;
+    }
+
+    public synchronized List<Alert> getAlerts(String rule) {
+        List<Alert> result = getAlerts();
+        result.removeIf(a -> !a.rule.equals(rule));
+        return result;
+    }
+
+    public synchronized List<Alert> getAlerts(Flight f) {
+        return new ArrayList<>(open.getOrDefault(f, Map.of()).values());
+    }
+
+    // Rule name -> open alerts
+    public synchronized Map<String, Integer> countByRule() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (FlightRule r : flightRules) counts.put(r.name, 0);
+        for (PairRule r : pairRules) counts.put(r.name, 0);
+        for (Map<String, Alert> alerts : open.values()) {
+            for (String rule : alerts.keySet()) counts.merge(rule, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public synchronized int size() {
+        int n = 0;
+        for (Map<String, Alert> alerts : open.values()) n += alerts.size();
+        return n;
+    }
+
+    public synchronized long getRaisedCount() { return raisedCount; }
+    public synchronized long getClearedCount() { return clearedCount; }
+
+    // --- One open violation ---
+    public static class Alert {
+        private final String rule;
+        private final Flight flight;
+        private final String message;
+        private final LocalDateTime raisedAt;
+
+        public Alert(String rule, Flight flight, String message, LocalDateTime raisedAt) {
+            this.rule = rule;
+            this.flight = flight;
+            this.message = message;
+            this.raisedAt = raisedAt;
+        }
+
+        public String getRule() { return rule; }
+        public Flight getFlight() { return flight; }
+        public String getMessage() { return message; }
+        public LocalDateTime getRaisedAt() { return raisedAt; }
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %s: %s", rule, flight.getKey(), message);
+        }
+    }
+}
@@ -20,11 +20,13 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.beans.binding.Bindings;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,14 +38,54 @@ import javafx.scene.layout.GridPane;
 public class App extends Application {
 
     private FlightManagementSystem system = new FlightManagementSystem(); 
+    private static final String AUTO_ASSIGN = "(Auto Assign)";
     private BorderPane rootLayout; 
     private VBox centerContent;    
+    // Flight table currently on screen (refreshed when background cascades finish)
+    private TableView<Flight> liveFlightTable;
+    // Simulated movement feed (null when not running)
+    private FeedPipeline liveFeed;
+    // At most one redraw queued on the FX thread at a time
+    private final java.util.concurrent.atomic.AtomicBoolean redrawQueued = new java.util.concurrent.atomic.AtomicBoolean();
+    // Background saves (interval: -Dfms.checkpoint.seconds, default 60)
+    private Checkpointer checkpointer;
 
     // --- Start Method ---
     @Override
     public void start(Stage stage) {
-        // 1. Load data on startup
+        // 1. Load data on startup. Memory-budget mode (-Dfms.archive.cache.mb=N): flights closed more
+        //    than -Dfms.archive.after.hours (default 48) ago move to archive.db, read back through an N MB cache
+        Long archiveCacheMb = Long.getLong("fms.archive.cache.mb");
+        if (archiveCacheMb != null) {
+            try {
+                system.enableArchive(new FlightDatabase(java.nio.file.Path.of("archive.db"), system::getAircraft),
+                        archiveCacheMb << 20, java.time.Duration.ofHours(Long.getLong("fms.archive.after.hours", 48)));
+            } catch (java.io.IOException e) { System.out.println("Archive unavailable: " + e.getMessage()); }
+        }
         system.loadData();
+        if (system.getStorageError() != null) {
+            showAlert("Data Not Loaded", "A data file failed its checksum, so nothing was loaded and nothing will be saved:\n"
+                    + system.getStorageError() + "\n\nRestore the file from a backup and restart.");
+        }
+
+
+        // 2. Cascades are coalesced in the background and applied on the FX thread; redraw the
+        //    flight table when they land
+        system.setUpdateExecutor(javafx.application.Platform::runLater);
+        system.enableAsyncCascades();
+        // Saves in the background (archiving goes through the FX thread too)
+        checkpointer = new Checkpointer(system, java.nio.file.Path.of(""));
+        checkpointer.start(Long.getLong("fms.checkpoint.seconds", Checkpointer.DEFAULT_INTERVAL_SECONDS));
+        system.addChangeListener(new FlightChangeListener() {
+            @Override
+            public void flightsChanged(java.util.Collection<Flight> changed) {
+                if (!redrawQueued.compareAndSet(false, true)) return;
+                javafx.application.Platform.runLater(() -> {
+                    redrawQueued.set(false);
+                    if (liveFlightTable != null) liveFlightTable.refresh();
+                });
+            }
+        });
         
         rootLayout = new BorderPane(); 
         VBox sideMenu = createSideMenu(); 
@@ -65,12 +107,21 @@ public class App extends Application {
         stage.setTitle("Flight Management System (Pro Version)"); 
         stage.setScene(scene);
         stage.show(); 
+
+        // Conflicts already in the loaded data are shown once, with the same repair offer
+        ScheduleAudit.Report loaded = system.getLoadAudit();
+        if (loaded != null && !loaded.getConflicts().isEmpty()) showAuditDialog(loaded);
     }
 
     // --- Stop Method (Cleanup) ---
     @Override
     public void stop() throws Exception {
+        if (liveFeed != null) liveFeed.stop();
+        if (checkpointer != null) checkpointer.stop();
+        // Land queued cascades here (the FX thread is the update thread) so the final save has them
+        if (system.getCascadeWorker() != null) system.getCascadeWorker().shutdown();
         system.saveData(); // Auto-save on exit
+        if (system.getArchive() != null) system.getArchive().close();
         super.stop();
     }
 
@@ -151,6 +202,42 @@ public class App extends Application {
             ObservableList<T> masterData,
             Map<String, java.util.function.Predicate<T>> activeFilters,
             java.util.function.Function<T, String> valueExtractor) {
+        setupColumnFilter(column, name, filteredData, masterData, activeFilters, valueExtractor,
+                selected -> item -> selected.contains(valueExtractor.apply(item)));
+    }
+
+    // Symbol-backed columns (airports, registrations, brands, models) filter on ids, not strings
+    private <T> void setupColumnFilter(
+            TableColumn<T, ?> column,
+            String name,
+            FilteredList<T> filteredData,
+            ObservableList<T> masterData,
+            Map<String, java.util.function.Predicate<T>> activeFilters,
+            java.util.function.Function<T, String> valueExtractor,
+            SymbolTable symbols,
+            java.util.function.ToIntFunction<T> idExtractor) {
+        setupColumnFilter(column, name, filteredData, masterData, activeFilters, valueExtractor, selected -> {
+            java.util.BitSet selectedIds = new java.util.BitSet(symbols.size());
+            for (String val : selected) {
+                int id = symbols.find(val);
+                if (id >= 0) selectedIds.set(id);
+            }
+            return item -> {
+                int id = idExtractor.applyAsInt(item);
+                return id >= 0 && selectedIds.get(id);
+            };
+        });
+    }
+
+    // 'selection' turns the checked values into the row predicate (so a column can use an index)
+    private <T> void setupColumnFilter(
+            TableColumn<T, ?> column,
+            String name,
+            FilteredList<T> filteredData,
+            ObservableList<T> masterData,
+            Map<String, java.util.function.Predicate<T>> activeFilters,
+            java.util.function.Function<T, String> valueExtractor,
+            java.util.function.Function<java.util.Set<String>, java.util.function.Predicate<T>> selection) {
 
         // --- 1. Snapshot values ---
         java.util.Set<String> selectedItems = new java.util.HashSet<>();
@@ -337,12 +424,7 @@ public class App extends Application {
                     if (cb.isSelected()) selectedItems.add(cb.getText());
                 }
 
-                java.util.function.Predicate<T> predicate = item -> {
-                    String val = valueExtractor.apply(item);
-                    return selectedItems.contains(val);
-                };
-
-                activeFilters.put(name, predicate);
+                activeFilters.put(name, selection.apply(selectedItems));
 
                 filteredData.setPredicate(item -> {
                     for (java.util.function.Predicate<T> p : activeFilters.values()) {
@@ -417,9 +499,8 @@ public class App extends Application {
         // --- Stats ---
         int totalFlights = system.getAllFlights().size();
         int totalAircraft = system.getAllAircrafts().size();
-        long activeFlights = system.getAllFlights().stream()
-                .filter(f -> "Departed".equals(f.getStatus()) || "In Flight".equals(f.getStatus()))
-                .count();
+        FlightColumns columns = system.getColumns();
+        long activeFlights = columns.count(columns.query().status("Departed", "In Flight"));
 
         HBox statsBox = new HBox(50);
         statsBox.setAlignment(Pos.CENTER);
@@ -427,6 +508,15 @@ public class App extends Application {
                 createStatCard("Total Aircraft", String.valueOf(totalAircraft)),
                 createStatCard("Scheduled Flights", String.valueOf(totalFlights)),
                 createStatCard("Departed", String.valueOf(activeFlights)));
+        // Memory-budget mode: older flights live in the archive behind a cache
+        Label archiveInfo = null;
+        CachedFlightRepository archive = system.getArchive();
+        if (archive != null) {
+            statsBox.getChildren().add(createStatCard("Archived", String.valueOf(system.getArchivedCount())));
+            archiveInfo = new Label(String.format("Archive cache: %.1f of %.1f MB, %.0f%% of lookups served from memory",
+                    archive.getCachedWeight() / 1048576.0, archive.getMaxWeight() / 1048576.0, archive.getHitRate() * 100));
+            archiveInfo.setStyle("-fx-text-fill: #7f8c8d;");
+        }
 
         // --- Table Header ---
         HBox tableHeaderBox = new HBox();
@@ -444,7 +534,13 @@ public class App extends Application {
         btnSort.getStyleClass().addAll("btn", "btn-secondary");
         btnSort.setStyle("-fx-font-size: 12px; -fx-padding: 5 10;");
 
-        tableHeaderBox.getChildren().addAll(listHeader, spacer, btnSort);
+        // Board scope (Today / Next 6 Hours read only the matching time partitions)
+        ComboBox<String> scopeBox = new ComboBox<>(FXCollections.observableArrayList("All Flights", "Today", "Next 6 Hours"));
+        scopeBox.setValue("All Flights");
+        scopeBox.setStyle("-fx-font-size: 12px;");
+
+        tableHeaderBox.setSpacing(10);
+        tableHeaderBox.getChildren().addAll(listHeader, spacer, scopeBox, btnSort);
 
         // --- Table Construction ---
         TableView<Flight> statusTable = new TableView<>();
@@ -514,6 +610,15 @@ public class App extends Application {
 
         statusTable.getColumns().addAll(colNo, colDate, colOrigin, colDest, colDepTime, colArrTime, colStatus); 
         statusTable.setItems(FXCollections.observableArrayList(system.getAllFlights())); 
+        scopeBox.setOnAction(e -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Flight> board;
+            if ("Today".equals(scopeBox.getValue())) board = system.getTimeIndex().departingOn(now.toLocalDate());
+            else if ("Next 6 Hours".equals(scopeBox.getValue())) board = system.getTimeIndex().departingBetween(now, now.plusHours(6));
+            else board = system.getAllFlights();
+            statusTable.getItems().setAll(board);
+            statusTable.sort();
+        });
 
         // Initial Sort
         colDate.setSortType(TableColumn.SortType.ASCENDING);
@@ -543,7 +648,9 @@ public class App extends Application {
         });
 
         applyTableClip(statusTable); 
-        centerContent.getChildren().addAll(header, statsBox, tableHeaderBox, statusTable); 
+        centerContent.getChildren().addAll(header, statsBox);
+        if (archiveInfo != null) centerContent.getChildren().add(archiveInfo);
+        centerContent.getChildren().addAll(tableHeaderBox, statusTable); 
     }
     
     // ================== 2. Aircraft Management View ==================
@@ -570,15 +677,18 @@ public class App extends Application {
         // --- Column Definitions ---
         TableColumn<Aircraft, String> colReg = new TableColumn<>("Reg No.");
         colReg.setCellValueFactory(new PropertyValueFactory<>("registrationNumber"));
-        setupColumnFilter(colReg, "Reg No.", filteredData, masterData, activeFilters, Aircraft::getRegistrationNumber);
+        setupColumnFilter(colReg, "Reg No.", filteredData, masterData, activeFilters, Aircraft::getRegistrationNumber,
+                SymbolTable.REGISTRATIONS, Aircraft::getRegistrationId);
 
         TableColumn<Aircraft, String> colBrand = new TableColumn<>("Brand");
         colBrand.setCellValueFactory(new PropertyValueFactory<>("brand"));
-        setupColumnFilter(colBrand, "Brand", filteredData, masterData, activeFilters, Aircraft::getBrand);
+        setupColumnFilter(colBrand, "Brand", filteredData, masterData, activeFilters, Aircraft::getBrand,
+                SymbolTable.BRANDS, Aircraft::getBrandId);
 
         TableColumn<Aircraft, String> colModel = new TableColumn<>("Model");
         colModel.setCellValueFactory(new PropertyValueFactory<>("model"));
-        setupColumnFilter(colModel, "Model", filteredData, masterData, activeFilters, Aircraft::getModel);
+        setupColumnFilter(colModel, "Model", filteredData, masterData, activeFilters, Aircraft::getModel,
+                SymbolTable.MODELS, Aircraft::getModelId);
 
         TableColumn<Aircraft, Integer> colCap = new TableColumn<>("Capacity");
         colCap.setCellValueFactory(new PropertyValueFactory<>("capacity"));
@@ -706,11 +816,36 @@ public class App extends Application {
             } else { showAlert("Warning", "Select an aircraft to delete."); }
         });
 
-        actions.getChildren().addAll(btnAdd, btnDelete);
+        Button btnUtilization = new Button("Utilization");
+        btnUtilization.getStyleClass().addAll("btn", "btn-secondary");
+        btnUtilization.setOnAction(e -> showUtilizationReport());
+
+        actions.getChildren().addAll(btnUtilization, btnAdd, btnDelete);
         applyTableClip(table);
         centerContent.getChildren().addAll(header, table, actions);
     }
 
+    // Tight turnarounds tomorrow and the hardest-worked tails today (live figures)
+    private void showUtilizationReport() {
+        UtilizationIndex util = system.getUtilization();
+        LocalDate today = LocalDate.now();
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("--- Under 30 min Slack Tomorrow ---\n");
+        List<UtilizationIndex.TailDay> tight = util.tightest(today.plusDays(1), 30);
+        if (tight.isEmpty()) sb.append("None\n");
+        for (UtilizationIndex.TailDay t : tight) {
+            sb.append(String.format("%s: tightest turn %d min, %d sectors%n", t.getRegistration(), t.getMinSlackMinutes(), t.getSectors()));
+        }
+
+        sb.append("\n--- Busiest Tails Today ---\n");
+        List<UtilizationIndex.TailDay> busy = util.busiest(today, 10);
+        if (busy.isEmpty()) sb.append("None\n");
+        for (UtilizationIndex.TailDay t : busy) sb.append(t).append("\n");
+
+        showAlert("Fleet Utilization", sb.toString());
+    }
+
     // ================== 3. Flight Management View ==================
     private void showFlightView() {
         centerContent.getChildren().clear();
@@ -726,6 +861,7 @@ public class App extends Application {
         // Bind Comparator for Sorting
         SortedList<Flight> sortedData = new SortedList<>(filteredData);
         TableView<Flight> table = new TableView<>();
+        liveFlightTable = table;
         sortedData.comparatorProperty().bind(table.comparatorProperty());
         table.setItems(sortedData);
         
@@ -759,17 +895,24 @@ public class App extends Application {
         // 4. Date
         TableColumn<Flight, String> colDate = new TableColumn<>();
         colDate.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getDepartureTime().toLocalDate().toString()));
-        setupColumnFilter(colDate, "Date", filteredData, masterData, activeFilters, f -> f.getDepartureTime().toLocalDate().toString());
+        // Selected days are read from the time index partitions instead of formatting every row
+        setupColumnFilter(colDate, "Date", filteredData, masterData, activeFilters, f -> f.getDepartureTime().toLocalDate().toString(), selected -> {
+            java.util.Set<Flight> onDays = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+            for (String day : selected) onDays.addAll(system.getTimeIndex().departingOn(LocalDate.parse(day)));
+            return onDays::contains;
+        });
 
         // 5. Aircraft
         TableColumn<Flight, String> colAircraft = new TableColumn<>();
         colAircraft.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getAircraft().getRegistrationNumber()));
-        setupColumnFilter(colAircraft, "Aircraft", filteredData, masterData, activeFilters, f -> f.getAircraft().getRegistrationNumber());
+        setupColumnFilter(colAircraft, "Aircraft", filteredData, masterData, activeFilters, f -> f.getAircraft().getRegistrationNumber(),
+                SymbolTable.REGISTRATIONS, f -> f.getAircraft().getRegistrationId());
 
         // 6. Destination
         TableColumn<Flight, String> colDest = new TableColumn<>();
         colDest.setCellValueFactory(new PropertyValueFactory<>("destination"));
-        setupColumnFilter(colDest, "Destination", filteredData, masterData, activeFilters, Flight::getDestination);
+        setupColumnFilter(colDest, "Destination", filteredData, masterData, activeFilters, Flight::getDestination,
+                SymbolTable.AIRPORTS, Flight::getDestinationId);
 
         // 7. Dep Time
         TableColumn<Flight, String> colDepTime = new TableColumn<>("Dep Time (UTC+8)");
@@ -811,7 +954,8 @@ public class App extends Application {
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
                 if (item != null && !empty) {
-                    setText(item);
+                    Flight row = getTableRow() == null ? null : getTableRow().getItem();
+                    setText(row != null && row.isPendingPropagation() ? item + " (updating)" : item);
                     if (item.equalsIgnoreCase("Delayed") || item.equalsIgnoreCase("Cancelled")) setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold;"); 
                     else if (item.equalsIgnoreCase("Departed") || item.equalsIgnoreCase("Arrived")) setStyle("-fx-text-fill: #2ecc71; -fx-font-weight: bold;"); 
                     else setStyle("-fx-text-fill: #2c3e50;");
@@ -847,10 +991,42 @@ public class App extends Application {
         btnAdd.getStyleClass().addAll("btn", "btn-primary");
         Button btnStatus = new Button("Update Status");
         btnStatus.getStyleClass().addAll("btn", "btn-secondary");
+        Button btnRecurring = new Button("Add Recurring");
+        btnRecurring.getStyleClass().addAll("btn", "btn-secondary");
+        Button btnGroundStop = new Button("Ground Stop");
+        btnGroundStop.getStyleClass().addAll("btn", "btn-secondary");
+        Button btnFeed = new Button(liveFeed != null && liveFeed.isRunning() ? "Stop Live Feed" : "Start Live Feed");
+        btnFeed.getStyleClass().addAll("btn", "btn-secondary");
+        Button btnImport = new Button("Import Schedule");
+        btnImport.getStyleClass().addAll("btn", "btn-secondary");
+        Button btnConnect = new Button("Add Connection");
+        btnConnect.getStyleClass().addAll("btn", "btn-secondary");
+        Button btnAudit = new Button("Audit Schedule");
+        btnAudit.getStyleClass().addAll("btn", "btn-secondary");
+        Button btnAlerts = new Button("Alerts (" + system.getAlerts().size() + ")");
+        btnAlerts.getStyleClass().addAll("btn", "btn-secondary");
         Button btnCancel = new Button("Delete Flight");
         btnCancel.getStyleClass().addAll("btn", "btn-danger");
 
+        btnAudit.setOnAction(e -> showAuditDialog(system.auditSchedule(false)));
+        btnAlerts.setOnAction(e -> showAlertsDialog());
         btnAdd.setOnAction(e -> { showAddFlightDialog(); showFlightView(); });
+        btnConnect.setOnAction(e -> { showAddConnectionDialog(); showFlightView(); });
+        btnRecurring.setOnAction(e -> { showAddPatternDialog(); showFlightView(); });
+        btnImport.setOnAction(e -> showImportDialog());
+        btnGroundStop.setOnAction(e -> showGroundStopDialog());
+        btnFeed.setOnAction(e -> {
+            if (liveFeed != null && liveFeed.isRunning()) {
+                liveFeed.stop();
+                showAlert("Live Feed", "Feed stopped.\n" + liveFeed.getMetrics());
+                btnFeed.setText("Start Live Feed");
+            } else {
+                // The generator stands in for the airport movement feed
+                liveFeed = new FeedPipeline(system);
+                liveFeed.start(liveFeed.generator(2000, false));
+                btnFeed.setText("Stop Live Feed");
+            }
+        });
         btnStatus.setOnAction(e -> {
             Flight selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
@@ -864,18 +1040,64 @@ public class App extends Application {
             Flight selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
                 Alert confirm = new Alert(Alert.AlertType.CONFIRMATION, 
-                    "Delete flight " + selected.getFlightNumber() + "?", ButtonType.YES, ButtonType.NO);
+                    "Delete flight " + selected.getKey() + "?", ButtonType.YES, ButtonType.NO);
                 confirm.showAndWait().ifPresent(res -> {
-                    if (res == ButtonType.YES) { system.deleteFlight(selected.getFlightNumber()); showFlightView(); }
+                    if (res != ButtonType.YES) return;
+                    try {
+                        system.deleteFlight(selected.getKey());
+                    } catch (IllegalStateException ex) {
+                        showAlert("Action Blocked", ex.getMessage()); return;
+                    }
+                    showFlightView();
                 });
             } else showAlert("Warning", "Select a flight to delete.");
         });
 
-        actions.getChildren().addAll(btnAdd, btnStatus, btnCancel);
+        actions.getChildren().addAll(btnAdd, btnRecurring, btnImport, btnStatus, btnGroundStop, btnFeed, btnConnect, btnAudit, btnAlerts, btnCancel);
         applyTableClip(table);
         centerContent.getChildren().addAll(header, table, actions);
     }
     
+    // Overlap / turnaround audit of every tail, with the option to push overlapping legs back
+    private void showAuditDialog(ScheduleAudit.Report report) {
+        StringBuilder sb = new StringBuilder(report.toString()).append("\n\n");
+        List<ScheduleAudit.Conflict> conflicts = report.getConflicts();
+        if (conflicts.isEmpty()) sb.append("No conflicts found.");
+        for (int i = 0; i < Math.min(20, conflicts.size()); i++) sb.append(conflicts.get(i)).append("\n");
+        if (conflicts.size() > 20) sb.append("... and ").append(conflicts.size() - 20).append(" more");
+
+        long overlaps = report.count(ScheduleAudit.OVERLAP);
+        if (overlaps == 0) {
+            showAlert("Schedule Audit", sb.toString());
+            return;
+        }
+        sb.append("\n\nRepair ").append(overlaps).append(" overlaps by pushing later legs back?");
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION, sb.toString(), ButtonType.YES, ButtonType.NO);
+        confirm.setTitle("Schedule Audit");
+        confirm.showAndWait().ifPresent(res -> {
+            if (res == ButtonType.YES) {
+                showAlert("Schedule Audit", "Repaired: " + system.auditSchedule(true));
+                showFlightView();
+            }
+        });
+    }
+
+    // Open rule violations (kept live by the alert engine, no scan here)
+    private void showAlertsDialog() {
+        AlertEngine engine = system.getAlerts();
+        StringBuilder sb = new StringBuilder();
+        engine.countByRule().forEach((rule, n) -> sb.append(rule).append(": ").append(n).append("\n"));
+        sb.append("\n");
+        List<AlertEngine.Alert> open = engine.getAlerts();
+        if (open.isEmpty()) sb.append("No open alerts.");
+        for (int i = 0; i < Math.min(30, open.size()); i++) sb.append(open.get(i)).append("\n");
+        if (open.size() > 30) sb.append("... and ").append(open.size() - 30).append(" more");
+        List<String> cycles = system.getConnections().getCycles();
+        if (!cycles.isEmpty()) sb.append("\n\nConnection cycles (delays not propagated around them):\n");
+        for (String c : cycles) sb.append(c).append("\n");
+        showAlert("Operational Alerts", sb.toString());
+    }
+
     // ================== 4. Reports & Analytics View ==================
     private void showReportsView() {
         centerContent.getChildren().clear();
@@ -912,7 +1134,19 @@ public class App extends Application {
             parentContainer.getChildren().add(createHistoryTable(parentContainer));
         });
 
-        HBox rightNavRow = new HBox(btnToHistory);
+        Button btnSimulate = new Button("Delay Simulation");
+        btnSimulate.getStyleClass().addAll("btn", "btn-secondary");
+        btnSimulate.setOnAction(e -> showSimulationDialog());
+
+        Button btnRoutes = new Button("Route Performance");
+        btnRoutes.getStyleClass().addAll("btn", "btn-secondary");
+        btnRoutes.setOnAction(e -> showRouteReport());
+
+        Button btnPercentiles = new Button("Delay Percentiles");
+        btnPercentiles.getStyleClass().addAll("btn", "btn-secondary");
+        btnPercentiles.setOnAction(e -> showDelayPercentiles());
+
+        HBox rightNavRow = new HBox(8, btnPercentiles, btnRoutes, btnSimulate, btnToHistory);
         rightNavRow.setAlignment(Pos.CENTER_RIGHT); 
         rightNavRow.setPadding(new Insets(0, 0, 2, 0)); 
 
@@ -937,24 +1171,19 @@ public class App extends Application {
         
         statsTable.getColumns().addAll(colCategory, colCount);
         
-        // Populate Data
-        int scheduled = 0, active = 0, completed = 0, delayed = 0, cancelled = 0;
-        for (Flight f : system.getAllFlights()) {
-            String s = f.getStatus();
-            if ("Scheduled".equalsIgnoreCase(s) || "Boarding".equalsIgnoreCase(s)) scheduled++;
-            else if ("Departed".equalsIgnoreCase(s) || "In Flight".equalsIgnoreCase(s)) active++;
-            else if ("Arrived".equalsIgnoreCase(s)) completed++;
-            else if ("Delayed".equalsIgnoreCase(s)) delayed++;
-            else if ("Cancelled".equalsIgnoreCase(s)) cancelled++;
-        }
+        // Populate Data (one pass over the status column)
+        FlightColumns columns = system.getColumns();
+        long[] byStatus = columns.groupBy(columns.query(), FlightColumns.BY_STATUS, FlightColumns.COUNT);
+        int total = 0;
+        for (long c : byStatus) total += (int) c;
         
         statsTable.setItems(FXCollections.observableArrayList(
-            new StatRow("Scheduled / Boarding", scheduled),
-            new StatRow("Departed", active),
-            new StatRow("Completed (Arrived)", completed),
-            new StatRow("Delayed", delayed),
-            new StatRow("Cancelled", cancelled),
-            new StatRow("TOTAL FLIGHTS", system.getAllFlights().size())
+            new StatRow("Scheduled / Boarding", (int) (byStatus[FlightColumns.statusId("Scheduled")] + byStatus[FlightColumns.statusId("Boarding")])),
+            new StatRow("Departed", (int) (byStatus[FlightColumns.statusId("Departed")] + byStatus[FlightColumns.statusId("In Flight")])),
+            new StatRow("Completed (Arrived)", (int) byStatus[FlightColumns.statusId("Arrived")]),
+            new StatRow("Delayed", (int) byStatus[FlightColumns.statusId("Delayed")]),
+            new StatRow("Cancelled", (int) byStatus[FlightColumns.statusId("Cancelled")]),
+            new StatRow("TOTAL FLIGHTS", total)
         ));
 
         // Bind Height
@@ -1044,6 +1273,70 @@ public class App extends Application {
     }
 
     // Create History Table
+    // Delays and status changes as recorded by the flight history (reasons already on file when
+    // the history was first kept have no recorded time). A flight with nothing recorded but its
+    // on-file state gets the estimated timeline instead.
+    private String delayTimeline(Flight f) {
+        List<FlightHistory.Version> versions = system.getHistory().getChanges(f.getKey());
+        if (versions.isEmpty() || (versions.size() == 1 && versions.get(0).isOnFile())) return estimatedTimeline(f);
+
+        java.time.format.DateTimeFormatter fmt = java.time.format.DateTimeFormatter.ofPattern("dd MMM HH:mm");
+        List<String> lines = new ArrayList<>();
+        List<String> seen = new ArrayList<>();
+        String status = null;
+        for (FlightHistory.Version v : versions) {
+            FlightHistory.Snapshot s = v.getState();
+            if (s == null) continue;
+            String when = v.isOnFile() ? "on file" : v.getRecordedAt().format(fmt);
+            for (String r : s.getDelayReasons()) {
+                if (seen.contains(r)) continue;
+                lines.add("[" + when + "] " + r + "\n    departs " + s.getDepartureTime().format(fmt)
+                        + " (" + s.getDelayMinutes() + " min late)");
+            }
+            if (status != null && !status.equals(s.getStatus())) lines.add("[" + when + "] " + s.getStatus());
+            seen = s.getDelayReasons();
+            status = s.getStatus();
+        }
+        return String.join("\n⬇\n", lines);
+    }
+
+    // One hour per delay reason, ending at the arrival
+    private String estimatedTimeline(Flight f) {
+        List<String> reasons = f.getDelayReasons();
+        LocalDateTime baseTime = f.getArrivalTime().minusHours(reasons.size());
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < reasons.size(); i++) {
+            LocalTime start = baseTime.plusHours(i).toLocalTime();
+            LocalTime end = baseTime.plusHours(i + 1).toLocalTime();
+            sb.append("[").append(start).append("-").append(end).append("] ").append(reasons.get(i));
+            if (i < reasons.size() - 1) sb.append("\n⬇\n");
+        }
+        return sb.toString();
+    }
+
+    // Every flight's recorded state at a chosen time
+    private void showBoardAsOf() {
+        java.time.format.DateTimeFormatter fmt = java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        TextInputDialog dialog = new TextInputDialog(LocalDateTime.now().minusHours(1).format(fmt));
+        dialog.setTitle("Board As Of");
+        dialog.setHeaderText("Show the board as it was at (yyyy-MM-dd HH:mm)");
+        dialog.showAndWait().ifPresent(text -> {
+            LocalDateTime at;
+            try {
+                at = LocalDateTime.parse(text.trim(), fmt);
+            } catch (Exception ex) {
+                showAlert("Invalid Time", "Use the format yyyy-MM-dd HH:mm.");
+                return;
+            }
+            List<FlightHistory.Snapshot> board = system.getHistory().getBoard(at);
+            board.sort(java.util.Comparator.comparing(FlightHistory.Snapshot::getDepartureTime));
+            StringBuilder sb = new StringBuilder(board.size() + " flights on the board at " + at.format(fmt) + "\n\n");
+            for (int i = 0; i < Math.min(30, board.size()); i++) sb.append(board.get(i)).append("\n");
+            if (board.size() > 30) sb.append("... and ").append(board.size() - 30).append(" more");
+            showAlert("Board As Of", sb.toString());
+        });
+    }
+
     private Node createHistoryTable(StackPane parentContainer) {
         VBox mainBox = new VBox(2);
         mainBox.setPadding(new Insets(0)); 
@@ -1059,7 +1352,15 @@ public class App extends Application {
             parentContainer.getChildren().clear();
             parentContainer.getChildren().add(createAnalysisTables(parentContainer));
         });
-        navRow.getChildren().add(btnBack);
+        // Range (Last 30 Days reads only the arrival partitions it covers)
+        ComboBox<String> rangeBox = new ComboBox<>(FXCollections.observableArrayList("All", "Last 7 Days", "Last 30 Days"));
+        rangeBox.setValue("All");
+        rangeBox.setStyle("-fx-font-size: 12px;");
+        Button btnAsOf = new Button("Board As Of...");
+        btnAsOf.getStyleClass().addAll("btn", "btn-secondary");
+        btnAsOf.setOnAction(e -> showBoardAsOf());
+        navRow.setSpacing(10);
+        navRow.getChildren().addAll(rangeBox, btnAsOf, btnBack);
 
         // Title
         Label lblTitle = new Label("Flight History (Arrived)");
@@ -1076,6 +1377,24 @@ public class App extends Application {
             if ("Arrived".equalsIgnoreCase(f.getStatus())) arrivedFlights.add(f);
         }
         historyTable.setItems(arrivedFlights);
+        rangeBox.setOnAction(e -> {
+            arrivedFlights.clear();
+            if ("All".equals(rangeBox.getValue())) {
+                for (Flight f : system.getAllFlights()) {
+                    if ("Arrived".equalsIgnoreCase(f.getStatus())) arrivedFlights.add(f);
+                }
+                return;
+            }
+            int days = "Last 7 Days".equals(rangeBox.getValue()) ? 7 : 30;
+            LocalDateTime now = LocalDateTime.now();
+            for (Flight f : system.getTimeIndex().arrivingBetween(now.minusDays(days), now)) {
+                if ("Arrived".equalsIgnoreCase(f.getStatus())) arrivedFlights.add(f);
+            }
+            // Memory-budget mode: most of the range is in the archive (a leg departs at most a day before it arrives)
+            for (Flight f : system.getArchivedFlights(now.minusDays(days + 1), now)) {
+                if ("Arrived".equalsIgnoreCase(f.getStatus()) && f.getArrivalTime().isAfter(now.minusDays(days))) arrivedFlights.add(f);
+            }
+        });
 
         // --- Column Definitions ---
         
@@ -1122,21 +1441,11 @@ public class App extends Application {
                 btn.setOnAction(e -> {
                     Flight f = getItem();
                     if (f != null) {
-                        List<String> reasons = f.getDelayReasons();
-                        LocalDateTime finalTime = f.getArrivalTime();
-                        int totalDelays = reasons.size();
-                        LocalDateTime baseTime = finalTime.minusHours(totalDelays);
-                        StringBuilder sb = new StringBuilder();
-                        for (int i = 0; i < totalDelays; i++) {
-                            LocalTime start = baseTime.plusHours(i).toLocalTime();
-                            LocalTime end = baseTime.plusHours(i + 1).toLocalTime();
-                            sb.append("[").append(start).append("-").append(end).append("] ").append(reasons.get(i));
-                            if (i < totalDelays - 1) sb.append("\n⬇\n");
-                        }
+                        String timeline = delayTimeline(f);
                         showAlert("Delay Details: " + f.getFlightNumber(), 
                                   "Flight: " + f.getFlightNumber() + " (" + f.getOrigin() + " -> " + f.getDestination() + ")\n" +
                                   "Date: " + f.getArrivalTime().toLocalDate() + "\n\n" +
-                                  "--- Timeline ---\n" + sb.toString());
+                                  "--- Timeline ---\n" + timeline);
                     }
                 });
             }
@@ -1178,6 +1487,96 @@ public class App extends Application {
         return mainBox;
     }
     
+    // How long delays run, per category (read from the delay sketches)
+    private void showDelayPercentiles() {
+        DelayStats stats = system.getDelayStats();
+        DelaySketch overall = stats.getOverall();
+        if (overall.getCount() == 0) {
+            showAlert("Delay Percentiles", "No delays recorded.");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("All delays: %s%n", overall));
+        sb.append(String.format("Last 30 days: %s%n%n", stats.getDays(today.minusDays(30), today)));
+        sb.append("--- By Category (p50 / p95 / p99) ---\n");
+        stats.getCategories().entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().getCount(), a.getValue().getCount()))
+                .forEach(e -> sb.append(String.format("%s: %s%n", e.getKey(), e.getValue())));
+        showAlert("Delay Percentiles", sb.toString());
+    }
+
+    // On-time performance per route, all time and last 30 days (read from the route rollups)
+    private void showRouteReport() {
+        RouteIndex routes = system.getRoutes();
+        List<RouteIndex.RouteStats> report = routes.report();
+        if (report.isEmpty()) {
+            showAlert("Route Performance", "No flights recorded.");
+            return;
+        }
+        report.sort(java.util.Comparator.comparingInt(RouteIndex.RouteStats::getFlights).reversed());
+
+        LocalDate today = LocalDate.now();
+        StringBuilder sb = new StringBuilder();
+        for (RouteIndex.RouteStats s : report) {
+            sb.append(String.format("%s -> %s%n", s.getOrigin(), s.getDestination()));
+            sb.append(String.format("  All time: %d flights, %.1f%% cancelled, avg delay %.0f min, p90 %d min, load %.0f%%%n",
+                    s.getFlights(), s.getCancellationRate(), s.getAverageDelay(), s.getDelayPercentile(90), s.getLoadFactor()));
+            RouteIndex.RouteStats recent = routes.getStats(s.getOrigin(), s.getDestination(), today.minusDays(30), today);
+            if (recent != null) {
+                sb.append(String.format("  Last 30 days: %d flights, %.1f%% cancelled, avg delay %.0f min, p90 %d min%n",
+                        recent.getFlights(), recent.getCancellationRate(), recent.getAverageDelay(), recent.getDelayPercentile(90)));
+            }
+        }
+        showAlert("Route Performance", sb.toString());
+    }
+
+    // Monte Carlo: how likely is a day's schedule to hold?
+    private void showSimulationDialog() {
+        List<String> days = system.getTimeIndex().departureDays().stream()
+                .map(LocalDate::toString)
+                .collect(java.util.stream.Collectors.toList());
+        if (days.isEmpty()) {
+            showAlert("Delay Simulation", "No flights to simulate.");
+            return;
+        }
+
+        String defaultDay = days.contains(LocalDate.now().toString()) ? LocalDate.now().toString() : days.get(days.size() - 1);
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(defaultDay, days);
+        dialog.setTitle("Delay Simulation");
+        dialog.setHeaderText("Simulate 10,000 disrupted replays of a day");
+        dialog.setContentText("Select Date:");
+
+        dialog.showAndWait().ifPresent(day -> {
+            List<Flight> snapshot = system.getAllFlights();
+
+            // Run off the FX thread; replays are parallel inside the simulator
+            javafx.concurrent.Task<DelaySimulator.Result> task = new javafx.concurrent.Task<>() {
+                @Override
+                protected DelaySimulator.Result call() {
+                    return DelaySimulator.fromHistory(snapshot).run(snapshot, LocalDate.parse(day), 10_000, System.nanoTime());
+                }
+            };
+            task.setOnSucceeded(evt -> {
+                DelaySimulator.Result r = task.getValue();
+                StringBuilder sb = new StringBuilder();
+                sb.append(String.format("Flights simulated: %d (x%,d replays)%n", r.getFlights(), r.getReplays()));
+                sb.append(String.format("Expected delay: %.0f min per day%n", r.getExpectedDelayMinutes()));
+                sb.append(String.format("On-time (<= %d min): %.1f%%%n%n", DelaySimulator.ON_TIME_THRESHOLD, r.getOnTimePercentage()));
+                sb.append("--- Most Fragile Flights ---\n");
+                for (DelaySimulator.FragileFlight f : r.getMostFragile(5)) {
+                    sb.append(String.format("%s  late %.1f%%  avg +%.0f min%n", f.getFlightNumber(), f.getLateProbability(), f.getAverageDelay()));
+                }
+                showAlert("Simulation: " + day, sb.toString());
+            });
+            task.setOnFailed(evt -> showAlert("Simulation Failed", String.valueOf(task.getException().getMessage())));
+
+            Thread worker = new Thread(task, "delay-simulation");
+            worker.setDaemon(true);
+            worker.start();
+        });
+    }
+
     // ================== 5. Dialogs (Add/Update/Input) ==================
 
     // Add Aircraft Dialog
@@ -1252,8 +1651,7 @@ public class App extends Application {
                     regField.getText().trim(), 
                     brandField.getText().trim(), 
                     modelField.getText().trim(), 
-                    Integer.parseInt(capField.getText().trim()), 
-                    "Available"
+                    Integer.parseInt(capField.getText().trim())
                 ); 
             }
             return null;
@@ -1316,6 +1714,7 @@ public class App extends Application {
             else cargoWeightField.clear();         
         });
 
+        aircraftBox.getItems().add(AUTO_ASSIGN);
         system.getAllAircrafts().stream()
         .forEach(a -> aircraftBox.getItems().add(a.getRegistrationNumber()));
 
@@ -1337,18 +1736,17 @@ public class App extends Application {
             // --- 1. Basic Validation ---
             String fNumInput = flightNoField.getText().trim();
             String destInput = destField.getText().trim();
+            FlightValidator validator = new FlightValidator(system);
 
-            if (system.getFlight(fNumInput) != null) {
-                showAlert("Duplicate Error", "Flight number " + fNumInput + " already exists!\nPlease use a unique number.");
+            String problem = validator.checkDuplicate(fNumInput);
+            if (problem != null) {
+                showAlert("Duplicate Error", problem);
                 event.consume(); return;
             }
 
-            if (destInput.isEmpty()) {
-                showAlert("Validation Error", "Destination cannot be empty.");
-                event.consume(); return;
-            }
-            if (!destInput.matches("^[A-Z ]+$")) {
-                showAlert("Format Error", "Destination must be UPPERCASE letters only (e.g. LONDON).\nNo lowercase or numbers allowed.");
+            problem = validator.checkDestination(destInput);
+            if (problem != null) {
+                showAlert(destInput.isEmpty() ? "Validation Error" : "Format Error", problem);
                 event.consume(); return;
             }
 
@@ -1360,8 +1758,9 @@ public class App extends Application {
                 showAlert("Error", "Please select a date.");
                 event.consume(); return;
             }
-            if (!fNumInput.matches("^[A-Z]{2,3}-\\d{3,4}$")) { 
-                showAlert("Validation", "Invalid Flight No. Format (e.g. MH-101).");
+            problem = validator.checkFlightNumber(fNumInput);
+            if (problem != null) { 
+                showAlert("Validation", problem);
                 event.consume(); return;
             }
 
@@ -1372,12 +1771,9 @@ public class App extends Application {
                 int m = Integer.parseInt(minBox.getValue());
                 LocalDateTime selectedDateTime = LocalDateTime.of(selectedDate, LocalTime.of(h, m));
                 
-                if (selectedDateTime.isBefore(LocalDateTime.now())) {
-                    showAlert("Invalid Time", 
-                        "Cannot schedule a flight in the past!\n" +
-                        "Current Time: " + LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm")) + "\n" +
-                        "Selected Time: " + selectedDateTime.format(java.time.format.DateTimeFormatter.ofPattern("HH:mm")) + "\n\n" +
-                        "Please select a future time.");
+                problem = validator.checkDepartureTime(selectedDateTime, LocalDateTime.now());
+                if (problem != null) {
+                    showAlert("Invalid Time", problem);
                     event.consume(); return;
                 }
                 
@@ -1399,11 +1795,10 @@ public class App extends Application {
                     int pax = Integer.parseInt(paxText);
                     
                     String reg = aircraftBox.getValue();
-                    if (reg != null) {
-                        Aircraft plane = system.getAircraft(reg);
-                        if (pax > plane.getCapacity()) {
-                            showAlert("Over Capacity", 
-                                "Passenger count (" + pax + ") exceeds aircraft capacity (" + plane.getCapacity() + ")!");
+                    if (reg != null && !AUTO_ASSIGN.equals(reg)) {
+                        problem = validator.checkCapacity(system.getAircraft(reg), pax);
+                        if (problem != null) {
+                            showAlert("Over Capacity", problem);
                             event.consume(); return;
                         }
                     }
@@ -1420,12 +1815,19 @@ public class App extends Application {
                 LocalDateTime arr = dep.plusHours(2); 
 
                 String selectedReg = aircraftBox.getValue();
-                boolean available = system.isAircraftAvailable(selectedReg, dep, arr);
+                String conflict = AUTO_ASSIGN.equals(selectedReg) ? null : validator.checkAvailability(selectedReg, dep, arr);
                 
-                if (!available) {
-                    showAlert("Scheduling Conflict", 
-                        "Aircraft " + selectedReg + " is already booked for this time slot!\n" +
-                        "Please choose a different time or aircraft.");
+                if (conflict != null) {
+                    // Offer the nearest times this aircraft is free, and aircraft free at this time
+                    StringBuilder sb = new StringBuilder(conflict).append("\n\nNext free departures for ").append(selectedReg).append(":\n");
+                    for (LocalDateTime slot : system.findNextSlots(selectedReg, dep, 120, 0, 3)) {
+                        sb.append("  ").append(slot.toLocalDate()).append(" ").append(slot.toLocalTime()).append("\n");
+                    }
+                    List<String> free = system.findFreeAircraft(dep, 120, 0).stream()
+                            .map(Aircraft::getRegistrationNumber).sorted().limit(5)
+                            .collect(java.util.stream.Collectors.toList());
+                    if (!free.isEmpty()) sb.append("\nAircraft free at this time: ").append(String.join(", ", free));
+                    showAlert("Scheduling Conflict", sb.toString());
                     event.consume(); return;
                 }
             } catch (Exception e) {
@@ -1455,11 +1857,284 @@ public class App extends Application {
         });
 
         dialog.showAndWait().ifPresent(f -> {
+            if (f.getAircraft() == null) {
+                // Auto Assign: let the tail assigner pick the cheapest aircraft
+                TailAssigner assigner = new TailAssigner(system);
+                TailAssigner.Result result = assigner.assign(List.of(f), false);
+                if (!result.getUnassigned().isEmpty()) {
+                    showAlert("Auto Assign", "No eligible aircraft for " + f.getFlightNumber() + ".\nCheck the passenger count against fleet capacity.");
+                    return;
+                }
+                assigner.apply(result);
+                TailAssigner.Assignment a = result.getAssignments().get(0);
+                showAlert("Auto Assign", "Flight " + f.getFlightNumber() + " assigned to " + a.getAircraft().getRegistrationNumber()
+                        + (a.getDelayMinutes() > 0 ? "\nExpected delay: " + a.getDelayMinutes() + " min" : "\nNo delay expected."));
+                return;
+            }
             system.addFlight(f);
-            f.getAircraft().setStatus("Scheduled"); 
         });
     }
     
+    // Bulk schedule import: validate in the background, insert on the FX thread
+    private void showImportDialog() {
+        javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
+        chooser.setTitle("Import Schedule");
+        chooser.getExtensionFilters().add(new javafx.stage.FileChooser.ExtensionFilter("Schedule files", "*.txt", "*.csv"));
+        java.io.File file = chooser.showOpenDialog(rootLayout.getScene().getWindow());
+        if (file == null) return;
+
+        ScheduleImporter importer = new ScheduleImporter(system);
+        javafx.concurrent.Task<ScheduleImporter.ImportReport> task = new javafx.concurrent.Task<>() {
+            @Override
+            protected ScheduleImporter.ImportReport call() throws Exception {
+                return importer.prepare(file.toPath());
+            }
+        };
+        task.setOnSucceeded(evt -> {
+            ScheduleImporter.ImportReport report = task.getValue();
+            int imported = importer.apply(report);
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("Imported: ").append(imported).append(" flights\n");
+            sb.append("Rejected: ").append(report.getRejected().size()).append(" rows\n");
+            report.getRejected().stream().limit(20).forEach(r -> sb.append("\n").append(r));
+            if (report.getRejected().size() > 20) sb.append("\n...");
+
+            TextArea textArea = new TextArea(sb.toString());
+            textArea.setEditable(false);
+            textArea.setWrapText(true);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Import Schedule");
+            alert.setHeaderText("Import of " + file.getName() + " finished");
+            alert.getDialogPane().setContent(textArea);
+            alert.showAndWait();
+            showFlightView();
+        });
+        task.setOnFailed(evt -> showAlert("Import Failed", String.valueOf(task.getException().getMessage())));
+
+        Thread worker = new Thread(task, "schedule-import");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Recurring service: one pattern instead of a flight per day
+    private void showAddPatternDialog() {
+        Dialog<SchedulePattern> dialog = new Dialog<>();
+        dialog.setTitle("Add Recurring Flight");
+        dialog.setHeaderText("Create a weekly pattern");
+        ButtonType createBtnType = new ButtonType("Create", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(createBtnType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10); grid.setVgap(10); grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField flightNoField = new TextField();
+        flightNoField.setPromptText("e.g. MH-101");
+        TextField destField = new TextField();
+        destField.setPromptText("e.g. TOKYO");
+        ComboBox<String> aircraftBox = new ComboBox<>();
+        system.getAllAircrafts().forEach(a -> aircraftBox.getItems().add(a.getRegistrationNumber()));
+        TextField paxField = new TextField();
+        paxField.setPromptText("Passengers");
+
+        ComboBox<String> hourBox = new ComboBox<>();
+        for (int i = 0; i < 24; i++) hourBox.getItems().add(String.format("%02d", i));
+        hourBox.setValue("08");
+        ComboBox<String> minBox = new ComboBox<>();
+        minBox.getItems().addAll("00", "15", "30", "45");
+        minBox.setValue("00");
+
+        HBox daysBox = new HBox(5);
+        Map<DayOfWeek, CheckBox> dayChecks = new LinkedHashMap<>();
+        for (DayOfWeek d : DayOfWeek.values()) {
+            CheckBox cb = new CheckBox(d.name().substring(0, 3));
+            cb.setSelected(true);
+            dayChecks.put(d, cb);
+            daysBox.getChildren().add(cb);
+        }
+
+        DatePicker fromPicker = new DatePicker(LocalDate.now());
+        DatePicker toPicker = new DatePicker(LocalDate.now().plusMonths(3));
+
+        grid.add(new Label("Flight No:"), 0, 0); grid.add(flightNoField, 1, 0);
+        grid.add(new Label("Destination:"), 0, 1); grid.add(destField, 1, 1);
+        grid.add(new Label("Aircraft:"), 0, 2); grid.add(aircraftBox, 1, 2);
+        grid.add(new Label("Passengers:"), 0, 3); grid.add(paxField, 1, 3);
+        grid.add(new Label("Time:"), 0, 4); grid.add(new HBox(5, hourBox, new Label(":"), minBox), 1, 4);
+        grid.add(new Label("Days:"), 0, 5); grid.add(daysBox, 1, 5);
+        grid.add(new Label("Valid From:"), 0, 6); grid.add(fromPicker, 1, 6);
+        grid.add(new Label("Valid To:"), 0, 7); grid.add(toPicker, 1, 7);
+        dialog.getDialogPane().setContent(grid);
+
+        Button createBtn = (Button) dialog.getDialogPane().lookupButton(createBtnType);
+        createBtn.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            FlightValidator validator = new FlightValidator(system);
+            String fNum = flightNoField.getText().trim();
+            String problem = validator.checkFlightNumber(fNum);
+            if (problem == null) problem = validator.checkDuplicate(fNum);
+            if (problem == null) problem = validator.checkDestination(destField.getText().trim());
+            if (problem == null && aircraftBox.getValue() == null) problem = "Please select an aircraft.";
+            if (problem == null && dayChecks.values().stream().noneMatch(CheckBox::isSelected)) problem = "Select at least one day.";
+            if (problem == null && (fromPicker.getValue() == null || toPicker.getValue() == null
+                    || toPicker.getValue().isBefore(fromPicker.getValue()))) problem = "Please select a valid period.";
+            if (problem == null) {
+                try {
+                    problem = validator.checkCapacity(system.getAircraft(aircraftBox.getValue()), Integer.parseInt(paxField.getText().trim()));
+                } catch (NumberFormatException e) {
+                    problem = "Passengers must be a valid number.";
+                }
+            }
+            if (problem != null) {
+                showAlert("Validation Error", problem);
+                event.consume();
+            }
+        });
+
+        dialog.setResultConverter(btn -> {
+            if (btn != createBtnType) return null;
+            EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            dayChecks.forEach((d, cb) -> { if (cb.isSelected()) days.add(d); });
+            LocalTime time = LocalTime.of(Integer.parseInt(hourBox.getValue()), Integer.parseInt(minBox.getValue()));
+            return new SchedulePattern(flightNoField.getText().trim(), "BATU PAHAT", destField.getText().trim(), days, time, 120,
+                    system.getAircraft(aircraftBox.getValue()), Integer.parseInt(paxField.getText().trim()),
+                    fromPicker.getValue(), toPicker.getValue());
+        });
+
+        dialog.showAndWait().ifPresent(system::addPattern);
+    }
+
+    // Delay or cancel every departure from one airport within a time window, in one pass
+    private void showGroundStopDialog() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Ground Stop");
+        dialog.setHeaderText("Delay or cancel all departures in a window");
+        ButtonType applyBtnType = new ButtonType("Apply", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(applyBtnType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10); grid.setVgap(10); grid.setPadding(new Insets(20, 150, 10, 10));
+
+        List<String> airports = system.getAllFlights().stream()
+                .map(Flight::getOrigin).distinct().sorted()
+                .collect(java.util.stream.Collectors.toList());
+        ComboBox<String> airportBox = new ComboBox<>(FXCollections.observableArrayList(airports));
+        if (!airports.isEmpty()) airportBox.setValue(airports.get(0));
+
+        DatePicker datePicker = new DatePicker(LocalDate.now());
+        ComboBox<String> fromBox = new ComboBox<>();
+        ComboBox<String> toBox = new ComboBox<>();
+        for (int i = 0; i < 24; i++) {
+            fromBox.getItems().add(String.format("%02d:00", i));
+            toBox.getItems().add(String.format("%02d:00", i));
+        }
+        toBox.getItems().add("24:00");
+        fromBox.setValue(String.format("%02d:00", LocalTime.now().getHour()));
+        toBox.setValue(String.format("%02d:00", Math.min(24, LocalTime.now().getHour() + 3)));
+
+        ComboBox<String> actionBox = new ComboBox<>(FXCollections.observableArrayList("Delay", "Cancel"));
+        actionBox.setValue("Delay");
+        TextField minutesField = new TextField("60");
+        TextField reasonField = new TextField("Weather Conditions: Thunderstorm");
+        actionBox.setOnAction(e -> minutesField.setDisable("Cancel".equals(actionBox.getValue())));
+
+        grid.add(new Label("Airport:"), 0, 0); grid.add(airportBox, 1, 0);
+        grid.add(new Label("Date:"), 0, 1); grid.add(datePicker, 1, 1);
+        grid.add(new Label("Window:"), 0, 2); grid.add(new HBox(5, fromBox, new Label("to"), toBox), 1, 2);
+        grid.add(new Label("Action:"), 0, 3); grid.add(actionBox, 1, 3);
+        grid.add(new Label("Delay (min):"), 0, 4); grid.add(minutesField, 1, 4);
+        grid.add(new Label("Reason:"), 0, 5); grid.add(reasonField, 1, 5);
+        dialog.getDialogPane().setContent(grid);
+
+        Button applyBtn = (Button) dialog.getDialogPane().lookupButton(applyBtnType);
+        applyBtn.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            if (airportBox.getValue() == null || datePicker.getValue() == null) {
+                showAlert("Validation Error", "Please select an airport and date.");
+                event.consume(); return;
+            }
+            if (toBox.getSelectionModel().getSelectedIndex() <= fromBox.getSelectionModel().getSelectedIndex()) {
+                showAlert("Validation Error", "The window must end after it starts.");
+                event.consume(); return;
+            }
+            try {
+                if ("Delay".equals(actionBox.getValue()) && Long.parseLong(minutesField.getText().trim()) <= 0) {
+                    showAlert("Validation Error", "Delay must be a positive number of minutes.");
+                    event.consume();
+                }
+            } catch (NumberFormatException ex) {
+                showAlert("Validation Error", "Delay must be a valid number.");
+                event.consume();
+            }
+        });
+
+        dialog.showAndWait().ifPresent(btn -> {
+            if (btn != applyBtnType) return;
+            String airport = airportBox.getValue();
+            LocalDateTime from = datePicker.getValue().atStartOfDay().plusHours(fromBox.getSelectionModel().getSelectedIndex());
+            LocalDateTime to = datePicker.getValue().atStartOfDay().plusHours(toBox.getSelectionModel().getSelectedIndex());
+            java.util.function.Predicate<Flight> inStop = f -> airport.equals(f.getOrigin())
+                    && !f.getDepartureTime().isBefore(from) && f.getDepartureTime().isBefore(to);
+
+            FlightManagementSystem.BulkResult result = "Cancel".equals(actionBox.getValue())
+                    ? system.cancelWhere(inStop)
+                    : system.delayWhere(inStop, Long.parseLong(minutesField.getText().trim()), reasonField.getText().trim().replace(",", " "));
+            showAlert("Ground Stop", result.getChanged().size() + " flight(s) updated on " + result.getAircraftCount() + " aircraft.\n"
+                    + result.getCascadedCount() + " later flight(s) moved by the cascade (" + result.getElapsedMillis() + " ms).");
+            showFlightView();
+        });
+    }
+
+    // Add Connection Dialog (outbound waits for inbound + minimum connect time)
+    private void showAddConnectionDialog() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Add Connection");
+        dialog.setHeaderText("Hold a departure for an inbound flight");
+        ButtonType addBtnType = new ButtonType("Add", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(addBtnType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10); grid.setVgap(10); grid.setPadding(new Insets(20, 150, 10, 10));
+
+        List<String> flightNos = system.getAllFlights().stream()
+                .filter(f -> !"Arrived".equalsIgnoreCase(f.getStatus()) && !"Cancelled".equalsIgnoreCase(f.getStatus()))
+                .map(Flight::getKey)
+                .sorted()
+                .collect(java.util.stream.Collectors.toList());
+
+        ComboBox<String> inboundBox = new ComboBox<>(FXCollections.observableArrayList(flightNos));
+        ComboBox<String> outboundBox = new ComboBox<>(FXCollections.observableArrayList(flightNos));
+        ComboBox<String> typeBox = new ComboBox<>(FXCollections.observableArrayList(ConnectionGraph.CONNECTION, ConnectionGraph.CARGO));
+        typeBox.setValue(ConnectionGraph.CONNECTION);
+        TextField mctField = new TextField("45");
+        mctField.setPromptText("Minutes");
+
+        grid.add(new Label("Inbound:"), 0, 0); grid.add(inboundBox, 1, 0);
+        grid.add(new Label("Outbound (held):"), 0, 1); grid.add(outboundBox, 1, 1);
+        grid.add(new Label("Type:"), 0, 2); grid.add(typeBox, 1, 2);
+        grid.add(new Label("Min Connect (min):"), 0, 3); grid.add(mctField, 1, 3);
+        dialog.getDialogPane().setContent(grid);
+
+        Button addBtn = (Button) dialog.getDialogPane().lookupButton(addBtnType);
+        addBtn.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            if (inboundBox.getValue() == null || outboundBox.getValue() == null) {
+                showAlert("Validation Error", "Please select both flights.");
+                event.consume(); return;
+            }
+            try {
+                int mct = Integer.parseInt(mctField.getText().trim());
+                Flight in = system.getFlight(inboundBox.getValue());
+                system.addConnection(in, system.getFlight(outboundBox.getValue()), mct, typeBox.getValue());
+            } catch (NumberFormatException ex) {
+                showAlert("Validation Error", "Minimum connect time must be a valid number.");
+                event.consume();
+            } catch (Exception ex) {
+                showAlert("Connection Rejected", ex.getMessage());
+                event.consume();
+            }
+        });
+
+        dialog.showAndWait();
+    }
+
     // Check if previous flight for this aircraft is completed
     private boolean isPreviousFlightCompleted(Flight currentFlight) {
         for (Flight f : system.getAllFlights()) {
@@ -1524,19 +2199,20 @@ public class App extends Application {
                 } else if ("Delayed".equals(newStatus)) {
                     showDelayReasonDialog(flight, (reason) -> {
                          system.manualDelay(flight, reason);
-                         showAlert("Updated", "Delay recorded. Subsequent flights have been updated.");
+                         showAlert("Updated", "Delay recorded. Subsequent flights are being updated.");
+                         // Recovery plans need the settled rotation: offer them once the cascade has landed
+                         system.whenSettled(flight.getAircraft())
+                               .thenRun(() -> javafx.application.Platform.runLater(() -> showRecoveryOptions(flight.getAircraft())));
                          showFlightView(); 
                     });
 
                 // --- 4. Other Statuses ---
                 }  else {
-                    system.updateFlightStatus(flight.getFlightNumber(), newStatus);
-                    
                     // 如果取消了，释放飞机资源，并刷新排期
                     if ("Cancelled".equals(newStatus)) {
-                        system.autoUpdateAircraftStatus(flight.getAircraft().getRegistrationNumber());
-                        
-                        system.refreshScheduleForAircraft(flight.getAircraft().getRegistrationNumber());
+                        system.cancelFlight(flight);
+                    } else {
+                        system.updateFlightStatus(flight.getKey(), newStatus);
                     }
                     showFlightView();
                 }
@@ -1547,6 +2223,26 @@ public class App extends Application {
         });
     }
 
+    // Offer aircraft swaps that absorb the propagated delay
+    private void showRecoveryOptions(Aircraft disrupted) {
+        RecoverySolver solver = new RecoverySolver(system);
+        List<RecoverySolver.SwapPlan> plans = solver.findPlans(disrupted.getRegistrationNumber(), 5);
+        if (plans.isEmpty()) return;
+
+        Map<String, RecoverySolver.SwapPlan> byLabel = new LinkedHashMap<>();
+        for (RecoverySolver.SwapPlan p : plans) byLabel.put(p.toString(), p);
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(plans.get(0).toString(), byLabel.keySet());
+        dialog.setTitle("Disruption Recovery");
+        dialog.setHeaderText("Aircraft " + disrupted.getRegistrationNumber() + " is running late.\nApply a swap to reduce the knock-on delay?");
+        dialog.setContentText("Plan:");
+
+        dialog.showAndWait().ifPresent(label -> {
+            solver.apply(byLabel.get(label));
+            showAlert("Recovery Applied", label);
+        });
+    }
+
     // Delay Reason Dialog
     private void showDelayReasonDialog(Flight flight, java.util.function.Consumer<String> onConfirm) {
         Dialog<String> delayDialog = new Dialog<>();
@@ -0,0 +1,171 @@
+package fmsGUI;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+// Bounded LRU in front of another repository: recently looked-up flights stay in memory up to a
+// budget (entry count, or estimated bytes with withMemoryBudget), and repeat lookups return the
+// same instance. Index queries still run against the backing store, but their results are
+// swapped for cached instances where there are any. Writes go straight to the backing store.
+// Full scans (forEach) bypass the cache, so they don't flush it.
+public class CachedFlightRepository implements FlightRepository {
+
+    private final FlightRepository backing;
+    private final long maxWeight;
+    private final ToLongFunction<Flight> weigher;
+    // Access order: the first entry is the least recently used
+    private final Map<String, Flight> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> weights = new HashMap<>();
+    private long weight;
+
+    // --- Metrics ---
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CachedFlightRepository(FlightRepository backing, int maxEntries) {
+        this(backing, maxEntries, f -> 1);
+    }
+
+    private CachedFlightRepository(FlightRepository backing, long maxWeight, ToLongFunction<Flight> weigher) {
+        this.backing = backing;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    // Holds about 'bytes' of flights (see estimateBytes)
+    public static CachedFlightRepository withMemoryBudget(FlightRepository backing, long bytes) {
+        return new CachedFlightRepository(backing, bytes, CachedFlightRepository::estimateBytes);
+    }
+
+    // Rough heap footprint of a detached Flight: the object, its times and strings, the reasons
+    // list, plus this cache's entry and key
+    public static long estimateBytes(Flight f) {
+        long bytes = 96 + 2 * 24 + 160;
+        bytes += 40 + 2L * f.getFlightNumber().length() + 48 + 2L * f.getKey().length();
+        bytes += 40 + 8L * f.getDelayReasons().size();
+        for (String r : f.getDelayReasons()) bytes += 40 + 2L * r.length();
+        if (f.getServiceDate() != null) bytes += 24;
+        return bytes;
+    }
+
+    private void put(String key, Flight f) {
+        long w = weigher.applyAsLong(f);
+        cache.put(key, f);
+        Long old = weights.put(key, w);
+        weight += w - (old == null ? 0 : old);
+        // Evict least recently used until back under budget (the newest entry always stays)
+        Iterator<Map.Entry<String, Flight>> it = cache.entrySet().iterator();
+        while (weight > maxWeight && cache.size() > 1) {
+            String eldest = it.next().getKey();
+            it.remove();
+            weight -= weights.remove(eldest);
+            evictions++;
+        }
+    }
+
+    private void remove(String key) {
+        if (cache.remove(key) != null) weight -= weights.remove(key);
+    }
+
+    // --- Queries ---
+    @Override
+    public synchronized Flight find(String key) throws IOException {
+        Flight f = cache.get(key);
+        if (f != null) {
+            hits++;
+            return f;
+        }
+        misses++;
+        f = backing.find(key);
+        if (f != null) put(key, f);
+        return f;
+    }
+
+    // Doesn't count as a lookup (no hit or miss)
+    @Override
+    public synchronized boolean contains(String key) throws IOException {
+        return cache.containsKey(key) || backing.contains(key);
+    }
+
+    @Override
+    public synchronized List<Flight> findByFlightNumber(String flightNumber) throws IOException {
+        return cached(backing.findByFlightNumber(flightNumber));
+    }
+
+    @Override
+    public synchronized List<Flight> findByTail(String registration) throws IOException {
+        return cached(backing.findByTail(registration));
+    }
+
+    @Override
+    public synchronized List<Flight> findDepartingBetween(LocalDateTime from, LocalDateTime to) throws IOException {
+        return cached(backing.findDepartingBetween(from, to));
+    }
+
+    private List<Flight> cached(List<Flight> found) {
+        for (int i = 0; i < found.size(); i++) {
+            Flight f = found.get(i);
+            Flight existing = cache.get(f.getKey());
+            if (existing != null) found.set(i, existing);
+            else put(f.getKey(), f);
+        }
+        return found;
+    }
+
+    @Override
+    public Collection<String> keys() throws IOException { return backing.keys(); }
+
+    @Override
+    public void forEach(Consumer<Flight> action) throws IOException { backing.forEach(action); }
+
+    @Override
+    public int size() { return backing.size(); }
+
+    // --- Updates ---
+    @Override
+    // Write-around: a cached copy is replaced, but saving doesn't pull new flights in (archiving a
+    // batch would otherwise push the looked-up working set out)
+    public synchronized void save(Flight flight) throws IOException {
+        backing.save(flight);
+        if (cache.containsKey(flight.getKey())) put(flight.getKey(), flight);
+    }
+
+    @Override
+    public synchronized void delete(String key) throws IOException {
+        backing.delete(key);
+        remove(key);
+    }
+
+    @Override
+    public void flush() throws IOException { backing.flush(); }
+
+    @Override
+    public synchronized void close() throws IOException {
+        cache.clear();
+        weights.clear();
+        weight = 0;
+        backing.close();
+    }
+
+    public synchronized int getCachedCount() { return cache.size(); }
+    // In the budget's unit (entries or estimated bytes)
+    public synchronized long getCachedWeight() { return weight; }
+    public long getMaxWeight() { return maxWeight; }
+    public synchronized long getHitCount() { return hits; }
+    public synchronized long getMissCount() { return misses; }
+    public synchronized long getEvictionCount() { return evictions; }
+
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
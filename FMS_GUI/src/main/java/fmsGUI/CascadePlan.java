@@ -0,0 +1,137 @@
+package fmsGUI;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// One cascade worked out without touching the flights. Pushes go into an overlay that later
+// steps of the same walk read back, and what the walk read is remembered, so a plan can be
+// worked out off the update thread and applied there only if none of it has changed since
+// (see CascadeWorker). The synchronous paths apply their plan straight away.
+class CascadePlan {
+
+    private final Map<String, List<Flight>> flightsByAircraft;
+    private final DelayStats delayStats;
+    // Every flight read, with its values then and as the plan leaves them
+    private final Map<Flight, Leg> legs = new HashMap<>();
+    // Rotations read: registration -> its legs then (stored order)
+    private final Map<String, List<Flight>> rotations = new HashMap<>();
+    // In the order they were made, which is the order they are applied in
+    private final List<Push> pushes = new ArrayList<>();
+
+    CascadePlan(Map<String, List<Flight>> flightsByAircraft, DelayStats delayStats) {
+        this.flightsByAircraft = flightsByAircraft;
+        this.delayStats = delayStats;
+    }
+
+    // --- Reads (the plan's view: stored values plus the pushes so far) ---
+    LocalDateTime departure(Flight f) { return leg(f).departure; }
+    LocalDateTime arrival(Flight f) { return leg(f).arrival; }
+    String status(Flight f) { return leg(f).status; }
+
+    boolean hasReason(Flight f, String prefix) {
+        return leg(f).reasons.stream().anyMatch(r -> r.startsWith(prefix));
+    }
+
+    // One aircraft's legs, in stored order (a copy the caller may sort)
+    List<Flight> legsOf(String regNo) {
+        return new ArrayList<>(rotations.computeIfAbsent(regNo, k -> new ArrayList<>(flightsByAircraft.getOrDefault(k, List.of()))));
+    }
+
+    private Leg leg(Flight f) {
+        return legs.computeIfAbsent(f, Leg::new);
+    }
+
+    // --- Writes ---
+    // Pushes 'f' back 'minutes' as a propagated delay. A new reason is recorded (and counted in
+    // the delay stats when applied); a known one only adds minutes.
+    void push(Flight f, String reason, long minutes) {
+        Leg l = leg(f);
+        boolean known = hasReason(f, reason);
+        if (!known) l.reasons.add(reason);
+        l.departure = l.departure.plusMinutes(minutes);
+        l.arrival = l.arrival.plusMinutes(minutes);
+        pushes.add(new Push(f, reason, minutes, !known));
+    }
+
+    // Flights pushed so far, in first-push order
+    List<Flight> moved() {
+        Set<Flight> moved = new LinkedHashSet<>();
+        for (Push p : pushes) moved.add(p.flight);
+        return new ArrayList<>(moved);
+    }
+
+    // --- Apply ---
+    // Whether everything the plan read is still as it was, so applying it gives what working the
+    // cascade out now would
+    boolean isCurrent() {
+        for (Map.Entry<String, List<Flight>> e : rotations.entrySet()) {
+            List<Flight> now = flightsByAircraft.getOrDefault(e.getKey(), List.of());
+            List<Flight> then = e.getValue();
+            if (now.size() != then.size()) return false;
+            for (int i = 0; i < now.size(); i++) {
+                if (now.get(i) != then.get(i)) return false;
+            }
+        }
+        for (Map.Entry<Flight, Leg> e : legs.entrySet()) {
+            if (!e.getValue().unchanged(e.getKey())) return false;
+        }
+        return true;
+    }
+
+    // Makes the pushes on the flights themselves. Returns the flights that moved.
+    List<Flight> apply() {
+        for (Push p : pushes) {
+            if (p.newReason) {
+                p.flight.addPropagatedDelay(p.reason, p.minutes);
+                delayStats.record(p.flight, p.reason, p.minutes);
+            } else {
+                p.flight.addPropagatedMinutes(p.minutes);
+            }
+        }
+        return moved();
+    }
+
+    // --- One flight: as read, and as the plan leaves it ---
+    private static class Leg {
+        final LocalDateTime readDeparture;
+        final LocalDateTime readArrival;
+        final String status;
+        final int readReasons;
+        LocalDateTime departure;
+        LocalDateTime arrival;
+        final List<String> reasons;
+
+        Leg(Flight f) {
+            readDeparture = departure = f.getDepartureTime();
+            readArrival = arrival = f.getArrivalTime();
+            status = f.getStatus();
+            reasons = new ArrayList<>(f.getDelayReasons());
+            readReasons = reasons.size();
+        }
+
+        boolean unchanged(Flight f) {
+            return readDeparture.equals(f.getDepartureTime()) && readArrival.equals(f.getArrivalTime())
+                    && Objects.equals(status, f.getStatus()) && readReasons == f.getDelayReasons().size();
+        }
+    }
+
+    private static class Push {
+        final Flight flight;
+        final String reason;
+        final long minutes;
+        final boolean newReason;
+
+        Push(Flight flight, String reason, long minutes, boolean newReason) {
+            this.flight = flight;
+            this.reason = reason;
+            this.minutes = minutes;
+            this.newReason = newReason;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package fmsGUI;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// Coalesces aircraft cascades: requests for the same aircraft that arrive within
+// COALESCE_MILLIS are merged into one pass, so a burst of edits costs one cascade. The pass is
+// worked out on this worker's thread (see FlightManagementSystem.planCascade) and only its
+// result is applied on the system's update executor (the FX thread in the app), so flights only
+// change, and listeners only fire, where the views read them. A result that went stale on the
+// way (something it read changed first) is worked out again.
+public class CascadeWorker {
+
+    public static final long COALESCE_MILLIS = 150;
+    // Stale results in a row before a pass is worked out on the update thread itself
+    public static final int MAX_RETRIES = 3;
+
+    private static final Logger LOG = Logger.getLogger(CascadeWorker.class.getName());
+
+    private final FlightManagementSystem system;
+    private final ScheduledExecutorService executor;
+    // Aircraft waiting for a cascade -> flights whose change caused it
+    private final Map<String, Set<Flight>> pending = new ConcurrentHashMap<>();
+    // Worked out, not applied yet
+    private final Set<Pass> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> retries = new ConcurrentHashMap<>();
+    // Callers waiting for an aircraft to settle (see whenSettled)
+    private final Map<String, List<CompletableFuture<Void>>> waiting = new HashMap<>();
+
+    // --- Metrics ---
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong cascades = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    public CascadeWorker(FlightManagementSystem system) {
+        this.system = system;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cascade-worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void request(Flight source) {
+        requests.incrementAndGet();
+        enqueue(source.getAircraft().getRegistrationNumber(), Set.of(source));
+    }
+
+    private void enqueue(String reg, Set<Flight> sources) {
+        boolean[] first = {false};
+        pending.compute(reg, (k, queued) -> {
+            if (queued == null) {
+                queued = ConcurrentHashMap.newKeySet();
+                first[0] = true;
+            }
+            queued.addAll(sources);
+            return queued;
+        });
+        // Only the first request in a window schedules work; later ones ride along
+        if (first[0]) executor.schedule(() -> plan(reg), COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Worker thread: claims the aircraft and works its pass out under the system lock (reading
+    // only), then hands the result to the update thread
+    private void plan(String reg) {
+        Pass pass = null;
+        synchronized (system) {
+            Set<Flight> sources = pending.remove(reg);
+            if (sources == null) return; // already drained
+            try {
+                pass = new Pass(reg, sources, system.planCascade(reg, sources), system.getStructureCount());
+                inFlight.add(pass);
+            } catch (RuntimeException e) {
+                LOG.warning("Cascade failed for " + reg + ": " + e.getMessage());
+            }
+        }
+        if (pass == null) {
+            settle(reg);
+            return;
+        }
+        Pass planned = pass;
+        system.getUpdateExecutor().execute(() -> apply(planned));
+    }
+
+    // Update thread
+    private void apply(Pass pass) {
+        synchronized (system) {
+            if (!inFlight.remove(pass)) return; // drained meanwhile
+            try {
+                if (system.applyCascade(pass.reg, pass.sources, pass.plan, pass.structure)) {
+                    retries.remove(pass.reg);
+                } else if (retries.merge(pass.reg, 1, Integer::sum) > MAX_RETRIES) {
+                    // Keeps changing under the worker: settle it here rather than chase it
+                    retries.remove(pass.reg);
+                    stale.incrementAndGet();
+                    system.runCascade(pass.reg, pass.sources);
+                } else {
+                    stale.incrementAndGet();
+                    enqueue(pass.reg, pass.sources);
+                    return;
+                }
+                cascades.incrementAndGet();
+            } catch (RuntimeException e) {
+                LOG.warning("Cascade failed for " + pass.reg + ": " + e.getMessage());
+            }
+        }
+        // Outside the lock: what waits for the aircraft may open a dialog
+        settle(pass.reg);
+    }
+
+    // Completes (on the thread that applied the last pass) once 'reg' has nothing queued or on
+    // its way; at once if it has nothing now
+    public CompletableFuture<Void> whenSettled(String reg) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        synchronized (waiting) {
+            if (isPending(reg)) {
+                waiting.computeIfAbsent(reg, k -> new ArrayList<>()).add(done);
+                return done;
+            }
+        }
+        done.complete(null);
+        return done;
+    }
+
+    private void settle(String reg) {
+        List<CompletableFuture<Void>> done;
+        // The worker claims and records a pass under the system lock, so it is never in between here
+        synchronized (system) {
+            synchronized (waiting) {
+                if (isPending(reg)) return;
+                done = waiting.remove(reg);
+            }
+        }
+        if (done != null) done.forEach(f -> f.complete(null));
+    }
+
+    // Works out and applies everything queued on the calling thread (on exit, before the final
+    // save). Passes on their way to the update thread are redone here and dropped there.
+    public void drain() {
+        List<String> drained = new ArrayList<>();
+        synchronized (system) {
+            for (Pass p : new ArrayList<>(inFlight)) {
+                if (inFlight.remove(p)) pending.merge(p.reg, p.sources, (a, b) -> {
+                    a.addAll(b);
+                    return a;
+                });
+            }
+            for (String reg : new ArrayList<>(pending.keySet())) {
+                Set<Flight> sources = pending.remove(reg);
+                if (sources == null) continue;
+                try {
+                    system.runCascade(reg, sources);
+                    cascades.incrementAndGet();
+                } catch (RuntimeException e) {
+                    LOG.warning("Cascade failed for " + reg + ": " + e.getMessage());
+                }
+                drained.add(reg);
+            }
+        }
+        drained.forEach(this::settle);
+    }
+
+    // Queued and not claimed by the worker yet
+    public boolean isQueued(String reg) { return pending.containsKey(reg); }
+    // Queued, or worked out and not applied yet
+    public boolean isPending(String reg) {
+        if (pending.containsKey(reg)) return true;
+        for (Pass p : inFlight) {
+            if (p.reg.equals(reg)) return true;
+        }
+        return false;
+    }
+    public int getQueueSize() { return pending.size(); }
+    // Aircraft with a pass queued or not applied yet
+    public Set<String> getPendingAircraft() {
+        Set<String> regs = new TreeSet<>(pending.keySet());
+        for (Pass p : inFlight) regs.add(p.reg);
+        return regs;
+    }
+    public long getRequestCount() { return requests.get(); }
+    public long getCascadeCount() { return cascades.get(); }
+    // Results that had to be worked out again
+    public long getStaleCount() { return stale.get(); }
+
+    public void shutdown() {
+        drain();
+        executor.shutdownNow();
+    }
+
+    // One worked-out pass on its way to the update thread
+    private static class Pass {
+        final String reg;
+        final Set<Flight> sources;
+        final CascadePlan plan;
+        final long structure;
+
+        Pass(String reg, Set<Flight> sources, CascadePlan plan, long structure) {
+            this.reg = reg;
+            this.sources = sources;
+            this.plan = plan;
+            this.structure = structure;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package fmsGUI;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// Saves the data files in the background every few seconds, but only when something changed.
+// The snapshot is taken under the system lock (in memory); serializing to disk happens on this
+// thread. A save writes a new generation of each file (ending in a CRC32 trailer line, fsynced)
+// next to the current one, then switches the manifest (checkpoint.txt) to the new set with one
+// atomic rename, so a crash leaves either the old set or the new one, never a mix. Files with a
+// bad checksum are never loaded or saved over (see FlightManagementSystem.getStorageError).
+// When only flights changed (the usual status and delay trickle) just their record slots are
+// flushed (see FlightRecordFile); the text files are rewritten when anything else changed.
+// In memory-budget mode each run also moves flights past the retention window to the archive,
+// through the system's update executor like other background changes (the FX thread in the app);
+// on the first run of a new day the pattern horizon is rolled forward the same way.
+public class Checkpointer {
+
+    private static final Logger LOG = Logger.getLogger(Checkpointer.class.getName());
+
+    public static final long DEFAULT_INTERVAL_SECONDS = 60;
+    // Last line of every file; the loaders skip it (no commas, too few columns)
+    public static final String TRAILER = "#crc32=";
+    // File name -> current generation of it; files it doesn't list are read under their own name
+    public static final String MANIFEST = "checkpoint.txt";
+
+    private final FlightManagementSystem system;
+    private final Path directory;
+    private final ScheduledExecutorService executor;
+    private volatile long savedChangeCount = -1;
+    private volatile long savedStructureCount = -1;
+
+    // --- Metrics ---
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile long lastMillis;
+    private volatile long lastBytes;
+    private volatile String lastError;
+
+    public Checkpointer(FlightManagementSystem system, Path directory) {
+        this.system = system;
+        this.directory = directory;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "checkpointer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Everything loaded so far counts as saved
+    public void start(long intervalSeconds) {
+        savedChangeCount = system.getChangeCount();
+        savedStructureCount = system.getStructureCount();
+        executor.scheduleWithFixedDelay(this::checkpoint, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // Waits for a running checkpoint to finish; the caller does the final save
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Saves if anything changed since the last checkpoint. Returns true if files were written.
+    public synchronized boolean checkpoint() {
+        // Never overwrite files that failed to load; they may be the only good copy
+        String refused = system.getStorageError();
+        if (refused != null) {
+            lastError = refused;
+            skipped.incrementAndGet();
+            return false;
+        }
+        if (system.getArchive() != null) system.getUpdateExecutor().execute(this::archive);
+        // A new day brings the next day's pattern instances into the horizon
+        LocalDate today = LocalDate.now();
+        if (!today.equals(system.getHorizonDay())) system.getUpdateExecutor().execute(() -> system.rollHorizon(today));
+        // Read before the snapshot: a change made while saving makes the next run save again
+        long version = system.getChangeCount();
+        if (version == savedChangeCount) {
+            skipped.incrementAndGet();
+            return false;
+        }
+        long structure = system.getStructureCount();
+        long start = System.nanoTime();
+        try {
+            if (structure != savedStructureCount) {
+                lastBytes = write(directory, system.snapshotFiles()) + system.flushRecords();
+                savedStructureCount = structure;
+            } else {
+                lastBytes = system.flushRecords();
+            }
+            savedChangeCount = version;
+            written.incrementAndGet();
+            lastError = null;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // Old files are untouched; try again next interval
+            lastError = e.getMessage();
+            LOG.warning("Checkpoint failed: " + e.getMessage());
+            return false;
+        } finally {
+            lastMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    // Archiving drops flights from memory, so it must not run beside other changes
+    private void archive() {
+        try {
+            system.archiveClosedFlights(LocalDateTime.now());
+        } catch (IOException e) {
+            // Nothing was dropped from memory; try again next interval
+            LOG.warning("Archiving failed: " + e.getMessage());
+        }
+    }
+
+    // --- Atomic File Replacement ---
+    // Writes 'files' as the next generation and switches the manifest to it; files not in 'files'
+    // keep their current generation. One writer at a time (the background checkpoint and the
+    // save on exit share the manifest).
+    public static synchronized long write(Path directory, Map<String, String> files) throws IOException {
+        Manifest current = Manifest.read(directory);
+        Manifest next = new Manifest(current.generation + 1, new LinkedHashMap<>(current.files));
+        long bytes = 0;
+        for (Map.Entry<String, String> e : files.entrySet()) {
+            String physical = e.getKey() + "." + next.generation;
+            bytes += writeAtomically(directory.resolve(physical), e.getValue());
+            next.files.put(e.getKey(), physical);
+        }
+        syncDirectory(directory);
+        bytes += writeAtomically(directory.resolve(MANIFEST), next.format());
+        syncDirectory(directory);
+
+        // The old generations are unreachable now
+        for (String name : files.keySet()) {
+            String old = current.files.get(name);
+            if (old != null && !old.equals(next.files.get(name))) Files.deleteIfExists(directory.resolve(old));
+        }
+        return bytes;
+    }
+
+    // A single file outside any manifest (a standalone CSV repository): written next to 'target',
+    // then renamed over it
+    public static synchronized long replace(Path target, String content) throws IOException {
+        long bytes = writeAtomically(target, content);
+        syncDirectory(target.toAbsolutePath().getParent());
+        return bytes;
+    }
+
+    // Where the current copy of 'name' is (its own name if the manifest doesn't list it)
+    public static Path resolve(Path directory, String name) throws IOException {
+        String physical = Manifest.read(directory).files.get(name);
+        return directory.resolve(physical != null ? physical : name);
+    }
+
+    private static long writeAtomically(Path target, String content) throws IOException {
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        byte[] trailer = String.format("%s%08x%n", TRAILER, crc.getValue()).getBytes(StandardCharsets.UTF_8);
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(body);
+            while (buf.hasRemaining()) ch.write(buf);
+            buf = ByteBuffer.wrap(trailer);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return body.length + trailer.length;
+    }
+
+    // Makes the renames durable; not every platform can open a directory, which is fine
+    private static void syncDirectory(Path directory) {
+        try (FileChannel ch = FileChannel.open(directory.toAbsolutePath(), StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            // best effort
+        }
+    }
+
+    // Null if 'file' ends in a matching trailer (or has none: written before checksums), a message otherwise
+    public static String verify(Path file) throws IOException {
+        byte[] all = Files.readAllBytes(file);
+        int end = all.length;
+        while (end > 0 && (all[end - 1] == '\n' || all[end - 1] == '\r')) end--;
+        int lineStart = end;
+        while (lineStart > 0 && all[lineStart - 1] != '\n') lineStart--;
+        String last = new String(all, lineStart, end - lineStart, StandardCharsets.UTF_8);
+        if (!last.startsWith(TRAILER)) return null;
+
+        CRC32 crc = new CRC32();
+        crc.update(all, 0, lineStart);
+        String expected = last.substring(TRAILER.length());
+        String actual = String.format("%08x", crc.getValue());
+        return actual.equals(expected) ? null : file.getFileName() + ": checksum " + actual + " does not match " + expected;
+    }
+
+    // --- Manifest ---
+    private static class Manifest {
+        final long generation;
+        final Map<String, String> files;
+
+        Manifest(long generation, Map<String, String> files) {
+            this.generation = generation;
+            this.files = files;
+        }
+
+        // Empty if there is none yet (files saved before manifests); a damaged one is an error
+        static Manifest read(Path directory) throws IOException {
+            Path file = directory.resolve(MANIFEST);
+            if (!Files.exists(file)) return new Manifest(0, new LinkedHashMap<>());
+            String problem = verify(file);
+            if (problem != null) throw new IOException(problem);
+            long generation = 0;
+            Map<String, String> files = new LinkedHashMap<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(",");
+                if (parts.length < 2) continue;
+                if (parts[0].equals("generation")) generation = Long.parseLong(parts[1]);
+                else files.put(parts[0], parts[1]);
+            }
+            return new Manifest(generation, files);
+        }
+
+        String format() {
+            StringBuilder out = new StringBuilder("generation," + generation + System.lineSeparator());
+            for (Map.Entry<String, String> e : files.entrySet()) {
+                out.append(e.getKey()).append(',').append(e.getValue()).append(System.lineSeparator());
+            }
+            return out.toString();
+        }
+    }
+
+    public long getWrittenCount() { return written.get(); }
+    public long getSkippedCount() { return skipped.get(); }
+    public long getLastMillis() { return lastMillis; }
+    public long getLastBytes() { return lastBytes; }
+    public String getLastError() { return lastError; }
+    public boolean isDirty() { return system.getChangeCount() != savedChangeCount; }
+}
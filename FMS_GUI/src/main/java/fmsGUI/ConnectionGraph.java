@@ -0,0 +1,222 @@
+package fmsGUI;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+// Cross-flight dependencies (passenger connections, cargo transfers).
+// Together with each aircraft's rotation they form a DAG that delays flow through; a cycle
+// propagation runs into (possible after a delay reorders a rotation) is reported, not walked.
+public class ConnectionGraph {
+
+    public static final String CONNECTION = "Connection";
+    public static final String CARGO = "Cargo Transfer";
+
+    // Rotation cycles kept for the alerts view (most recent last)
+    public static final int MAX_CYCLES = 20;
+
+    private static final Logger LOG = Logger.getLogger(ConnectionGraph.class.getName());
+
+    // The system's per-aircraft index (read while the system's lock is held)
+    private final Map<String, List<Flight>> flightsByAircraft;
+    private final DelayStats delayStats;
+    private final Map<Flight, List<Dependency>> outgoing = new HashMap<>();
+    private final Map<Flight, List<Dependency>> incoming = new HashMap<>();
+    private final List<String> cycles = new CopyOnWriteArrayList<>();
+
+    public ConnectionGraph(Map<String, List<Flight>> flightsByAircraft, DelayStats delayStats) {
+        this.flightsByAircraft = flightsByAircraft;
+        this.delayStats = delayStats;
+    }
+
+    // --- Edit ---
+    // 'outbound' is held until 'inbound' has arrived plus the minimum connect time
+    public void addDependency(Flight inbound, Flight outbound, int minConnectMinutes, String type) throws Exception {
+        if (inbound == outbound) {
+            throw new Exception("A flight cannot depend on itself.");
+        }
+        if (reachable(outbound, inbound)) {
+            throw new Exception("Dependency rejected: " + inbound.getFlightNumber() + " already depends on "
+                    + outbound.getFlightNumber() + " (cycle).");
+        }
+        Dependency d = new Dependency(inbound, outbound, minConnectMinutes, type);
+        outgoing.computeIfAbsent(inbound, k -> new ArrayList<>()).add(d);
+        incoming.computeIfAbsent(outbound, k -> new ArrayList<>()).add(d);
+    }
+
+    public void removeFlight(Flight f) {
+        for (Dependency d : outgoing.getOrDefault(f, List.of())) incoming.getOrDefault(d.getOutbound(), new ArrayList<>()).remove(d);
+        for (Dependency d : incoming.getOrDefault(f, List.of())) outgoing.getOrDefault(d.getInbound(), new ArrayList<>()).remove(d);
+        outgoing.remove(f);
+        incoming.remove(f);
+    }
+
+    public boolean isEmpty() { return outgoing.isEmpty(); }
+
+    public List<Dependency> getDependencies() {
+        List<Dependency> all = new ArrayList<>();
+        outgoing.values().forEach(all::addAll);
+        return all;
+    }
+
+    public List<Dependency> getIncoming(Flight f) { return new ArrayList<>(incoming.getOrDefault(f, List.of())); }
+
+    // Cycles propagation ran into, e.g. "MH-1 -> MH-2 -> MH-1"
+    public List<String> getCycles() { return new ArrayList<>(cycles); }
+
+    // --- Graph Walks ---
+    // Successors: explicit dependents plus the next leg flown by the same aircraft
+    private List<Flight> successors(Flight f, Map<String, List<Flight>> rotations, CascadePlan plan) {
+        List<Flight> next = new ArrayList<>();
+        for (Dependency d : outgoing.getOrDefault(f, List.of())) next.add(d.getOutbound());
+        Flight rotationNext = nextLeg(f, rotations, plan);
+        if (rotationNext != null) next.add(rotationNext);
+        return next;
+    }
+
+    // Rotations are looked up once per aircraft per walk, in the plan's times
+    private Flight nextLeg(Flight f, Map<String, List<Flight>> rotations, CascadePlan plan) {
+        List<Flight> rotation = rotations.computeIfAbsent(f.getAircraft().getRegistrationNumber(), reg -> {
+            List<Flight> list = plan.legsOf(reg);
+            list.removeIf(x -> "Cancelled".equalsIgnoreCase(plan.status(x)));
+            list.sort(Comparator.comparing(plan::departure));
+            return list;
+        });
+        int i = rotation.indexOf(f);
+        return (i >= 0 && i + 1 < rotation.size()) ? rotation.get(i + 1) : null;
+    }
+
+    // Whether 'target' is downstream of 'from' at all (moving or not)
+    private boolean reachable(Flight from, Flight target) {
+        // An empty plan reads the stored times
+        CascadePlan plan = new CascadePlan(flightsByAircraft, delayStats);
+        Map<String, List<Flight>> rotations = new HashMap<>();
+        Set<Flight> seen = new HashSet<>();
+        Deque<Flight> stack = new ArrayDeque<>();
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            Flight f = stack.pop();
+            if (f == target) return true;
+            if (!seen.add(f)) continue;
+            for (Flight s : successors(f, rotations, plan)) {
+                if (!seen.contains(s)) stack.push(s);
+            }
+        }
+        return false;
+    }
+
+    // --- Core: Delay Propagation ---
+    // Walks out from 'source', and only a leg that actually moves passes the delay on: a leg with
+    // enough slack ends the walk there. Legs are taken in departure order, so each one is normally
+    // held once, after everything that holds it. Returns the flights that moved.
+    public List<Flight> propagate(Flight source) {
+        return propagate(List.of(source));
+    }
+
+    // Same walk from several legs at once, e.g. a delayed flight plus the legs its own aircraft's
+    // cascade already moved (those no longer need holding, but their connections still do)
+    public List<Flight> propagate(Collection<Flight> sources) {
+        CascadePlan plan = new CascadePlan(flightsByAircraft, delayStats);
+        propagate(sources, plan);
+        return plan.apply();
+    }
+
+    // The walk itself, reading and pushing through 'plan' (flights are left as they are)
+    void propagate(Collection<Flight> sources, CascadePlan plan) {
+        // Rotation order is frozen for the walk (holding legs must not reorder it mid-way)
+        Map<String, List<Flight>> rotations = new HashMap<>();
+        // Leg -> the leg that last pushed it; following it leads back to the source
+        Map<Flight, Flight> movedBy = new HashMap<>();
+        PriorityQueue<Flight> ready = new PriorityQueue<>(Comparator.comparing(plan::departure));
+        for (Flight source : sources) {
+            if (!ready.contains(source)) ready.add(source);
+        }
+        while (!ready.isEmpty()) {
+            Flight f = ready.poll();
+            Flight next = nextLeg(f, rotations, plan);
+            if (next != null) {
+                pass(f, next, plan.arrival(f), "Propagated Delay: Late arrival of " + f.getFlightNumber(), movedBy, ready, plan);
+            }
+            for (Dependency d : outgoing.getOrDefault(f, List.of())) {
+                pass(f, d.getOutbound(), plan.arrival(f).plusMinutes(d.getMinConnectMinutes()),
+                        "Propagated Delay: " + d.getType() + " from " + f.getFlightNumber(), movedBy, ready, plan);
+            }
+        }
+    }
+
+    private void pass(Flight from, Flight to, LocalDateTime earliest, String reason, Map<Flight, Flight> movedBy,
+                      PriorityQueue<Flight> ready, CascadePlan plan) {
+        if (!mustHold(to, earliest, plan)) return;
+        // 'to' already pushed 'from' (directly or further up): after a reorder, rotation and
+        // connections can close a cycle that no hold would ever settle. Report it and stop there.
+        List<Flight> path = new ArrayList<>();
+        for (Flight f = from; f != null; f = movedBy.get(f)) {
+            path.add(f);
+            if (f == to) {
+                recordCycle(path);
+                return;
+            }
+        }
+        ready.remove(to); // its key (departure) changes
+        hold(to, earliest, reason, plan);
+        movedBy.put(to, from);
+        ready.add(to);
+    }
+
+    private void recordCycle(List<Flight> path) {
+        // 'path' runs backwards from the pushing leg to the pushed one
+        List<String> numbers = new ArrayList<>();
+        for (Flight f : path) numbers.add(f.getFlightNumber());
+        Collections.reverse(numbers);
+        numbers.add(numbers.get(0));
+        String cycle = String.join(" -> ", numbers);
+        LOG.warning("Delay propagation stopped at a cycle: " + cycle);
+        cycles.add(cycle);
+        if (cycles.size() > MAX_CYCLES) cycles.remove(0);
+    }
+
+    // Only legs still on the ground that would leave before 'earliest' move
+    private static boolean mustHold(Flight f, LocalDateTime earliest, CascadePlan plan) {
+        String s = plan.status(f);
+        if (!"Scheduled".equalsIgnoreCase(s) && !"Delayed".equalsIgnoreCase(s) && !"Boarding".equalsIgnoreCase(s)) return false;
+        return plan.departure(f).isBefore(earliest);
+    }
+
+    // Push 'f' back so it does not leave before 'earliest' (see mustHold); a known reason only adds minutes
+    private static void hold(Flight f, LocalDateTime earliest, String reason, CascadePlan plan) {
+        plan.push(f, reason, Duration.between(plan.departure(f), earliest).toMinutes());
+    }
+
+    // --- Edge ---
+    public static class Dependency {
+        private final Flight inbound;
+        private final Flight outbound;
+        private final int minConnectMinutes;
+        private final String type;
+
+        public Dependency(Flight inbound, Flight outbound, int minConnectMinutes, String type) {
+            this.inbound = inbound;
+            this.outbound = outbound;
+            this.minConnectMinutes = minConnectMinutes;
+            this.type = type;
+        }
+
+        public Flight getInbound() { return inbound; }
+        public Flight getOutbound() { return outbound; }
+        public int getMinConnectMinutes() { return minConnectMinutes; }
+        public String getType() { return type; }
+    }
+}
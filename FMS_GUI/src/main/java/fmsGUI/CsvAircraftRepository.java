@@ -0,0 +1,79 @@
+package fmsGUI;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+// The original fleet storage: one "registration,brand,model,capacity,status" line per aircraft,
+// held in memory and rewritten on flush. Status is written for older readers and ignored on load
+// (it is derived from the flights).
+public class CsvAircraftRepository implements AircraftRepository {
+
+    private final Path file;
+    private final Map<String, Aircraft> aircrafts = new LinkedHashMap<>();
+    private boolean dirty;
+
+    public CsvAircraftRepository(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Aircraft a = parse(line, (table, token) -> token);
+                if (a != null) aircrafts.put(a.getRegistrationNumber(), a);
+            }
+        }
+    }
+
+    // --- Line Format ---
+    // One aircrafts.txt line; 'name' resolves a column of the given table (plain names here, @ids
+    // in the system's own snapshot). Null if the line is too short.
+    static Aircraft parse(String line, BiFunction<SymbolTable, String, String> name) {
+        String[] parts = line.split(",");
+        if (parts.length < 5) return null;
+        return new Aircraft(name.apply(SymbolTable.REGISTRATIONS, parts[0]), name.apply(SymbolTable.BRANDS, parts[1]),
+                name.apply(SymbolTable.MODELS, parts[2]), Integer.parseInt(parts[3]));
+    }
+
+    // 'ids': registration, brand and model as @id (the system's snapshot) instead of names
+    static String format(Aircraft a, boolean ids) {
+        return ids
+            ? String.format("@%d,@%d,@%d,%d,%s%n", a.getRegistrationId(), a.getBrandId(), a.getModelId(), a.getCapacity(), a.getStatus())
+            : String.format("%s,%s,%s,%d,%s%n", a.getRegistrationNumber(), a.getBrand(), a.getModel(), a.getCapacity(), a.getStatus());
+    }
+
+    @Override
+    public synchronized List<Aircraft> findAll() { return new ArrayList<>(aircrafts.values()); }
+
+    @Override
+    public synchronized Aircraft find(String registration) { return aircrafts.get(registration); }
+
+    @Override
+    public synchronized void save(Aircraft aircraft) {
+        aircrafts.put(aircraft.getRegistrationNumber(), aircraft);
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void delete(String registration) {
+        if (aircrafts.remove(registration) != null) dirty = true;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (!dirty) return;
+        StringBuilder out = new StringBuilder();
+        for (Aircraft a : aircrafts.values()) out.append(format(a, false));
+        Checkpointer.replace(file, out.toString());
+        dirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,150 @@
+package fmsGUI;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// The original storage: one comma-separated line per flight (the flights.txt columns, with plain
+// names). The whole file is held in memory and rewritten on flush, so queries are scans.
+public class CsvFlightRepository implements FlightRepository {
+
+    private final Path file;
+    private final Function<String, Aircraft> aircraft;
+    private final Map<String, Flight> flights = new LinkedHashMap<>();
+    private boolean dirty;
+
+    public CsvFlightRepository(Path file, Function<String, Aircraft> aircraft) throws IOException {
+        this.file = file;
+        this.aircraft = aircraft;
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Flight f = parse(line, SymbolTable.AIRPORTS::intern, aircraft);
+                if (f != null) flights.put(f.getKey(), f);
+            }
+        }
+    }
+
+    // --- Line Format ---
+    // One flights.txt line; 'airport' and 'tail' resolve those columns (plain names here, @ids in
+    // the system's own snapshot). Null if the line is too short or the tail is unknown.
+    static Flight parse(String line, Function<String, String> airport, Function<String, Aircraft> tail) {
+        String[] parts = line.split(",", -1);
+        if (parts.length < 10) return null;
+        Aircraft linkedPlane = tail.apply(parts[6]);
+        if (linkedPlane == null) return null;
+
+        String org = airport.apply(parts[1]);
+        String dest = airport.apply(parts[2]);
+        LocalDateTime dep = LocalDateTime.parse(parts[3]);
+        LocalDateTime arr = LocalDateTime.parse(parts[4]);
+        int pax = 0;
+        try { pax = Integer.parseInt(parts[9]); } catch (Exception e) {}
+        Flight f = "YES".equals(parts[7])
+            ? new CargoFlight(parts[0], org, dest, dep, arr, linkedPlane, Double.parseDouble(parts[8]))
+            : new Flight(parts[0], org, dest, dep, arr, linkedPlane, pax);
+
+        f.setStatus(parts[5]);
+        String delayReasonStr = (parts.length >= 11) ? parts[10] : "";
+        if (!delayReasonStr.isEmpty()) {
+            for (String r : delayReasonStr.split(";")) f.getDelayReasons().add(r);
+        }
+        // Delay minutes were added later; older files leave them at 0
+        if (parts.length >= 13) {
+            try {
+                f.setDelayMinutes(Long.parseLong(parts[11]));
+                f.setPropagatedDelayMinutes(Long.parseLong(parts[12]));
+            } catch (NumberFormatException e) {}
+        }
+        if (parts.length >= 14 && !parts[13].isEmpty()) f.setServiceDate(LocalDate.parse(parts[13]));
+        return f;
+    }
+
+    static String format(Flight f) {
+        boolean cargo = f instanceof CargoFlight;
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%.2f,%d,%s,%d,%d,%s%n",
+                f.getFlightNumber(), f.getOrigin(), f.getDestination(), f.getDepartureTime(), f.getArrivalTime(),
+                f.getStatus(), f.getAircraft().getRegistrationNumber(), cargo ? "YES" : "NO",
+                cargo ? ((CargoFlight) f).getCargoCapacity() : 0.0, f.getBookedPassengers(),
+                String.join(";", f.getDelayReasons()).replace(",", " "), f.getDelayMinutes(),
+                f.getPropagatedDelayMinutes(), f.getServiceDate() == null ? "" : f.getServiceDate().toString());
+    }
+
+    // --- Queries ---
+    @Override
+    public synchronized Flight find(String key) { return flights.get(key); }
+
+    @Override
+    public synchronized boolean contains(String key) { return flights.containsKey(key); }
+
+    @Override
+    public synchronized List<Flight> findByFlightNumber(String flightNumber) {
+        return scan(f -> f.getFlightNumber().equals(flightNumber));
+    }
+
+    @Override
+    public synchronized List<Flight> findByTail(String registration) {
+        return scan(f -> f.getAircraft().getRegistrationNumber().equals(registration));
+    }
+
+    @Override
+    public synchronized List<Flight> findDepartingBetween(LocalDateTime from, LocalDateTime to) {
+        return scan(f -> !f.getDepartureTime().isBefore(from) && f.getDepartureTime().isBefore(to));
+    }
+
+    private List<Flight> scan(Predicate<Flight> filter) {
+        List<Flight> result = new ArrayList<>();
+        for (Flight f : flights.values()) {
+            if (filter.test(f)) result.add(f);
+        }
+        result.sort(Comparator.comparing(Flight::getDepartureTime));
+        return result;
+    }
+
+    @Override
+    public synchronized Collection<String> keys() { return new ArrayList<>(flights.keySet()); }
+
+    @Override
+    public synchronized void forEach(Consumer<Flight> action) { flights.values().forEach(action); }
+
+    @Override
+    public synchronized int size() { return flights.size(); }
+
+    // --- Updates ---
+    @Override
+    public synchronized void save(Flight flight) {
+        flights.put(flight.getKey(), flight);
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void delete(String key) {
+        if (flights.remove(key) != null) dirty = true;
+    }
+
+    // Rewrites the whole file (atomically, see Checkpointer) if anything changed
+    @Override
+    public synchronized void flush() throws IOException {
+        if (!dirty) return;
+        StringBuilder out = new StringBuilder();
+        for (Flight f : flights.values()) out.append(format(f));
+        Checkpointer.replace(file, out.toString());
+        dirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
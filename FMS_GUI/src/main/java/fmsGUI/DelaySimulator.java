@@ -0,0 +1,249 @@
+package fmsGUI;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Monte Carlo engine: replays a day's schedule thousands of times under sampled delays
+// and measures how well the cascade (same rule as refreshScheduleForAircraft) holds up
+public class DelaySimulator {
+
+    public static final int ON_TIME_THRESHOLD = 15;   // minutes late still counted as on time
+    public static final int MANUAL_DELAY_MINUTES = 60; // Flight.addDelayReason adds 1 hour
+
+    // Learned distribution: one entry per delay category
+    private final String[] categories;
+    private final double[] probability;  // chance a flight is hit by this category
+    private final double[] meanMinutes;  // mean delay when it is hit
+
+    public DelaySimulator(Map<String, Double> probabilityByCategory, Map<String, Double> meanMinutesByCategory) {
+        int n = probabilityByCategory.size();
+        this.categories = new String[n];
+        this.probability = new double[n];
+        this.meanMinutes = new double[n];
+        int i = 0;
+        for (Map.Entry<String, Double> e : probabilityByCategory.entrySet()) {
+            categories[i] = e.getKey();
+            probability[i] = Math.min(0.95, e.getValue());
+            meanMinutes[i] = meanMinutesByCategory.getOrDefault(e.getKey(), (double) MANUAL_DELAY_MINUTES);
+            i++;
+        }
+    }
+
+    // --- Learning: per-category rates from stored delay reasons ---
+    // Reasons are stored as "Category: Detail" (see showDelayReasonDialog).
+    // Propagated delays are effects of the cascade, not causes, so they are skipped.
+    public static DelaySimulator fromHistory(List<Flight> history) {
+        // Counted by category id (SymbolTable.DELAY_CATEGORIES), so grouping is array indexing
+        int[] counts = new int[0];
+        for (Flight f : history) {
+            for (String r : f.getDelayReasons()) {
+                int id = categoryIdOf(r);
+                if (id == SymbolTable.NONE) continue;
+                if (id >= counts.length) counts = Arrays.copyOf(counts, SymbolTable.DELAY_CATEGORIES.size());
+                counts[id]++;
+            }
+        }
+
+        Map<String, Double> probability = new LinkedHashMap<>();
+        Map<String, Double> mean = new LinkedHashMap<>();
+        int total = Math.max(1, history.size());
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] == 0) continue;
+            String category = SymbolTable.DELAY_CATEGORIES.name(id);
+            probability.put(category, counts[id] / (double) total);
+            mean.put(category, (double) MANUAL_DELAY_MINUTES);
+        }
+        return new DelaySimulator(probability, mean);
+    }
+
+    // Category id of a stored reason, or SymbolTable.NONE if it should not be learned from
+    static int categoryIdOf(String reason) {
+        String category = categoryOf(reason);
+        return category == null ? SymbolTable.NONE : SymbolTable.DELAY_CATEGORIES.id(category);
+    }
+
+    // Returns the category of a stored reason, or null if it should not be learned from
+    static String categoryOf(String reason) {
+        if (reason == null || !reason.contains(": ")) return null;
+        String category = reason.split(": ", 2)[0];
+        if ("null".equals(category) || category.startsWith("Propagated Delay")) return null;
+        return category;
+    }
+
+    public List<String> getCategories() { return List.of(categories); }
+
+    // --- Simulation ---
+    public Result run(List<Flight> allFlights, LocalDate day, int replays, long seed) {
+        // 1. Flatten the day into per-aircraft rotations (CSR layout: tailStart[t]..tailStart[t+1])
+        Map<String, List<Flight>> byTail = allFlights.stream()
+                .filter(f -> f.getDepartureTime().toLocalDate().equals(day))
+                .filter(f -> !"Cancelled".equalsIgnoreCase(f.getStatus()))
+                .sorted(Comparator.comparing(Flight::getDepartureTime))
+                .collect(Collectors.groupingBy(f -> f.getAircraft().getRegistrationNumber(),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        int n = byTail.values().stream().mapToInt(List::size).sum();
+        Flight[] order = new Flight[n];
+        int[] dep = new int[n];
+        int[] block = new int[n];
+        int[] tailStart = new int[byTail.size() + 1];
+
+        LocalDateTime dayStart = day.atStartOfDay();
+        int i = 0, t = 0;
+        for (List<Flight> rotation : byTail.values()) {
+            tailStart[t++] = i;
+            for (Flight f : rotation) {
+                order[i] = f;
+                dep[i] = (int) Duration.between(dayStart, f.getDepartureTime()).toMinutes();
+                block[i] = (int) Duration.between(f.getDepartureTime(), f.getArrivalTime()).toMinutes();
+                i++;
+            }
+        }
+        tailStart[t] = n;
+
+        if (n == 0 || replays <= 0) return new Result(replays, 0, 0, 100.0, new ArrayList<>());
+
+        // 2. Split replays into chunks; each chunk owns its accumulators and RNG
+        int chunks = Math.min(replays, ForkJoinPool.getCommonPoolParallelism() * 4);
+        Accumulator total = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    int from = (int) ((long) replays * c / chunks);
+                    int to = (int) ((long) replays * (c + 1) / chunks);
+                    return runChunk(dep, block, tailStart, to - from, new SplittableRandom(seed + 0x9E3779B97F4A7C15L * c));
+                })
+                .reduce(Accumulator::merge)
+                .orElseThrow();
+
+        // 3. Summarise
+        List<FragileFlight> fragile = new ArrayList<>();
+        for (int k = 0; k < n; k++) {
+            fragile.add(new FragileFlight(order[k].getFlightNumber(),
+                    total.delaySum[k] / (double) replays,
+                    100.0 * total.lateCount[k] / replays));
+        }
+        fragile.sort(Comparator.comparingDouble(FragileFlight::getLateProbability)
+                .thenComparingDouble(FragileFlight::getAverageDelay).reversed());
+
+        double expected = total.totalDelay / (double) replays;
+        double onTime = 100.0 * (total.flightsFlown - total.lateFlights) / total.flightsFlown;
+        return new Result(replays, n, expected, onTime, fragile);
+    }
+
+    // Runs a batch of replays; the inner loop allocates nothing
+    private Accumulator runChunk(int[] dep, int[] block, int[] tailStart, int replays, SplittableRandom rnd) {
+        int n = dep.length;
+        Accumulator acc = new Accumulator(n);
+        int tails = tailStart.length - 1;
+
+        for (int r = 0; r < replays; r++) {
+            for (int t = 0; t < tails; t++) {
+                int prevArr = Integer.MIN_VALUE;
+                for (int k = tailStart[t]; k < tailStart[t + 1]; k++) {
+                    int primary = samplePrimaryDelay(rnd);
+                    // Domino rule: cannot leave before the previous leg is in
+                    int actualDep = Math.max(dep[k] + primary, prevArr);
+                    prevArr = actualDep + block[k];
+
+                    int delay = actualDep - dep[k];
+                    acc.delaySum[k] += delay;
+                    acc.totalDelay += delay;
+                    if (delay > ON_TIME_THRESHOLD) {
+                        acc.lateCount[k]++;
+                        acc.lateFlights++;
+                    }
+                }
+            }
+            acc.flightsFlown += n;
+        }
+        return acc;
+    }
+
+    private int samplePrimaryDelay(SplittableRandom rnd) {
+        int minutes = 0;
+        for (int c = 0; c < probability.length; c++) {
+            if (rnd.nextDouble() < probability[c]) {
+                // Exponential around the learned mean
+                minutes += (int) (-meanMinutes[c] * Math.log(1.0 - rnd.nextDouble()));
+            }
+        }
+        return minutes;
+    }
+
+    // --- Per-chunk accumulators ---
+    private static class Accumulator {
+        final long[] delaySum;
+        final int[] lateCount;
+        long totalDelay;
+        long lateFlights;
+        long flightsFlown;
+
+        Accumulator(int n) {
+            delaySum = new long[n];
+            lateCount = new int[n];
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int k = 0; k < delaySum.length; k++) {
+                delaySum[k] += other.delaySum[k];
+                lateCount[k] += other.lateCount[k];
+            }
+            totalDelay += other.totalDelay;
+            lateFlights += other.lateFlights;
+            flightsFlown += other.flightsFlown;
+            return this;
+        }
+    }
+
+    // --- Result Classes ---
+    public static class Result {
+        private final int replays;
+        private final int flights;
+        private final double expectedDelayMinutes;
+        private final double onTimePercentage;
+        private final List<FragileFlight> fragileFlights;
+
+        public Result(int replays, int flights, double expectedDelayMinutes, double onTimePercentage, List<FragileFlight> fragileFlights) {
+            this.replays = replays;
+            this.flights = flights;
+            this.expectedDelayMinutes = expectedDelayMinutes;
+            this.onTimePercentage = onTimePercentage;
+            this.fragileFlights = fragileFlights;
+        }
+
+        public int getReplays() { return replays; }
+        public int getFlights() { return flights; }
+        public double getExpectedDelayMinutes() { return expectedDelayMinutes; }
+        public double getOnTimePercentage() { return onTimePercentage; }
+        public List<FragileFlight> getFragileFlights() { return fragileFlights; }
+        public List<FragileFlight> getMostFragile(int limit) {
+            return fragileFlights.subList(0, Math.min(limit, fragileFlights.size()));
+        }
+    }
+
+    public static class FragileFlight {
+        private final String flightNumber;
+        private final double averageDelay;
+        private final double lateProbability;
+
+        public FragileFlight(String flightNumber, double averageDelay, double lateProbability) {
+            this.flightNumber = flightNumber;
+            this.averageDelay = averageDelay;
+            this.lateProbability = lateProbability;
+        }
+
+        public String getFlightNumber() { return flightNumber; }
+        public double getAverageDelay() { return averageDelay; }
+        public double getLateProbability() { return lateProbability; }
+    }
+}
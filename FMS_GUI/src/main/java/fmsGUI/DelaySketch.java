@@ -0,0 +1,109 @@
+package fmsGUI;
+
+import java.util.Arrays;
+
+// Log-linear histogram of delay minutes (HDR style): exact below 64 minutes, then 32 buckets
+// per power of two, so any percentile is within ~3% of the true value. Recording is O(1),
+// memory is bounded by the largest value seen, and two sketches merge by adding counts.
+public class DelaySketch {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private long[] counts = new long[2 * SUB];
+    private long count;
+    private long sum;
+    private int max;
+
+    // Bucket of a value: v itself below 2*SUB, else (shift, top SUB_BITS+1 bits)
+    static int index(int v) {
+        if (v < 2 * SUB) return v;
+        int shift = 31 - Integer.numberOfLeadingZeros(v) - SUB_BITS;
+        return shift * SUB + (v >>> shift);
+    }
+
+    static int lowerBound(int index) {
+        if (index < 2 * SUB) return index;
+        int shift = index / SUB - 1;
+        return (index % SUB + SUB) << shift;
+    }
+
+    static int upperBound(int index) {
+        if (index < 2 * SUB) return index;
+        int shift = index / SUB - 1;
+        return ((index % SUB + SUB + 1) << shift) - 1;
+    }
+
+    public void record(long minutes) {
+        record(minutes, 1);
+    }
+
+    private void record(long minutes, long times) {
+        int v = (int) Math.max(0, Math.min(Integer.MAX_VALUE, minutes));
+        int i = index(v);
+        if (i >= counts.length) counts = Arrays.copyOf(counts, Math.max(i + 1, counts.length * 2));
+        counts[i] += times;
+        count += times;
+        sum += v * times;
+        max = Math.max(max, v);
+    }
+
+    public void merge(DelaySketch other) {
+        if (other.counts.length > counts.length) counts = Arrays.copyOf(counts, other.counts.length);
+        for (int i = 0; i < other.counts.length; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public DelaySketch copy() {
+        DelaySketch c = new DelaySketch();
+        c.merge(this);
+        return c;
+    }
+
+    public long getCount() { return count; }
+    public int getMax() { return max; }
+    public double getMean() { return count == 0 ? 0 : sum / (double) count; }
+
+    // Minutes that 'p' percent of recorded delays stay within, e.g. p = 95
+    public int getPercentile(double p) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * p / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            // Middle of the bucket, but never past the largest value seen
+            if (seen >= rank) return Math.min(max, (lowerBound(i) + upperBound(i)) / 2);
+        }
+        return max;
+    }
+
+    // --- Persistence: "sum;max;index:count;index:count..." ---
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(sum).append(';').append(max);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) sb.append(';').append(i).append(':').append(counts[i]);
+        }
+        return sb.toString();
+    }
+
+    public static DelaySketch decode(String text) {
+        DelaySketch s = new DelaySketch();
+        String[] parts = text.split(";");
+        for (int k = 2; k < parts.length; k++) {
+            String[] bucket = parts[k].split(":");
+            s.record(lowerBound(Integer.parseInt(bucket[0])), Long.parseLong(bucket[1]));
+        }
+        // Bucket bounds only approximate these two
+        s.sum = Long.parseLong(parts[0]);
+        s.max = Integer.parseInt(parts[1]);
+        return s;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d delays, p50 %d / p95 %d / p99 %d min", count, getPercentile(50), getPercentile(95), getPercentile(99));
+    }
+}
@@ -0,0 +1,123 @@
+package fmsGUI;
+
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+// Delay-minute sketches per delay category, route, aircraft and scheduled day, plus one overall.
+// Every delay event (manual, bulk, first push from a propagated cause) is recorded once, O(1)
+// per sketch; no events are kept. Percentiles for any day span come from merging day sketches.
+public class DelayStats {
+
+    public static final String PROPAGATED = "Propagated";
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    private final DelaySketch overall = new DelaySketch();
+    private final Map<Integer, DelaySketch> byCategory = new HashMap<>();  // SymbolTable.DELAY_CATEGORIES
+    private final Map<Long, DelaySketch> byRoute = new HashMap<>();        // RouteIndex.routeKey
+    private final Map<Integer, DelaySketch> byAircraft = new HashMap<>();  // SymbolTable.REGISTRATIONS
+    private final NavigableMap<Long, DelaySketch> byDay = new TreeMap<>(); // epoch day
+
+    static String categoryOf(String reason) {
+        if (reason != null && reason.startsWith("Propagated Delay")) return PROPAGATED;
+        String category = DelaySimulator.categoryOf(reason);
+        return category == null ? UNCATEGORIZED : category;
+    }
+
+    // Called wherever a delay is applied; bulk cascades call this from several threads
+    public synchronized void record(Flight f, String reason, long minutes) {
+        if (minutes <= 0) return;
+        overall.record(minutes);
+        byCategory.computeIfAbsent(SymbolTable.DELAY_CATEGORIES.id(categoryOf(reason)), k -> new DelaySketch()).record(minutes);
+        byRoute.computeIfAbsent(RouteIndex.routeKey(f.getOriginId(), f.getDestinationId()), k -> new DelaySketch()).record(minutes);
+        if (f.getAircraft() != null) {
+            byAircraft.computeIfAbsent(f.getAircraft().getRegistrationId(), k -> new DelaySketch()).record(minutes);
+        }
+        byDay.computeIfAbsent(RouteIndex.scheduledDay(f), k -> new DelaySketch()).record(minutes);
+    }
+
+    // --- Queries (copies, safe to keep) ---
+    public synchronized DelaySketch getOverall() { return overall.copy(); }
+
+    public synchronized DelaySketch getCategory(String category) {
+        return copyOf(byCategory.get(SymbolTable.DELAY_CATEGORIES.find(category)));
+    }
+
+    public synchronized DelaySketch getRoute(String origin, String destination) {
+        return copyOf(byRoute.get(RouteIndex.routeKey(SymbolTable.AIRPORTS.find(origin), SymbolTable.AIRPORTS.find(destination))));
+    }
+
+    public synchronized DelaySketch getAircraft(String registration) {
+        return copyOf(byAircraft.get(SymbolTable.REGISTRATIONS.find(registration)));
+    }
+
+    // Scheduled days in [from, to]
+    public synchronized DelaySketch getDays(LocalDate from, LocalDate to) {
+        DelaySketch merged = new DelaySketch();
+        for (DelaySketch s : byDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) merged.merge(s);
+        return merged;
+    }
+
+    // Category name -> sketch
+    public synchronized Map<String, DelaySketch> getCategories() {
+        Map<String, DelaySketch> result = new LinkedHashMap<>();
+        for (Map.Entry<Integer, DelaySketch> e : byCategory.entrySet()) {
+            result.put(SymbolTable.DELAY_CATEGORIES.name(e.getKey()), e.getValue().copy());
+        }
+        return result;
+    }
+
+    private static DelaySketch copyOf(DelaySketch s) {
+        return s == null ? new DelaySketch() : s.copy();
+    }
+
+    // --- Save / Load ---
+    // One sketch per line: ALL,enc | CATEGORY,@id,enc | ROUTE,@orig,@dest,enc | AIRCRAFT,@reg,enc | DAY,yyyy-mm-dd,enc
+    public synchronized void save(PrintWriter out) {
+        if (overall.getCount() == 0) return;
+        out.println("ALL," + overall.encode());
+        byCategory.forEach((id, s) -> out.println("CATEGORY,@" + id + "," + s.encode()));
+        byRoute.forEach((key, s) -> out.println("ROUTE,@" + (int) (key >>> 32) + ",@" + (int) (long) key + "," + s.encode()));
+        byAircraft.forEach((id, s) -> out.println("AIRCRAFT,@" + id + "," + s.encode()));
+        byDay.forEach((day, s) -> out.println("DAY," + LocalDate.ofEpochDay(day) + "," + s.encode()));
+    }
+
+    // The resolvers turn a saved token ("@3") back into a name (ids may differ between runs)
+    public synchronized void load(Scanner in, UnaryOperator<String> category, UnaryOperator<String> airport, UnaryOperator<String> registration) {
+        while (in.hasNextLine()) {
+            String[] parts = in.nextLine().split(",");
+            if (parts.length < 2) continue;
+            try {
+                switch (parts[0]) {
+                    case "ALL":
+                        overall.merge(DelaySketch.decode(parts[1]));
+                        break;
+                    case "CATEGORY":
+                        byCategory.computeIfAbsent(SymbolTable.DELAY_CATEGORIES.id(category.apply(parts[1])), k -> new DelaySketch())
+                                .merge(DelaySketch.decode(parts[2]));
+                        break;
+                    case "ROUTE":
+                        byRoute.computeIfAbsent(RouteIndex.routeKey(SymbolTable.AIRPORTS.id(airport.apply(parts[1])),
+                                SymbolTable.AIRPORTS.id(airport.apply(parts[2]))), k -> new DelaySketch()).merge(DelaySketch.decode(parts[3]));
+                        break;
+                    case "AIRCRAFT":
+                        byAircraft.computeIfAbsent(SymbolTable.REGISTRATIONS.id(registration.apply(parts[1])), k -> new DelaySketch())
+                                .merge(DelaySketch.decode(parts[2]));
+                        break;
+                    case "DAY":
+                        byDay.computeIfAbsent(LocalDate.parse(parts[1]).toEpochDay(), k -> new DelaySketch()).merge(DelaySketch.decode(parts[2]));
+                        break;
+                    default:
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Skipped delay sketch: " + e.getMessage());
+            }
+        }
+    }
+}
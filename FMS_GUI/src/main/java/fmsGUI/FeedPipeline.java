@@ -0,0 +1,228 @@
+package fmsGUI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Movement ingestion: MovementFeed -> Batcher -> Sink (FlightManagementSystem.applyMovements).
+// Every hop has a bounded buffer; each stage only requests what it can take, so a slow
+// system stalls the batcher, which stalls the feed's submit().
+public class FeedPipeline {
+
+    public static final int BUFFER_SIZE = 1024;
+    public static final int BATCH_SIZE = 256;
+    public static final long MAX_BATCH_DELAY_MILLIS = 50;
+
+    private final FlightManagementSystem system;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private MovementFeed feed;
+    private Batcher batcher;
+
+    // --- Metrics ---
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalLagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public FeedPipeline(FlightManagementSystem system) {
+        this.system = system;
+        this.executor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "feed-pipeline");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "feed-batch-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // --- Source Factories (share the pipeline's executor) ---
+    public MovementFeed generator(int eventsPerSecond, boolean repeat) {
+        return new MovementFeed.Generator(executor, BUFFER_SIZE, system.getAllFlights(), eventsPerSecond, repeat, System.nanoTime());
+    }
+
+    public MovementFeed fileTail(java.nio.file.Path file) {
+        return new MovementFeed.FileTail(executor, BUFFER_SIZE, file);
+    }
+
+    public MovementFeed socket(int port) {
+        return new MovementFeed.SocketListener(executor, BUFFER_SIZE, port);
+    }
+
+    // --- Lifecycle ---
+    public void start(MovementFeed source) {
+        if (feed != null) throw new IllegalStateException("Pipeline already started.");
+        feed = source;
+        batcher = new Batcher();
+        batcher.subscribe(new Sink());
+        feed.subscribe(batcher);
+        startNanos = System.nanoTime();
+        feed.start();
+    }
+
+    // Stops the source. What is still batched is flushed and applied as the stream completes;
+    // the pipeline's threads are shut down after that (see Sink), not before.
+    public void stop() {
+        timer.shutdownNow();
+        if (feed != null) feed.stop();
+        else executor.shutdown();
+        if (endNanos == 0) endNanos = System.nanoTime();
+    }
+
+    public boolean isRunning() { return feed != null && endNanos == 0; }
+
+    // --- Stage 1: Batching ---
+    private class Batcher extends SubmissionPublisher<List<MovementEvent>> implements Flow.Processor<MovementEvent, List<MovementEvent>> {
+        private Flow.Subscription upstream;
+        private List<MovementEvent> pending = new ArrayList<>(BATCH_SIZE);
+
+        Batcher() {
+            super(executor, BUFFER_SIZE / BATCH_SIZE);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            upstream.request(BATCH_SIZE);
+            // Partial batches still go out when the feed is quiet
+            timer.scheduleWithFixedDelay(this::flush, MAX_BATCH_DELAY_MILLIS, MAX_BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void onNext(MovementEvent event) {
+            received.incrementAndGet();
+            boolean full;
+            synchronized (this) {
+                pending.add(event);
+                full = pending.size() >= BATCH_SIZE;
+            }
+            if (full) flush();
+        }
+
+        // Held across submit() so the timer and onNext can't reorder batches
+        private synchronized void flush() {
+            if (pending.isEmpty()) return;
+            List<MovementEvent> batch = pending;
+            pending = new ArrayList<>(BATCH_SIZE);
+            submit(batch); // blocks while the sink is behind
+            upstream.request(batch.size());
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            flush();
+            closeExceptionally(t);
+        }
+
+        @Override
+        public void onComplete() {
+            flush();
+            close();
+        }
+    }
+
+    // --- Stage 2: Apply ---
+    private class Sink implements Flow.Subscriber<List<MovementEvent>> {
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<MovementEvent> batch) {
+            // Applied on the system's update thread; the next batch is requested once this one is in
+            system.getUpdateExecutor().execute(() -> {
+                int ok = system.applyMovements(batch);
+                long now = System.nanoTime();
+                for (MovementEvent e : batch) {
+                    long lag = now - e.getCreatedNanos();
+                    totalLagNanos.addAndGet(lag);
+                    maxLagNanos.accumulateAndGet(lag, Math::max);
+                }
+                applied.addAndGet(ok);
+                rejected.addAndGet(batch.size() - ok);
+                batches.incrementAndGet();
+                subscription.request(1);
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            System.out.println("Feed error: " + t.getMessage());
+            endNanos = System.nanoTime();
+            executor.shutdown();
+        }
+
+        // Only arrives after the batcher's last flush has been delivered
+        @Override
+        public void onComplete() {
+            endNanos = System.nanoTime();
+            executor.shutdown();
+        }
+    }
+
+    // --- Metrics Snapshot ---
+    public Metrics getMetrics() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        double seconds = Math.max(1e-9, (end - startNanos) / 1e9);
+        long done = applied.get() + rejected.get();
+        int buffered = (feed == null ? 0 : feed.estimateMaximumLag()) + (batcher == null ? 0 : batcher.estimateMaximumLag());
+        return new Metrics(received.get(), applied.get(), rejected.get(), batches.get(), done / seconds,
+                done == 0 ? 0 : totalLagNanos.get() / done / 1e6, maxLagNanos.get() / 1e6, buffered);
+    }
+
+    public static class Metrics {
+        private final long received;
+        private final long applied;
+        private final long rejected;
+        private final long batches;
+        private final double eventsPerSecond;
+        private final double averageLagMillis;
+        private final double maxLagMillis;
+        private final int buffered;
+
+        public Metrics(long received, long applied, long rejected, long batches, double eventsPerSecond,
+                       double averageLagMillis, double maxLagMillis, int buffered) {
+            this.received = received;
+            this.applied = applied;
+            this.rejected = rejected;
+            this.batches = batches;
+            this.eventsPerSecond = eventsPerSecond;
+            this.averageLagMillis = averageLagMillis;
+            this.maxLagMillis = maxLagMillis;
+            this.buffered = buffered;
+        }
+
+        public long getReceived() { return received; }
+        public long getApplied() { return applied; }
+        public long getRejected() { return rejected; }
+        public long getBatches() { return batches; }
+        public double getEventsPerSecond() { return eventsPerSecond; }
+        public double getAverageLagMillis() { return averageLagMillis; }
+        public double getMaxLagMillis() { return maxLagMillis; }
+        public int getBuffered() { return buffered; }
+
+        @Override
+        public String toString() {
+            return String.format("Received %d, applied %d, rejected %d in %d batches%n"
+                    + "Throughput %.0f events/s, lag avg %.1f ms / max %.1f ms, %d buffered",
+                    received, applied, rejected, batches, eventsPerSecond, averageLagMillis, maxLagMillis, buffered);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package fmsGUI;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Keeps each aircraft's count of active flights (anything not Arrived or Cancelled) in step with
+// flight events, so Aircraft.getStatus() is a field read instead of a rescan of the tail's flights.
+public class FleetStatus implements FlightChangeListener {
+
+    // Aircraft whose counter includes the flight; null value = filed but not active
+    private final Map<Flight, Aircraft> counted = new IdentityHashMap<>();
+
+    static boolean isActive(Flight f) {
+        String s = f.getStatus();
+        return !"Arrived".equalsIgnoreCase(s) && !"Cancelled".equalsIgnoreCase(s);
+    }
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public synchronized void flightAdded(Flight f) {
+        if (counted.containsKey(f)) {
+            recount(f);
+            return;
+        }
+        Aircraft a = isActive(f) ? f.getAircraft() : null;
+        counted.put(f, a);
+        if (a != null) a.adjustActiveFlights(1);
+    }
+
+    @Override
+    public synchronized void flightRemoved(Flight f) {
+        Aircraft a = counted.remove(f);
+        if (a != null) a.adjustActiveFlights(-1);
+    }
+
+    @Override
+    public synchronized void flightsChanged(Collection<Flight> changed) {
+        for (Flight f : changed) {
+            if (counted.containsKey(f)) recount(f);
+        }
+    }
+
+    // Status or aircraft may have changed
+    private void recount(Flight f) {
+        Aircraft was = counted.get(f);
+        Aircraft now = isActive(f) ? f.getAircraft() : null;
+        if (was == now) return;
+        if (was != null) was.adjustActiveFlights(-1);
+        if (now != null) now.adjustActiveFlights(1);
+        counted.put(f, now);
+    }
+}
@@ -1,6 +1,7 @@
 package fmsGUI;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,8 +10,9 @@ public class Flight implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private String flightNumber;
-    private String origin;
-    private String destination;
+    // Airport ids (SymbolTable.AIRPORTS)
+    private int originId;
+    private int destinationId;
     
     // Timestamps (subject to change due to delays)
     private LocalDateTime departureTime; 
@@ -21,13 +23,23 @@ public class Flight implements Serializable {
     private int bookedPassengers;
     
     private List<String> delayReasons = new ArrayList<>();
+    
+    // Minutes the flight has been pushed back (total, and the part inherited from earlier legs)
+    private long delayMinutes;
+    private long propagatedDelayMinutes;
+    
+    // Set on instances of a SchedulePattern (null for one-off flights)
+    private LocalDate serviceDate;
+    
+    // True while a background cascade for this aircraft is queued (not persisted)
+    private transient volatile boolean pendingPropagation;
 
     public Flight(String flightNumber, String origin, String destination, 
                   LocalDateTime departureTime, LocalDateTime arrivalTime, 
                   Aircraft aircraft, int bookedPassengers) {
         this.flightNumber = flightNumber;
-        this.origin = origin;
-        this.destination = destination;
+        this.originId = SymbolTable.AIRPORTS.id(origin);
+        this.destinationId = SymbolTable.AIRPORTS.id(destination);
         this.departureTime = departureTime;
         this.arrivalTime = arrivalTime;
         this.aircraft = aircraft;
@@ -37,25 +49,53 @@ public class Flight implements Serializable {
 
     // Manual delay: adds 1 hour
     public void addDelayReason(String reason) {
+        addDelay(reason, 60);
+    }
+    
+    // Own delay of a given length (bulk disruptions)
+    public void addDelay(String reason, long minutes) {
         this.delayReasons.add(reason);
-        this.departureTime = this.departureTime.plusHours(1); 
-        this.arrivalTime = this.arrivalTime.plusHours(1);     
+        this.departureTime = this.departureTime.plusMinutes(minutes); 
+        this.arrivalTime = this.arrivalTime.plusMinutes(minutes);     
+        this.delayMinutes += minutes;
     }
     
     // System propagation delay: adds specific minutes
     public void addPropagatedDelay(String reason, long minutes) {
         this.delayReasons.add(reason);
+        addPropagatedMinutes(minutes);
+    }
+    
+    // Further push from the same cause (reason already recorded)
+    public void addPropagatedMinutes(long minutes) {
         this.departureTime = this.departureTime.plusMinutes(minutes);
         this.arrivalTime = this.arrivalTime.plusMinutes(minutes);
+        this.delayMinutes += minutes;
+        this.propagatedDelayMinutes += minutes;
+    }
+    
+    // Recovery: undo inherited delay (e.g. flight moved to another aircraft)
+    public void clearPropagatedDelay() {
+        this.departureTime = this.departureTime.minusMinutes(propagatedDelayMinutes);
+        this.arrivalTime = this.arrivalTime.minusMinutes(propagatedDelayMinutes);
+        this.delayMinutes -= propagatedDelayMinutes;
+        this.propagatedDelayMinutes = 0;
+        this.delayReasons.removeIf(r -> r.startsWith("Propagated Delay"));
     }
 
     // --- Getters & Setters ---
     public String getFlightNumber() { return flightNumber; }
+    // Unique key in the system: instances of a recurring service share a flight number
+    public String getKey() { return serviceDate == null ? flightNumber : flightNumber + "/" + serviceDate; }
+    public LocalDate getServiceDate() { return serviceDate; }
+    public void setServiceDate(LocalDate serviceDate) { this.serviceDate = serviceDate; }
     public void setFlightNumber(String flightNumber) { this.flightNumber = flightNumber; }
-    public String getOrigin() { return origin; }
-    public void setOrigin(String origin) { this.origin = origin; }
-    public String getDestination() { return destination; }
-    public void setDestination(String destination) { this.destination = destination; }
+    public String getOrigin() { return SymbolTable.AIRPORTS.name(originId); }
+    public void setOrigin(String origin) { this.originId = SymbolTable.AIRPORTS.id(origin); }
+    public int getOriginId() { return originId; }
+    public String getDestination() { return SymbolTable.AIRPORTS.name(destinationId); }
+    public void setDestination(String destination) { this.destinationId = SymbolTable.AIRPORTS.id(destination); }
+    public int getDestinationId() { return destinationId; }
     public LocalDateTime getDepartureTime() { return departureTime; }
     public void setDepartureTime(LocalDateTime departureTime) { this.departureTime = departureTime; }
     public LocalDateTime getArrivalTime() { return arrivalTime; }
@@ -67,7 +107,13 @@ public class Flight implements Serializable {
     public int getBookedPassengers() { return bookedPassengers; }
     public void setBookedPassengers(int bookedPassengers) { this.bookedPassengers = bookedPassengers; }
     public List<String> getDelayReasons() { return delayReasons; }
+    public long getDelayMinutes() { return delayMinutes; }
+    public void setDelayMinutes(long delayMinutes) { this.delayMinutes = delayMinutes; }
+    public long getPropagatedDelayMinutes() { return propagatedDelayMinutes; }
+    public void setPropagatedDelayMinutes(long propagatedDelayMinutes) { this.propagatedDelayMinutes = propagatedDelayMinutes; }
+    public boolean isPendingPropagation() { return pendingPropagation; }
+    public void setPendingPropagation(boolean pendingPropagation) { this.pendingPropagation = pendingPropagation; }
     
     @Override
-    public String toString() { return flightNumber + " (" + origin + " -> " + destination + ")"; }
+    public String toString() { return flightNumber + " (" + getOrigin() + " -> " + getDestination() + ")"; }
 }
\ No newline at end of file
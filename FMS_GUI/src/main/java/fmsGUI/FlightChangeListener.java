@@ -0,0 +1,16 @@
+package fmsGUI;
+
+import java.util.Collection;
+
+// Notified by FlightManagementSystem after flights are stored, removed or changed.
+// Bulk operations report all their changes (including cascades) in one flightsChanged call.
+public interface FlightChangeListener {
+    default void flightAdded(Flight flight) {}
+    default void flightRemoved(Flight flight) {}
+    // Moved to the archive (memory-budget mode): gone from memory, but it still happened, so
+    // rollups over past flights keep its share. Anything else treats it as removed.
+    default void flightArchived(Flight flight) { flightRemoved(flight); }
+    // Already in the archive when the data was loaded: rollups count it again, nothing else does
+    default void archivedFlightLoaded(Flight flight) {}
+    default void flightsChanged(Collection<Flight> changed) {}
+}
@@ -0,0 +1,329 @@
+package fmsGUI;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+// Columnar mirror of the flight table for analytics: one primitive array per field, one row
+// per stored flight. Scans touch only the columns they need and allocate nothing per row.
+// Kept in sync through FlightChangeListener; rows stay dense (removal swaps in the last row).
+// Archived flights (memory-budget mode) keep their row, frozen and without the Flight itself.
+public class FlightColumns implements FlightChangeListener {
+
+    // --- Status Ids ---
+    public static final String[] STATUSES = {"Scheduled", "Boarding", "Departed", "In Flight", "Arrived", "Delayed", "Cancelled"};
+    public static final int OTHER_STATUS = STATUSES.length;
+
+    // --- Group-by Keys ---
+    public static final int BY_ORIGIN = 0;
+    public static final int BY_DESTINATION = 1;
+    public static final int BY_TAIL = 2;
+    public static final int BY_STATUS = 3;
+    public static final int BY_HOUR = 4; // departure hour of day
+
+    // --- Measures ---
+    public static final int COUNT = 0;
+    public static final int PAX = 1;
+    public static final int CARGO_KG = 2;
+    public static final int DELAY_MINUTES = 3;
+
+    // Below this many rows a scan stays on the calling thread
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // --- Columns ---
+    private int[] depMinute = new int[0];    // epoch minutes (local time, as TailAssigner.minute)
+    private int[] arrMinute = new int[0];
+    private byte[] status = new byte[0];
+    private int[] originId = new int[0];     // SymbolTable.AIRPORTS
+    private int[] destinationId = new int[0];
+    private int[] tailId = new int[0];       // SymbolTable.REGISTRATIONS
+    private int[] pax = new int[0];
+    private int[] cargoKg = new int[0];
+    private int[] delayMinutes = new int[0];
+    private Flight[] rows = new Flight[0];
+    private int size;
+
+    private final Map<Flight, Integer> rowOf = new IdentityHashMap<>();
+    // Events arrive under the system lock; scans may run on any thread
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static int statusId(String s) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equalsIgnoreCase(s)) return i;
+        }
+        return OTHER_STATUS;
+    }
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public void flightAdded(Flight f) {
+        lock.writeLock().lock();
+        try {
+            if (rowOf.containsKey(f)) {
+                write(rowOf.get(f), f);
+                return;
+            }
+            if (size == rows.length) grow(Math.max(16, size * 2));
+            rowOf.put(f, size);
+            rows[size] = f;
+            write(size, f);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void flightRemoved(Flight f) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowOf.remove(f);
+            if (row == null) return;
+            int last = --size;
+            if (row != last) {
+                // Move the last row into the hole
+                Flight moved = rows[last];
+                rows[row] = moved;
+                depMinute[row] = depMinute[last];
+                arrMinute[row] = arrMinute[last];
+                status[row] = status[last];
+                originId[row] = originId[last];
+                destinationId[row] = destinationId[last];
+                tailId[row] = tailId[last];
+                pax[row] = pax[last];
+                cargoKg[row] = cargoKg[last];
+                delayMinutes[row] = delayMinutes[last];
+                if (moved != null) rowOf.put(moved, row);
+            }
+            rows[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The row stays for the aggregates; only the reference goes, so the flight can leave the heap
+    @Override
+    public void flightArchived(Flight f) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowOf.remove(f);
+            if (row != null) rows[row] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void archivedFlightLoaded(Flight f) {
+        lock.writeLock().lock();
+        try {
+            if (size == rows.length) grow(Math.max(16, size * 2));
+            write(size, f);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void flightsChanged(Collection<Flight> changed) {
+        lock.writeLock().lock();
+        try {
+            for (Flight f : changed) {
+                Integer row = rowOf.get(f);
+                if (row != null) write(row, f);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(int row, Flight f) {
+        depMinute[row] = TailAssigner.minute(f.getDepartureTime());
+        arrMinute[row] = TailAssigner.minute(f.getArrivalTime());
+        status[row] = (byte) statusId(f.getStatus());
+        originId[row] = f.getOriginId();
+        destinationId[row] = f.getDestinationId();
+        tailId[row] = f.getAircraft() == null ? SymbolTable.NONE : f.getAircraft().getRegistrationId();
+        pax[row] = f.getBookedPassengers();
+        cargoKg[row] = (f instanceof CargoFlight) ? (int) Math.round(((CargoFlight) f).getCargoCapacity()) : 0;
+        delayMinutes[row] = (int) f.getDelayMinutes();
+    }
+
+    private void grow(int cap) {
+        depMinute = Arrays.copyOf(depMinute, cap);
+        arrMinute = Arrays.copyOf(arrMinute, cap);
+        status = Arrays.copyOf(status, cap);
+        originId = Arrays.copyOf(originId, cap);
+        destinationId = Arrays.copyOf(destinationId, cap);
+        tailId = Arrays.copyOf(tailId, cap);
+        pax = Arrays.copyOf(pax, cap);
+        cargoKg = Arrays.copyOf(cargoKg, cap);
+        delayMinutes = Arrays.copyOf(delayMinutes, cap);
+        rows = Arrays.copyOf(rows, cap);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Queries ---
+    public Query query() { return new Query(); }
+
+    // Number of matching flights
+    public long count(Query q) {
+        return sum(q, COUNT);
+    }
+
+    // Total of one measure over the matching flights
+    public long sum(Query q, int measure) {
+        return aggregate(q, -1, measure)[0];
+    }
+
+    // Measure totals per group id (airport / registration id, status id or hour)
+    public long[] groupBy(Query q, int by, int measure) {
+        return aggregate(q, by, measure);
+    }
+
+    // Matching flights in memory, in row order (archived rows are counted, not returned)
+    public List<Flight> select(Query q) {
+        lock.readLock().lock();
+        try {
+            List<Flight> result = new ArrayList<>();
+            for (int r = 0; r < size; r++) {
+                if (rows[r] != null && matches(q, r)) result.add(rows[r]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] aggregate(Query q, int by, int measure) {
+        lock.readLock().lock();
+        try {
+            int groups = groupCount(by);
+            int n = size;
+            if (n < PARALLEL_THRESHOLD) return scan(q, by, measure, groups, 0, n);
+
+            // Each chunk fills its own accumulator; partial results are added up afterwards
+            int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+            return IntStream.range(0, chunks).parallel()
+                    .mapToObj(c -> scan(q, by, measure, groups, (int) ((long) n * c / chunks), (int) ((long) n * (c + 1) / chunks)))
+                    .reduce((a, b) -> {
+                        for (int i = 0; i < a.length; i++) a[i] += b[i];
+                        return a;
+                    })
+                    .orElseThrow();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int groupCount(int by) {
+        switch (by) {
+            case BY_ORIGIN:
+            case BY_DESTINATION: return SymbolTable.AIRPORTS.size();
+            case BY_TAIL: return SymbolTable.REGISTRATIONS.size();
+            case BY_STATUS: return STATUSES.length + 1;
+            case BY_HOUR: return 24;
+            default: return 1;
+        }
+    }
+
+    // Rows [from, to); the loop body only reads primitive columns
+    private long[] scan(Query q, int by, int measure, int groups, int from, int to) {
+        long[] acc = new long[groups];
+        int[] values = measure == PAX ? pax : measure == CARGO_KG ? cargoKg : measure == DELAY_MINUTES ? delayMinutes : null;
+        for (int r = from; r < to; r++) {
+            if (!matches(q, r)) continue;
+            int g;
+            switch (by) {
+                case BY_ORIGIN: g = originId[r]; break;
+                case BY_DESTINATION: g = destinationId[r]; break;
+                case BY_TAIL: g = tailId[r]; break;
+                case BY_STATUS: g = status[r]; break;
+                case BY_HOUR: g = Math.floorMod(depMinute[r], 1440) / 60; break;
+                default: g = 0;
+            }
+            // Ids assigned after the result was sized are left out
+            if (g < 0 || g >= groups) continue;
+            acc[g] += values == null ? 1 : values[r];
+        }
+        return acc;
+    }
+
+    private boolean matches(Query q, int r) {
+        int dep = depMinute[r];
+        return dep >= q.fromMinute && dep < q.toMinute
+                && (q.statusMask & (1 << status[r])) != 0
+                && (q.originId == SymbolTable.NONE || originId[r] == q.originId)
+                && (q.destinationId == SymbolTable.NONE || destinationId[r] == q.destinationId)
+                && (q.tailId == SymbolTable.NONE || tailId[r] == q.tailId)
+                && delayMinutes[r] >= q.minDelayMinutes;
+    }
+
+    // --- Filter (all conditions must hold; unset = any) ---
+    public static class Query {
+        private int fromMinute = Integer.MIN_VALUE;
+        private int toMinute = Integer.MAX_VALUE;
+        private int statusMask = -1;
+        private int originId = SymbolTable.NONE;
+        private int destinationId = SymbolTable.NONE;
+        private int tailId = SymbolTable.NONE;
+        private int minDelayMinutes = Integer.MIN_VALUE;
+
+        // Departures in [from, to)
+        public Query departingBetween(LocalDateTime from, LocalDateTime to) {
+            fromMinute = TailAssigner.minute(from);
+            toMinute = TailAssigner.minute(to);
+            return this;
+        }
+
+        // Any of the given statuses
+        public Query status(String... statuses) {
+            statusMask = 0;
+            for (String s : statuses) statusMask |= 1 << statusId(s);
+            return this;
+        }
+
+        // Unknown names match nothing (they would have been assigned an id if any flight used them)
+        public Query origin(String airport) {
+            originId = idOrNothing(SymbolTable.AIRPORTS, airport);
+            return this;
+        }
+
+        public Query destination(String airport) {
+            destinationId = idOrNothing(SymbolTable.AIRPORTS, airport);
+            return this;
+        }
+
+        public Query tail(String registration) {
+            tailId = idOrNothing(SymbolTable.REGISTRATIONS, registration);
+            return this;
+        }
+
+        public Query delayedAtLeast(int minutes) {
+            minDelayMinutes = minutes;
+            return this;
+        }
+
+        private static int idOrNothing(SymbolTable table, String name) {
+            int id = table.find(name);
+            return id == SymbolTable.NONE ? Integer.MIN_VALUE : id;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package fmsGUI;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// Embedded flight store: records live in one file, the indexes (key, flight number, tail,
+// departure) in memory, so lookups read only the records they return and the flights themselves
+// never have to fit in the heap. Self-contained: names are stored as text, no dictionary needed.
+//
+// The file is a header followed by fixed-size slots. A record is [state 1][slot count short]
+// [payload length int][payload][CRC32 int] in one slot, or continued over consecutive slots when
+// it is long (many delay reasons), each of which starts with state 2. Free slots have state 0.
+// A saved record is rewritten in place when its size allows, otherwise moved; freed slots are
+// reused by one-slot records first. Indexes are rebuilt by one sequential scan on open.
+public class FlightDatabase implements FlightRepository {
+
+    private static final Logger LOG = Logger.getLogger(FlightDatabase.class.getName());
+
+    public static final int SLOT_SIZE = 256;
+    private static final int MAGIC = 0x464D5344; // "FMSD"
+    private static final int HEADER = 16;
+    private static final int OVERHEAD = 11;
+    private static final int SCAN_BUFFER = 1 << 20;
+
+    private final FileChannel channel;
+    private final Function<String, Aircraft> aircraft;
+
+    // --- Indexes ---
+    // Sorted, so one flight number's instances ("MH-101", "MH-101/2026-01-05", ...) are a range
+    private final TreeMap<String, Integer> byKey = new TreeMap<>();
+    // (departure minute << 32) | slot, so each set is ordered by departure
+    private final Map<String, TreeSet<Long>> byTail = new HashMap<>();
+    private final TreeSet<Long> byDeparture = new TreeSet<>();
+
+    // Per head slot (what the indexes hold, to take a record out of them without reading it)
+    private int[] extent = new int[1024];       // slots taken, 0 = not a head
+    private int[] departure = new int[1024];    // epoch minute
+    private String[] tail = new String[1024];
+    private String[] key = new String[1024];
+
+    private final TreeSet<Integer> free = new TreeSet<>();
+    private int slotCount;
+
+    // --- Metrics ---
+    private long reads;
+    private long writes;
+
+    public FlightDatabase(Path file, Function<String, Aircraft> aircraft) throws IOException {
+        this.aircraft = aircraft;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER);
+            head.putInt(MAGIC).putInt(1).putInt(SLOT_SIZE).putInt(0).flip();
+            channel.write(head, 0);
+        } else {
+            open();
+        }
+    }
+
+    // Sequential scan: rebuild the indexes, note free slots
+    private void open() throws IOException {
+        ByteBuffer head = read(0, HEADER);
+        if (head.getInt() != MAGIC) throw new IOException("Not a flight database");
+        head.getInt(); // format version
+        if (head.getInt() != SLOT_SIZE) throw new IOException("Unsupported slot size");
+        slotCount = (int) ((channel.size() - HEADER) / SLOT_SIZE);
+        ensure(slotCount);
+
+        int perBuffer = SCAN_BUFFER / SLOT_SIZE;
+        int slot = 0;
+        while (slot < slotCount) {
+            int n = Math.min(perBuffer, slotCount - slot);
+            ByteBuffer buf = read(offset(slot), n * SLOT_SIZE);
+            int i = 0;
+            while (i < n) {
+                int state = buf.get(i * SLOT_SIZE);
+                int span = state == 1 ? buf.getShort(i * SLOT_SIZE + 1) : 1;
+                if (state != 1 || span < 1) {
+                    free.add(slot + i);
+                    i++;
+                    continue;
+                }
+                // A long record may cross the buffer boundary: read it on its own
+                byte[] image = i + span <= n
+                        ? Arrays.copyOfRange(buf.array(), i * SLOT_SIZE, (i + span) * SLOT_SIZE)
+                        : read(offset(slot + i), span * SLOT_SIZE).array();
+                Row r = decode(image, slot + i);
+                if (r == null) {
+                    for (int s = 0; s < span; s++) free.add(slot + i + s);
+                } else {
+                    index(r.key(), SymbolTable.REGISTRATIONS.intern(r.registration), minute(r.departure), slot + i, span);
+                }
+                i += span;
+            }
+            slot += i;
+        }
+    }
+
+    // --- Queries ---
+    @Override
+    public synchronized Flight find(String key) throws IOException {
+        Integer slot = byKey.get(key);
+        return slot == null ? null : load(slot);
+    }
+
+    @Override
+    public synchronized List<Flight> findByFlightNumber(String flightNumber) throws IOException {
+        List<Long> order = new ArrayList<>();
+        Integer single = byKey.get(flightNumber);
+        if (single != null) order.add(((long) departure[single] << 32) | single);
+        for (int slot : byKey.subMap(flightNumber + "/", flightNumber + "/\uffff").values()) {
+            order.add(((long) departure[slot] << 32) | slot);
+        }
+        order.sort(null);
+        return loadAll(order);
+    }
+
+    @Override
+    public synchronized List<Flight> findByTail(String registration) throws IOException {
+        TreeSet<Long> slots = byTail.get(registration);
+        return slots == null ? new ArrayList<>() : loadAll(slots);
+    }
+
+    @Override
+    public synchronized List<Flight> findDepartingBetween(LocalDateTime from, LocalDateTime to) throws IOException {
+        NavigableSet<Long> range = byDeparture.subSet((long) minute(from) << 32, true, (long) minute(to) << 32, false);
+        return loadAll(range);
+    }
+
+    private List<Flight> loadAll(Collection<Long> packed) throws IOException {
+        List<Flight> result = new ArrayList<>(packed.size());
+        for (long p : packed) {
+            Flight f = load((int) p);
+            if (f != null) result.add(f);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Collection<String> keys() { return new ArrayList<>(byKey.keySet()); }
+
+    // In departure order
+    @Override
+    public synchronized void forEach(Consumer<Flight> action) throws IOException {
+        for (long p : byDeparture) {
+            Flight f = load((int) p);
+            if (f != null) action.accept(f);
+        }
+    }
+
+    @Override
+    public synchronized int size() { return byKey.size(); }
+
+    @Override
+    public synchronized boolean contains(String key) { return byKey.containsKey(key); }
+
+    // --- Updates ---
+    @Override
+    public synchronized void save(Flight flight) throws IOException {
+        byte[] payload = encode(flight);
+        int need = payload.length + OVERHEAD;
+        // Continuation slots give up their first byte to the state
+        int span = need <= SLOT_SIZE ? 1 : 1 + (need - SLOT_SIZE + SLOT_SIZE - 2) / (SLOT_SIZE - 1);
+        Integer old = byKey.get(flight.getKey());
+        int slot;
+        if (old != null && extent[old] == span) {
+            // Same size (the usual status or delay change): rewrite in place
+            slot = old;
+            unindex(slot);
+        } else {
+            if (old != null) release(old);
+            slot = allocate(span);
+        }
+        write(slot, image(payload, span));
+        index(flight.getKey(), flight.getAircraft().getRegistrationNumber(), minute(flight.getDepartureTime()), slot, span);
+    }
+
+    @Override
+    public synchronized void delete(String key) throws IOException {
+        Integer slot = byKey.get(key);
+        if (slot != null) release(slot);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    public synchronized long getReadCount() { return reads; }
+    public synchronized long getWriteCount() { return writes; }
+    public synchronized int getFreeSlotCount() { return free.size(); }
+
+    // --- Slots ---
+    private int allocate(int span) {
+        if (span == 1 && !free.isEmpty()) return free.pollFirst();
+        int slot = slotCount;
+        slotCount += span;
+        ensure(slotCount);
+        return slot;
+    }
+
+    // Marks the head free on disk (one byte) and hands the slots back
+    private void release(int slot) throws IOException {
+        int span = extent[slot];
+        unindex(slot);
+        ByteBuffer zero = ByteBuffer.allocate(1);
+        channel.write(zero, offset(slot));
+        for (int s = 0; s < span; s++) free.add(slot + s);
+    }
+
+    private void index(String flightKey, String registration, int depMinute, int slot, int span) {
+        extent[slot] = span;
+        departure[slot] = depMinute;
+        tail[slot] = registration;
+        key[slot] = flightKey;
+        long packed = ((long) departure[slot] << 32) | slot;
+        byKey.put(key[slot], slot);
+        byTail.computeIfAbsent(tail[slot], k -> new TreeSet<>()).add(packed);
+        byDeparture.add(packed);
+    }
+
+    private void unindex(int slot) {
+        long packed = ((long) departure[slot] << 32) | slot;
+        byKey.remove(key[slot]);
+        TreeSet<Long> sameTail = byTail.get(tail[slot]);
+        sameTail.remove(packed);
+        if (sameTail.isEmpty()) byTail.remove(tail[slot]);
+        byDeparture.remove(packed);
+        extent[slot] = 0;
+        tail[slot] = null;
+        key[slot] = null;
+    }
+
+    private void ensure(int slots) {
+        if (slots <= extent.length) return;
+        int cap = Math.max(slots, extent.length * 2);
+        extent = Arrays.copyOf(extent, cap);
+        departure = Arrays.copyOf(departure, cap);
+        tail = Arrays.copyOf(tail, cap);
+        key = Arrays.copyOf(key, cap);
+    }
+
+    // Null if the record is damaged or its tail is unknown to the resolver
+    private Flight load(int slot) throws IOException {
+        Row r = decode(read(offset(slot), extent[slot] * SLOT_SIZE).array(), slot);
+        return r == null ? null : r.toFlight(aircraft);
+    }
+
+    private ByteBuffer read(long pos, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, pos + buf.position()) < 0) break;
+        }
+        buf.flip();
+        reads++;
+        return buf;
+    }
+
+    private void write(int slot, byte[] image) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(image);
+        long pos = offset(slot);
+        while (buf.hasRemaining()) pos += channel.write(buf, pos);
+        writes++;
+    }
+
+    private static long offset(int slot) {
+        return HEADER + (long) slot * SLOT_SIZE;
+    }
+
+    private static int minute(LocalDateTime t) {
+        return (int) (t.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    // --- Encoding ---
+    private static byte[] encode(Flight f) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(f.getFlightNumber());
+            out.writeUTF(f.getOrigin());
+            out.writeUTF(f.getDestination());
+            out.writeLong(f.getDepartureTime().toEpochSecond(ZoneOffset.UTC));
+            out.writeLong(f.getArrivalTime().toEpochSecond(ZoneOffset.UTC));
+            out.writeUTF(f.getStatus());
+            out.writeUTF(f.getAircraft().getRegistrationNumber());
+            out.writeBoolean(f instanceof CargoFlight);
+            out.writeDouble(f instanceof CargoFlight ? ((CargoFlight) f).getCargoCapacity() : 0);
+            out.writeInt(f.getBookedPassengers());
+            out.writeShort(f.getDelayReasons().size());
+            for (String r : f.getDelayReasons()) out.writeUTF(r);
+            out.writeLong(f.getDelayMinutes());
+            out.writeLong(f.getPropagatedDelayMinutes());
+            out.writeLong(f.getServiceDate() == null ? Long.MIN_VALUE : f.getServiceDate().toEpochDay());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    // [state][span][length][payload][crc], split over 'span' slots behind their state bytes
+    private static byte[] image(byte[] payload, int span) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(payload.length + OVERHEAD);
+        record.put((byte) 1).putShort((short) span).putInt(payload.length).put(payload).putInt((int) crc.getValue());
+        byte[] logical = record.array();
+
+        byte[] image = new byte[span * SLOT_SIZE];
+        int copied = Math.min(logical.length, SLOT_SIZE);
+        System.arraycopy(logical, 0, image, 0, copied);
+        for (int s = 1; s < span; s++) {
+            image[s * SLOT_SIZE] = 2;
+            int n = Math.min(logical.length - copied, SLOT_SIZE - 1);
+            System.arraycopy(logical, copied, image, s * SLOT_SIZE + 1, n);
+            copied += n;
+        }
+        return image;
+    }
+
+    private static Row decode(byte[] image, int slot) {
+        int span = image.length / SLOT_SIZE;
+        byte[] logical = new byte[image.length - (span - 1)];
+        System.arraycopy(image, 0, logical, 0, SLOT_SIZE);
+        for (int s = 1; s < span; s++) {
+            System.arraycopy(image, s * SLOT_SIZE + 1, logical, SLOT_SIZE + (s - 1) * (SLOT_SIZE - 1), SLOT_SIZE - 1);
+        }
+        ByteBuffer b = ByteBuffer.wrap(logical);
+        int length = b.getInt(3);
+        if (length < 0 || length + OVERHEAD > logical.length) return damaged(slot);
+        CRC32 crc = new CRC32();
+        crc.update(logical, 7, length);
+        if (b.getInt(7 + length) != (int) crc.getValue()) return damaged(slot);
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(logical, 7, length))) {
+            Row r = new Row();
+            r.flightNumber = in.readUTF();
+            r.origin = in.readUTF();
+            r.destination = in.readUTF();
+            r.departure = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+            r.arrival = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+            r.status = in.readUTF();
+            r.registration = in.readUTF();
+            r.cargo = in.readBoolean();
+            r.cargoCapacity = in.readDouble();
+            r.passengers = in.readInt();
+            int reasons = in.readShort();
+            for (int i = 0; i < reasons; i++) r.delayReasons.add(in.readUTF());
+            r.delayMinutes = in.readLong();
+            r.propagatedMinutes = in.readLong();
+            long day = in.readLong();
+            r.serviceDate = day == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(day);
+            return r;
+        } catch (IOException e) {
+            return damaged(slot);
+        }
+    }
+
+    private static Row damaged(int slot) {
+        LOG.warning("Skipped damaged flight database record in slot " + slot);
+        return null;
+    }
+
+    // One record as stored
+    private static class Row {
+        String flightNumber;
+        String origin;
+        String destination;
+        LocalDateTime departure;
+        LocalDateTime arrival;
+        String status;
+        String registration;
+        boolean cargo;
+        double cargoCapacity;
+        int passengers;
+        final List<String> delayReasons = new ArrayList<>();
+        long delayMinutes;
+        long propagatedMinutes;
+        LocalDate serviceDate;
+
+        String key() { return serviceDate == null ? flightNumber : flightNumber + "/" + serviceDate; }
+
+        Flight toFlight(Function<String, Aircraft> aircraft) {
+            Aircraft plane = aircraft.apply(registration);
+            if (plane == null) return null;
+            Flight f = cargo
+                ? new CargoFlight(flightNumber, origin, destination, departure, arrival, plane, cargoCapacity)
+                : new Flight(flightNumber, origin, destination, departure, arrival, plane, passengers);
+            f.setStatus(status);
+            f.getDelayReasons().addAll(delayReasons);
+            f.setDelayMinutes(delayMinutes);
+            f.setPropagatedDelayMinutes(propagatedMinutes);
+            f.setServiceDate(serviceDate);
+            return f;
+        }
+    }
+}
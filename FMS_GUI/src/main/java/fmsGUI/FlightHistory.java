@@ -0,0 +1,537 @@
+package fmsGUI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+// Versioned record of every flight's state. Each change that alters a tracked field appends a
+// delta (timestamp, bitmask of changed fields, their new values) to the flight's chain, and every
+// CHECKPOINT_EVERY versions a full copy is kept, so the state at any instant is a binary search
+// plus at most CHECKPOINT_EVERY - 1 deltas. With a log (see setLog) every version is also appended
+// to it as one line (the delta, tail and reasons by name, CRC32 last) when the system flushes, and
+// the chains are rebuilt from it on load. Only chains of flights held in memory stay on the heap:
+// those of removed or archived flights are dropped once on disk and read back when asked for.
+// Flights with no logged versions start with an 'on file' version that has no real change time.
+public class FlightHistory implements FlightChangeListener {
+
+    private static final Logger LOG = Logger.getLogger(FlightHistory.class.getName());
+
+    public static final int CHECKPOINT_EVERY = 16;
+
+    // --- Tracked fields (bit i of a delta mask = field i) ---
+    private static final int DEPARTURE = 0;   // epoch minute
+    private static final int ARRIVAL = 1;     // epoch minute
+    private static final int STATUS = 2;      // FlightColumns.statusId
+    private static final int TAIL = 3;        // SymbolTable.REGISTRATIONS id
+    private static final int DELAY = 4;       // delay minutes
+    private static final int PASSENGERS = 5;
+    private static final int REASONS = 6;     // index into the chain's reason lists
+    private static final int PRESENT = 7;     // STORED, REMOVED or ARCHIVED
+    private static final int FIELDS = 8;
+    private static final String[] FIELD_NAMES = {"Departure", "Arrival", "Status", "Aircraft", "Delay", "Passengers",
+            "Delay Reasons", "Present"};
+    private static final int REMOVED = 0;
+    private static final int STORED = 1;
+    private static final int ARCHIVED = 2;    // moved to the archive: it still happened
+
+    private final Clock clock;
+    private final Map<String, Chain> chains = new HashMap<>();
+    private boolean loading; // flights added now come from disk
+    private final List<Flight> loaded = new ArrayList<>();
+
+    // --- Log ---
+    private Path log;
+    // Lines recorded since the last flush
+    private final StringBuilder unsaved = new StringBuilder();
+    // Chains whose flight left memory (removed or archived): dropped at the next flush
+    private final Set<String> evictable = new HashSet<>();
+    // Chains only in the log
+    private final Set<String> onDiskOnly = new HashSet<>();
+
+    public FlightHistory() {
+        this(Clock.systemDefaultZone());
+    }
+
+    // A fixed or offset clock replays a simulated day
+    public FlightHistory(Clock clock) {
+        this.clock = clock;
+    }
+
+    // Where versions are kept beyond memory; set before loading
+    public synchronized void setLog(Path log) {
+        this.log = log;
+    }
+
+    // The system sets this around reading its files. Flights added meanwhile are recorded when it
+    // ends, after their chains were read from the log (chains of other flights stay on disk).
+    public synchronized void setLoading(boolean loading) {
+        if (loading == this.loading) return;
+        this.loading = loading;
+        if (loading) return;
+        // Chains of flights stored at the last flush come back to memory (the loaded ones, and pattern
+        // instances materialized next); removed and archived ones stay on disk
+        try {
+            Set<String> keys = storedKeys();
+            for (Flight f : loaded) keys.add(f.getKey());
+            chains.putAll(read(keys::contains, onDiskOnly));
+        } catch (IOException e) {
+            LOG.warning("History not loaded: " + e.getMessage());
+        }
+        for (Flight f : loaded) record(f, STORED, true);
+        loaded.clear();
+    }
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public synchronized void flightAdded(Flight f) {
+        if (loading) loaded.add(f);
+        else record(f, STORED, false);
+    }
+
+    @Override
+    public synchronized void flightRemoved(Flight f) {
+        record(f, REMOVED, false);
+    }
+
+    // Not a removal: it still shows on past boards. Without a log its versions are dropped
+    // (memory-budget mode keeps memory to the operating window).
+    @Override
+    public synchronized void flightArchived(Flight f) {
+        if (log == null) chains.remove(f.getKey());
+        else record(f, ARCHIVED, false);
+    }
+
+    @Override
+    public synchronized void flightsChanged(Collection<Flight> changed) {
+        for (Flight f : changed) {
+            Chain c = chains.get(f.getKey());
+            if (c != null && c.last[PRESENT] == STORED) record(f, STORED, false);
+        }
+    }
+
+    private void record(Flight f, int presence, boolean onFile) {
+        String key = f.getKey();
+        Chain c = chains.get(key);
+        // Back in memory (re-added after a removal): carry on from its logged versions
+        if (c == null && onDiskOnly.remove(key)) {
+            c = readChain(key);
+            if (c != null) chains.put(key, c);
+        }
+        if (c == null) {
+            if (presence != STORED) return;
+            c = new Chain();
+            c.onFile = onFile;
+            chains.put(key, c);
+        }
+        int[] state = presence == STORED ? c.encode(f) : c.last.clone();
+        state[PRESENT] = presence;
+        if (c.append(clock.millis(), state) && log != null) unsaved.append(line(key, c, c.size - 1));
+        if (presence == STORED) evictable.remove(key);
+        else evictable.add(key);
+    }
+
+    // --- Queries ---
+    // State of one flight at 'at', or null if it wasn't stored then
+    public synchronized Snapshot getState(String key, LocalDateTime at) {
+        Chain c = find(key);
+        if (c == null) return null;
+        int i = c.versionAt(toMillis(at));
+        return i < 0 ? null : snapshot(key, c, i, c.stateAt(i));
+    }
+
+    // Every flight stored at 'at' (the board as it was)
+    public synchronized List<Snapshot> getBoard(LocalDateTime at) {
+        long t = toMillis(at);
+        Map<String, Chain> all = chains;
+        if (!onDiskOnly.isEmpty()) {
+            all = new HashMap<>(chains);
+            try {
+                all.putAll(read(onDiskOnly::contains, null));
+            } catch (IOException e) {
+                LOG.warning("Error reading history: " + e.getMessage());
+            }
+        }
+        // Chains are independent, so they are rebuilt in parallel (read-only under the lock)
+        return all.entrySet().parallelStream()
+                .map(e -> {
+                    int i = e.getValue().versionAt(t);
+                    return i < 0 ? null : snapshot(e.getKey(), e.getValue(), i, e.getValue().stateAt(i));
+                })
+                .filter(s -> s != null)
+                .collect(Collectors.toList());
+    }
+
+    // Every recorded version of one flight, oldest first (the first one is when it was stored)
+    public synchronized List<Version> getChanges(String key) {
+        Chain c = find(key);
+        List<Version> result = new ArrayList<>();
+        if (c == null) return result;
+        int[] state = null;
+        for (int i = 0; i < c.size; i++) {
+            state = i % CHECKPOINT_EVERY == 0 ? c.checkpoint(i / CHECKPOINT_EVERY) : c.apply(state, i);
+            List<String> fields = new ArrayList<>();
+            int mask = i == 0 ? 0 : c.data[c.offset[i]];
+            for (int b = 0; b < FIELDS; b++) {
+                if ((mask & (1 << b)) != 0) fields.add(FIELD_NAMES[b]);
+            }
+            Snapshot s = state[PRESENT] != REMOVED ? snapshot(key, c, i, state) : null;
+            result.add(new Version(toTime(c.at[i]), fields, s, i == 0 && c.onFile));
+        }
+        return result;
+    }
+
+    // Versions held in memory
+    public synchronized int getVersionCount() {
+        int n = 0;
+        for (Chain c : chains.values()) n += c.size;
+        return n;
+    }
+
+    // In memory, or read back from the log; null if the flight has no versions
+    private Chain find(String key) {
+        Chain c = chains.get(key);
+        return c != null || !onDiskOnly.contains(key) ? c : readChain(key);
+    }
+
+    private Chain readChain(String key) {
+        try {
+            return read(key::equals, null).get(key);
+        } catch (IOException e) {
+            LOG.warning("Error reading history: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // --- Log ---
+    // Appends the versions recorded since the last flush (fsynced), then drops the chains of
+    // flights that left memory. The system calls this with its record flush. Returns bytes written.
+    public synchronized long flush() throws IOException {
+        if (log == null) return 0;
+        long bytes = 0;
+        if (unsaved.length() > 0) {
+            byte[] out = unsaved.toString().getBytes(StandardCharsets.UTF_8);
+            try (FileChannel ch = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long end = ch.size();
+                // A write cut short by a crash leaves a partial last line; start on a fresh one
+                ByteBuffer lastByte = ByteBuffer.allocate(1);
+                if (end > 0 && ch.read(lastByte, end - 1) == 1 && lastByte.get(0) != '\n') {
+                    end += ch.write(ByteBuffer.wrap(System.lineSeparator().getBytes(StandardCharsets.UTF_8)), end);
+                }
+                ch.write(ByteBuffer.wrap(out), end);
+                ch.force(false);
+            }
+            bytes = out.length;
+            unsaved.setLength(0);
+        }
+        for (String key : evictable) {
+            if (chains.remove(key) != null) onDiskOnly.add(key);
+        }
+        evictable.clear();
+        return bytes;
+    }
+
+    // "key,millis,mask,onFile,values of the set fields...,crc32"
+    private static String line(String key, Chain c, int version) {
+        StringBuilder b = new StringBuilder(key).append(',').append(c.at[version]);
+        int p = c.offset[version];
+        int mask = c.data[p++];
+        b.append(',').append(mask).append(',').append(version == 0 && c.onFile ? 1 : 0);
+        for (int f = 0; f < FIELDS; f++) {
+            if ((mask & (1 << f)) == 0) continue;
+            int v = c.data[p++];
+            b.append(',');
+            // Ids are only good for this run; names are not
+            if (f == TAIL) b.append(v == SymbolTable.NONE ? "" : SymbolTable.REGISTRATIONS.name(v));
+            else if (f == REASONS) b.append(String.join(";", c.reasons.get(v)).replace(",", " "));
+            else b.append(v);
+        }
+        String crc = Long.toHexString(crc(b));
+        return b.append(',').append(crc).append(System.lineSeparator()).toString();
+    }
+
+    private static long crc(CharSequence body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    // Keys whose last logged version has the flight stored
+    private Set<String> storedKeys() throws IOException {
+        Map<String, Boolean> stored = new HashMap<>();
+        read(line -> {
+            String[] parts = line.split(",", -1);
+            int mask = Integer.parseInt(parts[2]);
+            if ((mask & (1 << PRESENT)) == 0) return;
+            // The values are in field order, so PRESENT follows one value per lower set bit
+            String v = parts[4 + Integer.bitCount(mask & ((1 << PRESENT) - 1))];
+            stored.put(parts[0], Integer.parseInt(v) == STORED);
+        });
+        Set<String> keys = new HashSet<>();
+        stored.forEach((k, s) -> { if (s) keys.add(k); });
+        return keys;
+    }
+
+    // Rebuilds the chains of the keys 'wanted' accepts from the log; other keys go into 'others'
+    // (if given). Damaged lines are skipped.
+    private Map<String, Chain> read(Predicate<String> wanted, Set<String> others) throws IOException {
+        Map<String, Chain> result = new HashMap<>();
+        read(body -> {
+            String key = body.substring(0, body.indexOf(','));
+            if (wanted.test(key)) parse(body, key, result);
+            else if (others != null) others.add(key);
+        });
+        return result;
+    }
+
+    // Every intact line body (without its checksum) in log order. Damaged lines (a torn last
+    // write, bad bytes) are skipped.
+    private void read(LineAction action) throws IOException {
+        if (log == null || !Files.exists(log)) return;
+        int damaged = 0;
+        try (BufferedReader in = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                int cut = line.lastIndexOf(',');
+                try {
+                    String body = cut < 0 ? null : line.substring(0, cut);
+                    if (body == null || body.split(",", -1).length < 4
+                            || Long.parseLong(line.substring(cut + 1), 16) != crc(body)) {
+                        damaged++;
+                        continue;
+                    }
+                    action.accept(body);
+                } catch (RuntimeException e) {
+                    damaged++;
+                }
+            }
+        }
+        if (damaged > 0) LOG.warning("Skipped " + damaged + " damaged history lines in " + log);
+    }
+
+    private interface LineAction {
+        void accept(String body);
+    }
+
+    // Appends one logged version to its chain (the checkpoints are rebuilt as it goes)
+    private static void parse(String body, String key, Map<String, Chain> into) {
+        String[] parts = body.split(",", -1);
+        int mask = Integer.parseInt(parts[2]);
+        if (parts.length != 4 + Integer.bitCount(mask)) throw new IllegalArgumentException("wrong column count");
+        Chain c = into.computeIfAbsent(key, k -> new Chain());
+        int[] state = c.size == 0 ? new int[FIELDS] : c.last.clone();
+        int p = 4;
+        for (int f = 0; f < FIELDS; f++) {
+            if ((mask & (1 << f)) == 0) continue;
+            String v = parts[p++];
+            if (f == TAIL) state[f] = v.isEmpty() ? SymbolTable.NONE : SymbolTable.REGISTRATIONS.id(v);
+            else if (f == REASONS) state[f] = c.reasonIndex(v.isEmpty() ? List.of() : Arrays.asList(v.split(";")));
+            else state[f] = Integer.parseInt(v);
+        }
+        if (c.size == 0) c.onFile = "1".equals(parts[3]);
+        c.append(Long.parseLong(parts[1]), state);
+    }
+
+    private Snapshot snapshot(String key, Chain c, int version, int[] s) {
+        if (s[PRESENT] == REMOVED) return null;
+        return new Snapshot(key, toTime(c.at[version]), minuteToTime(s[DEPARTURE]), minuteToTime(s[ARRIVAL]),
+                s[STATUS] < FlightColumns.STATUSES.length ? FlightColumns.STATUSES[s[STATUS]] : "Other",
+                SymbolTable.REGISTRATIONS.name(s[TAIL]), s[DELAY], s[PASSENGERS], c.reasons.get(s[REASONS]));
+    }
+
+    private long toMillis(LocalDateTime t) {
+        return t.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+
+    private static LocalDateTime minuteToTime(int minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    // --- One flight's versions ---
+    // Deltas are packed into one int[]: [mask, value for each set bit in bit order], located by offset[]
+    private static class Chain {
+        long[] at = new long[4];
+        int[] offset = new int[4];
+        boolean onFile; // first version was read from disk
+        int[] data = new int[16];
+        int[] checkpoints = new int[FIELDS];
+        int size;
+        int dataSize;
+        int[] last = new int[FIELDS];
+        // Distinct delay-reason lists this flight has had
+        List<List<String>> reasons = new ArrayList<>();
+
+        int[] encode(Flight f) {
+            int[] s = new int[FIELDS];
+            s[DEPARTURE] = TailAssigner.minute(f.getDepartureTime());
+            s[ARRIVAL] = TailAssigner.minute(f.getArrivalTime());
+            s[STATUS] = FlightColumns.statusId(f.getStatus());
+            s[TAIL] = f.getAircraft() == null ? SymbolTable.NONE : f.getAircraft().getRegistrationId();
+            s[DELAY] = (int) f.getDelayMinutes();
+            s[PASSENGERS] = f.getBookedPassengers();
+            s[REASONS] = reasonIndex(f.getDelayReasons());
+            return s;
+        }
+
+        // Reason lists only grow or lose propagated entries, so they rarely repeat; reuse the last one if equal
+        int reasonIndex(List<String> r) {
+            int last = reasons.size() - 1;
+            if (last >= 0 && reasons.get(last).equals(r)) return last;
+            if (size > 0 && reasons.get(this.last[REASONS]).equals(r)) return this.last[REASONS];
+            reasons.add(List.copyOf(r));
+            return reasons.size() - 1;
+        }
+
+        // False if nothing tracked changed (no version added)
+        boolean append(long millis, int[] state) {
+            int mask = 0;
+            for (int b = 0; b < FIELDS; b++) {
+                if (size == 0 || state[b] != last[b]) mask |= 1 << b;
+            }
+            if (mask == 0) return false;
+            if (size == at.length) {
+                at = Arrays.copyOf(at, size * 2);
+                offset = Arrays.copyOf(offset, size * 2);
+            }
+            // Timestamps never go backwards within a chain (binary search relies on it)
+            at[size] = size == 0 ? millis : Math.max(millis, at[size - 1]);
+            offset[size] = dataSize;
+            ensureData(1 + FIELDS);
+            data[dataSize++] = mask;
+            for (int b = 0; b < FIELDS; b++) {
+                if ((mask & (1 << b)) != 0) data[dataSize++] = state[b];
+            }
+            if (size % CHECKPOINT_EVERY == 0) {
+                int c = size / CHECKPOINT_EVERY;
+                if ((c + 1) * FIELDS > checkpoints.length) checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+                System.arraycopy(state, 0, checkpoints, c * FIELDS, FIELDS);
+            }
+            last = state;
+            size++;
+            return true;
+        }
+
+        private void ensureData(int extra) {
+            if (dataSize + extra > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, dataSize + extra));
+        }
+
+        // Last version at or before 'millis', or -1
+        int versionAt(long millis) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (at[mid] <= millis) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo - 1;
+        }
+
+        int[] checkpoint(int c) {
+            return Arrays.copyOfRange(checkpoints, c * FIELDS, (c + 1) * FIELDS);
+        }
+
+        // Nearest checkpoint, then the deltas after it
+        int[] stateAt(int version) {
+            int[] s = checkpoint(version / CHECKPOINT_EVERY);
+            for (int i = version / CHECKPOINT_EVERY * CHECKPOINT_EVERY + 1; i <= version; i++) s = apply(s, i);
+            return s;
+        }
+
+        int[] apply(int[] state, int version) {
+            int p = offset[version];
+            int mask = data[p++];
+            for (int b = 0; b < FIELDS; b++) {
+                if ((mask & (1 << b)) != 0) state[b] = data[p++];
+            }
+            return state;
+        }
+    }
+
+    // --- Result Classes ---
+    public static class Snapshot {
+        private final String key;
+        private final LocalDateTime recordedAt;
+        private final LocalDateTime departureTime;
+        private final LocalDateTime arrivalTime;
+        private final String status;
+        private final String registration;
+        private final long delayMinutes;
+        private final int bookedPassengers;
+        private final List<String> delayReasons;
+
+        public Snapshot(String key, LocalDateTime recordedAt, LocalDateTime departureTime, LocalDateTime arrivalTime,
+                        String status, String registration, long delayMinutes, int bookedPassengers, List<String> delayReasons) {
+            this.key = key;
+            this.recordedAt = recordedAt;
+            this.departureTime = departureTime;
+            this.arrivalTime = arrivalTime;
+            this.status = status;
+            this.registration = registration;
+            this.delayMinutes = delayMinutes;
+            this.bookedPassengers = bookedPassengers;
+            this.delayReasons = delayReasons;
+        }
+
+        public String getKey() { return key; }
+        // When this state was recorded
+        public LocalDateTime getRecordedAt() { return recordedAt; }
+        public LocalDateTime getDepartureTime() { return departureTime; }
+        public LocalDateTime getArrivalTime() { return arrivalTime; }
+        public String getStatus() { return status; }
+        public String getRegistration() { return registration; }
+        public long getDelayMinutes() { return delayMinutes; }
+        public int getBookedPassengers() { return bookedPassengers; }
+        public List<String> getDelayReasons() { return delayReasons; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %s-%s on %s, delay %d min", key, status, departureTime.toLocalTime(),
+                    arrivalTime.toLocalTime(), registration, delayMinutes);
+        }
+    }
+
+    public static class Version {
+        private final LocalDateTime recordedAt;
+        private final List<String> changedFields; // empty for the first version
+        private final Snapshot state;             // null when the flight was removed
+        private final boolean onFile;             // loaded from disk; recordedAt is the load time
+
+        public Version(LocalDateTime recordedAt, List<String> changedFields, Snapshot state, boolean onFile) {
+            this.recordedAt = recordedAt;
+            this.changedFields = changedFields;
+            this.state = state;
+            this.onFile = onFile;
+        }
+
+        public LocalDateTime getRecordedAt() { return recordedAt; }
+        public List<String> getChangedFields() { return changedFields; }
+        public Snapshot getState() { return state; }
+        public boolean isOnFile() { return onFile; }
+        public boolean isRemoval() { return state == null; }
+    }
+}
@@ -1,92 +1,428 @@
 package fmsGUI;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class FlightManagementSystem {
 
-    private Map<String, Flight> flights;
+    private static final Logger LOG = Logger.getLogger(FlightManagementSystem.class.getName());
+
+    // Packed-key open-addressing table (see FlightStore)
+    private FlightStore flights;
     private Map<String, Aircraft> aircrafts;
+    // Per-aircraft index so rotation queries don't scan the whole fleet
+    private Map<String, List<Flight>> flightsByAircraft;
+    // Connections / cargo transfers between flights
+    private ConnectionGraph connections;
+    // Recurring services; instances live in 'flights' only once materialized
+    private Map<String, SchedulePattern> patterns;
+
+    // Views and indexes that follow changes
+    private List<FlightChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Background cascades (null = cascades run synchronously)
+    private CascadeWorker cascadeWorker;
+    // Where background work applies its changes (see setUpdateExecutor)
+    private volatile Executor updateExecutor = Runnable::run;
+    // Columnar copy for analytics (see FlightColumns)
+    private final FlightColumns columns = new FlightColumns();
+    // Hour partitions over departure / arrival (see FlightTimeIndex)
+    private final FlightTimeIndex timeIndex = new FlightTimeIndex();
+    // Flights and on-time rollups per (origin, destination) (see RouteIndex)
+    private final RouteIndex routes = new RouteIndex();
+    // Delay-minute percentiles per category / route / aircraft / day (persisted)
+    private final DelayStats delayStats = new DelayStats();
+    // Block time, sectors and turnaround slack per tail and day (see UtilizationIndex)
+    private final UtilizationIndex utilization = new UtilizationIndex();
+    // Free-time lookups per tail (see SlotIndex)
+    private final SlotIndex slots = new SlotIndex();
+    // Active-flight counters behind Aircraft.getStatus() (see FleetStatus)
+    private final FleetStatus fleetStatus = new FleetStatus();
+    // Capacity / turnaround / sequence / overlap / delay rules kept evaluated (see AlertEngine)
+    private final AlertEngine alerts = new AlertEngine();
+    // Every state change per flight, for as-of queries (see FlightHistory)
+    private final FlightHistory history = new FlightHistory();
+    // Flights on disk one slot each, so a flush rewrites only what changed (see FlightRecordFile)
+    private final FlightRecordFile records;
+    private final Object flushLock = new Object();
+    // Where the data files live (see Checkpointer for how a save replaces them)
+    private final Path dataDir;
+    // Set when a data file failed its checksum: nothing was loaded and saving is refused
+    private volatile String storageError;
+    // Audit of the schedule as loaded (see loadData)
+    private ScheduleAudit.Report loadAudit;
+    // Day the horizon was last rolled to (see rollHorizon)
+    private volatile LocalDate horizonDay;
+    // Memory-budget mode: closed flights past the retention window live only here (see enableArchive)
+    private CachedFlightRepository archive;
+    private Duration archiveAfter;
+
+    // Days ahead that pattern instances are created for up front
+    public static final int HORIZON_DAYS = 7;
+    // Ground time the schedule audit expects between two legs of one tail
+    public static final int MIN_TURNAROUND_MINUTES = 30;
+    // Bumped by every mutation, so the checkpointer can tell whether anything needs saving
+    private final AtomicLong changeCount = new AtomicLong();
+    // Bumped by changes outside the flight records (aircraft, patterns, connections), which need the full save
+    private final AtomicLong structureCount = new AtomicLong();
 
     public FlightManagementSystem() {
-        this.flights = new HashMap<>();
+        this(Path.of(""));
+    }
+
+    public FlightManagementSystem(Path dataDir) {
+        this.dataDir = dataDir;
+        this.records = new FlightRecordFile(dataDir.resolve("flights.dat"));
+        this.flights = new FlightStore();
         this.aircrafts = new HashMap<>();
+        this.flightsByAircraft = new HashMap<>();
+        this.connections = new ConnectionGraph(flightsByAircraft, delayStats);
+        this.patterns = new HashMap<>();
+        listeners.add(columns);
+        listeners.add(timeIndex);
+        listeners.add(routes);
+        listeners.add(utilization);
+        listeners.add(slots);
+        listeners.add(fleetStatus);
+        listeners.add(alerts);
+        listeners.add(history);
+        listeners.add(records);
+        history.setLog(dataDir.resolve("history.log"));
     }
 
     // --- Basic CRUD Operations ---
-    public void addFlight(Flight flight) { 
-        flights.put(flight.getFlightNumber(), flight); 
-        
-        // Logic fix: Only set status to "Scheduled" if currently "Available"
-        // Prevents overwriting "In Flight" or active states
-        if ("Available".equalsIgnoreCase(flight.getAircraft().getStatus())) {
-            flight.getAircraft().setStatus("Scheduled"); 
+    public synchronized void addFlight(Flight flight) { 
+        Flight replaced = flights.put(flight.getKey(), flight); 
+        if (replaced != null) unindex(replaced);
+        index(flight);
+        if (replaced != null && replaced != flight) listeners.forEach(l -> l.flightRemoved(replaced));
+        if (replaced != flight) listeners.forEach(l -> l.flightAdded(flight));
+        changeCount.incrementAndGet();
+    }
+    
+    // Bulk insert: add everything first, then one cascade pass per affected aircraft
+    public synchronized void addFlights(Collection<Flight> batch) {
+        Set<String> touched = new HashSet<>();
+        for (Flight f : batch) {
+            addFlight(f);
+            touched.add(f.getAircraft().getRegistrationNumber());
         }
+        for (String reg : touched) refreshScheduleForAircraft(reg);
     }
     
-    public void deleteFlight(String flightNumber) {
-        Flight f = flights.get(flightNumber);
-        if (f != null && f.getAircraft() != null) {
-            // Set aircraft to Available if no future tasks remain
-            if (!hasFutureFlights(f.getAircraft().getRegistrationNumber())) {
-                f.getAircraft().setStatus("Available");
-            }
+    public synchronized void deleteFlight(String key) {
+        Flight f = getFlight(key);
+        if (f != null) {
+            requireLive(f);
+            unindex(f);
+            connections.removeFlight(f);
+            // Keep a deleted pattern instance from being generated again
+            SchedulePattern p = patternOf(f);
+            if (p != null) p.skip(f.getServiceDate());
+            flights.remove(f.getKey());
+            listeners.forEach(l -> l.flightRemoved(f));
+            changeCount.incrementAndGet();
+            structureCount.incrementAndGet();
         }
-        flights.remove(flightNumber);
+    }
+
+    // Move a flight to another aircraft (tail assignment / recovery)
+    public synchronized void reassignFlight(Flight flight, Aircraft newAircraft) {
+        requireLive(flight);
+        Aircraft old = flight.getAircraft();
+        if (old == newAircraft) return;
+
+        moveTo(flight, newAircraft);
+        fireChanged(List.of(flight));
+    }
+
+    // Applies a recovery plan (see RecoverySolver) under the lock, as one change event: inherited
+    // delay on both rotations is reset, the legs change tails, and both tails cascade from scratch
+    public synchronized void applySwap(RecoverySolver.SwapPlan plan) {
+        String from = plan.getFrom().getRegistrationNumber();
+        String to = plan.getTo().getRegistrationNumber();
+        plan.getMoved().forEach(this::requireLive);
+        plan.getTraded().forEach(this::requireLive);
+
+        Set<Flight> touched = new LinkedHashSet<>();
+        touched.addAll(flightsByAircraft.getOrDefault(from, List.of()));
+        touched.addAll(flightsByAircraft.getOrDefault(to, List.of()));
+        touched.removeIf(f -> !RecoverySolver.isMovable(f));
+
+        for (Flight f : touched) f.clearPropagatedDelay();
+        for (Flight f : plan.getMoved()) moveTo(f, plan.getTo());
+        for (Flight f : plan.getTraded()) moveTo(f, plan.getFrom());
+
+        touched.addAll(cascade(from));
+        touched.addAll(cascade(to));
+        fireChanged(touched);
+    }
+
+    private void moveTo(Flight flight, Aircraft newAircraft) {
+        if (flight.getAircraft() == newAircraft) return;
+        unindex(flight);
+        flight.setAircraft(newAircraft);
+        index(flight);
+    }
+
+    private void index(Flight f) {
+        flightsByAircraft.computeIfAbsent(f.getAircraft().getRegistrationNumber(), k -> new ArrayList<>()).add(f);
+    }
+
+    private void unindex(Flight f) {
+        List<Flight> list = flightsByAircraft.get(f.getAircraft().getRegistrationNumber());
+        if (list != null) list.remove(f);
+    }
+
+    // All flights flown by one aircraft, sorted by departure
+    public List<Flight> getFlightsForAircraft(String regNo) {
+        List<Flight> list = new ArrayList<>(flightsByAircraft.getOrDefault(regNo, List.of()));
+        list.sort(Comparator.comparing(Flight::getDepartureTime));
+        return list;
     }
     
-    public Flight getFlight(String flightNumber) { return flights.get(flightNumber); }
-    public List<Flight> getAllFlights() { return new ArrayList<>(flights.values()); }
-    public void addAircraft(Aircraft aircraft) { aircrafts.put(aircraft.getRegistrationNumber(), aircraft); }
-    public void deleteAircraft(String regNumber) { aircrafts.remove(regNumber); }
+    // Looks up by key; a pattern instance ("MH-101/2026-01-05") is materialized on first access.
+    // Archived flights (memory-budget mode) are read back from the archive.
+    public Flight getFlight(String key) {
+        Flight f = flights.get(key);
+        if (f != null) return f;
+        f = findArchived(key);
+        if (f != null) return f;
+        int slash = key.indexOf('/');
+        if (slash < 0) return null;
+        SchedulePattern p = patterns.get(key.substring(0, slash));
+        if (p == null) return null;
+        try {
+            LocalDate date = LocalDate.parse(key.substring(slash + 1));
+            return p.occursOn(date) ? materialize(p, date) : null;
+        } catch (Exception e) { return null; }
+    }
+
+    // Safe from any thread (copied under the store's lock, see FlightStore)
+    public List<Flight> getAllFlights() { return flights.snapshot(); }
+    public synchronized void addAircraft(Aircraft aircraft) {
+        aircrafts.put(aircraft.getRegistrationNumber(), aircraft);
+        changeCount.incrementAndGet();
+        structureCount.incrementAndGet();
+    }
+    public synchronized void deleteAircraft(String regNumber) {
+        aircrafts.remove(regNumber);
+        changeCount.incrementAndGet();
+        structureCount.incrementAndGet();
+    }
     public Aircraft getAircraft(String regNumber) { return aircrafts.get(regNumber); }
     public List<Aircraft> getAllAircrafts() { return new ArrayList<>(aircrafts.values()); }
+    public ConnectionGraph getConnections() { return connections; }
+    public FlightColumns getColumns() { return columns; }
+    public FlightTimeIndex getTimeIndex() { return timeIndex; }
+    public RouteIndex getRoutes() { return routes; }
+    public DelayStats getDelayStats() { return delayStats; }
+    public UtilizationIndex getUtilization() { return utilization; }
+    public SlotIndex getSlots() { return slots; }
+    public AlertEngine getAlerts() { return alerts; }
+    public FlightHistory getHistory() { return history; }
+    public FlightRecordFile getRecords() { return records; }
+
+    // Adds a connection and holds the outbound (and anything behind it) if the inbound is already late
+    public synchronized void addConnection(Flight inbound, Flight outbound, int minConnectMinutes, String type) throws Exception {
+        requireLive(inbound);
+        requireLive(outbound);
+        connections.addDependency(inbound, outbound, minConnectMinutes, type);
+        changeCount.incrementAndGet();
+        structureCount.incrementAndGet();
+        fireChanged(connections.propagate(inbound));
+    }
 
-    // --- Helper: Check for future flights ---
-    private boolean hasFutureFlights(String regNo) {
-        return flights.values().stream()
-                .filter(f -> f.getAircraft().getRegistrationNumber().equals(regNo))
-                .anyMatch(f -> "Scheduled".equalsIgnoreCase(f.getStatus()) 
-                            || "Delayed".equalsIgnoreCase(f.getStatus())
-                            || "Boarding".equalsIgnoreCase(f.getStatus()));
+    // --- Change Notifications ---
+    public void addChangeListener(FlightChangeListener l) { listeners.add(l); }
+    public void removeChangeListener(FlightChangeListener l) { listeners.remove(l); }
+    public long getChangeCount() { return changeCount.get(); }
+    public long getStructureCount() { return structureCount.get(); }
+
+    private void fireChanged(Collection<Flight> changed) {
+        if (changed.isEmpty()) return;
+        changeCount.incrementAndGet();
+        for (FlightChangeListener l : listeners) l.flightsChanged(changed);
+    }
+
+    // For callers that edit flights directly (e.g. recovery resetting inherited delay)
+    public synchronized void notifyChanged(Collection<Flight> changed) {
+        fireChanged(changed);
+    }
+
+    // --- Recurring Patterns ---
+    public synchronized void addPattern(SchedulePattern pattern) {
+        patterns.put(pattern.getFlightNumber(), pattern);
+        changeCount.incrementAndGet();
+        structureCount.incrementAndGet();
+        materializeHorizon(LocalDate.now(), HORIZON_DAYS);
+    }
+
+    public SchedulePattern getPattern(String flightNumber) { return patterns.get(flightNumber); }
+    public List<SchedulePattern> getAllPatterns() { return new ArrayList<>(patterns.values()); }
+
+    // Removes the pattern and any of its instances nobody has touched yet
+    public synchronized void deletePattern(String flightNumber) {
+        SchedulePattern p = patterns.remove(flightNumber);
+        if (p == null) return;
+        changeCount.incrementAndGet();
+        structureCount.incrementAndGet();
+        for (Flight f : getAllFlights()) {
+            if (f.getServiceDate() != null && f.getFlightNumber().equals(flightNumber) && p.isUnchanged(f)) {
+                unindex(f);
+                connections.removeFlight(f);
+                flights.remove(f.getKey());
+                listeners.forEach(l -> l.flightRemoved(f));
+                changeCount.incrementAndGet();
+            }
+        }
+    }
+
+    private SchedulePattern patternOf(Flight f) {
+        return f.getServiceDate() == null ? null : patterns.get(f.getFlightNumber());
+    }
+
+    private synchronized Flight materialize(SchedulePattern p, LocalDate date) {
+        Flight existing = flights.get(p.keyFor(date));
+        if (existing != null) return existing;
+        Flight f = p.instanceFor(date);
+        addFlight(f);
+        refreshScheduleForAircraft(f.getAircraft().getRegistrationNumber());
+        return f;
+    }
+
+    // Stores a not-yet-materialized instance (e.g. one returned by getFlightsBetween) before it is changed.
+    // Returns the stored flight, which may be an earlier copy of the same instance.
+    public synchronized Flight ensureMaterialized(Flight f) {
+        requireLive(f);
+        if (f.getServiceDate() == null || patternOf(f) == null) return f;
+        Flight stored = flights.get(f.getKey());
+        if (stored != null) return stored;
+        addFlight(f);
+        refreshScheduleForAircraft(f.getAircraft().getRegistrationNumber());
+        return f;
+    }
+
+    // Creates concrete flights for [from, from + days) so the operational views see them
+    public synchronized void materializeHorizon(LocalDate from, int days) {
+        List<Flight> batch = new ArrayList<>();
+        for (SchedulePattern p : patterns.values()) {
+            for (int i = 0; i < days; i++) {
+                LocalDate d = from.plusDays(i);
+                if (p.occursOn(d) && !flights.containsKey(p.keyFor(d)) && !isArchivedKey(p.keyFor(d))) batch.add(p.instanceFor(d));
+            }
+        }
+        if (!batch.isEmpty()) addFlights(batch);
+    }
+
+    // Keeps HORIZON_DAYS of pattern instances ahead of 'today' as days go by (the checkpointer calls
+    // this through the update executor). Returns false if the horizon already starts on 'today'.
+    public synchronized boolean rollHorizon(LocalDate today) {
+        if (today.equals(horizonDay)) return false;
+        materializeHorizon(today, HORIZON_DAYS);
+        horizonDay = today;
+        return true;
+    }
+
+    public LocalDate getHorizonDay() { return horizonDay; }
+
+    // Stored flights plus virtual pattern instances departing between 'from' and 'to' (inclusive).
+    // Virtual instances are not stored; pass them to ensureMaterialized() before changing them.
+    public List<Flight> getFlightsBetween(LocalDate from, LocalDate to) {
+        List<Flight> result = timeIndex.departingBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        // Archived flights are part of the past too (and their pattern dates are not virtual)
+        Set<String> archivedKeys = new HashSet<>();
+        if (archive != null) {
+            try {
+                for (Flight f : archive.findDepartingBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                    if (flights.containsKey(f.getKey())) continue;
+                    result.add(f);
+                    archivedKeys.add(f.getKey());
+                }
+            } catch (IOException e) { LOG.warning("Error reading archive: " + e.getMessage()); }
+        }
+        for (SchedulePattern p : patterns.values()) {
+            LocalDate start = from.isBefore(p.getValidFrom()) ? p.getValidFrom() : from;
+            LocalDate end = to.isAfter(p.getValidTo()) ? p.getValidTo() : to;
+            for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+                String key = p.keyFor(d);
+                if (p.occursOn(d) && !flights.containsKey(key) && !archivedKeys.contains(key)) result.add(p.instanceFor(d));
+            }
+        }
+        result.sort(Comparator.comparing(Flight::getDepartureTime));
+        return result;
     }
 
     // --- Core Logic 1: Mutex / Availability Check ---
     // Checks if the aircraft is physically occupied by another active flight
     public boolean checkAircraftPhysicalAvailability(String aircraftReg, String currentFlightId) {
-        for (Flight f : flights.values()) {
-            if (f.getFlightNumber().equals(currentFlightId)) continue; 
+        for (Flight f : flightsByAircraft.getOrDefault(aircraftReg, List.of())) {
+            if (f.getKey().equals(currentFlightId)) continue; 
             
-            if (f.getAircraft().getRegistrationNumber().equals(aircraftReg)) {
-                String s = f.getStatus();
-                // Block if active
-                if ("Departed".equalsIgnoreCase(s) || "In Flight".equalsIgnoreCase(s) || "Boarding".equalsIgnoreCase(s)) {
-                    return false; 
-                }
+            String s = f.getStatus();
+            // Block if active
+            if ("Departed".equalsIgnoreCase(s) || "In Flight".equalsIgnoreCase(s) || "Boarding".equalsIgnoreCase(s)) {
+                return false; 
             }
         }
         return true; 
     }
 
     // --- Core Logic 2: Cascade Schedule Updates (Domino Effect) ---
-    // Propagate delays to subsequent flights if timing overlaps
-    public void refreshScheduleForAircraft(String regNo) {
+    // Propagate delays to subsequent flights if timing overlaps. Returns the flights that moved.
+    public synchronized List<Flight> refreshScheduleForAircraft(String regNo) {
+        List<Flight> changed = cascade(regNo);
+        fireChanged(changed);
+        return changed;
+    }
+
+    // Lock-free body, so bulk operations can run several aircraft at once while holding the lock
+    private List<Flight> cascade(String regNo) {
+        return cascade(regNo, false);
+    }
+
+    // 'skipCancelled': cancelled legs neither push nor get pushed (the audit ignores them too)
+    private List<Flight> cascade(String regNo, boolean skipCancelled) {
+        CascadePlan plan = newPlan();
+        cascade(plan, regNo, skipCancelled);
+        return plan.apply();
+    }
+
+    private CascadePlan newPlan() {
+        return new CascadePlan(flightsByAircraft, delayStats);
+    }
+
+    // Works the cascade out in 'plan' (see CascadePlan); the flights change when it is applied
+    private void cascade(CascadePlan plan, String regNo, boolean skipCancelled) {
         // 1. Get all flights for aircraft, sorted by time
-        List<Flight> sortedFlights = flights.values().stream()
-                .filter(f -> f.getAircraft().getRegistrationNumber().equals(regNo))
-                .sorted(Comparator.comparing(Flight::getDepartureTime))
-                .collect(Collectors.toList());
+        List<Flight> sortedFlights = plan.legsOf(regNo);
+        if (skipCancelled) sortedFlights.removeIf(f -> "Cancelled".equalsIgnoreCase(plan.status(f)));
+        sortedFlights.sort(Comparator.comparing(plan::departure));
 
         // 2. Check for conflicts and propagate delays
         for (int i = 0; i < sortedFlights.size() - 1; i++) {
@@ -94,171 +430,872 @@ public class FlightManagementSystem {
             Flight next = sortedFlights.get(i+1);
 
             // If Arrival Time > Next Departure Time
-            if (current.getArrivalTime().isAfter(next.getDepartureTime())) {
+            if (plan.arrival(current).isAfter(plan.departure(next))) {
                 
-                long diff = Duration.between(next.getDepartureTime(), current.getArrivalTime()).toMinutes();
+                long diff = Duration.between(plan.departure(next), plan.arrival(current)).toMinutes();
                 
-                if (diff > 0) {
-                    // Avoid duplicate delay reasons
-                    String reason = "Propagated Delay: Late arrival of " + current.getFlightNumber();
-                    boolean exists = next.getDelayReasons().stream().anyMatch(r -> r.startsWith(reason));
-                    
-                    if (!exists) {
-                        next.addPropagatedDelay(reason, diff);
-                    } else {
-                        // Adjust time only if needed
-                        if (next.getDepartureTime().isBefore(current.getArrivalTime())) {
-                             long fixDiff = Duration.between(next.getDepartureTime(), current.getArrivalTime()).toMinutes();
-                             next.setDepartureTime(next.getDepartureTime().plusMinutes(fixDiff));
-                             next.setArrivalTime(next.getArrivalTime().plusMinutes(fixDiff));
-                        }
-                    }
-                }
+                // A reason already on the flight is not added twice, only its minutes (see CascadePlan.push)
+                if (diff > 0) plan.push(next, "Propagated Delay: Late arrival of " + current.getFlightNumber(), diff);
             }
         }
     }
 
+    // Holds connections out of the changed legs ('sources') and out of every leg their aircraft's
+    // cascade already moved ('moved'): a pushed leg passes its delay on like the source does
+    private List<Flight> propagateConnections(Collection<Flight> sources, Collection<Flight> moved) {
+        CascadePlan plan = newPlan();
+        propagateConnections(plan, sources, moved);
+        return plan.apply();
+    }
+
+    private void propagateConnections(CascadePlan plan, Collection<Flight> sources, Collection<Flight> moved) {
+        if (connections.isEmpty()) return;
+        List<Flight> from = new ArrayList<>();
+        for (Flight f : sources) {
+            if (!"Cancelled".equalsIgnoreCase(plan.status(f))) from.add(f);
+        }
+        for (Flight f : moved) {
+            if (!"Cancelled".equalsIgnoreCase(plan.status(f))) from.add(f);
+        }
+        if (!from.isEmpty()) connections.propagate(from, plan);
+    }
+
     // --- Attempt Departure ---
-    public void attemptDeparture(Flight flight) throws Exception {
+    public synchronized void attemptDeparture(Flight flight) throws Exception {
         // 1. Check availability
-        if (!checkAircraftPhysicalAvailability(flight.getAircraft().getRegistrationNumber(), flight.getFlightNumber())) {
+        if (!checkAircraftPhysicalAvailability(flight.getAircraft().getRegistrationNumber(), flight.getKey())) {
             throw new Exception("Operational Blocked: Aircraft is currently ACTIVE on another flight.");
         }
 
+        flight = ensureMaterialized(flight);
+
         // 2. Refresh schedule to handle latent delays
-        refreshScheduleForAircraft(flight.getAircraft().getRegistrationNumber());
+        List<Flight> changed = cascade(flight.getAircraft().getRegistrationNumber());
 
         // 3. Update status
         flight.setStatus("Departed");
-        autoUpdateAircraftStatus(flight.getAircraft().getRegistrationNumber());
+        changed.add(flight);
+        fireChanged(changed);
     }
 
-    public void autoUpdateAircraftStatus(String regNo) {
-        Aircraft a = aircrafts.get(regNo);
-        if (a == null) return;
-
-     // Check if there are any incomplete flights linked to this aircraft
-        // This covers all active states: Scheduled, Boarding, Departed, In Flight, Delayed
-        boolean isBusy = flights.values().stream()
-                .filter(f -> f.getAircraft().getRegistrationNumber().equals(regNo))
-                .anyMatch(f -> {
-                    String s = f.getStatus();
-                    // If the flight is NOT 'Arrived' and NOT 'Cancelled', it means it is still active.
-                    return !"Arrived".equalsIgnoreCase(s) && !"Cancelled".equalsIgnoreCase(s);
-                });
+    public synchronized void attemptArrival(Flight flight) {
+        flight = ensureMaterialized(flight);
+        flight.setStatus("Arrived");
 
-        if (isBusy) {
-            a.setStatus("Scheduled");
-        } else {
-            a.setStatus("Available");
+        if (cascadeWorker != null) {
+            requestCascade(flight);
+            return;
         }
+        List<Flight> changed = cascade(flight.getAircraft().getRegistrationNumber());
+        changed.addAll(propagateConnections(List.of(flight), new ArrayList<>(changed)));
+        changed.add(flight);
+        fireChanged(changed);
     }
 
-    public void attemptArrival(Flight flight) {
-        flight.setStatus("Arrived");
-        
-        autoUpdateAircraftStatus(flight.getAircraft().getRegistrationNumber());
-        
-        refreshScheduleForAircraft(flight.getAircraft().getRegistrationNumber());
+    // Cancelling frees the aircraft and lets later legs move back into place
+    public synchronized void cancelFlight(Flight flight) {
+        flight = ensureMaterialized(flight);
+        flight.setStatus("Cancelled");
+
+        if (cascadeWorker != null) {
+            requestCascade(flight);
+            return;
+        }
+        List<Flight> changed = cascade(flight.getAircraft().getRegistrationNumber());
+        changed.addAll(propagateConnections(List.of(), new ArrayList<>(changed)));
+        changed.add(flight);
+        fireChanged(changed);
     }
     // --- Manual Delay ---
-    public void manualDelay(Flight flight, String reason) {
+    public synchronized void manualDelay(Flight flight, String reason) {
+        flight = ensureMaterialized(flight);
         flight.addDelayReason(reason); // Adds 1 hour
         flight.setStatus("Delayed");
+        delayStats.record(flight, reason, 60);
+        
+        if (cascadeWorker != null) {
+            requestCascade(flight);
+            return;
+        }
         
         // Critical: Refresh subsequent flights immediately
-        refreshScheduleForAircraft(flight.getAircraft().getRegistrationNumber());
+        List<Flight> cascaded = cascade(flight.getAircraft().getRegistrationNumber());
+        
+        // Then hold connecting flights (and their rotations) in dependency order, including
+        // connections out of the legs the cascade just pushed
+        List<Flight> changed = new ArrayList<>(cascaded);
+        changed.addAll(propagateConnections(List.of(flight), cascaded));
+        changed.add(flight);
+        fireChanged(changed);
+    }
+
+    // --- Background Cascades ---
+    // After this, manual delays, arrivals and cancellations return at once; the cascade
+    // follows on a worker thread and is reported through the change listeners.
+    public synchronized void enableAsyncCascades() {
+        if (cascadeWorker == null) cascadeWorker = new CascadeWorker(this);
+    }
+
+    public CascadeWorker getCascadeWorker() { return cascadeWorker; }
+
+    // Background threads hand their changes to this executor. The app passes the FX thread, so flights change and listeners fire only where the
+    // views read them; by default the change runs on the background thread itself.
+    public void setUpdateExecutor(Executor executor) { updateExecutor = executor; }
+    public Executor getUpdateExecutor() { return updateExecutor; }
+
+    // Flags the source and the later legs of its aircraft until the worker has run
+    private void requestCascade(Flight source) {
+        List<Flight> flagged = new ArrayList<>();
+        for (Flight f : flightsByAircraft.getOrDefault(source.getAircraft().getRegistrationNumber(), List.of())) {
+            if (f == source || !f.getDepartureTime().isBefore(source.getDepartureTime())) {
+                f.setPendingPropagation(true);
+                flagged.add(f);
+            }
+        }
+        fireChanged(flagged);
+        cascadeWorker.request(source);
+    }
+
+    // Called by CascadeWorker off the update thread: works out one pass for all changes queued on
+    // 'regNo' (the tail's cascade, then connections out of the sources and the legs it moved)
+    // without changing any flight
+    synchronized CascadePlan planCascade(String regNo, Collection<Flight> sources) {
+        CascadePlan plan = newPlan();
+        cascade(plan, regNo, false);
+        propagateConnections(plan, sources, plan.moved());
+        return plan;
+    }
+
+    // Called by CascadeWorker on the update thread with a pass from planCascade: applies it as one
+    // change event. Returns false, changing nothing, if something the pass read has changed since
+    // ('structure' = getStructureCount() when it was planned).
+    synchronized boolean applyCascade(String regNo, Collection<Flight> sources, CascadePlan plan, long structure) {
+        if (structure != structureCount.get() || !plan.isCurrent()) return false;
+        Set<Flight> changed = new LinkedHashSet<>(plan.apply());
+        // Legs stay flagged while a later request for the tail is still queued
+        if (cascadeWorker == null || !cascadeWorker.isQueued(regNo)) {
+            for (Flight f : flightsByAircraft.getOrDefault(regNo, List.of())) {
+                if (f.isPendingPropagation()) {
+                    f.setPendingPropagation(false);
+                    changed.add(f);
+                }
+            }
+        }
+        changed.addAll(sources);
+        fireChanged(changed);
+        return true;
+    }
+
+    // Plans and applies at once, on the calling thread (CascadeWorker.drain and retries)
+    synchronized void runCascade(String regNo, Collection<Flight> sources) {
+        applyCascade(regNo, sources, planCascade(regNo, sources), structureCount.get());
+    }
+
+    // Completes once 'aircraft' has no background cascade queued or on its way, on the thread that
+    // applied the last one (the update thread); at once if there is none
+    public CompletableFuture<Void> whenSettled(Aircraft aircraft) {
+        if (cascadeWorker == null) return CompletableFuture.completedFuture(null);
+        return cascadeWorker.whenSettled(aircraft.getRegistrationNumber());
+    }
+
+    // --- Movement Feed (OUT / OFF / ON / IN) ---
+    // Applies a batch in order, then one cascade per touched aircraft and one change event.
+    // Messages that don't fit the flight's state are skipped. Returns how many were applied.
+    public synchronized int applyMovements(List<MovementEvent> batch) {
+        Set<Flight> changed = new LinkedHashSet<>();
+        Set<String> tails = new LinkedHashSet<>();
+        // Late landings are the only messages that push later legs
+        Map<String, Flight> late = new HashMap<>();
+        int applied = 0;
+        for (MovementEvent e : batch) {
+            Flight f = getFlight(e.getFlightKey());
+            if (f == null || isArchived(f) || !applyMovement(f, e, late)) continue;
+            applied++;
+            changed.add(f);
+            tails.add(f.getAircraft().getRegistrationNumber());
+        }
+        for (Flight f : late.values()) {
+            // Later legs show as pending until the worker has run, same as a manual delay
+            if (cascadeWorker != null) requestCascade(f);
+            else {
+                List<Flight> cascaded = cascade(f.getAircraft().getRegistrationNumber());
+                changed.addAll(cascaded);
+                changed.addAll(propagateConnections(List.of(f), cascaded));
+            }
+        }
+        fireChanged(changed);
+        return applied;
+    }
+
+    private boolean applyMovement(Flight f, MovementEvent e, Map<String, Flight> late) {
+        String s = f.getStatus();
+        switch (e.getType()) {
+            case MovementEvent.OUT:
+                // Same rule as attemptDeparture: the aircraft can't be busy elsewhere
+                if (!isOnGround(f)) return false;
+                if (!checkAircraftPhysicalAvailability(f.getAircraft().getRegistrationNumber(), f.getKey())) return false;
+                f.setStatus("Departed");
+                return true;
+            case MovementEvent.OFF:
+                if (!"Departed".equalsIgnoreCase(s)) return false;
+                f.setStatus("In Flight");
+                return true;
+            case MovementEvent.ON:
+                if (!"Departed".equalsIgnoreCase(s) && !"In Flight".equalsIgnoreCase(s)) return false;
+                f.setStatus("In Flight");
+                // A landing later than planned holds the next leg (cascade)
+                if (e.getTime().isAfter(f.getArrivalTime())) {
+                    f.setArrivalTime(e.getTime());
+                    late.put(f.getAircraft().getRegistrationNumber(), f);
+                }
+                return true;
+            case MovementEvent.IN:
+                if (!"Departed".equalsIgnoreCase(s) && !"In Flight".equalsIgnoreCase(s)) return false;
+                f.setStatus("Arrived");
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // --- Bulk Operations (ground stops, storms) ---
+    // All changes are applied first, then one cascade per affected aircraft (aircraft in parallel),
+    // then a single change event. Only stored flights are considered (see materializeHorizon).
+
+    // Delay every flight still on the ground that matches
+    public synchronized BulkResult delayWhere(Predicate<Flight> filter, long minutes, String reason) {
+        return applyBulk(f -> isOnGround(f) && filter.test(f), f -> {
+            f.addDelay(reason, minutes);
+            f.setStatus("Delayed");
+            delayStats.record(f, reason, minutes);
+        });
+    }
+
+    // Cancel every flight still on the ground that matches
+    public synchronized BulkResult cancelWhere(Predicate<Flight> filter) {
+        return applyBulk(f -> isOnGround(f) && filter.test(f), f -> f.setStatus("Cancelled"));
+    }
+
+    // Move departures in [from, to) by 'minutes' (negative = earlier); later shifts count as delay
+    public synchronized BulkResult shiftWindow(LocalDateTime from, LocalDateTime to, long minutes, String reason) {
+        return applyBulk(f -> isOnGround(f) && !f.getDepartureTime().isBefore(from) && f.getDepartureTime().isBefore(to), f -> {
+            if (minutes > 0) {
+                f.addDelay(reason, minutes);
+                f.setStatus("Delayed");
+                delayStats.record(f, reason, minutes);
+            } else {
+                f.setDepartureTime(f.getDepartureTime().plusMinutes(minutes));
+                f.setArrivalTime(f.getArrivalTime().plusMinutes(minutes));
+            }
+        });
+    }
+
+    private static boolean isOnGround(Flight f) {
+        String s = f.getStatus();
+        return "Scheduled".equalsIgnoreCase(s) || "Delayed".equalsIgnoreCase(s) || "Boarding".equalsIgnoreCase(s);
+    }
+
+    private BulkResult applyBulk(Predicate<Flight> filter, Consumer<Flight> change) {
+        long start = System.nanoTime();
+
+        // 1. Apply every direct change
+        List<Flight> direct = flights.values().stream().filter(filter).collect(Collectors.toList());
+        direct.forEach(change);
+        Set<String> tails = direct.stream().map(f -> f.getAircraft().getRegistrationNumber()).collect(Collectors.toSet());
+
+        // 2. One cascade per aircraft; each only touches its own rotation, so tails run in parallel
+        List<Flight> cascaded = tails.parallelStream()
+                .flatMap(reg -> cascade(reg).stream())
+                .collect(Collectors.toList());
+
+        // 3. Connections cross aircraft, so they are walked afterwards (from the changed legs and
+        //    the legs their cascades moved, in one walk)
+        cascaded.addAll(propagateConnections(direct, new ArrayList<>(cascaded)));
+
+        Set<Flight> all = new LinkedHashSet<>(direct);
+        all.addAll(cascaded);
+        fireChanged(all);
+        return new BulkResult(direct, all.size() - direct.size(), tails.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public static class BulkResult {
+        private final List<Flight> changed;
+        private final int cascadedCount;
+        private final int aircraftCount;
+        private final long elapsedMillis;
+
+        public BulkResult(List<Flight> changed, int cascadedCount, int aircraftCount, long elapsedMillis) {
+            this.changed = changed;
+            this.cascadedCount = cascadedCount;
+            this.aircraftCount = aircraftCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<Flight> getChanged() { return changed; }
+        public int getCascadedCount() { return cascadedCount; }
+        public int getAircraftCount() { return aircraftCount; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    // --- Archive (memory-budget mode) ---
+    // Closed flights (Arrived / Cancelled) that arrived more than 'after' ago move to 'store' and
+    // leave every in-memory structure and index; lookups read them back through a cache of about
+    // 'cacheBytes'. The heap then follows the operating window, not the amount of history.
+    // Archived flights come back as read-only copies (see isArchived). Open 'store' with getAircraft
+    // as its resolver, and enable the archive before loadData so earlier runs' archived flights
+    // are counted in the rollups (see FlightChangeListener.archivedFlightLoaded).
+    public synchronized void enableArchive(FlightRepository store, long cacheBytes, Duration after) {
+        archive = CachedFlightRepository.withMemoryBudget(store, cacheBytes);
+        archiveAfter = after;
+    }
+
+    public CachedFlightRepository getArchive() { return archive; }
+    public int getArchivedCount() { return archive == null ? 0 : archive.size(); }
+
+    // Archived copies are read-only: changing one would change nothing stored, and storing it
+    // again would bring the flight back into memory next to its archived record
+    public boolean isArchived(Flight f) {
+        return archive != null && flights.get(f.getKey()) != f && isArchivedKey(f.getKey());
+    }
+
+    private boolean isArchivedKey(String key) {
+        if (archive == null) return false;
+        try {
+            return archive.contains(key);
+        } catch (IOException e) {
+            LOG.warning("Error reading archive: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void requireLive(Flight f) {
+        if (isArchived(f)) throw new IllegalStateException(f.getKey() + " is archived and can't be changed");
+    }
+
+    // Moves closed flights that arrived before now - retention to the archive. Each tail keeps its
+    // latest closed leg in memory (turnaround and sequence checks compare the next leg with it).
+    // Returns the number moved.
+    public synchronized int archiveClosedFlights(LocalDateTime now) throws IOException {
+        if (archive == null) return 0;
+        LocalDateTime cutoff = now.minus(archiveAfter);
+        List<Flight> moving = new ArrayList<>();
+        for (String reg : flightsByAircraft.keySet()) {
+            List<Flight> chain = getFlightsForAircraft(reg);
+            int pinned = chain.size() - 1;
+            while (pinned >= 0 && !isClosed(chain.get(pinned))) pinned--;
+            for (int i = 0; i < pinned; i++) {
+                Flight f = chain.get(i);
+                // A leg waiting for a background cascade stays until it has settled
+                if (isClosed(f) && !f.isPendingPropagation() && f.getArrivalTime().isBefore(cutoff)) moving.add(f);
+            }
+        }
+        if (moving.isEmpty()) return 0;
+
+        // Durable in the archive before anything is dropped from memory (and so from flights.dat)
+        archive.saveAll(moving);
+        archive.flush();
+        for (Flight f : moving) {
+            unindex(f);
+            connections.removeFlight(f);
+            flights.remove(f.getKey());
+            // Not a deletion: route, column and utilization rollups keep counting it
+            listeners.forEach(l -> l.flightArchived(f));
+        }
+        changeCount.incrementAndGet();
+        // flights.txt and connections.txt shrink
+        structureCount.incrementAndGet();
+        return moving.size();
+    }
+
+    private static boolean isClosed(Flight f) {
+        return "Arrived".equalsIgnoreCase(f.getStatus()) || "Cancelled".equalsIgnoreCase(f.getStatus());
+    }
+
+    // Archived flights departing in [from, to), by departure (empty without an archive)
+    public List<Flight> getArchivedFlights(LocalDateTime from, LocalDateTime to) {
+        if (archive == null) return new ArrayList<>();
+        try {
+            return archive.findDepartingBetween(from, to);
+        } catch (IOException e) {
+            LOG.warning("Error reading archive: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private Flight findArchived(String key) {
+        if (archive == null) return null;
+        try {
+            return archive.find(key);
+        } catch (IOException e) {
+            LOG.warning("Error reading archive: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // --- Repositories (see FlightRepository) ---
+    // Adds the fleet and every flight of another store. Open 'flightRepo' with getAircraft as its
+    // resolver so the flights link to this system's aircraft.
+    public synchronized void importFrom(AircraftRepository aircraftRepo, FlightRepository flightRepo) throws IOException {
+        for (Aircraft a : aircraftRepo.findAll()) {
+            if (getAircraft(a.getRegistrationNumber()) == null) addAircraft(a);
+        }
+        // Stored times are already settled, so no cascade (same as loadData)
+        flightRepo.forEach(this::addFlight);
+    }
+
+    // Makes another store hold exactly this fleet and these flights, as they stand (background
+    // cascades still on their way are not waited for, like the checkpoint), then flushes it
+    public synchronized void exportTo(AircraftRepository aircraftRepo, FlightRepository flightRepo) throws IOException {
+        for (Aircraft a : aircraftRepo.findAll()) {
+            if (!aircrafts.containsKey(a.getRegistrationNumber())) aircraftRepo.delete(a.getRegistrationNumber());
+        }
+        for (Aircraft a : aircrafts.values()) aircraftRepo.save(a);
+        for (String key : flightRepo.keys()) {
+            if (!flights.containsKey(key)) flightRepo.delete(key);
+        }
+        flightRepo.saveAll(flights.values());
+        aircraftRepo.flush();
+        flightRepo.flush();
     }
 
     // --- Save / Load ---
+    // Writes every data file (each replaced atomically; see Checkpointer), then the flight records
     public void saveData() {
-        try (PrintWriter aircraftWriter = new PrintWriter(new FileWriter("aircrafts.txt"));
-             PrintWriter flightWriter = new PrintWriter(new FileWriter("flights.txt"))) {
-            
-            for (Aircraft a : aircrafts.values()) {
-                aircraftWriter.println(String.format("%s,%s,%s,%d,%s",
-                        a.getRegistrationNumber(), a.getBrand(), a.getModel(), a.getCapacity(), a.getStatus()));
+        if (storageError != null) {
+            LOG.warning("Not saving over damaged files: " + storageError);
+            return;
+        }
+        try {
+            Checkpointer.write(dataDir, snapshotFiles());
+            flushRecords();
+        } catch (IOException e) { LOG.warning("Error saving: " + e.getMessage()); }
+    }
+
+    // Writes only the flight slots changed since the last flush, plus the delay sketches and the
+    // dictionary their ids refer to (ids keep their saved values, see loadData). Returns bytes written.
+    public long flushRecords() throws IOException {
+        if (storageError != null) throw new IOException("Not saving over damaged files: " + storageError);
+        // One flush at a time, so batches reach the disk in the order they were taken
+        synchronized (flushLock) {
+            return flushRecordsLocked();
+        }
+    }
+
+    private long flushRecordsLocked() throws IOException {
+        FlightRecordFile.Batch batch;
+        Map<String, String> files = new LinkedHashMap<>();
+        synchronized (this) {
+            batch = records.needsCompaction() ? null : records.takeDirty();
+            // Too many free slots, or a record outgrew its slot: rewrite the file packed instead
+            if (batch == null) records.compact();
+            files.put("symbols.txt", symbolText());
+            StringWriter delayOut = new StringWriter();
+            try (PrintWriter delayWriter = new PrintWriter(delayOut)) {
+                delayStats.save(delayWriter);
             }
+            files.put("delays.txt", delayOut.toString());
+            files.put("pending.txt", pendingText());
+        }
+        // The sketches and the dictionary their ids refer to switch together (see Checkpointer)
+        long bytes = Checkpointer.write(dataDir, files);
+        if (batch != null) bytes += records.write(batch);
+        // Versions reach the history log after the records they describe
+        return bytes + history.flush();
+    }
 
-            for (Flight f : flights.values()) {
-                String isCargo = (f instanceof CargoFlight) ? "YES" : "NO";
-                double cargoCap = (f instanceof CargoFlight) ? ((CargoFlight) f).getCargoCapacity() : 0.0;
-                String delayString = String.join(";", f.getDelayReasons());
-                
-                flightWriter.println(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%.2f,%d,%s",
-                        f.getFlightNumber(), f.getOrigin(), f.getDestination(),
-                        f.getDepartureTime().toString(), f.getArrivalTime().toString(),
-                        f.getStatus(), f.getAircraft().getRegistrationNumber(),
-                        isCargo, cargoCap, f.getBookedPassengers(), delayString));
+    // Aircraft whose background cascade hasn't landed yet, as @id. The flights are saved as they
+    // stand (nothing is drained here, off the update thread); loadData works these tails out again.
+    private String pendingText() {
+        if (cascadeWorker == null) return "";
+        StringBuilder out = new StringBuilder();
+        for (String reg : cascadeWorker.getPendingAircraft()) {
+            Aircraft a = aircrafts.get(reg);
+            if (a != null) out.append('@').append(a.getRegistrationId()).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private static String symbolText() {
+        StringBuilder out = new StringBuilder();
+        for (SymbolTable t : SymbolTable.ALL) {
+            for (int id = 0; id < t.size(); id++) out.append(t.getKind()).append(',').append(id).append(',').append(t.name(id)).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    // Contents of every data file, file name -> text, in write order (dictionary first).
+    // Copied under the lock so the files agree with each other; flight lines (the bulk) are
+    // formatted after the lock is released, and the caller writes them out.
+    public Map<String, String> snapshotFiles() {
+        StringWriter aircraftOut = new StringWriter();
+        StringWriter connectionOut = new StringWriter();
+        StringWriter patternOut = new StringWriter();
+        StringWriter delayOut = new StringWriter();
+        List<SavedFlight> saved = new ArrayList<>();
+        String symbols;
+        synchronized (this) {
+            // Dictionary first: the other files refer to airports, registrations, brands and models as @id
+            symbols = symbolText();
+            try (PrintWriter aircraftWriter = new PrintWriter(aircraftOut);
+                 PrintWriter connectionWriter = new PrintWriter(connectionOut);
+                 PrintWriter patternWriter = new PrintWriter(patternOut);
+                 PrintWriter delayWriter = new PrintWriter(delayOut)) {
+
+                for (Aircraft a : aircrafts.values()) aircraftWriter.print(CsvAircraftRepository.format(a, true));
+
+                for (SchedulePattern p : patterns.values()) {
+                    patternWriter.println(String.format("%s,@%d,@%d,%s,%s,%d,@%d,%d,%s,%s,%s",
+                            p.getFlightNumber(), SymbolTable.AIRPORTS.id(p.getOrigin()), SymbolTable.AIRPORTS.id(p.getDestination()),
+                            p.getDaysString(), p.getDepartureTime(), p.getBlockMinutes(), p.getAircraft().getRegistrationId(),
+                            p.getBookedPassengers(), p.getValidFrom(), p.getValidTo(),
+                            p.getSkippedDates().stream().map(LocalDate::toString).collect(Collectors.joining(";"))));
+                }
+
+                for (Flight f : flights.values()) {
+                    // Untouched pattern instances are rebuilt on load
+                    SchedulePattern p = patternOf(f);
+                    if (p != null && p.isUnchanged(f)) continue;
+                    saved.add(new SavedFlight(f));
+                }
+
+                for (ConnectionGraph.Dependency d : connections.getDependencies()) {
+                    connectionWriter.println(String.format("%s,%s,%d,%s",
+                            d.getInbound().getKey(), d.getOutbound().getKey(),
+                            d.getMinConnectMinutes(), d.getType()));
+                }
+
+                delayStats.save(delayWriter);
             }
-        } catch (IOException e) { System.out.println("Error saving: " + e.getMessage()); }
+        }
+
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("symbols.txt", symbols);
+        files.put("aircrafts.txt", aircraftOut.toString());
+        files.put("patterns.txt", patternOut.toString());
+        files.put("flights.txt", saved.parallelStream().map(SavedFlight::line).collect(Collectors.joining()));
+        files.put("connections.txt", connectionOut.toString());
+        files.put("delays.txt", delayOut.toString());
+        return files;
+    }
+
+    // One flight's saved columns, copied while the lock is held
+    private static class SavedFlight {
+        final String flightNumber;
+        final int originId;
+        final int destinationId;
+        final LocalDateTime departure;
+        final LocalDateTime arrival;
+        final String status;
+        final int registrationId;
+        final double cargoCapacity; // < 0 for passenger flights
+        final int passengers;
+        final String delayReasons;
+        final long delayMinutes;
+        final long propagatedMinutes;
+        final LocalDate serviceDate;
+
+        SavedFlight(Flight f) {
+            flightNumber = f.getFlightNumber();
+            originId = f.getOriginId();
+            destinationId = f.getDestinationId();
+            departure = f.getDepartureTime();
+            arrival = f.getArrivalTime();
+            status = f.getStatus();
+            registrationId = f.getAircraft().getRegistrationId();
+            cargoCapacity = (f instanceof CargoFlight) ? ((CargoFlight) f).getCargoCapacity() : -1;
+            passengers = f.getBookedPassengers();
+            // Commas would shift the trailing columns
+            delayReasons = String.join(";", f.getDelayReasons()).replace(",", " ");
+            delayMinutes = f.getDelayMinutes();
+            propagatedMinutes = f.getPropagatedDelayMinutes();
+            serviceDate = f.getServiceDate();
+        }
+
+        String line() {
+            return String.format("%s,@%d,@%d,%s,%s,%s,@%d,%s,%.2f,%d,%s,%d,%d,%s%n",
+                    flightNumber, originId, destinationId, departure.toString(), arrival.toString(),
+                    status, registrationId, cargoCapacity >= 0 ? "YES" : "NO", Math.max(0.0, cargoCapacity),
+                    passengers, delayReasons, delayMinutes, propagatedMinutes,
+                    serviceDate == null ? "" : serviceDate.toString());
+        }
     }
 
+    // Null unless loadData refused a damaged file (then saves are refused too, see Checkpointer)
+    public String getStorageError() { return storageError; }
+
+    // Overlaps and short turnarounds in the data as loaded; null until loadData has read the files
+    public ScheduleAudit.Report getLoadAudit() { return loadAudit; }
+
     public void loadData() {
-        File aircraftFile = new File("aircrafts.txt");
-        File flightFile = new File("flights.txt");
-        if (!aircraftFile.exists() || !flightFile.exists()) return;
+        // Checkpoints end in a CRC trailer; a damaged file (or manifest) stops the load, so the
+        // next save can't replace the only good copy with a partial one
+        Map<String, File> files = new HashMap<>();
+        try {
+            for (String name : List.of("symbols.txt", "aircrafts.txt", "patterns.txt", "flights.txt", "connections.txt", "delays.txt", "pending.txt")) {
+                Path file = Checkpointer.resolve(dataDir, name);
+                files.put(name, file.toFile());
+                if (!Files.exists(file)) continue;
+                String problem = Checkpointer.verify(file);
+                if (problem != null) throw new IOException(problem);
+            }
+        } catch (IOException e) {
+            storageError = e.getMessage();
+            LOG.warning("Not loading damaged files: " + storageError);
+            return;
+        }
+
+        File aircraftFile = files.get("aircrafts.txt");
+        File flightFile = files.get("flights.txt");
+        boolean hasRecords = Files.exists(records.getPath());
+        if (!aircraftFile.exists() || (!flightFile.exists() && !hasRecords)) return;
 
         try {
-            Scanner sc = new Scanner(aircraftFile);
+            // Dictionary is optional: older files hold plain names instead of @id
+            Map<String, List<String>> saved = new HashMap<>();
+            File symbolFile = files.get("symbols.txt");
+            Scanner sc;
+            if (symbolFile.exists()) {
+                sc = new Scanner(symbolFile);
+                while (sc.hasNextLine()) {
+                    String[] parts = sc.nextLine().split(",", 3);
+                    if (parts.length < 3) continue;
+                    List<String> names = saved.computeIfAbsent(parts[0], k -> new ArrayList<>());
+                    int id = Integer.parseInt(parts[1]);
+                    while (names.size() <= id) names.add(null);
+                    names.set(id, parts[2]);
+                }
+                sc.close();
+            }
+            // Take the saved ids again, so a later partial save (symbols.txt with delays.txt) still
+            // matches the files it leaves alone. Names interned before loading can push them off.
+            boolean renumbered = false;
+            for (Map.Entry<String, List<String>> e : saved.entrySet()) {
+                SymbolTable table = SymbolTable.byKind(e.getKey());
+                if (table == null) continue;
+                for (int id = 0; id < e.getValue().size(); id++) {
+                    String name = e.getValue().get(id);
+                    if (name != null && table.id(name) != id) renumbered = true;
+                }
+            }
+
+            // Same line formats as the CSV repositories, with @ids
+            sc = new Scanner(aircraftFile);
             while (sc.hasNextLine()) {
-                String[] parts = sc.nextLine().split(",");
-                if (parts.length >= 5) addAircraft(new Aircraft(parts[0], parts[1], parts[2], Integer.parseInt(parts[3]), parts[4]));
+                Aircraft a = CsvAircraftRepository.parse(sc.nextLine(), (table, token) -> symbol(saved, table, token));
+                if (a != null) addAircraft(a);
             }
             sc.close();
 
-            sc = new Scanner(flightFile);
-            while (sc.hasNextLine()) {
-                String[] parts = sc.nextLine().split(",", -1);
-                if (parts.length >= 10) { 
-                    String fNum = parts[0];
-                    String org = parts[1];
-                    String dest = parts[2];
-                    LocalDateTime dep = LocalDateTime.parse(parts[3]);
-                    LocalDateTime arr = LocalDateTime.parse(parts[4]);
-                    String status = parts[5];
-                    String planeReg = parts[6];
-                    String isCargo = parts[7];
-                    double cargoCap = Double.parseDouble(parts[8]);
-                    int pax = 0;
-                    try { pax = Integer.parseInt(parts[9]); } catch (Exception e) {}
-                    String delayReasonStr = (parts.length >= 11) ? parts[10] : "";
-                    
-                    Aircraft linkedPlane = getAircraft(planeReg);
-                    if (linkedPlane != null) {
-                        Flight f = "YES".equals(isCargo) 
-                            ? new CargoFlight(fNum, org, dest, dep, arr, linkedPlane, cargoCap) 
-                            : new Flight(fNum, org, dest, dep, arr, linkedPlane, pax);
-                        
-                        f.setStatus(status);
-                        if (!delayReasonStr.isEmpty()) {
-                            for (String r : delayReasonStr.split(";")) f.getDelayReasons().add(r);
-                        }
-                        addFlight(f);
+            // Patterns are optional (file added later) and must exist before their instances
+            File patternFile = files.get("patterns.txt");
+            if (patternFile.exists()) {
+                sc = new Scanner(patternFile);
+                while (sc.hasNextLine()) {
+                    String[] parts = sc.nextLine().split(",", -1);
+                    if (parts.length < 10) continue;
+                    Aircraft plane = getAircraft(symbol(saved, SymbolTable.REGISTRATIONS, parts[6]));
+                    if (plane == null) continue;
+                    SchedulePattern p = new SchedulePattern(parts[0], symbol(saved, SymbolTable.AIRPORTS, parts[1]),
+                            symbol(saved, SymbolTable.AIRPORTS, parts[2]), SchedulePattern.parseDays(parts[3]),
+                            java.time.LocalTime.parse(parts[4]), Integer.parseInt(parts[5]), plane, Integer.parseInt(parts[7]),
+                            LocalDate.parse(parts[8]), LocalDate.parse(parts[9]));
+                    if (parts.length >= 11 && !parts[10].isEmpty()) {
+                        for (String d : parts[10].split(";")) p.skip(LocalDate.parse(d));
                     }
+                    patterns.put(p.getFlightNumber(), p);
                 }
+                sc.close();
             }
-            sc.close();
+
+            // Flights archived by earlier runs still count in the rollups over past flights
+            if (archive != null) archive.forEach(f -> listeners.forEach(l -> l.archivedFlightLoaded(f)));
+
+            // The record file is flushed after every text save, so when present it is the newest copy
+            history.setLoading(true);
+            if (hasRecords) {
+                records.load(r -> {
+                    Aircraft linkedPlane = getAircraft(symbol(saved, SymbolTable.REGISTRATIONS, r.getRegistrationNumber()));
+                    if (linkedPlane == null) return;
+                    String org = symbol(saved, SymbolTable.AIRPORTS, r.getOrigin());
+                    String dest = symbol(saved, SymbolTable.AIRPORTS, r.getDestination());
+                    Flight f = r.isCargo()
+                        ? new CargoFlight(r.getFlightNumber(), org, dest, r.getDepartureTime(), r.getArrivalTime(), linkedPlane, r.getCargoCapacity())
+                        : new Flight(r.getFlightNumber(), org, dest, r.getDepartureTime(), r.getArrivalTime(), linkedPlane, r.getBookedPassengers());
+                    f.setStatus(r.getStatus());
+                    f.getDelayReasons().addAll(r.getDelayReasons());
+                    f.setDelayMinutes(r.getDelayMinutes());
+                    f.setPropagatedDelayMinutes(r.getPropagatedDelayMinutes());
+                    f.setServiceDate(r.getServiceDate());
+                    records.preassign(f, r.getSlot());
+                    addFlight(f);
+                });
+                records.finishLoad();
+            } else {
+                sc = new Scanner(flightFile);
+                while (sc.hasNextLine()) {
+                    Flight f = CsvFlightRepository.parse(sc.nextLine(), t -> symbol(saved, SymbolTable.AIRPORTS, t),
+                            t -> getAircraft(symbol(saved, SymbolTable.REGISTRATIONS, t)));
+                    if (f != null) addFlight(f);
+                }
+                sc.close();
+            }
+            history.setLoading(false);
             
-            for (String reg : aircrafts.keySet()) {
-                autoUpdateAircraftStatus(reg);
+            // Connections are optional (file added later)
+            File connectionFile = files.get("connections.txt");
+            if (connectionFile.exists()) {
+                sc = new Scanner(connectionFile);
+                while (sc.hasNextLine()) {
+                    String[] parts = sc.nextLine().split(",");
+                    if (parts.length < 4) continue;
+                    Flight in = getFlight(parts[0]);
+                    Flight out = getFlight(parts[1]);
+                    if (in == null || out == null) continue;
+                    try {
+                        connections.addDependency(in, out, Integer.parseInt(parts[2]), parts[3]);
+                    } catch (Exception e) { LOG.warning("Skipped connection: " + e.getMessage()); }
+                }
+                sc.close();
+            }
+
+            // Delay sketches are optional (file added later); they start empty without it
+            File delayFile = files.get("delays.txt");
+            if (delayFile.exists()) {
+                sc = new Scanner(delayFile);
+                delayStats.load(sc, t -> symbol(saved, SymbolTable.DELAY_CATEGORIES, t),
+                        t -> symbol(saved, SymbolTable.AIRPORTS, t), t -> symbol(saved, SymbolTable.REGISTRATIONS, t));
+                sc.close();
+            }
+
+            // Tails saved with a background cascade still on its way get theirs now
+            File pendingFile = files.get("pending.txt");
+            if (pendingFile.exists()) {
+                sc = new Scanner(pendingFile);
+                while (sc.hasNextLine()) {
+                    String line = sc.nextLine();
+                    if (!line.startsWith("@")) continue;
+                    String reg = symbol(saved, SymbolTable.REGISTRATIONS, line);
+                    if (aircrafts.containsKey(reg)) runCascade(reg, getFlightsForAircraft(reg));
+                }
+                sc.close();
             }
 
-        } catch (Exception e) { System.out.println("Error loading: " + e.getMessage()); }
+            rollHorizon(LocalDate.now());
+            archiveClosedFlights(LocalDateTime.now());
+            // Files edited by hand or saved by older versions may hold conflicts the live checks never saw
+            loadAudit = auditSchedule(false);
+            // The files on disk use the old ids; replace the whole set before anything writes part of it
+            if (renumbered) saveData();
+
+        } catch (Exception e) { LOG.warning("Error loading: " + e.getMessage()); }
+        finally { history.setLoading(false); }
     }
     
+    // "@3" -> name saved under id 3 in symbols.txt; plain names (older files) pass through
+    private static String symbol(Map<String, List<String>> saved, SymbolTable table, String token) {
+        if (!token.startsWith("@")) return table.intern(token);
+        List<String> names = saved.getOrDefault(table.getKind(), List.of());
+        int id = Integer.parseInt(token.substring(1));
+        return id < names.size() ? table.intern(names.get(id)) : null;
+    }
+
     public boolean isAircraftAvailable(String regNo, LocalDateTime newDep, LocalDateTime newArr) {
-        for (Flight f : flights.values()) {
-            if (f.getAircraft().getRegistrationNumber().equals(regNo)) {
-                if ("Cancelled".equalsIgnoreCase(f.getStatus())) continue;
-                if (f.getDepartureTime().isBefore(newArr) && f.getArrivalTime().isAfter(newDep)) return false;
+        return slots.isFree(regNo, newDep, newArr, 0) && patternBlockEnd(regNo, newDep, newArr, 0) == null;
+    }
+
+    // Pattern instances beyond the horizon are not stored yet: arrival (plus turnaround) of one
+    // that would clash with [newDep, newArr), or null if none does
+    private LocalDateTime patternBlockEnd(String regNo, LocalDateTime newDep, LocalDateTime newArr, int turnaroundMinutes) {
+        LocalDateTime latest = null;
+        for (SchedulePattern p : patterns.values()) {
+            if (!p.getAircraft().getRegistrationNumber().equals(regNo)) continue;
+            for (LocalDate d = newDep.toLocalDate().minusDays(1); !d.isAfter(newArr.toLocalDate()); d = d.plusDays(1)) {
+                if (!p.occursOn(d) || flights.containsKey(p.keyFor(d))) continue;
+                LocalDateTime dep = LocalDateTime.of(d, p.getDepartureTime());
+                LocalDateTime end = dep.plusMinutes(p.getBlockMinutes() + turnaroundMinutes);
+                if (dep.isBefore(newArr.plusMinutes(turnaroundMinutes)) && end.isAfter(newDep)) {
+                    if (latest == null || end.isAfter(latest)) latest = end;
+                }
             }
         }
-        return true;
+        return latest;
     }
-    
-    public void updateFlightStatus(String flightNumber, String status) {
-        Flight f = flights.get(flightNumber);
-        if (f != null) f.setStatus(status);
+
+    // --- Slot Search ---
+    // Next 'count' departures (one per free gap) at which 'regNo' can fly a 'durationMinutes' leg,
+    // keeping 'turnaroundMinutes' on the ground either side
+    public List<LocalDateTime> findNextSlots(String regNo, LocalDateTime earliest, int durationMinutes, int turnaroundMinutes, int count) {
+        List<LocalDateTime> result = new ArrayList<>();
+        LocalDateTime from = earliest;
+        // A candidate hitting an unstored pattern instance restarts the search after it
+        for (int guard = 0; guard < 1000 && result.size() < count; guard++) {
+            boolean restarted = false;
+            for (LocalDateTime c : slots.nextSlots(regNo, from, durationMinutes, turnaroundMinutes, count - result.size())) {
+                LocalDateTime blockedUntil = patternBlockEnd(regNo, c, c.plusMinutes(durationMinutes), turnaroundMinutes);
+                if (blockedUntil == null) {
+                    result.add(c);
+                    continue;
+                }
+                from = blockedUntil;
+                restarted = true;
+                break;
+            }
+            if (!restarted) break;
+        }
+        return result;
+    }
+
+    // Aircraft that can fly [departure, departure + durationMinutes) with the given turnaround
+    public List<Aircraft> findFreeAircraft(LocalDateTime departure, int durationMinutes, int turnaroundMinutes) {
+        LocalDateTime arrival = departure.plusMinutes(durationMinutes);
+        // Only tails that fly a pattern need the (slower) unstored-instance check
+        Set<String> withPatterns = new HashSet<>();
+        for (SchedulePattern p : patterns.values()) withPatterns.add(p.getAircraft().getRegistrationNumber());
+
+        List<Aircraft> result = new ArrayList<>();
+        for (Aircraft a : aircrafts.values()) {
+            String reg = a.getRegistrationNumber();
+            if (!slots.isFree(reg, departure, arrival, turnaroundMinutes)) continue;
+            if (withPatterns.contains(reg) && patternBlockEnd(reg, departure, arrival, turnaroundMinutes) != null) continue;
+            result.add(a);
+        }
+        return result;
+    }
+
+    // --- Schedule Audit ---
+    // Sweeps every tail for overlapping legs and turnarounds under MIN_TURNAROUND_MINUTES.
+    // With 'repair', tails with overlaps go through the cascade (later legs pushed back) and are
+    // swept again; short turnarounds are only reported, since no leg needs to move for them.
+    public synchronized ScheduleAudit.Report auditSchedule(boolean repair) {
+        ScheduleAudit.Report report = ScheduleAudit.run(flightsByAircraft, MIN_TURNAROUND_MINUTES);
+        if (repair && report.count(ScheduleAudit.OVERLAP) > 0) {
+            long start = System.nanoTime();
+            Set<String> tails = report.getTails(ScheduleAudit.OVERLAP);
+            List<Flight> moved = tails.parallelStream()
+                    .flatMap(reg -> cascade(reg, true).stream())
+                    .collect(Collectors.toList());
+            // Connections out of the pushed legs are held as well
+            moved.addAll(propagateConnections(List.of(), new ArrayList<>(moved)));
+            fireChanged(moved);
+
+            // Findings on other tails still stand; repaired tails are swept again
+            List<ScheduleAudit.Conflict> remaining = report.getConflicts().stream()
+                    .filter(c -> !tails.contains(c.getRegistration()))
+                    .collect(Collectors.toList());
+            Map<String, List<Flight>> repaired = new HashMap<>();
+            for (String reg : tails) repaired.put(reg, flightsByAircraft.getOrDefault(reg, List.of()));
+            remaining.addAll(ScheduleAudit.run(repaired, MIN_TURNAROUND_MINUTES).getConflicts());
+            report = report.withRepair(remaining, moved.size(),
+                    report.getElapsedMillis() + (System.nanoTime() - start) / 1_000_000);
+        }
+        return report;
+    }
+
+    public synchronized void updateFlightStatus(String key, String status) {
+        Flight f = getFlight(key);
+        if (f == null) return;
+        requireLive(f);
+        f.setStatus(status);
+        fireChanged(List.of(f));
     }
 }
\ No newline at end of file
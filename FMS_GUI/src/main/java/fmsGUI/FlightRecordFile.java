@@ -0,0 +1,457 @@
+package fmsGUI;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// Flights on disk as fixed-size slots, one per flight: a change marks the flight dirty and a
+// flush rewrites just those slots with positional writes (adjacent slots go out as one write).
+// Deleted flights free their slot for the next new flight; compaction packs the file and also
+// grows the slot size when a record (many delay reasons) no longer fits.
+//
+// Slot layout: [state byte: 1 = used, 0 = free][payload length int][payload][CRC32 of payload int]
+// Airports and the registration are stored by name: symbol ids are assigned per run, and a slot
+// that isn't rewritten must still mean the same flight after a restart. (Format 1 stored ids; a
+// file in it is read through the saved dictionary and rewritten on the next flush.)
+public class FlightRecordFile implements FlightChangeListener {
+
+    private static final Logger LOG = Logger.getLogger(FlightRecordFile.class.getName());
+
+    public static final int DEFAULT_SLOT_SIZE = 256;
+    private static final int MAGIC = 0x464D5352; // "FMSR"
+    private static final int HEADER = 16;        // magic, format version, slot size, reserved
+    private static final int FORMAT = 2;
+    private static final int OVERHEAD = 9;
+    private static final int MAX_WRITE = 1 << 20;
+
+    private final Path path;
+    private int slotSize = DEFAULT_SLOT_SIZE;
+    private int format = FORMAT; // of the file on disk
+    private final Map<Flight, Integer> slots = new IdentityHashMap<>();
+    // Slots found on disk during load, claimed when the flight is added
+    private final Map<Flight, Integer> preassigned = new IdentityHashMap<>();
+    private final TreeSet<Integer> free = new TreeSet<>();
+    // Freed since the last flush; blanked on disk unless reused first
+    private final Set<Integer> released = new TreeSet<>();
+    private final Set<Flight> dirty = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int slotCount;
+    // Bumped by compaction; batches taken before it are stale
+    private int generation;
+
+    // File access (the flush writes outside the system lock)
+    private final Object io = new Object();
+    private FileChannel channel;
+
+    // --- Metrics ---
+    private long flushes;
+    private long slotsWritten;
+    private long bytesWritten;
+
+    public FlightRecordFile(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() { return path; }
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public synchronized void flightAdded(Flight f) {
+        if (slots.containsKey(f)) {
+            dirty.add(f);
+            return;
+        }
+        Integer slot = preassigned.remove(f);
+        if (slot != null) {
+            slots.put(f, slot); // just read from disk, already up to date
+            return;
+        }
+        slot = free.isEmpty() ? slotCount++ : free.pollFirst();
+        released.remove(slot);
+        slots.put(f, slot);
+        dirty.add(f);
+    }
+
+    @Override
+    public synchronized void flightRemoved(Flight f) {
+        Integer slot = slots.remove(f);
+        if (slot == null) return;
+        dirty.remove(f);
+        free.add(slot);
+        released.add(slot);
+    }
+
+    @Override
+    public synchronized void flightsChanged(Collection<Flight> changed) {
+        for (Flight f : changed) {
+            if (slots.containsKey(f)) dirty.add(f);
+        }
+    }
+
+    public synchronized int getDirtyCount() { return dirty.size() + released.size(); }
+
+    // --- Flush ---
+    // Slot images for everything dirty. Call while flights can't change (the system lock);
+    // returns null if a record outgrew its slot, in which case compact() is needed instead.
+    public synchronized Batch takeDirty() {
+        int n = dirty.size() + released.size();
+        int[] at = new int[n];
+        byte[][] images = new byte[n][];
+        int i = 0;
+        for (Flight f : dirty) {
+            byte[] payload = encode(f);
+            if (payload.length + OVERHEAD > slotSize) return null;
+            at[i] = slots.get(f);
+            images[i++] = image(payload);
+        }
+        for (int slot : released) {
+            at[i] = slot;
+            images[i++] = new byte[slotSize];
+        }
+        dirty.clear();
+        released.clear();
+        return new Batch(generation, at, images);
+    }
+
+    // Writes a batch; adjacent slots are coalesced into one positional write, then one fsync.
+    // Returns bytes written.
+    public long write(Batch batch) throws IOException {
+        if (batch.slots.length == 0) return 0;
+        synchronized (io) {
+            if (batch.generation != generation) return 0; // compaction already wrote newer state
+            FileChannel ch = channel();
+            Integer[] order = new Integer[batch.slots.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Integer.compare(batch.slots[a], batch.slots[b]));
+
+            long written = 0;
+            int i = 0;
+            while (i < order.length) {
+                // Run of consecutive slots, up to MAX_WRITE bytes
+                int j = i + 1;
+                while (j < order.length && batch.slots[order[j]] == batch.slots[order[j - 1]] + 1
+                        && (j - i + 1) * (long) slotSize <= MAX_WRITE) j++;
+                ByteBuffer buf = ByteBuffer.allocate((j - i) * slotSize);
+                for (int k = i; k < j; k++) buf.put(batch.images[order[k]]);
+                buf.flip();
+                long pos = offset(batch.slots[order[i]]);
+                while (buf.hasRemaining()) pos += ch.write(buf, pos);
+                written += (long) (j - i) * slotSize;
+                i = j;
+            }
+            ch.force(false);
+            synchronized (this) {
+                flushes++;
+                slotsWritten += batch.slots.length;
+                bytesWritten += written;
+            }
+            return written;
+        }
+    }
+
+    // --- Compaction ---
+    public synchronized boolean needsCompaction() {
+        return format != FORMAT || free.size() > Math.max(1024, slots.size() / 2);
+    }
+
+    // Rewrites every live flight densely into a fresh file (slot size grown if a record needs it)
+    // and swaps it in atomically. Call while flights can't change (the system lock).
+    public synchronized void compact() throws IOException {
+        List<Flight> live = new ArrayList<>(slots.keySet());
+        live.sort((a, b) -> Integer.compare(slots.get(a), slots.get(b)));
+        List<byte[]> payloads = new ArrayList<>(live.size());
+        int needed = slotSize;
+        for (Flight f : live) {
+            byte[] p = encode(f);
+            payloads.add(p);
+            while (p.length + OVERHEAD > needed) needed *= 2;
+        }
+
+        synchronized (io) {
+            int newSize = needed;
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(header(newSize), 0);
+                int oldSize = slotSize;
+                slotSize = newSize;
+                try {
+                    ByteBuffer buf = ByteBuffer.allocate(Math.max(newSize, MAX_WRITE / newSize * newSize));
+                    long pos = HEADER;
+                    for (byte[] p : payloads) {
+                        if (buf.remaining() < newSize) {
+                            buf.flip();
+                            while (buf.hasRemaining()) pos += out.write(buf, pos);
+                            buf.clear();
+                        }
+                        buf.put(image(p));
+                    }
+                    buf.flip();
+                    while (buf.hasRemaining()) pos += out.write(buf, pos);
+                    out.force(true);
+                } catch (IOException e) {
+                    slotSize = oldSize;
+                    throw e;
+                }
+            }
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            generation++;
+            format = FORMAT;
+        }
+
+        slots.clear();
+        for (int i = 0; i < live.size(); i++) slots.put(live.get(i), i);
+        slotCount = live.size();
+        free.clear();
+        released.clear();
+        dirty.clear();
+    }
+
+    // --- Load ---
+    // Hands every intact record to 'sink'; the sink calls preassign() for those it keeps.
+    // Records with a bad checksum (torn write) are reported and their slot reused.
+    public synchronized void load(Consumer<Record> sink) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER);
+            while (head.hasRemaining() && in.read(head, head.position()) > 0) { }
+            head.flip();
+            if (head.remaining() < HEADER || head.getInt() != MAGIC) throw new IOException(path + " is not a flight record file");
+            format = head.getInt();
+            slotSize = head.getInt();
+            slotCount = (int) ((in.size() - HEADER) / slotSize);
+
+            ByteBuffer buf = ByteBuffer.allocate(Math.max(slotSize, MAX_WRITE / slotSize * slotSize));
+            long pos = HEADER;
+            int slot = 0;
+            while (slot < slotCount) {
+                buf.clear();
+                int want = (int) Math.min(buf.capacity(), (long) (slotCount - slot) * slotSize);
+                buf.limit(want);
+                while (buf.hasRemaining()) {
+                    int r = in.read(buf, pos + buf.position());
+                    if (r < 0) break;
+                }
+                buf.flip();
+                while (buf.remaining() >= slotSize) {
+                    byte[] image = new byte[slotSize];
+                    buf.get(image);
+                    Record r = decode(image, slot);
+                    if (r != null) sink.accept(r);
+                    slot++;
+                }
+                pos += want;
+            }
+        }
+    }
+
+    // The flight read from 'slot' is about to be added; it stays clean
+    public synchronized void preassign(Flight f, int slot) {
+        preassigned.put(f, slot);
+    }
+
+    // Slots nobody claimed during load become free (and are blanked on the next flush)
+    public synchronized void finishLoad() {
+        preassigned.clear();
+        boolean[] used = new boolean[slotCount];
+        for (int s : slots.values()) {
+            if (s < slotCount) used[s] = true;
+        }
+        for (int s = 0; s < slotCount; s++) {
+            if (!used[s]) {
+                free.add(s);
+                released.add(s);
+            }
+        }
+    }
+
+    // --- Encoding ---
+    private static byte[] encode(Flight f) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(f.getFlightNumber());
+            out.writeUTF(f.getOrigin());
+            out.writeUTF(f.getDestination());
+            out.writeLong(f.getDepartureTime().toEpochSecond(ZoneOffset.UTC));
+            out.writeLong(f.getArrivalTime().toEpochSecond(ZoneOffset.UTC));
+            out.writeUTF(f.getStatus());
+            out.writeUTF(f.getAircraft().getRegistrationNumber());
+            out.writeBoolean(f instanceof CargoFlight);
+            out.writeDouble(f instanceof CargoFlight ? ((CargoFlight) f).getCargoCapacity() : 0);
+            out.writeInt(f.getBookedPassengers());
+            out.writeShort(f.getDelayReasons().size());
+            for (String r : f.getDelayReasons()) out.writeUTF(r);
+            out.writeLong(f.getDelayMinutes());
+            out.writeLong(f.getPropagatedDelayMinutes());
+            out.writeLong(f.getServiceDate() == null ? Long.MIN_VALUE : f.getServiceDate().toEpochDay());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] image(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer b = ByteBuffer.allocate(slotSize);
+        b.put((byte) 1).putInt(payload.length).put(payload).putInt((int) crc.getValue());
+        return b.array();
+    }
+
+    private Record decode(byte[] image, int slot) {
+        ByteBuffer b = ByteBuffer.wrap(image);
+        if (b.get() != 1) return null;
+        int length = b.getInt();
+        if (length < 0 || length + OVERHEAD > slotSize) {
+            LOG.warning("Skipped damaged flight record in slot " + slot);
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(image, 5, length);
+        b.position(5 + length);
+        if (b.getInt() != (int) crc.getValue()) {
+            LOG.warning("Skipped damaged flight record in slot " + slot);
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new java.io.ByteArrayInputStream(image, 5, length))) {
+            Record r = new Record();
+            r.slot = slot;
+            r.flightNumber = in.readUTF();
+            r.origin = format == 1 ? "@" + in.readInt() : in.readUTF();
+            r.destination = format == 1 ? "@" + in.readInt() : in.readUTF();
+            r.departure = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+            r.arrival = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+            r.status = in.readUTF();
+            r.registration = format == 1 ? "@" + in.readInt() : in.readUTF();
+            r.cargo = in.readBoolean();
+            r.cargoCapacity = in.readDouble();
+            r.passengers = in.readInt();
+            int reasons = in.readShort();
+            for (int i = 0; i < reasons; i++) r.delayReasons.add(in.readUTF());
+            r.delayMinutes = in.readLong();
+            r.propagatedMinutes = in.readLong();
+            long day = in.readLong();
+            r.serviceDate = day == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(day);
+            return r;
+        } catch (IOException e) {
+            LOG.warning("Skipped unreadable flight record in slot " + slot);
+            return null;
+        }
+    }
+
+    // --- File ---
+    private long offset(int slot) {
+        return HEADER + (long) slot * slotSize;
+    }
+
+    private static ByteBuffer header(int slotSize) {
+        ByteBuffer b = ByteBuffer.allocate(HEADER);
+        b.putInt(MAGIC).putInt(FORMAT).putInt(slotSize).putInt(0);
+        b.flip();
+        return b;
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < HEADER) {
+                channel.write(header(slotSize), 0);
+            }
+        }
+        return channel;
+    }
+
+    public void close() throws IOException {
+        synchronized (io) {
+            if (channel != null) channel.close();
+            channel = null;
+        }
+    }
+
+    public synchronized long getFlushCount() { return flushes; }
+    public synchronized long getSlotsWritten() { return slotsWritten; }
+    public synchronized long getBytesWritten() { return bytesWritten; }
+    public synchronized int getSlotSize() { return slotSize; }
+    public synchronized int getFreeSlotCount() { return free.size(); }
+
+    // --- Result Classes ---
+    // Dirty slot images taken under the lock, written after it
+    public static class Batch {
+        private final int generation;
+        private final int[] slots;
+        private final byte[][] images;
+
+        Batch(int generation, int[] slots, byte[][] images) {
+            this.generation = generation;
+            this.slots = slots;
+            this.images = images;
+        }
+
+        public int size() { return slots.length; }
+    }
+
+    // One flight as stored (names; "@id" from a format 1 file, an id in the saved dictionary)
+    public static class Record {
+        private int slot;
+        private String flightNumber;
+        private String origin;
+        private String destination;
+        private LocalDateTime departure;
+        private LocalDateTime arrival;
+        private String status;
+        private String registration;
+        private boolean cargo;
+        private double cargoCapacity;
+        private int passengers;
+        private final List<String> delayReasons = new ArrayList<>();
+        private long delayMinutes;
+        private long propagatedMinutes;
+        private LocalDate serviceDate;
+
+        public int getSlot() { return slot; }
+        public String getFlightNumber() { return flightNumber; }
+        public String getOrigin() { return origin; }
+        public String getDestination() { return destination; }
+        public LocalDateTime getDepartureTime() { return departure; }
+        public LocalDateTime getArrivalTime() { return arrival; }
+        public String getStatus() { return status; }
+        public String getRegistrationNumber() { return registration; }
+        public boolean isCargo() { return cargo; }
+        public double getCargoCapacity() { return cargoCapacity; }
+        public int getBookedPassengers() { return passengers; }
+        public List<String> getDelayReasons() { return delayReasons; }
+        public long getDelayMinutes() { return delayMinutes; }
+        public long getPropagatedDelayMinutes() { return propagatedMinutes; }
+        public LocalDate getServiceDate() { return serviceDate; }
+    }
+}
@@ -0,0 +1,36 @@
+package fmsGUI;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Where flights are kept outside the running system. Backends: CsvFlightRepository (one text
+// file, held in memory; its line format is also the system's flights.txt) and FlightDatabase
+// (embedded on-disk store with indexes, the archive of memory-budget mode), optionally behind a
+// CachedFlightRepository. Flights come back linked to the aircraft the backend's resolver
+// returns; changing one has no effect until it is saved again.
+public interface FlightRepository extends Closeable {
+    Flight find(String key) throws IOException;
+    boolean contains(String key) throws IOException;
+    // Every instance of one flight number (one-off and pattern instances), by departure
+    List<Flight> findByFlightNumber(String flightNumber) throws IOException;
+    // One tail's flights, by departure
+    List<Flight> findByTail(String registration) throws IOException;
+    // Departing in [from, to), by departure
+    List<Flight> findDepartingBetween(LocalDateTime from, LocalDateTime to) throws IOException;
+    Collection<String> keys() throws IOException;
+    void forEach(Consumer<Flight> action) throws IOException;
+    int size();
+
+    // Insert or replace by key
+    void save(Flight flight) throws IOException;
+    default void saveAll(Collection<Flight> flights) throws IOException {
+        for (Flight f : flights) save(f);
+    }
+    void delete(String key) throws IOException;
+    // Makes everything saved so far durable
+    void flush() throws IOException;
+}
@@ -0,0 +1,383 @@
+package fmsGUI;
+
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Flight table keyed by flight key ("MH-101" or "MH-101/2026-01-05").
+// Keys matching FlightValidator.FLIGHT_NO_PATTERN are packed into a long and kept in a
+// primitive open-addressing table (parallel long[] / Flight[], linear probing), so there
+// are no String keys or entry objects per flight. Anything else goes to a plain HashMap.
+// Lookups and updates lock the store, so a reader never sees a half-done rehash. Iterators
+// don't: iterate while holding the lock every writer holds (the system's), or use snapshot().
+public class FlightStore extends AbstractMap<String, Flight> {
+
+    private static final long EMPTY = 0L;
+    private static final float MAX_LOAD = 0.6f;
+
+    // Packed layout (bit 62 always set, so a packed key is never EMPTY):
+    //   0-14  up to 3 letters, 5 bits each (A=1, 0 = none)
+    //   15    4-digit number
+    //   16-29 number
+    //   30    has service date
+    //   31-61 service date as epoch day + DAY_OFFSET
+    private static final long MARKER = 1L << 62;
+    private static final long DAY_OFFSET = 1L << 30;
+
+    private long[] keys;
+    private Flight[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    private final Map<String, Flight> fallback = new HashMap<>();
+    private int modCount;
+
+    public FlightStore() {
+        this(16);
+    }
+
+    public FlightStore(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, (int) (expected / MAX_LOAD)) - 1) << 1;
+        allocate(cap);
+    }
+
+    private void allocate(int cap) {
+        keys = new long[cap];
+        values = new Flight[cap];
+        mask = cap - 1;
+        resizeAt = (int) (cap * MAX_LOAD);
+    }
+
+    // --- Key Packing ---
+    // Single pass over the key; returns EMPTY for keys that don't fit the layout
+    static long pack(String key) {
+        int len = key.length();
+        long packed = MARKER;
+        int i = 0;
+        char c;
+
+        // 1. "MH" / "AXM"
+        while (i < 3 && i < len && (c = key.charAt(i)) >= 'A' && c <= 'Z') {
+            packed |= (long) (c - 'A' + 1) << (5 * i);
+            i++;
+        }
+        if (i < 2 || i >= len || key.charAt(i) != '-') return EMPTY;
+
+        // 2. "-101" / "-0101"
+        int start = ++i;
+        int number = 0;
+        while (i < len && i - start < 4 && (c = key.charAt(i)) >= '0' && c <= '9') {
+            number = number * 10 + (c - '0');
+            i++;
+        }
+        int digits = i - start;
+        if (digits < 3) return EMPTY;
+        if (digits == 4) packed |= 1L << 15;
+        packed |= (long) number << 16;
+        if (i == len) return packed;
+
+        // 3. "/2026-01-05" (strict, so every packed key maps back to exactly one string)
+        if (len - i != 11 || key.charAt(i) != '/' || key.charAt(i + 5) != '-' || key.charAt(i + 8) != '-') return EMPTY;
+        int y = 0, m = 0, d = 0;
+        for (int j = i + 1; j < i + 5; j++) {
+            c = key.charAt(j);
+            if (c < '0' || c > '9') return EMPTY;
+            y = y * 10 + (c - '0');
+        }
+        for (int j = i + 6; j < i + 8; j++) {
+            c = key.charAt(j);
+            if (c < '0' || c > '9') return EMPTY;
+            m = m * 10 + (c - '0');
+        }
+        for (int j = i + 9; j < i + 11; j++) {
+            c = key.charAt(j);
+            if (c < '0' || c > '9') return EMPTY;
+            d = d * 10 + (c - '0');
+        }
+        boolean leap = (y & 3) == 0 && (y % 100 != 0 || y % 400 == 0);
+        if (y < 1000 || m < 1 || m > 12 || d < 1 || d > DAYS_IN_MONTH[m] + (m == 2 && leap ? 1 : 0)) return EMPTY;
+
+        // Same result as LocalDate.of(y, m, d).toEpochDay()
+        long day = 365L * (y - 1970) + leapsBefore(y) - LEAPS_BEFORE_1970
+                + DAYS_BEFORE_MONTH[m] + (m > 2 && leap ? 1 : 0) + d - 1;
+        packed |= 1L << 30;
+        packed |= (day + DAY_OFFSET) << 31;
+        return packed;
+    }
+
+    private static final int[] DAYS_IN_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] DAYS_BEFORE_MONTH = {0, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+    private static final int LEAPS_BEFORE_1970 = leapsBefore(1970);
+
+    private static int leapsBefore(int year) {
+        int y = year - 1;
+        return y / 4 - y / 100 + y / 400;
+    }
+
+    static String unpack(long packed) {
+        StringBuilder sb = new StringBuilder(21);
+        for (int i = 0; i < 3; i++) {
+            int c = (int) (packed >>> (5 * i)) & 31;
+            if (c != 0) sb.append((char) ('A' + c - 1));
+        }
+        sb.append('-');
+        int number = (int) (packed >>> 16) & 0x3FFF;
+        String n = Integer.toString(number);
+        int width = ((packed >>> 15) & 1) != 0 ? 4 : 3;
+        for (int i = n.length(); i < width; i++) sb.append('0');
+        sb.append(n);
+        if (((packed >>> 30) & 1) != 0) {
+            long day = ((packed >>> 31) & 0x7FFFFFFFL) - DAY_OFFSET;
+            sb.append('/').append(LocalDate.ofEpochDay(day));
+        }
+        return sb.toString();
+    }
+
+    private static int hash(long k) {
+        // MurmurHash3 finalizer
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return (int) k;
+    }
+
+    // --- Map API ---
+    @Override
+    public synchronized Flight get(Object key) {
+        if (!(key instanceof String)) return null;
+        long k = pack((String) key);
+        if (k == EMPTY) return fallback.get(key);
+        for (int i = hash(k) & mask; ; i = (i + 1) & mask) {
+            long cur = keys[i];
+            if (cur == k) return values[i];
+            if (cur == EMPTY) return null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public synchronized Flight put(String key, Flight value) {
+        long k = pack(key);
+        if (k == EMPTY) {
+            modCount++;
+            return fallback.put(key, value);
+        }
+        int i = hash(k) & mask;
+        for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == k) {
+                Flight old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = k;
+        values[i] = value;
+        modCount++;
+        if (++size > resizeAt) rehash(keys.length << 1);
+        return null;
+    }
+
+    @Override
+    public synchronized Flight remove(Object key) {
+        if (!(key instanceof String)) return null;
+        long k = pack((String) key);
+        if (k == EMPTY) {
+            modCount++;
+            return fallback.remove(key);
+        }
+        for (int i = hash(k) & mask; ; i = (i + 1) & mask) {
+            long cur = keys[i];
+            if (cur == EMPTY) return null;
+            if (cur == k) {
+                Flight old = values[i];
+                removeAt(i, null);
+                return old;
+            }
+        }
+    }
+
+    private int slotOf(long k) {
+        for (int i = hash(k) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == k) return i;
+            if (keys[i] == EMPTY) return -1;
+        }
+    }
+
+    // Backward-shift deletion: no tombstones, probe chains stay short. 'walker', if any, is told
+    // about every entry that moves (see SlotIterator.remove).
+    private void removeAt(int hole, SlotIterator<?> walker) {
+        size--;
+        modCount++;
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            long k = keys[i];
+            if (k == EMPTY) break;
+            int home = hash(k) & mask;
+            // Move the entry back if the hole lies on its probe path
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                if (walker != null) walker.moved(i, hole);
+                keys[hole] = k;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+    }
+
+    private void rehash(int cap) {
+        long[] oldKeys = keys;
+        Flight[] oldValues = values;
+        allocate(cap);
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k == EMPTY) continue;
+            int i = hash(k) & mask;
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    @Override
+    public synchronized int size() { return size + fallback.size(); }
+
+    // Every flight, copied under the store's lock
+    public synchronized List<Flight> snapshot() {
+        List<Flight> all = new ArrayList<>(size());
+        for (Flight f : values()) all.add(f);
+        return all;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+        fallback.clear();
+        modCount++;
+    }
+
+    // --- Views (iteration allocates only when entries are requested) ---
+    @Override
+    public Collection<Flight> values() {
+        return new AbstractCollection<Flight>() {
+            @Override
+            public Iterator<Flight> iterator() {
+                return new SlotIterator<Flight>() {
+                    Flight make(long key, Flight value) { return value; }
+                    Flight fromFallback(Map.Entry<String, Flight> e) { return e.getValue(); }
+                };
+            }
+
+            @Override
+            public int size() { return FlightStore.this.size(); }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, Flight>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Flight>>() {
+            @Override
+            public Iterator<Map.Entry<String, Flight>> iterator() {
+                return new SlotIterator<Map.Entry<String, Flight>>() {
+                    Map.Entry<String, Flight> make(long key, Flight value) { return new SimpleEntry<>(unpack(key), value); }
+                    Map.Entry<String, Flight> fromFallback(Map.Entry<String, Flight> e) { return e; }
+                };
+            }
+
+            @Override
+            public int size() { return FlightStore.this.size(); }
+        };
+    }
+
+    // Walks the table slots from the top down, then the fallback map. remove() deletes by
+    // backward shift like everywhere else: an entry can then move from the part not walked yet
+    // (at or below 'next') into the part already walked, and such entries are returned at the end.
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int next = advance(keys.length - 1);
+        private final List<Long> movedKeys = new ArrayList<>();
+        private final List<Flight> movedValues = new ArrayList<>();
+        private int movedAt;
+        private final Iterator<Map.Entry<String, Flight>> rest = fallback.entrySet().iterator();
+        private int expectedMod = modCount;
+        // What next() returned last: a slot, a moved entry's key, or a fallback entry
+        private int lastSlot = -1;
+        private long lastKey = EMPTY;
+        private boolean lastFromRest;
+
+        abstract T make(long key, Flight value);
+        abstract T fromFallback(Map.Entry<String, Flight> e);
+
+        private int advance(int from) {
+            while (from >= 0 && keys[from] == EMPTY) from--;
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() { return next >= 0 || movedAt < movedKeys.size() || rest.hasNext(); }
+
+        @Override
+        public T next() {
+            if (modCount != expectedMod) throw new ConcurrentModificationException();
+            lastSlot = -1;
+            lastKey = EMPTY;
+            lastFromRest = false;
+            if (next >= 0) {
+                lastSlot = next;
+                next = advance(next - 1);
+                return make(keys[lastSlot], values[lastSlot]);
+            }
+            if (movedAt < movedKeys.size()) {
+                lastKey = movedKeys.get(movedAt);
+                return make(lastKey, movedValues.get(movedAt++));
+            }
+            if (!rest.hasNext()) throw new NoSuchElementException();
+            lastFromRest = true;
+            return fromFallback(rest.next());
+        }
+
+        @Override
+        public void remove() {
+            if (modCount != expectedMod) throw new ConcurrentModificationException();
+            synchronized (FlightStore.this) {
+                if (lastSlot >= 0) removeAt(lastSlot, this);
+                else if (lastKey != EMPTY) removeAt(slotOf(lastKey), this);
+                else if (lastFromRest) {
+                    rest.remove();
+                    modCount++;
+                } else throw new IllegalStateException();
+            }
+            lastSlot = -1;
+            lastKey = EMPTY;
+            lastFromRest = false;
+            expectedMod = modCount;
+        }
+
+        void moved(int from, int to) {
+            if (from <= next && to > next) {
+                movedKeys.add(keys[from]);
+                movedValues.add(values[from]);
+            }
+        }
+    }
+}
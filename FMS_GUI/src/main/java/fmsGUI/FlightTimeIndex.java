@@ -0,0 +1,160 @@
+package fmsGUI;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Departures and arrivals partitioned by hour (epoch hour of the local time).
+// A range query visits only the partitions it overlaps and checks exact times in the two edge ones.
+// Kept in sync through FlightChangeListener; a flight moved across an hour boundary changes partition.
+public class FlightTimeIndex implements FlightChangeListener {
+
+    private final NavigableMap<Integer, List<Flight>> departures = new TreeMap<>();
+    private final NavigableMap<Integer, List<Flight>> arrivals = new TreeMap<>();
+    // Partitions each flight is filed under (events carry no old values)
+    private final Map<Flight, int[]> filed = new IdentityHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    static int hour(LocalDateTime t) {
+        return Math.floorDiv(TailAssigner.minute(t), 60);
+    }
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public void flightAdded(Flight f) {
+        lock.writeLock().lock();
+        try {
+            refile(f);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void flightRemoved(Flight f) {
+        lock.writeLock().lock();
+        try {
+            int[] at = filed.remove(f);
+            if (at == null) return;
+            unfile(departures, at[0], f);
+            unfile(arrivals, at[1], f);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void flightsChanged(Collection<Flight> changed) {
+        lock.writeLock().lock();
+        try {
+            for (Flight f : changed) {
+                if (filed.containsKey(f)) refile(f);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Moves 'f' only if its hour changed (most updates stay in the same partition)
+    private void refile(Flight f) {
+        int dep = hour(f.getDepartureTime());
+        int arr = hour(f.getArrivalTime());
+        int[] at = filed.get(f);
+        if (at == null) {
+            filed.put(f, new int[]{dep, arr});
+            departures.computeIfAbsent(dep, k -> new ArrayList<>()).add(f);
+            arrivals.computeIfAbsent(arr, k -> new ArrayList<>()).add(f);
+            return;
+        }
+        if (at[0] != dep) {
+            unfile(departures, at[0], f);
+            departures.computeIfAbsent(dep, k -> new ArrayList<>()).add(f);
+            at[0] = dep;
+        }
+        if (at[1] != arr) {
+            unfile(arrivals, at[1], f);
+            arrivals.computeIfAbsent(arr, k -> new ArrayList<>()).add(f);
+            at[1] = arr;
+        }
+    }
+
+    private static void unfile(NavigableMap<Integer, List<Flight>> partitions, int hour, Flight f) {
+        List<Flight> bucket = partitions.get(hour);
+        if (bucket == null) return;
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == f) {
+                // Order inside a partition doesn't matter
+                bucket.set(i, bucket.get(bucket.size() - 1));
+                bucket.remove(bucket.size() - 1);
+                break;
+            }
+        }
+        if (bucket.isEmpty()) partitions.remove(hour);
+    }
+
+    // --- Range Queries (from inclusive, to exclusive; sorted by the indexed time) ---
+    public List<Flight> departingBetween(LocalDateTime from, LocalDateTime to) {
+        return between(departures, from, to, Flight::getDepartureTime);
+    }
+
+    public List<Flight> arrivingBetween(LocalDateTime from, LocalDateTime to) {
+        return between(arrivals, from, to, Flight::getArrivalTime);
+    }
+
+    public List<Flight> departingOn(LocalDate day) {
+        return departingBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    private List<Flight> between(NavigableMap<Integer, List<Flight>> partitions, LocalDateTime from, LocalDateTime to,
+                                 Function<Flight, LocalDateTime> time) {
+        List<Flight> result = new ArrayList<>();
+        if (!from.isBefore(to)) return result;
+        lock.readLock().lock();
+        try {
+            int first = hour(from);
+            int last = hour(to.minusNanos(1));
+            for (Map.Entry<Integer, List<Flight>> e : partitions.subMap(first, true, last, true).entrySet()) {
+                // Inner partitions lie wholly inside the range
+                if (e.getKey() != first && e.getKey() != last) {
+                    result.addAll(e.getValue());
+                    continue;
+                }
+                for (Flight f : e.getValue()) {
+                    LocalDateTime t = time.apply(f);
+                    if (!t.isBefore(from) && t.isBefore(to)) result.add(f);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(time));
+        return result;
+    }
+
+    // Days that have at least one departure, ascending
+    public List<LocalDate> departureDays() {
+        List<LocalDate> days = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long previous = Long.MIN_VALUE;
+            for (int h : departures.keySet()) {
+                long day = Math.floorDiv(h, 24);
+                if (day != previous) days.add(LocalDate.ofEpochDay(day));
+                previous = day;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return days;
+    }
+}
@@ -0,0 +1,99 @@
+package fmsGUI;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// UI-free flight rules shared by the Add Flight dialog and the bulk importer.
+// Each check returns a message describing the problem, or null if it passes.
+public class FlightValidator {
+
+    public static final String FLIGHT_NO_PATTERN = "^[A-Z]{2,3}-\\d{3,4}$";
+    public static final String DESTINATION_PATTERN = "^[A-Z ]+$";
+
+    private final FlightManagementSystem system;
+
+    public FlightValidator(FlightManagementSystem system) {
+        this.system = system;
+    }
+
+    // --- Individual Rules ---
+    public String checkFlightNumber(String flightNo) {
+        if (flightNo == null || !flightNo.matches(FLIGHT_NO_PATTERN)) return "Invalid Flight No. Format (e.g. MH-101).";
+        return null;
+    }
+
+    public String checkDuplicate(String flightNo) {
+        if (system.getFlight(flightNo) != null || system.getPattern(flightNo) != null) {
+            return "Flight number " + flightNo + " already exists!\nPlease use a unique number.";
+        }
+        return null;
+    }
+
+    public String checkDestination(String destination) {
+        if (destination == null || destination.isEmpty()) return "Destination cannot be empty.";
+        if (!destination.matches(DESTINATION_PATTERN)) {
+            return "Destination must be UPPERCASE letters only (e.g. LONDON).\nNo lowercase or numbers allowed.";
+        }
+        return null;
+    }
+
+    public String checkDepartureTime(LocalDateTime departure, LocalDateTime now) {
+        if (departure.isBefore(now)) {
+            DateTimeFormatter hhmm = DateTimeFormatter.ofPattern("HH:mm");
+            return "Cannot schedule a flight in the past!\n" +
+                   "Current Time: " + now.format(hhmm) + "\n" +
+                   "Selected Time: " + departure.format(hhmm) + "\n\n" +
+                   "Please select a future time.";
+        }
+        return null;
+    }
+
+    public String checkCapacity(Aircraft aircraft, int passengers) {
+        if (passengers < 0) return "Passenger count cannot be negative.";
+        if (passengers > aircraft.getCapacity()) {
+            return "Passenger count (" + passengers + ") exceeds aircraft capacity (" + aircraft.getCapacity() + ")!";
+        }
+        return null;
+    }
+
+    public String checkAvailability(String regNo, LocalDateTime departure, LocalDateTime arrival) {
+        if (!system.isAircraftAvailable(regNo, departure, arrival)) {
+            return "Aircraft " + regNo + " is already booked for this time slot!\n" +
+                   "Please choose a different time or aircraft.";
+        }
+        return null;
+    }
+
+    // --- All Rules for a Built Flight ---
+    // Rules on the flight's own fields; no system state, so they can run on many threads at once
+    public List<String> validateFields(Flight f, LocalDateTime now) {
+        List<String> problems = new ArrayList<>();
+        add(problems, checkFlightNumber(f.getFlightNumber()));
+        add(problems, checkDestination(f.getDestination()));
+        if (f.getAircraft() == null) {
+            problems.add("Unknown aircraft.");
+            return problems;
+        }
+        if (!f.getArrivalTime().isAfter(f.getDepartureTime())) problems.add("Arrival must be after departure.");
+        add(problems, checkDepartureTime(f.getDepartureTime(), now));
+        if (!(f instanceof CargoFlight)) add(problems, checkCapacity(f.getAircraft(), f.getBookedPassengers()));
+        return problems;
+    }
+
+    // Rules against the current schedule (duplicates, aircraft availability). Call with the
+    // system's lock held, so its indexes don't change underneath.
+    public List<String> validateAgainstSchedule(Flight f) {
+        List<String> problems = new ArrayList<>();
+        add(problems, checkDuplicate(f.getFlightNumber()));
+        if (f.getAircraft() != null) {
+            add(problems, checkAvailability(f.getAircraft().getRegistrationNumber(), f.getDepartureTime(), f.getArrivalTime()));
+        }
+        return problems;
+    }
+
+    private static void add(List<String> problems, String problem) {
+        if (problem != null) problems.add(problem);
+    }
+}
@@ -0,0 +1,47 @@
+package fmsGUI;
+
+import java.time.LocalDateTime;
+
+// One OOOI message from a movement feed: gate OUT, wheels OFF, wheels ON, gate IN.
+// Wire format (file / socket): FLIGHT_KEY,TYPE,TIME   e.g. MH-101/2026-01-05,OFF,2026-01-05T08:14
+public class MovementEvent {
+
+    public static final String OUT = "OUT";
+    public static final String OFF = "OFF";
+    public static final String ON = "ON";
+    public static final String IN = "IN";
+
+    private final String flightKey;
+    private final String type;
+    private final LocalDateTime time;
+    // When the feed produced it (System.nanoTime), for lag metrics
+    private final long createdNanos;
+
+    public MovementEvent(String flightKey, String type, LocalDateTime time) {
+        this.flightKey = flightKey;
+        this.type = type;
+        this.time = time;
+        this.createdNanos = System.nanoTime();
+    }
+
+    // Returns null for lines that can't be read
+    public static MovementEvent parse(String line) {
+        String[] parts = line.split(",");
+        if (parts.length < 3) return null;
+        String type = parts[1].trim().toUpperCase();
+        if (!OUT.equals(type) && !OFF.equals(type) && !ON.equals(type) && !IN.equals(type)) return null;
+        try {
+            return new MovementEvent(parts[0].trim(), type, LocalDateTime.parse(parts[2].trim()));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public String getFlightKey() { return flightKey; }
+    public String getType() { return type; }
+    public LocalDateTime getTime() { return time; }
+    public long getCreatedNanos() { return createdNanos; }
+
+    @Override
+    public String toString() { return flightKey + "," + type + "," + time; }
+}
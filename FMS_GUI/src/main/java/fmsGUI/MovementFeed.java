@@ -0,0 +1,217 @@
+package fmsGUI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.locks.LockSupport;
+
+// Source end of the movement pipeline. submit() blocks once the subscriber's bounded
+// buffer is full, so a slow consumer throttles the producer thread (backpressure).
+public abstract class MovementFeed extends SubmissionPublisher<MovementEvent> {
+
+    private Thread producer;
+    protected volatile boolean running;
+
+    protected MovementFeed(Executor executor, int bufferSize) {
+        super(executor, bufferSize);
+    }
+
+    public void start() {
+        running = true;
+        producer = new Thread(() -> {
+            try {
+                produce();
+            } catch (Exception e) {
+                if (running) System.out.println("Feed stopped: " + e.getMessage());
+            } finally {
+                close(); // completes downstream
+            }
+        }, getClass().getSimpleName());
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    // Waits briefly for the producer so close() runs before the executor goes away
+    public void stop() {
+        running = false;
+        if (producer == null) return;
+        producer.interrupt();
+        try {
+            producer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    protected abstract void produce() throws Exception;
+
+    // Reads wire-format lines until stopped; unreadable lines are dropped
+    protected void emitLines(BufferedReader reader) throws IOException {
+        String line;
+        while (running && (line = reader.readLine()) != null) {
+            MovementEvent e = MovementEvent.parse(line);
+            if (e != null) submit(e);
+        }
+    }
+
+    // --- Built-in Generator (stands in for the real feed) ---
+    // Plays OUT/OFF/ON/IN for every open flight in time order, with random lateness
+    public static class Generator extends MovementFeed {
+        private final List<MovementEvent> script = new ArrayList<>();
+        private final int eventsPerSecond;
+        private final boolean repeat;
+
+        public Generator(Executor executor, int bufferSize, List<Flight> flights, int eventsPerSecond, boolean repeat, long seed) {
+            super(executor, bufferSize);
+            this.eventsPerSecond = eventsPerSecond;
+            this.repeat = repeat;
+            SplittableRandom rnd = new SplittableRandom(seed);
+            for (Flight f : flights) {
+                String s = f.getStatus();
+                if ("Arrived".equalsIgnoreCase(s) || "Cancelled".equalsIgnoreCase(s)) continue;
+                LocalDateTime out = f.getDepartureTime().plusMinutes(rnd.nextInt(-5, 25));
+                LocalDateTime off = out.plusMinutes(rnd.nextInt(8, 20));
+                LocalDateTime on = f.getArrivalTime().plusMinutes(rnd.nextInt(-10, 30));
+                if (!on.isAfter(off)) on = off.plusMinutes(30);
+                LocalDateTime in = on.plusMinutes(rnd.nextInt(3, 12));
+
+                // Legs already under way only get their remaining messages
+                boolean airborne = "In Flight".equalsIgnoreCase(s);
+                if (!airborne && !"Departed".equalsIgnoreCase(s)) script.add(new MovementEvent(f.getKey(), MovementEvent.OUT, out));
+                if (!airborne) script.add(new MovementEvent(f.getKey(), MovementEvent.OFF, off));
+                script.add(new MovementEvent(f.getKey(), MovementEvent.ON, on));
+                script.add(new MovementEvent(f.getKey(), MovementEvent.IN, in));
+            }
+            script.sort(Comparator.comparing(MovementEvent::getTime));
+        }
+
+        public int getScriptSize() { return script.size(); }
+
+        @Override
+        protected void produce() {
+            long intervalNanos = 1_000_000_000L / Math.max(1, eventsPerSecond);
+            long next = System.nanoTime();
+            do {
+                for (MovementEvent e : script) {
+                    if (!running) return;
+                    // Pace to the target rate; a fresh copy so lag is measured from emission
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+                    next += intervalNanos;
+                    submit(new MovementEvent(e.getFlightKey(), e.getType(), e.getTime()));
+                }
+            } while (repeat && running);
+        }
+    }
+
+    // --- File Tail ---
+    // Follows a growing file (like tail -f), starting at its current end
+    public static class FileTail extends MovementFeed {
+        private final Path file;
+
+        public FileTail(Executor executor, int bufferSize, Path file) {
+            super(executor, bufferSize);
+            this.file = file;
+        }
+
+        @Override
+        protected void produce() throws Exception {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+                long pos = raf.length();
+                StringBuilder partial = new StringBuilder();
+                // One decoder for the whole stream: a character split across two reads stays in
+                // 'in' until the rest of its bytes arrive
+                CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                ByteBuffer in = ByteBuffer.allocate(8192);
+                CharBuffer out = CharBuffer.allocate(8192);
+                while (running) {
+                    if (raf.length() < pos) { // truncated / rotated
+                        pos = 0;
+                        decoder.reset();
+                        in.clear();
+                        partial.setLength(0);
+                    }
+                    raf.seek(pos);
+                    int n = raf.read(in.array(), in.position(), in.remaining());
+                    if (n <= 0) {
+                        Thread.sleep(100);
+                        continue;
+                    }
+                    pos += n;
+                    in.position(in.position() + n);
+                    in.flip();
+                    while (decoder.decode(in, out, false).isOverflow()) {
+                        partial.append(out.flip());
+                        out.clear();
+                    }
+                    partial.append(out.flip());
+                    out.clear();
+                    in.compact();
+                    int nl;
+                    while ((nl = partial.indexOf("\n")) >= 0) {
+                        MovementEvent e = MovementEvent.parse(partial.substring(0, nl));
+                        partial.delete(0, nl + 1);
+                        if (e != null) submit(e);
+                    }
+                }
+            }
+        }
+    }
+
+    // --- Local Socket ---
+    // Accepts one connection at a time on localhost and reads wire-format lines
+    public static class SocketListener extends MovementFeed {
+        private final int port;
+        private ServerSocket server;
+
+        public SocketListener(Executor executor, int bufferSize, int port) {
+            super(executor, bufferSize);
+            this.port = port;
+        }
+
+        @Override
+        protected void produce() throws Exception {
+            server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+            try {
+                while (running) {
+                    try (Socket client = server.accept();
+                         BufferedReader reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8))) {
+                        emitLines(reader);
+                    } catch (SocketException e) {
+                        if (running) System.out.println("Feed connection dropped: " + e.getMessage());
+                    }
+                }
+            } finally {
+                server.close();
+            }
+        }
+
+        @Override
+        public void stop() {
+            try {
+                if (server != null) server.close(); // unblocks accept()
+            } catch (IOException e) {}
+            super.stop();
+        }
+    }
+}
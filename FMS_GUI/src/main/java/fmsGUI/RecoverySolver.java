@@ -0,0 +1,179 @@
+package fmsGUI;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// Disruption recovery: after a tail runs late, look for aircraft with slack that can
+// take over its delayed legs (move) or trade legs with it (swap), ranked by minutes saved.
+public class RecoverySolver {
+
+    private final FlightManagementSystem system;
+    private int maxSegmentLength = 4;     // consecutive legs moved in one plan
+    private long timeBudgetMillis = 1500; // search stops scoring new tails after this
+
+    public RecoverySolver(FlightManagementSystem system) {
+        this.system = system;
+    }
+
+    public void setMaxSegmentLength(int maxSegmentLength) { this.maxSegmentLength = maxSegmentLength; }
+    public void setTimeBudgetMillis(long timeBudgetMillis) { this.timeBudgetMillis = timeBudgetMillis; }
+
+    // --- Search ---
+    public List<SwapPlan> findPlans(String disruptedReg, int limit) {
+        Aircraft disrupted = system.getAircraft(disruptedReg);
+        if (disrupted == null) return new ArrayList<>();
+
+        // Open legs in rotation order; the first late one that has not left starts the search
+        List<Flight> rotation = active(system.getFlightsForAircraft(disruptedReg));
+        int first = -1;
+        for (int i = 0; i < rotation.size(); i++) {
+            if (rotation.get(i).getPropagatedDelayMinutes() > 0 && isMovable(rotation.get(i))) { first = i; break; }
+        }
+        if (first < 0) return new ArrayList<>();
+
+        // Only the day(s) around the disruption are relevant on the other tails
+        LocalDateTime windowStart = baseDeparture(rotation.get(first)).minusHours(12);
+        LocalDateTime windowEnd = rotation.get(rotation.size() - 1).getArrivalTime().plusHours(12);
+        long baseline = cascadeDelay(rotation);
+
+        final List<Flight> legs = rotation;
+        final int from = first;
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+
+        // Each candidate tail is scored independently, in parallel
+        return system.getAllAircrafts().parallelStream()
+                .filter(b -> b != disrupted)
+                .filter(b -> system.checkAircraftPhysicalAvailability(b.getRegistrationNumber(), ""))
+                .map(b -> {
+                    if (System.nanoTime() > deadline) return null;
+                    List<Flight> other = active(system.getFlightsForAircraft(b.getRegistrationNumber())).stream()
+                            .filter(f -> f.getArrivalTime().isAfter(windowStart) && f.getDepartureTime().isBefore(windowEnd))
+                            .collect(Collectors.toList());
+                    return bestPlanFor(disrupted, legs, from, baseline, b, other);
+                })
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingLong(SwapPlan::getSavedMinutes).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    // Tries every segment of delayed legs against one candidate tail
+    private SwapPlan bestPlanFor(Aircraft a, List<Flight> legsA, int first, long baselineA, Aircraft b, List<Flight> legsB) {
+        long baselineB = cascadeDelay(legsB);
+        SwapPlan best = null;
+
+        for (int i = first; i < legsA.size(); i++) {
+            for (int k = i; k < legsA.size() && k - i < maxSegmentLength; k++) {
+                List<Flight> segment = legsA.subList(i, k + 1);
+                if (!isMovable(legsA.get(k))) break;
+                int maxPax = segment.stream().mapToInt(Flight::getBookedPassengers).max().orElse(0);
+                if (maxPax > b.getCapacity()) break;
+
+                LocalDateTime segStart = baseDeparture(segment.get(0));
+                LocalDateTime segEnd = baseArrival(segment.get(segment.size() - 1));
+
+                List<Flight> remainingA = new ArrayList<>(legsA);
+                remainingA.removeAll(segment);
+
+                // a. Move: B absorbs the segment into its slack
+                List<Flight> movedB = new ArrayList<>(legsB);
+                movedB.addAll(segment);
+                long saved = baselineA + baselineB - cascadeDelay(remainingA) - cascadeDelay(movedB);
+                best = better(best, new SwapPlan(a, b, segment, List.of(), saved));
+
+                // b. Swap: B's legs in the same window go back to A
+                List<Flight> traded = legsB.stream()
+                        .filter(f -> baseDeparture(f).isBefore(segEnd) && baseArrival(f).isAfter(segStart))
+                        .collect(Collectors.toList());
+                if (traded.isEmpty() || !traded.stream().allMatch(RecoverySolver::isMovable)) continue;
+                if (traded.stream().anyMatch(f -> f.getBookedPassengers() > a.getCapacity())) continue;
+
+                List<Flight> swappedA = new ArrayList<>(remainingA);
+                swappedA.addAll(traded);
+                List<Flight> swappedB = new ArrayList<>(legsB);
+                swappedB.removeAll(traded);
+                swappedB.addAll(segment);
+                saved = baselineA + baselineB - cascadeDelay(swappedA) - cascadeDelay(swappedB);
+                best = better(best, new SwapPlan(a, b, segment, traded, saved));
+            }
+        }
+        return (best != null && best.getSavedMinutes() > 0) ? best : null;
+    }
+
+    private static SwapPlan better(SwapPlan current, SwapPlan candidate) {
+        return (current == null || candidate.getSavedMinutes() > current.getSavedMinutes()) ? candidate : current;
+    }
+
+    // Legs not yet Arrived/Cancelled (they still take part in the cascade)
+    private static List<Flight> active(List<Flight> rotation) {
+        return rotation.stream()
+                .filter(f -> !"Arrived".equalsIgnoreCase(f.getStatus()) && !"Cancelled".equalsIgnoreCase(f.getStatus()))
+                .collect(Collectors.toList());
+    }
+
+    // Legs that have not left yet and can change aircraft
+    static boolean isMovable(Flight f) {
+        return "Scheduled".equalsIgnoreCase(f.getStatus()) || "Delayed".equalsIgnoreCase(f.getStatus());
+    }
+
+    // Times without inherited delay (manual delays stay with the flight)
+    static LocalDateTime baseDeparture(Flight f) { return f.getDepartureTime().minusMinutes(f.getPropagatedDelayMinutes()); }
+    static LocalDateTime baseArrival(Flight f) { return f.getArrivalTime().minusMinutes(f.getPropagatedDelayMinutes()); }
+
+    // Inherited delay minutes a rotation would accumulate (same rule as refreshScheduleForAircraft)
+    static long cascadeDelay(List<Flight> rotation) {
+        List<Flight> sorted = new ArrayList<>(rotation);
+        sorted.sort(Comparator.comparing(RecoverySolver::baseDeparture));
+
+        long total = 0;
+        long prevEnd = Long.MIN_VALUE;
+        for (Flight f : sorted) {
+            long dep = TailAssigner.minute(baseDeparture(f));
+            long start = Math.max(dep, prevEnd);
+            total += start - dep;
+            prevEnd = start + (TailAssigner.minute(f.getArrivalTime()) - TailAssigner.minute(f.getDepartureTime()));
+        }
+        return total;
+    }
+
+    // --- Apply ---
+    // The flights change under the system lock, as one change event (see FlightManagementSystem.applySwap)
+    public void apply(SwapPlan plan) {
+        system.applySwap(plan);
+    }
+
+    // --- Result Class ---
+    public static class SwapPlan {
+        private final Aircraft from;
+        private final Aircraft to;
+        private final List<Flight> moved;   // from -> to
+        private final List<Flight> traded;  // to -> from (empty for a plain move)
+        private final long savedMinutes;
+
+        public SwapPlan(Aircraft from, Aircraft to, List<Flight> moved, List<Flight> traded, long savedMinutes) {
+            this.from = from;
+            this.to = to;
+            this.moved = new ArrayList<>(moved);
+            this.traded = new ArrayList<>(traded);
+            this.savedMinutes = savedMinutes;
+        }
+
+        public Aircraft getFrom() { return from; }
+        public Aircraft getTo() { return to; }
+        public List<Flight> getMoved() { return moved; }
+        public List<Flight> getTraded() { return traded; }
+        public long getSavedMinutes() { return savedMinutes; }
+
+        @Override
+        public String toString() {
+            String legs = moved.stream().map(Flight::getFlightNumber).collect(Collectors.joining(", "));
+            String back = traded.isEmpty() ? "" : " | " + traded.stream().map(Flight::getFlightNumber).collect(Collectors.joining(", "))
+                    + " -> " + from.getRegistrationNumber();
+            return legs + " -> " + to.getRegistrationNumber() + back + " (saves " + savedMinutes + " min)";
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package fmsGUI;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Flights by route (origin, destination) plus on-time rollups per route and per route-day.
+// Rollups are updated in place as flights change (the old contribution is taken out, the new
+// one added), so a report over any span is a lookup plus a merge of day rows, never a scan.
+public class RouteIndex implements FlightChangeListener {
+
+    private final Map<Long, List<Flight>> flightsByRoute = new HashMap<>();
+    private final Map<Long, RouteStats> totals = new HashMap<>();
+    private final Map<Long, NavigableMap<Long, RouteStats>> daily = new HashMap<>();
+    // What each flight currently contributes (events carry no old values)
+    private final Map<Flight, Contribution> counted = new IdentityHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    static long routeKey(int originId, int destinationId) {
+        return ((long) originId << 32) | (destinationId & 0xFFFFFFFFL);
+    }
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public void flightAdded(Flight f) {
+        lock.writeLock().lock();
+        try {
+            if (counted.containsKey(f)) {
+                recount(f);
+                return;
+            }
+            Contribution c = new Contribution(f);
+            counted.put(f, c);
+            flightsByRoute.computeIfAbsent(c.route, k -> new ArrayList<>()).add(f);
+            apply(c, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void flightRemoved(Flight f) {
+        lock.writeLock().lock();
+        try {
+            Contribution c = counted.remove(f);
+            if (c == null) return;
+            removeFromRoute(c.route, f);
+            apply(c, -1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Archived flights leave the route lists but keep their share of the rollups
+    @Override
+    public void flightArchived(Flight f) {
+        lock.writeLock().lock();
+        try {
+            Contribution c = counted.remove(f);
+            if (c != null) removeFromRoute(c.route, f);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void archivedFlightLoaded(Flight f) {
+        lock.writeLock().lock();
+        try {
+            apply(new Contribution(f), 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void flightsChanged(Collection<Flight> changed) {
+        lock.writeLock().lock();
+        try {
+            for (Flight f : changed) {
+                if (counted.containsKey(f)) recount(f);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recount(Flight f) {
+        Contribution old = counted.get(f);
+        Contribution now = new Contribution(f);
+        if (now.sameAs(old)) return;
+        apply(old, -1);
+        if (old.route != now.route) {
+            removeFromRoute(old.route, f);
+            flightsByRoute.computeIfAbsent(now.route, k -> new ArrayList<>()).add(f);
+        }
+        counted.put(f, now);
+        apply(now, 1);
+    }
+
+    private void removeFromRoute(long route, Flight f) {
+        List<Flight> list = flightsByRoute.get(route);
+        if (list == null) return;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == f) {
+                list.set(i, list.get(list.size() - 1));
+                list.remove(list.size() - 1);
+                break;
+            }
+        }
+        if (list.isEmpty()) flightsByRoute.remove(route);
+    }
+
+    private void apply(Contribution c, int sign) {
+        int o = (int) (c.route >>> 32), d = (int) c.route;
+        totals.computeIfAbsent(c.route, k -> new RouteStats(o, d)).add(c, sign);
+        NavigableMap<Long, RouteStats> days = daily.computeIfAbsent(c.route, k -> new TreeMap<>());
+        RouteStats day = days.computeIfAbsent(c.day, k -> new RouteStats(o, d));
+        day.add(c, sign);
+        if (day.flights == 0) days.remove(c.day);
+    }
+
+    // --- Queries ---
+    public List<Flight> getFlights(String origin, String destination) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(flightsByRoute.getOrDefault(key(origin, destination), List.of()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All-time figures for one route (null if no flights)
+    public RouteStats getTotals(String origin, String destination) {
+        lock.readLock().lock();
+        try {
+            RouteStats s = totals.get(key(origin, destination));
+            return s == null || s.flights == 0 ? null : s.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Figures for scheduled days in [from, to] (null if no flights)
+    public RouteStats getStats(String origin, String destination, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, RouteStats> days = daily.get(key(origin, destination));
+            if (days == null) return null;
+            RouteStats merged = null;
+            for (RouteStats s : days.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+                if (merged == null) merged = s.copy();
+                else merged.merge(s);
+            }
+            return merged;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All-time figures for every route
+    public List<RouteStats> report() {
+        lock.readLock().lock();
+        try {
+            List<RouteStats> result = new ArrayList<>();
+            for (RouteStats s : totals.values()) {
+                if (s.flights > 0) result.add(s.copy());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Epoch day the flight was planned for (delays don't move it to another day's rollup)
+    static long scheduledDay(Flight f) {
+        return f.getServiceDate() != null ? f.getServiceDate().toEpochDay()
+                : f.getDepartureTime().minusMinutes(f.getDelayMinutes()).toLocalDate().toEpochDay();
+    }
+
+    private static long key(String origin, String destination) {
+        return routeKey(SymbolTable.AIRPORTS.find(origin), SymbolTable.AIRPORTS.find(destination));
+    }
+
+    // --- One flight's share of the rollups ---
+    private static class Contribution {
+        final long route;
+        final long day;          // scheduled departure day
+        final boolean cancelled;
+        final int delay;
+        final int pax;
+        final int seats;         // 0 for cargo (not part of load factor)
+
+        Contribution(Flight f) {
+            route = routeKey(f.getOriginId(), f.getDestinationId());
+            day = scheduledDay(f);
+            cancelled = "Cancelled".equalsIgnoreCase(f.getStatus());
+            delay = (int) Math.max(0, f.getDelayMinutes());
+            boolean passenger = !(f instanceof CargoFlight) && f.getAircraft() != null;
+            pax = passenger ? f.getBookedPassengers() : 0;
+            seats = passenger ? f.getAircraft().getCapacity() : 0;
+        }
+
+        boolean sameAs(Contribution o) {
+            return route == o.route && day == o.day && cancelled == o.cancelled && delay == o.delay && pax == o.pax && seats == o.seats;
+        }
+    }
+
+    // --- Rollup Row ---
+    // Delay figures cover operated (not cancelled) flights; percentiles come from a fixed
+    // histogram (BUCKET_MINUTES wide) plus an exact count of on-time flights, so they are
+    // exact to within one bucket (see getDelayPercentile).
+    public static class RouteStats {
+        public static final int BUCKET_MINUTES = 5;
+        private static final int BUCKETS = 24 * 60 / BUCKET_MINUTES + 1; // last bucket = a day or more
+
+        private final int originId;
+        private final int destinationId;
+        private int flights;
+        private int cancelled;
+        private long delaySum;
+        private long pax;
+        private long seats;
+        private int[] histogram = new int[BUCKETS];
+        // Operated with no delay at all (also counted in histogram[0])
+        private int onTime;
+
+        RouteStats(int originId, int destinationId) {
+            this.originId = originId;
+            this.destinationId = destinationId;
+        }
+
+        void add(Contribution c, int sign) {
+            flights += sign;
+            if (c.cancelled) {
+                cancelled += sign;
+                return;
+            }
+            delaySum += sign * (long) c.delay;
+            pax += sign * (long) c.pax;
+            seats += sign * (long) c.seats;
+            histogram[Math.min(BUCKETS - 1, c.delay / BUCKET_MINUTES)] += sign;
+            if (c.delay == 0) onTime += sign;
+        }
+
+        void merge(RouteStats o) {
+            flights += o.flights;
+            cancelled += o.cancelled;
+            delaySum += o.delaySum;
+            pax += o.pax;
+            seats += o.seats;
+            for (int i = 0; i < BUCKETS; i++) histogram[i] += o.histogram[i];
+            onTime += o.onTime;
+        }
+
+        RouteStats copy() {
+            RouteStats c = new RouteStats(originId, destinationId);
+            c.merge(this);
+            return c;
+        }
+
+        public String getOrigin() { return SymbolTable.AIRPORTS.name(originId); }
+        public String getDestination() { return SymbolTable.AIRPORTS.name(destinationId); }
+        public int getFlights() { return flights; }
+        public int getCancelled() { return cancelled; }
+        public double getCancellationRate() { return flights == 0 ? 0 : 100.0 * cancelled / flights; }
+        public double getAverageDelay() { return flights == cancelled ? 0 : delaySum / (double) (flights - cancelled); }
+        public double getLoadFactor() { return seats == 0 ? 0 : 100.0 * pax / seats; }
+
+        // Delay (minutes) that 'p' percent of operated flights stay within, e.g. p = 90.
+        // 0 while the rank falls among on-time flights; otherwise interpolated linearly inside the
+        // bucket holding the rank, as if its flights were spread evenly across it. The last
+        // bucket (a day or more) is open-ended, so a rank there reports its lower bound.
+        public int getDelayPercentile(double p) {
+            int operated = flights - cancelled;
+            if (operated <= 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(operated * p / 100.0));
+            if (rank <= onTime) return 0;
+            long seen = onTime;
+            for (int i = 0; i < BUCKETS - 1; i++) {
+                long inBucket = i == 0 ? histogram[0] - onTime : histogram[i];
+                if (seen + inBucket >= rank) {
+                    double within = (rank - seen) / (double) inBucket;
+                    return (int) Math.round((i + within) * BUCKET_MINUTES);
+                }
+                seen += inBucket;
+            }
+            return (BUCKETS - 1) * BUCKET_MINUTES;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s -> %s: %d flights, %.1f%% cancelled, avg delay %.0f min, p90 %d min, load %.0f%%",
+                    getOrigin(), getDestination(), flights, getCancellationRate(), getAverageDelay(), getDelayPercentile(90), getLoadFactor());
+        }
+    }
+}
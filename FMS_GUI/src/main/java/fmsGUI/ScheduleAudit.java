@@ -0,0 +1,141 @@
+package fmsGUI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Fleet-wide check of tail assignments: each tail's legs are sorted and swept once for
+// overlaps (a leg leaving before the aircraft is back) and short turnarounds. Tails are
+// independent, so they are swept in parallel. Cancelled legs are ignored.
+public class ScheduleAudit {
+
+    public static final String OVERLAP = "Overlap";
+    public static final String SHORT_TURNAROUND = "Short Turnaround";
+
+    // 'byTail' must not change while this runs (FlightManagementSystem holds its lock)
+    public static Report run(Map<String, List<Flight>> byTail, int minTurnaroundMinutes) {
+        long start = System.nanoTime();
+        List<Conflict> conflicts = byTail.entrySet().parallelStream()
+                .flatMap(e -> sweep(e.getKey(), e.getValue(), minTurnaroundMinutes).stream())
+                .collect(Collectors.toList());
+        int flights = byTail.values().stream().mapToInt(List::size).sum();
+        return new Report(conflicts, byTail.size(), flights, 0, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static List<Conflict> sweep(String registration, List<Flight> legs, int minTurnaroundMinutes) {
+        // Sort (departure minute, position) pairs as longs: no comparator, no boxing
+        int n = 0;
+        long[] order = new long[legs.size()];
+        int[] arr = new int[legs.size()];
+        for (int i = 0; i < legs.size(); i++) {
+            Flight f = legs.get(i);
+            if ("Cancelled".equalsIgnoreCase(f.getStatus())) continue;
+            arr[i] = TailAssigner.minute(f.getArrivalTime());
+            order[n++] = ((long) TailAssigner.minute(f.getDepartureTime()) << 32) | i;
+        }
+        Arrays.sort(order, 0, n);
+
+        List<Conflict> conflicts = new ArrayList<>();
+        int busyUntil = Integer.MIN_VALUE;
+        Flight busyWith = null;
+        for (int k = 0; k < n; k++) {
+            int dep = (int) (order[k] >> 32);
+            int i = (int) order[k];
+            Flight f = legs.get(i);
+            if (busyWith != null && dep < busyUntil) {
+                conflicts.add(new Conflict(OVERLAP, registration, busyWith, f, busyUntil - dep));
+            } else if (busyWith != null && dep - busyUntil < minTurnaroundMinutes) {
+                conflicts.add(new Conflict(SHORT_TURNAROUND, registration, busyWith, f, dep - busyUntil));
+            }
+            // The aircraft is busy until the latest arrival so far
+            if (arr[i] > busyUntil || busyWith == null) {
+                busyUntil = arr[i];
+                busyWith = f;
+            }
+        }
+        return conflicts;
+    }
+
+    // --- Result Classes ---
+    public static class Conflict {
+        private final String type;
+        private final String registration;
+        private final Flight first;
+        private final Flight second;
+        private final int minutes; // overlap length, or ground time for a short turnaround
+
+        public Conflict(String type, String registration, Flight first, Flight second, int minutes) {
+            this.type = type;
+            this.registration = registration;
+            this.first = first;
+            this.second = second;
+            this.minutes = minutes;
+        }
+
+        public String getType() { return type; }
+        public String getRegistration() { return registration; }
+        public Flight getFirst() { return first; }
+        public Flight getSecond() { return second; }
+        public int getMinutes() { return minutes; }
+
+        @Override
+        public String toString() {
+            return OVERLAP.equals(type)
+                    ? String.format("%s: %s overlaps %s by %d min", registration, second.getKey(), first.getKey(), minutes)
+                    : String.format("%s: only %d min between %s and %s", registration, minutes, first.getKey(), second.getKey());
+        }
+    }
+
+    public static class Report {
+        private final List<Conflict> conflicts;
+        private final int aircraftCount;
+        private final int flightCount;
+        private final int repairedCount;
+        private final long elapsedMillis;
+
+        public Report(List<Conflict> conflicts, int aircraftCount, int flightCount, int repairedCount, long elapsedMillis) {
+            this.conflicts = conflicts;
+            this.aircraftCount = aircraftCount;
+            this.flightCount = flightCount;
+            this.repairedCount = repairedCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<Conflict> getConflicts() { return conflicts; }
+        public int getAircraftCount() { return aircraftCount; }
+        public int getFlightCount() { return flightCount; }
+        // Flights moved by the repair pass (0 when not repairing)
+        public int getRepairedCount() { return repairedCount; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public long count(String type) {
+            return conflicts.stream().filter(c -> c.type.equals(type)).count();
+        }
+
+        // Tails with at least one conflict of 'type'
+        public Set<String> getTails(String type) {
+            Set<String> tails = new LinkedHashSet<>();
+            for (Conflict c : conflicts) {
+                if (c.type.equals(type)) tails.add(c.registration);
+            }
+            return tails;
+        }
+
+        // Same findings with the repair outcome attached
+        Report withRepair(Collection<Conflict> remaining, int repaired, long elapsedMillis) {
+            return new Report(new ArrayList<>(remaining), aircraftCount, flightCount, repaired, elapsedMillis);
+        }
+
+        @Override
+        public String toString() {
+            String s = String.format("%d flights on %d aircraft checked in %d ms: %d overlaps, %d short turnarounds",
+                    flightCount, aircraftCount, elapsedMillis, count(OVERLAP), count(SHORT_TURNAROUND));
+            return repairedCount > 0 ? s + String.format(" (after moving %d flights)", repairedCount) : s;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package fmsGUI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Bulk schedule import: streams a file in chunks, validates rows in parallel with
+// FlightValidator, then inserts the accepted flights as one batch.
+//
+// Line format (header and '#' lines are skipped):
+//   FLIGHT_NO,ORIGIN,DESTINATION,DEPARTURE,ARRIVAL,AIRCRAFT,CARGO(YES/NO),CARGO_KG,PAX
+//   MH-301,BATU PAHAT,PENANG,2026-11-01T08:00,2026-11-01T10:00,9M-888,NO,0,150
+public class ScheduleImporter {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final FlightManagementSystem system;
+    private final FlightValidator validator;
+
+    public ScheduleImporter(FlightManagementSystem system) {
+        this.system = system;
+        this.validator = new FlightValidator(system);
+    }
+
+    // --- Stage 1: Read + Validate (read-only, safe off the FX thread) ---
+    public ImportReport prepare(Path file) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        List<Row> accepted = new ArrayList<>();
+        List<Rejection> rejected = new ArrayList<>();
+        // Rows are parsed against a copy of the fleet, so the parallel stage never reads the system
+        Map<String, Aircraft> fleet = new HashMap<>();
+        synchronized (system) {
+            for (Aircraft a : system.getAllAircrafts()) fleet.put(a.getRegistrationNumber(), a);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("FLIGHT_NO")) continue;
+                chunk.add(new Row(lineNo, line));
+                if (chunk.size() == CHUNK_SIZE) {
+                    validateChunk(chunk, now, fleet, accepted, rejected);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            validateChunk(chunk, now, fleet, accepted, rejected);
+        }
+
+        // Rules that span rows: duplicates and overlaps inside the file itself
+        checkWithinFile(accepted, rejected);
+        rejected.sort(Comparator.comparingInt(Rejection::getLineNumber));
+
+        List<Flight> flights = accepted.stream().map(r -> r.flight).collect(Collectors.toList());
+        return new ImportReport(flights, rejected);
+    }
+
+    private void validateChunk(List<Row> chunk, LocalDateTime now, Map<String, Aircraft> fleet, List<Row> accepted, List<Rejection> rejected) {
+        chunk.parallelStream().forEach(row -> {
+            row.flight = parse(row, fleet);
+            if (row.flight != null) row.problems.addAll(validator.validateFields(row.flight, now));
+        });
+        // Duplicate / availability checks read the live indexes: one pass per chunk under the system's lock
+        synchronized (system) {
+            for (Row row : chunk) {
+                if (row.flight != null) row.problems.addAll(validator.validateAgainstSchedule(row.flight));
+            }
+        }
+        for (Row row : chunk) {
+            if (row.problems.isEmpty()) accepted.add(row);
+            else rejected.add(new Rejection(row.lineNumber, row.line, row.problems));
+        }
+    }
+
+    private Flight parse(Row row, Map<String, Aircraft> fleet) {
+        String[] parts = row.line.split(",", -1);
+        if (parts.length < 9) {
+            row.problems.add("Expected 9 columns, found " + parts.length + ".");
+            return null;
+        }
+        try {
+            String fNum = parts[0].trim();
+            String org = parts[1].trim();
+            String dest = parts[2].trim();
+            LocalDateTime dep = LocalDateTime.parse(parts[3].trim());
+            LocalDateTime arr = LocalDateTime.parse(parts[4].trim());
+            Aircraft plane = fleet.get(parts[5].trim());
+            boolean isCargo = "YES".equalsIgnoreCase(parts[6].trim());
+            double cargoKg = Double.parseDouble(parts[7].trim());
+            int pax = Integer.parseInt(parts[8].trim());
+
+            if (plane == null) {
+                row.problems.add("Unknown aircraft " + parts[5].trim() + ".");
+                return null;
+            }
+            return isCargo
+                    ? new CargoFlight(fNum, org, dest, dep, arr, plane, cargoKg)
+                    : new Flight(fNum, org, dest, dep, arr, plane, pax);
+        } catch (Exception e) {
+            row.problems.add("Unreadable value: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void checkWithinFile(List<Row> accepted, List<Rejection> rejected) {
+        // a. Duplicate flight numbers: first occurrence wins
+        Set<String> seen = new HashSet<>();
+        for (Row row : accepted) {
+            if (!seen.add(row.flight.getFlightNumber())) row.problems.add("Duplicate flight number in file.");
+        }
+
+        // b. Overlaps on the same aircraft: sweep each tail, tails in parallel
+        Map<String, List<Row>> byTail = accepted.stream()
+                .filter(r -> r.problems.isEmpty())
+                .collect(Collectors.groupingBy(r -> r.flight.getAircraft().getRegistrationNumber()));
+        byTail.values().parallelStream().forEach(rows -> {
+            rows.sort(Comparator.comparing(r -> r.flight.getDepartureTime()));
+            LocalDateTime busyUntil = null;
+            String busyWith = null;
+            for (Row r : rows) {
+                if (busyUntil != null && r.flight.getDepartureTime().isBefore(busyUntil)) {
+                    r.problems.add("Overlaps " + busyWith + " in the same file on " + r.flight.getAircraft().getRegistrationNumber() + ".");
+                    continue;
+                }
+                busyUntil = r.flight.getArrivalTime();
+                busyWith = r.flight.getFlightNumber();
+            }
+        });
+
+        accepted.removeIf(r -> {
+            if (r.problems.isEmpty()) return false;
+            rejected.add(new Rejection(r.lineNumber, r.line, r.problems));
+            return true;
+        });
+    }
+
+    // --- Stage 2: Insert (FX thread) ---
+    // Re-checks duplicates/overlaps in case the system changed since prepare()
+    public int apply(ImportReport report) {
+        synchronized (system) {
+            List<Flight> ready = report.getAccepted().stream()
+                    .filter(f -> validator.validateAgainstSchedule(f).isEmpty())
+                    .collect(Collectors.toList());
+            system.addFlights(ready);
+            return ready.size();
+        }
+    }
+
+    // --- Pipeline Row ---
+    private static class Row {
+        final int lineNumber;
+        final String line;
+        final List<String> problems = new ArrayList<>();
+        Flight flight;
+
+        Row(int lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+    }
+
+    // --- Report Classes ---
+    public static class Rejection {
+        private final int lineNumber;
+        private final String line;
+        private final List<String> reasons;
+
+        public Rejection(int lineNumber, String line, List<String> reasons) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reasons = new ArrayList<>(reasons);
+        }
+
+        public int getLineNumber() { return lineNumber; }
+        public String getLine() { return line; }
+        public List<String> getReasons() { return reasons; }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + String.join(" ", reasons).replace("\n", " ");
+        }
+    }
+
+    public static class ImportReport {
+        private final List<Flight> accepted;
+        private final List<Rejection> rejected;
+
+        public ImportReport(List<Flight> accepted, List<Rejection> rejected) {
+            this.accepted = accepted;
+            this.rejected = rejected;
+        }
+
+        public List<Flight> getAccepted() { return accepted; }
+        public List<Rejection> getRejected() { return rejected; }
+    }
+}
@@ -0,0 +1,103 @@
+package fmsGUI;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// A recurring service (e.g. MH-101 daily at 08:00). Concrete Flight objects are only
+// created for a rolling horizon or when an instance is changed (see FlightManagementSystem).
+public class SchedulePattern {
+    private String flightNumber;
+    private String origin;
+    private String destination;
+    private EnumSet<DayOfWeek> daysOfWeek;
+    private LocalTime departureTime;
+    private int blockMinutes;          // departure -> arrival
+    private Aircraft aircraft;
+    private int bookedPassengers;
+    private LocalDate validFrom;
+    private LocalDate validTo;         // inclusive
+    private Set<LocalDate> skippedDates = new TreeSet<>();  // deleted single instances
+
+    public SchedulePattern(String flightNumber, String origin, String destination, Set<DayOfWeek> daysOfWeek,
+                           LocalTime departureTime, int blockMinutes, Aircraft aircraft, int bookedPassengers,
+                           LocalDate validFrom, LocalDate validTo) {
+        this.flightNumber = flightNumber;
+        this.origin = SymbolTable.AIRPORTS.intern(origin);
+        this.destination = SymbolTable.AIRPORTS.intern(destination);
+        this.daysOfWeek = daysOfWeek.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(daysOfWeek);
+        this.departureTime = departureTime;
+        this.blockMinutes = blockMinutes;
+        this.aircraft = aircraft;
+        this.bookedPassengers = bookedPassengers;
+        this.validFrom = validFrom;
+        this.validTo = validTo;
+    }
+
+    public boolean occursOn(LocalDate date) {
+        return !date.isBefore(validFrom) && !date.isAfter(validTo) && daysOfWeek.contains(date.getDayOfWeek())
+                && !skippedDates.contains(date);
+    }
+
+    public void skip(LocalDate date) { skippedDates.add(date); }
+
+    // Builds (but does not store) the flight for one service date
+    public Flight instanceFor(LocalDate date) {
+        LocalDateTime dep = LocalDateTime.of(date, departureTime);
+        Flight f = new Flight(flightNumber, origin, destination, dep, dep.plusMinutes(blockMinutes), aircraft, bookedPassengers);
+        f.setServiceDate(date);
+        return f;
+    }
+
+    // True if 'f' is still exactly what instanceFor() would build, so it needn't be stored
+    public boolean isUnchanged(Flight f) {
+        LocalDate date = f.getServiceDate();
+        if (date == null || f.getClass() != Flight.class) return false;
+        LocalDateTime dep = LocalDateTime.of(date, departureTime);
+        return "Scheduled".equalsIgnoreCase(f.getStatus())
+                && f.getDelayReasons().isEmpty()
+                && f.getAircraft() == aircraft
+                && f.getBookedPassengers() == bookedPassengers
+                && f.getDepartureTime().equals(dep)
+                && f.getArrivalTime().equals(dep.plusMinutes(blockMinutes));
+    }
+
+    // Key of the instance for 'date' (same as Flight.getKey())
+    public String keyFor(LocalDate date) { return flightNumber + "/" + date; }
+
+    // --- Getters ---
+    public String getFlightNumber() { return flightNumber; }
+    public String getOrigin() { return origin; }
+    public String getDestination() { return destination; }
+    public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+    public LocalTime getDepartureTime() { return departureTime; }
+    public int getBlockMinutes() { return blockMinutes; }
+    public Aircraft getAircraft() { return aircraft; }
+    public int getBookedPassengers() { return bookedPassengers; }
+    public LocalDate getValidFrom() { return validFrom; }
+    public LocalDate getValidTo() { return validTo; }
+    public Set<LocalDate> getSkippedDates() { return skippedDates; }
+
+    // "MON;WED;FRI" (persistence format)
+    public String getDaysString() {
+        return daysOfWeek.stream().map(d -> d.name().substring(0, 3)).collect(Collectors.joining(";"));
+    }
+
+    public static EnumSet<DayOfWeek> parseDays(String s) {
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String token : s.split(";")) {
+            for (DayOfWeek d : DayOfWeek.values()) {
+                if (d.name().startsWith(token.trim().toUpperCase()) && !token.isBlank()) days.add(d);
+            }
+        }
+        return days;
+    }
+
+    @Override
+    public String toString() { return flightNumber + " (" + origin + " -> " + destination + ") " + getDaysString() + " " + departureTime; }
+}
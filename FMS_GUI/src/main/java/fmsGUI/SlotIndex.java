@@ -0,0 +1,150 @@
+package fmsGUI;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Gap index over each tail's schedule: departures sorted into an int[] (epoch minutes) with a
+// running maximum of arrivals, so "is the tail free in [s, e)" is one binary search and the
+// gaps after a time are read off in order. A tail's arrays are rebuilt on the first query after
+// one of its flights changed. Cancelled flights don't occupy the aircraft.
+public class SlotIndex implements FlightChangeListener {
+
+    private final Map<Integer, List<Flight>> flightsByTail = new HashMap<>();
+    private final Map<Flight, Integer> filed = new IdentityHashMap<>();
+    private final Map<Integer, Timeline> timelines = new HashMap<>();
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public synchronized void flightAdded(Flight f) {
+        file(f);
+    }
+
+    @Override
+    public synchronized void flightRemoved(Flight f) {
+        Integer tail = filed.remove(f);
+        if (tail == null) return;
+        List<Flight> list = flightsByTail.get(tail);
+        if (list != null) list.remove(f);
+        timelines.remove(tail);
+    }
+
+    @Override
+    public synchronized void flightsChanged(Collection<Flight> changed) {
+        for (Flight f : changed) {
+            Integer tail = filed.get(f);
+            if (tail == null) continue;
+            if (tail != tailOf(f)) {
+                flightsByTail.get(tail).remove(f);
+                timelines.remove(tail);
+                file(f);
+            }
+            timelines.remove(tailOf(f)); // times or status may have changed
+        }
+    }
+
+    private void file(Flight f) {
+        int tail = tailOf(f);
+        filed.put(f, tail);
+        flightsByTail.computeIfAbsent(tail, k -> new ArrayList<>()).add(f);
+        timelines.remove(tail);
+    }
+
+    private static int tailOf(Flight f) {
+        return f.getAircraft() == null ? SymbolTable.NONE : f.getAircraft().getRegistrationId();
+    }
+
+    private Timeline timeline(int tail) {
+        return timelines.computeIfAbsent(tail, t -> new Timeline(flightsByTail.getOrDefault(t, List.of())));
+    }
+
+    // --- Queries (turnaround = minimum ground time on both sides of the new flight) ---
+    public synchronized boolean isFree(String registration, LocalDateTime departure, LocalDateTime arrival, int turnaroundMinutes) {
+        int tail = SymbolTable.REGISTRATIONS.find(registration);
+        return tail == SymbolTable.NONE || timeline(tail).isFree(TailAssigner.minute(departure), TailAssigner.minute(arrival), turnaroundMinutes);
+    }
+
+    // Earliest departure in each of the next 'count' gaps that fit the flight, from 'earliest' on.
+    // The last one may be open-ended (after the tail's final flight).
+    public synchronized List<LocalDateTime> nextSlots(String registration, LocalDateTime earliest, int durationMinutes,
+                                                      int turnaroundMinutes, int count) {
+        int tail = SymbolTable.REGISTRATIONS.find(registration);
+        if (tail == SymbolTable.NONE) return count > 0 ? List.of(earliest) : List.of();
+        List<LocalDateTime> result = new ArrayList<>();
+        for (int m : timeline(tail).gaps(TailAssigner.minute(earliest), durationMinutes, turnaroundMinutes, count)) {
+            result.add(LocalDateTime.ofEpochSecond(m * 60L, 0, ZoneOffset.UTC));
+        }
+        return result;
+    }
+
+    // --- One tail, sorted by departure ---
+    private static class Timeline {
+        final int[] dep;
+        final int[] maxArr; // max arrival of legs 0..i
+
+        Timeline(List<Flight> flights) {
+            List<Flight> active = new ArrayList<>(flights.size());
+            for (Flight f : flights) {
+                if (!"Cancelled".equalsIgnoreCase(f.getStatus())) active.add(f);
+            }
+            int n = active.size();
+            long[] packed = new long[n];
+            for (int i = 0; i < n; i++) {
+                // Sort (dep, arr) pairs together without boxing
+                int d = TailAssigner.minute(active.get(i).getDepartureTime());
+                int a = TailAssigner.minute(active.get(i).getArrivalTime());
+                packed[i] = ((long) d << 32) | (a & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed);
+            dep = new int[n];
+            maxArr = new int[n];
+            int running = Integer.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                dep[i] = (int) (packed[i] >> 32);
+                running = Math.max(running, (int) packed[i]);
+                maxArr[i] = running;
+            }
+        }
+
+        boolean isFree(int s, int e, int turn) {
+            // Last leg leaving before the new flight (plus turnaround) is back
+            int i = lastBefore(dep, e + turn);
+            return i < 0 || maxArr[i] + turn <= s;
+        }
+
+        List<Integer> gaps(int from, int duration, int turn, int count) {
+            List<Integer> result = new ArrayList<>();
+            // Skip legs that are in before 'from' (maxArr is non-decreasing)
+            int lo = 0, hi = dep.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (maxArr[mid] + turn <= from) lo = mid + 1;
+                else hi = mid;
+            }
+            int candidate = from;
+            for (int i = lo; i < dep.length && result.size() < count; i++) {
+                if (candidate + duration + turn <= dep[i]) result.add(candidate);
+                candidate = Math.max(candidate, maxArr[i] + turn);
+            }
+            if (result.size() < count) result.add(candidate);
+            return result;
+        }
+
+        // Index of the last element < key, or -1
+        private static int lastBefore(int[] a, int key) {
+            int lo = 0, hi = a.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo - 1;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package fmsGUI;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dictionary encoding for values that repeat across the model (airports, registrations,
+// brands, models, delay categories). Each distinct string gets a dense int id, starting at 0,
+// and is stored once; the model keeps ids and resolves names only for display.
+public class SymbolTable {
+
+    public static final SymbolTable AIRPORTS = new SymbolTable("AIRPORT");
+    public static final SymbolTable REGISTRATIONS = new SymbolTable("REG");
+    public static final SymbolTable BRANDS = new SymbolTable("BRAND");
+    public static final SymbolTable MODELS = new SymbolTable("MODEL");
+    public static final SymbolTable DELAY_CATEGORIES = new SymbolTable("DELAY");
+
+    public static final SymbolTable[] ALL = {AIRPORTS, REGISTRATIONS, BRANDS, MODELS, DELAY_CATEGORIES};
+
+    public static final int NONE = -1;
+
+    private final String kind;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private volatile int size;
+
+    private SymbolTable(String kind) {
+        this.kind = kind;
+    }
+
+    // Id for 'name', assigning the next id the first time it is seen
+    public int id(String name) {
+        if (name == null) return NONE;
+        Integer id = ids.get(name);
+        return id != null ? id : add(name);
+    }
+
+    private synchronized int add(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        int next = size;
+        String[] current = names;
+        if (next == current.length) current = Arrays.copyOf(current, next * 2);
+        current[next] = name;
+        names = current;
+        size = next + 1; // publish after the slot is filled
+        ids.put(name, next);
+        return next;
+    }
+
+    // Id if 'name' is known, NONE otherwise (never assigns)
+    public int find(String name) {
+        if (name == null) return NONE;
+        Integer id = ids.get(name);
+        return id == null ? NONE : id;
+    }
+
+    public String name(int id) {
+        return (id < 0 || id >= size) ? null : names[id];
+    }
+
+    // Canonical instance of 'name' (loaded strings collapse to one copy)
+    public String intern(String name) {
+        return name(id(name));
+    }
+
+    // Forgets every name, as a restart would (tests only; live objects keep their old ids)
+    synchronized void clear() {
+        ids.clear();
+        names = new String[16];
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public String getKind() { return kind; }
+
+    public static SymbolTable byKind(String kind) {
+        for (SymbolTable t : ALL) {
+            if (t.kind.equals(kind)) return t;
+        }
+        return null;
+    }
+}
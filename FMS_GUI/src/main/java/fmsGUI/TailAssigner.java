@@ -0,0 +1,303 @@
+package fmsGUI;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+// Assigns aircraft (tails) to a batch of new or disrupted flights.
+// Greedy sweep over departure time, then an optional parallel local-search pass.
+public class TailAssigner {
+
+    private final FlightManagementSystem system;
+
+    // Default rule: passenger flights need enough seats; any tail may fly cargo
+    private BiPredicate<Flight, Aircraft> eligibility = (f, a) ->
+            f instanceof CargoFlight || f.getBookedPassengers() <= a.getCapacity();
+
+    public TailAssigner(FlightManagementSystem system) {
+        this.system = system;
+    }
+
+    public void setEligibility(BiPredicate<Flight, Aircraft> eligibility) {
+        this.eligibility = eligibility;
+    }
+
+    // --- Main Entry ---
+    public Result assign(List<Flight> batch, boolean improve) {
+        Set<Flight> batchSet = new HashSet<>(batch);
+        if (batch.isEmpty()) return new Result(new ArrayList<>(), new ArrayList<>());
+
+        // Only the neighbourhood of the batch matters; skip older history
+        LocalDateTime windowStart = batch.stream().map(Flight::getDepartureTime).min(Comparator.naturalOrder()).get().minusDays(1);
+        LocalDateTime windowEnd = batch.stream().map(Flight::getArrivalTime).max(Comparator.naturalOrder()).get().plusDays(1);
+
+        // 1. Build the timeline of every tail, leaving out the flights we are (re)assigning
+        List<Aircraft> fleet = system.getAllAircrafts();
+        fleet.sort(Comparator.comparing(Aircraft::getRegistrationNumber));
+        Timeline[] timelines = new Timeline[fleet.size()];
+        for (int t = 0; t < fleet.size(); t++) {
+            timelines[t] = new Timeline();
+            for (Flight f : system.getFlightsForAircraft(fleet.get(t).getRegistrationNumber())) {
+                if (batchSet.contains(f) || "Cancelled".equalsIgnoreCase(f.getStatus())) continue;
+                if (f.getArrivalTime().isBefore(windowStart) || f.getDepartureTime().isAfter(windowEnd)) continue;
+                timelines[t].insert(minute(f.getDepartureTime()), minute(f.getArrivalTime()));
+            }
+        }
+
+        // 2. Sweep: earliest departure first, best tail for each
+        List<Flight> sorted = new ArrayList<>(batch);
+        sorted.sort(Comparator.comparing(Flight::getDepartureTime));
+
+        int[] chosen = new int[sorted.size()];
+        List<Flight> unassigned = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            Flight f = sorted.get(i);
+            int dep = minute(f.getDepartureTime());
+            int arr = minute(f.getArrivalTime());
+
+            int best = bestTail(f, dep, arr, fleet, timelines, -1);
+            chosen[i] = best;
+            if (best < 0) unassigned.add(f);
+            else timelines[best].insert(dep, arr);
+        }
+
+        // 3. Local search: move delayed flights to a cheaper tail
+        if (improve) improve(sorted, chosen, fleet, timelines);
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            if (chosen[i] < 0) continue;
+            Flight f = sorted.get(i);
+            long delay = timelines[chosen[i]].delayOf(minute(f.getDepartureTime()), minute(f.getArrivalTime()));
+            assignments.add(new Assignment(f, fleet.get(chosen[i]), delay));
+        }
+        return new Result(assignments, unassigned);
+    }
+
+    // Cheapest eligible tail: least propagated delay, then tightest fit (keeps big gaps free)
+    private int bestTail(Flight f, int dep, int arr, List<Aircraft> fleet, Timeline[] timelines, int skip) {
+        int best = -1;
+        long bestCost = Long.MAX_VALUE;
+        long bestGap = Long.MAX_VALUE;
+        for (int t = 0; t < fleet.size(); t++) {
+            if (t == skip || !eligibility.test(f, fleet.get(t))) continue;
+            long cost = timelines[t].insertionCost(dep, arr);
+            if (cost > bestCost) continue;
+            long gap = timelines[t].gapBefore(dep);
+            if (cost < bestCost || gap < bestGap) {
+                best = t; bestCost = cost; bestGap = gap;
+            }
+        }
+        return best;
+    }
+
+    private void improve(List<Flight> sorted, int[] chosen, List<Aircraft> fleet, Timeline[] timelines) {
+        for (int round = 0; round < 3; round++) {
+            // a. Score candidate moves in parallel (read-only on timelines)
+            Move[] moves = java.util.stream.IntStream.range(0, sorted.size()).parallel()
+                    .mapToObj(i -> {
+                        if (chosen[i] < 0) return null;
+                        Flight f = sorted.get(i);
+                        int dep = minute(f.getDepartureTime());
+                        int arr = minute(f.getArrivalTime());
+                        long current = timelines[chosen[i]].costWithout(dep, arr);
+                        if (current == 0) return null;
+                        int target = bestTail(f, dep, arr, fleet, timelines, chosen[i]);
+                        if (target < 0) return null;
+                        long gain = current - timelines[target].insertionCost(dep, arr);
+                        return gain > 0 ? new Move(i, target, gain) : null;
+                    })
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparingLong((Move m) -> m.gain).reversed())
+                    .toArray(Move[]::new);
+            if (moves.length == 0) return;
+
+            // b. Apply sequentially, re-checking since earlier moves change the timelines
+            boolean applied = false;
+            for (Move m : moves) {
+                Flight f = sorted.get(m.index);
+                int dep = minute(f.getDepartureTime());
+                int arr = minute(f.getArrivalTime());
+                Timeline from = timelines[chosen[m.index]];
+                Timeline to = timelines[m.target];
+                if (from.costWithout(dep, arr) - to.insertionCost(dep, arr) <= 0) continue;
+                from.remove(dep, arr);
+                to.insert(dep, arr);
+                chosen[m.index] = m.target;
+                applied = true;
+            }
+            if (!applied) return;
+        }
+    }
+
+    // --- Apply Result to the System ---
+    public void apply(Result result) {
+        Set<String> touched = new HashSet<>();
+        for (Assignment a : result.getAssignments()) {
+            Flight f = a.getFlight();
+            if (system.getFlight(f.getKey()) == f) {
+                touched.add(f.getAircraft().getRegistrationNumber());
+                system.reassignFlight(f, a.getAircraft());
+            } else {
+                f.setAircraft(a.getAircraft());
+                system.addFlight(f);
+            }
+            touched.add(a.getAircraft().getRegistrationNumber());
+        }
+        // One cascade per affected tail
+        for (String reg : touched) system.refreshScheduleForAircraft(reg);
+    }
+
+    static int minute(LocalDateTime t) {
+        return (int) (t.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    // --- Sorted interval list for one tail (primitive arrays, no boxing) ---
+    // start[] holds the cascaded departure of each leg so costs are marginal, not naive
+    private static class Timeline {
+        int[] dep = new int[8];
+        int[] arr = new int[8];
+        int[] start = new int[8];
+        int size;
+
+        // First index whose departure is after 'minute'
+        int upperBound(int minute) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (dep[mid] <= minute) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        int indexOf(int d, int a) {
+            for (int p = upperBound(d) - 1; p >= 0 && dep[p] == d; p--) {
+                if (arr[p] == a) return p;
+            }
+            return -1;
+        }
+
+        void insert(int d, int a) {
+            if (size == dep.length) {
+                dep = Arrays.copyOf(dep, size * 2);
+                arr = Arrays.copyOf(arr, size * 2);
+                start = Arrays.copyOf(start, size * 2);
+            }
+            int p = upperBound(d);
+            System.arraycopy(dep, p, dep, p + 1, size - p);
+            System.arraycopy(arr, p, arr, p + 1, size - p);
+            System.arraycopy(start, p, start, p + 1, size - p);
+            dep[p] = d; arr[p] = a;
+            size++;
+            cascadeFrom(p);
+        }
+
+        void remove(int d, int a) {
+            int p = indexOf(d, a);
+            if (p < 0) return;
+            System.arraycopy(dep, p + 1, dep, p, size - p - 1);
+            System.arraycopy(arr, p + 1, arr, p, size - p - 1);
+            System.arraycopy(start, p + 1, start, p, size - p - 1);
+            size--;
+            cascadeFrom(p);
+        }
+
+        private int endOf(int j) { return start[j] + (arr[j] - dep[j]); }
+
+        // Same domino rule as refreshScheduleForAircraft; stops once nothing moves
+        private void cascadeFrom(int p) {
+            for (int j = p; j < size; j++) {
+                int s = (j > 0) ? Math.max(dep[j], endOf(j - 1)) : dep[j];
+                if (j > p && s == start[j]) return;
+                start[j] = s;
+            }
+        }
+
+        // Extra delay minutes (own + downstream) if [d, a) were inserted
+        long insertionCost(int d, int a) {
+            int p = upperBound(d);
+            int s = (p > 0) ? Math.max(d, endOf(p - 1)) : d;
+            long cost = s - d;
+            int end = s + (a - d);
+            for (int j = p; j < size; j++) {
+                int moved = Math.max(dep[j], end);
+                if (moved <= start[j]) break;
+                cost += moved - start[j];
+                end = moved + (arr[j] - dep[j]);
+            }
+            return cost;
+        }
+
+        // Delay minutes an interval already in this timeline is responsible for (read-only)
+        long costWithout(int d, int a) {
+            int q = indexOf(d, a);
+            if (q < 0) return 0;
+            long cost = start[q] - dep[q];
+            int prevEnd = (q > 0) ? endOf(q - 1) : Integer.MIN_VALUE;
+            for (int j = q + 1; j < size; j++) {
+                int s = Math.max(dep[j], prevEnd);
+                if (s >= start[j]) break;
+                cost += start[j] - s;
+                prevEnd = s + (arr[j] - dep[j]);
+            }
+            return cost;
+        }
+
+        // Own delay of an interval once the whole rotation has been cascaded
+        long delayOf(int d, int a) {
+            int q = indexOf(d, a);
+            return (q < 0) ? 0 : start[q] - dep[q];
+        }
+
+        long gapBefore(int d) {
+            int p = upperBound(d);
+            return (p > 0) ? Math.max(0, d - endOf(p - 1)) : Integer.MAX_VALUE;
+        }
+    }
+
+    private static class Move {
+        final int index, target;
+        final long gain;
+        Move(int index, int target, long gain) { this.index = index; this.target = target; this.gain = gain; }
+    }
+
+    // --- Result Classes ---
+    public static class Assignment {
+        private final Flight flight;
+        private final Aircraft aircraft;
+        private final long delayMinutes;
+
+        public Assignment(Flight flight, Aircraft aircraft, long delayMinutes) {
+            this.flight = flight;
+            this.aircraft = aircraft;
+            this.delayMinutes = delayMinutes;
+        }
+
+        public Flight getFlight() { return flight; }
+        public Aircraft getAircraft() { return aircraft; }
+        public long getDelayMinutes() { return delayMinutes; }
+    }
+
+    public static class Result {
+        private final List<Assignment> assignments;
+        private final List<Flight> unassigned;
+
+        public Result(List<Assignment> assignments, List<Flight> unassigned) {
+            this.assignments = assignments;
+            this.unassigned = unassigned;
+        }
+
+        public List<Assignment> getAssignments() { return assignments; }
+        public List<Flight> getUnassigned() { return unassigned; }
+        public long getTotalDelayMinutes() {
+            return assignments.stream().mapToLong(Assignment::getDelayMinutes).sum();
+        }
+    }
+}
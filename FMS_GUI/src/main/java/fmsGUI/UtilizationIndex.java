@@ -0,0 +1,251 @@
+package fmsGUI;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// How hard each tail is worked, per aircraft and departure day: block time, sectors,
+// turnaround slack and idle ground time. A change re-reads only the tail-days it touched
+// (a handful of legs each), so figures stay live across thousands of tails.
+public class UtilizationIndex implements FlightChangeListener {
+
+    // Legs per (tail, day), key = tailDay(...)
+    private final Map<Long, List<Flight>> legs = new HashMap<>();
+    // Figures per day, then per tail id
+    private final Map<Long, Map<Integer, TailDay>> byDay = new HashMap<>();
+    // (tail, day) each flight is filed under (events carry no old values)
+    private final Map<Flight, Long> filed = new IdentityHashMap<>();
+    // Archived legs (memory-budget mode) per (tail, day), as {departure, arrival} minutes: the
+    // flights leave the heap, their day's figures don't change
+    private final Map<Long, List<int[]>> archived = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    static long tailDay(int tailId, long day) {
+        return ((long) tailId << 32) | (day & 0xFFFFFFFFL);
+    }
+
+    private static long keyOf(Flight f) {
+        int tail = f.getAircraft() == null ? SymbolTable.NONE : f.getAircraft().getRegistrationId();
+        return tailDay(tail, f.getDepartureTime().toLocalDate().toEpochDay());
+    }
+
+    // --- Sync (FlightChangeListener) ---
+    @Override
+    public void flightAdded(Flight f) {
+        update(List.of(f), true);
+    }
+
+    @Override
+    public void flightRemoved(Flight f) {
+        lock.writeLock().lock();
+        try {
+            Long at = filed.remove(f);
+            if (at == null) return;
+            unfile(at, f);
+            recompute(at);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void flightArchived(Flight f) {
+        lock.writeLock().lock();
+        try {
+            Long at = filed.remove(f);
+            if (at == null) return;
+            unfile(at, f);
+            keepArchived(at, f);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void archivedFlightLoaded(Flight f) {
+        lock.writeLock().lock();
+        try {
+            long at = keyOf(f);
+            keepArchived(at, f);
+            recompute(at);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void keepArchived(long key, Flight f) {
+        if ("Cancelled".equalsIgnoreCase(f.getStatus())) return;
+        archived.computeIfAbsent(key, k -> new ArrayList<>())
+                .add(new int[] {TailAssigner.minute(f.getDepartureTime()), TailAssigner.minute(f.getArrivalTime())});
+    }
+
+    @Override
+    public void flightsChanged(Collection<Flight> changed) {
+        update(changed, false);
+    }
+
+    private void update(Collection<Flight> changed, boolean adding) {
+        lock.writeLock().lock();
+        try {
+            // Each touched tail-day is recomputed once, however many of its legs changed
+            Set<Long> dirty = new LinkedHashSet<>();
+            for (Flight f : changed) {
+                if (!adding && !filed.containsKey(f)) continue;
+                long now = keyOf(f);
+                Long at = filed.put(f, now);
+                if (at == null || at != now) {
+                    if (at != null) {
+                        unfile(at, f);
+                        dirty.add(at);
+                    }
+                    legs.computeIfAbsent(now, k -> new ArrayList<>()).add(f);
+                }
+                dirty.add(now);
+            }
+            for (long key : dirty) recompute(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unfile(long key, Flight f) {
+        List<Flight> list = legs.get(key);
+        if (list == null) return;
+        list.remove(f);
+        if (list.isEmpty()) legs.remove(key);
+    }
+
+    private void recompute(long key) {
+        int tail = (int) (key >>> 32);
+        long day = (int) key;
+        Map<Integer, TailDay> tails = byDay.computeIfAbsent(day, k -> new HashMap<>());
+        TailDay t = TailDay.of(tail, day, legs.getOrDefault(key, List.of()), archived.getOrDefault(key, List.of()));
+        if (t == null) {
+            tails.remove(tail);
+            if (tails.isEmpty()) byDay.remove(day);
+        } else {
+            tails.put(tail, t);
+        }
+    }
+
+    // --- Queries ---
+    // One tail on one day (null if it flies nothing that day)
+    public TailDay get(String registration, LocalDate day) {
+        lock.readLock().lock();
+        try {
+            return byDay.getOrDefault(day.toEpochDay(), Map.of()).get(SymbolTable.REGISTRATIONS.find(registration));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every tail flying on 'day'
+    public List<TailDay> getDay(LocalDate day) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(byDay.getOrDefault(day.toEpochDay(), Map.of()).values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Tails whose tightest turnaround on 'day' is under 'minutes', tightest first
+    public List<TailDay> tightest(LocalDate day, int minutes) {
+        List<TailDay> result = getDay(day);
+        result.removeIf(t -> t.sectors < 2 || t.minSlack >= minutes);
+        result.sort(Comparator.comparingInt(TailDay::getMinSlackMinutes));
+        return result;
+    }
+
+    // The 'limit' tails with the most block time on 'day'
+    public List<TailDay> busiest(LocalDate day, int limit) {
+        List<TailDay> result = getDay(day);
+        result.sort(Comparator.comparingLong(TailDay::getBlockMinutes).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    // --- Figures for one tail on one day ---
+    // Cancelled legs don't count. Slack is the ground time between consecutive legs of the day
+    // (negative = the next leg is planned to leave before the previous one is in).
+    public static class TailDay {
+        private final int tailId;
+        private final long day;
+        private final int sectors;
+        private final long blockMinutes;
+        private final int minSlack;
+        private final double averageSlack;
+        private final long idleMinutes;
+        private final int longestIdle;
+
+        private TailDay(int tailId, long day, int sectors, long blockMinutes, int minSlack, double averageSlack,
+                        long idleMinutes, int longestIdle) {
+            this.tailId = tailId;
+            this.day = day;
+            this.sectors = sectors;
+            this.blockMinutes = blockMinutes;
+            this.minSlack = minSlack;
+            this.averageSlack = averageSlack;
+            this.idleMinutes = idleMinutes;
+            this.longestIdle = longestIdle;
+        }
+
+        // 'archivedLegs' are {departure, arrival} minutes of flown legs no longer in memory
+        static TailDay of(int tailId, long day, List<Flight> dayLegs, List<int[]> archivedLegs) {
+            List<int[]> flown = new ArrayList<>(archivedLegs);
+            for (Flight f : dayLegs) {
+                if (!"Cancelled".equalsIgnoreCase(f.getStatus())) {
+                    flown.add(new int[] {TailAssigner.minute(f.getDepartureTime()), TailAssigner.minute(f.getArrivalTime())});
+                }
+            }
+            if (flown.isEmpty()) return null;
+            flown.sort(Comparator.comparingInt(leg -> leg[0]));
+
+            long block = 0, idle = 0, slackSum = 0;
+            int minSlack = Integer.MAX_VALUE, longest = 0;
+            int prevArr = 0;
+            for (int i = 0; i < flown.size(); i++) {
+                int dep = flown.get(i)[0];
+                int arr = flown.get(i)[1];
+                block += arr - dep;
+                if (i > 0) {
+                    int slack = dep - prevArr;
+                    slackSum += slack;
+                    minSlack = Math.min(minSlack, slack);
+                    idle += Math.max(0, slack);
+                    longest = Math.max(longest, slack);
+                }
+                prevArr = arr;
+            }
+            int turns = flown.size() - 1;
+            return new TailDay(tailId, day, flown.size(), block, turns == 0 ? Integer.MAX_VALUE : minSlack,
+                    turns == 0 ? 0 : slackSum / (double) turns, idle, longest);
+        }
+
+        public String getRegistration() { return SymbolTable.REGISTRATIONS.name(tailId); }
+        public LocalDate getDate() { return LocalDate.ofEpochDay(day); }
+        public int getSectors() { return sectors; }
+        public long getBlockMinutes() { return blockMinutes; }
+        public double getBlockHours() { return blockMinutes / 60.0; }
+        // Integer.MAX_VALUE when the tail flies a single sector
+        public int getMinSlackMinutes() { return minSlack; }
+        public double getAverageSlackMinutes() { return averageSlack; }
+        public long getIdleMinutes() { return idleMinutes; }
+        public int getLongestIdleMinutes() { return longestIdle; }
+
+        @Override
+        public String toString() {
+            String slack = sectors < 2 ? "no turns" : String.format("slack min %d / avg %.0f min", minSlack, averageSlack);
+            return String.format("%s %s: %d sectors, %.1f block h, %s, idle %d min (longest %d)",
+                    getRegistration(), getDate(), sectors, getBlockHours(), slack, idleMinutes, longestIdle);
+        }
+    }
+}
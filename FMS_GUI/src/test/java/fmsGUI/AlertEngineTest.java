@@ -0,0 +1,93 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class AlertEngineTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 6, 0);
+
+    private static Flight leg(String key, Aircraft plane, int depMinute, int minutes) {
+        LocalDateTime dep = T0.plusMinutes(depMinute);
+        return new Flight(key, "KUL", "PEN", dep, dep.plusMinutes(minutes), plane, 1);
+    }
+
+    private static Set<String> overlapping(AlertEngine engine) {
+        Set<String> keys = new TreeSet<>();
+        for (AlertEngine.Alert a : engine.getAlerts(AlertEngine.OVERLAP.getName())) keys.add(a.getFlight().getKey());
+        return keys;
+    }
+
+    @Test
+    void longLegOverlapsEveryLegItCovers() {
+        Aircraft plane = new Aircraft("9M-OVL", "Airbus", "A320", 180);
+        AlertEngine engine = new AlertEngine();
+        Flight a = leg("MH-1", plane, 0, 360);
+        Flight b = leg("MH-2", plane, 60, 60);
+        Flight c = leg("MH-3", plane, 180, 60);
+        Flight d = leg("MH-4", plane, 420, 60);
+        for (Flight f : List.of(a, b, c, d)) engine.flightAdded(f);
+        assertEquals(Set.of("MH-2", "MH-3"), overlapping(engine));
+
+        // Shortening the long leg clears the legs it no longer covers
+        a.setArrivalTime(T0.plusMinutes(90));
+        engine.flightsChanged(List.of(a));
+        assertEquals(Set.of("MH-2"), overlapping(engine));
+
+        a.setStatus("Cancelled");
+        engine.flightsChanged(List.of(a));
+        assertEquals(Set.of(), overlapping(engine));
+    }
+
+    @Test
+    void incrementalAlertsMatchAFullSweep() {
+        Random rnd = new Random(11);
+        Aircraft plane = new Aircraft("9M-RND", "Airbus", "A320", 180);
+        AlertEngine engine = new AlertEngine();
+        List<Flight> legs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Flight f = leg("MH-" + i, plane, rnd.nextInt(2000), 30 + rnd.nextInt(300));
+            legs.add(f);
+            engine.flightAdded(f);
+        }
+        for (int step = 0; step < 2000; step++) {
+            Flight f = legs.get(rnd.nextInt(legs.size()));
+            switch (rnd.nextInt(4)) {
+                case 0 -> {
+                    LocalDateTime dep = T0.plusMinutes(rnd.nextInt(2000));
+                    f.setDepartureTime(dep);
+                    f.setArrivalTime(dep.plusMinutes(30 + rnd.nextInt(300)));
+                }
+                case 1 -> f.setArrivalTime(f.getDepartureTime().plusMinutes(30 + rnd.nextInt(300)));
+                case 2 -> f.setStatus("Cancelled");
+                default -> f.setStatus("Scheduled");
+            }
+            engine.flightsChanged(List.of(f));
+            assertEquals(expectedOverlaps(legs), overlapping(engine), "after step " + step);
+        }
+    }
+
+    // ScheduleAudit's sweep: legs in departure order (filing order on ties) against the latest arrival so far
+    private static Set<String> expectedOverlaps(List<Flight> legs) {
+        List<Flight> chain = new ArrayList<>();
+        for (Flight f : legs) {
+            if (!"Cancelled".equals(f.getStatus())) chain.add(f);
+        }
+        chain.sort((x, y) -> Integer.compare(TailAssigner.minute(x.getDepartureTime()), TailAssigner.minute(y.getDepartureTime())));
+        Set<String> keys = new TreeSet<>();
+        int busyUntil = Integer.MIN_VALUE;
+        for (Flight f : chain) {
+            if (TailAssigner.minute(f.getDepartureTime()) < busyUntil) keys.add(f.getKey());
+            busyUntil = Math.max(busyUntil, TailAssigner.minute(f.getArrivalTime()));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,130 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArchiveTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2030, 6, 1);
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 10, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightManagementSystem system;
+    // Route and column figures just before archiving
+    private RouteIndex.RouteStats routeBefore;
+    private long arrivedBefore;
+
+    private boolean inMemory(String key) {
+        return system.getAllFlights().stream().anyMatch(f -> f.getKey().equals(key));
+    }
+
+    // Daily P1 from 1 June; 1-5 June flown and closed, plus one later closed leg that stays pinned
+    @BeforeEach
+    void setUp() throws IOException {
+        system = new FlightManagementSystem(dir);
+        system.enableArchive(new FlightDatabase(dir.resolve("archive.db"), system::getAircraft), 1 << 20, Duration.ofHours(48));
+        Aircraft plane = new Aircraft("9M-ARC", "Airbus", "A320", 180);
+        system.addAircraft(plane);
+        system.addPattern(new SchedulePattern("P1", "KUL", "PEN", SchedulePattern.parseDays("MON;TUE;WED;THU;FRI;SAT;SUN"),
+                LocalTime.of(8, 0), 60, plane, 100, JUNE_1, JUNE_1.plusDays(29)));
+        system.materializeHorizon(JUNE_1, 5);
+        for (int i = 0; i < 5; i++) system.updateFlightStatus("P1/" + JUNE_1.plusDays(i), "Arrived");
+        LocalDateTime dep = LocalDateTime.of(2030, 6, 9, 14, 0);
+        system.addFlight(new Flight("X9", "PEN", "KUL", dep, dep.plusMinutes(60), plane, 100));
+        system.updateFlightStatus("X9", "Arrived");
+
+        routeBefore = system.getRoutes().getTotals("KUL", "PEN");
+        arrivedBefore = system.getColumns().count(system.getColumns().query().status("Arrived"));
+        assertEquals(5, system.archiveClosedFlights(NOW));
+    }
+
+    @Test
+    void closedFlightsMoveToTheArchiveAndReadBack() {
+        assertEquals(5, system.getArchivedCount());
+        assertFalse(inMemory("P1/2030-06-02"));
+        assertTrue(inMemory("X9"));
+
+        Flight archived = system.getFlight("P1/2030-06-02");
+        assertNotNull(archived);
+        assertEquals("Arrived", archived.getStatus());
+        assertTrue(system.isArchived(archived));
+        assertFalse(system.isArchived(system.getFlight("X9")));
+
+        List<Flight> range = system.getArchivedFlights(JUNE_1.atStartOfDay(), JUNE_1.plusDays(3).atStartOfDay());
+        assertEquals(List.of("P1/2030-06-01", "P1/2030-06-02", "P1/2030-06-03"), range.stream().map(Flight::getKey).toList());
+        List<Flight> day = system.getFlightsBetween(JUNE_1.plusDays(2), JUNE_1.plusDays(2));
+        assertEquals(1, day.size());
+        assertEquals("Arrived", day.get(0).getStatus());
+    }
+
+    @Test
+    void rollupsStillCountArchivedFlights() throws IOException {
+        assertEquals(routeBefore.toString(), system.getRoutes().getTotals("KUL", "PEN").toString());
+        assertEquals(5, system.getRoutes().getTotals("KUL", "PEN").getFlights());
+        assertTrue(system.getRoutes().getFlights("KUL", "PEN").isEmpty());
+        assertEquals(arrivedBefore, system.getColumns().count(system.getColumns().query().status("Arrived")));
+        assertEquals(1, system.getUtilization().get("9M-ARC", JUNE_1.plusDays(1)).getSectors());
+
+        // A later run counts them again from the archive
+        system.saveData();
+        system.getArchive().close();
+        FlightManagementSystem next = new FlightManagementSystem(dir);
+        next.enableArchive(new FlightDatabase(dir.resolve("archive.db"), next::getAircraft), 1 << 20, Duration.ofHours(48));
+        next.loadData();
+        assertEquals(routeBefore.toString(), next.getRoutes().getTotals("KUL", "PEN").toString());
+        assertEquals(60, next.getUtilization().get("9M-ARC", JUNE_1.plusDays(1)).getBlockMinutes());
+    }
+
+    @Test
+    void archivedCopiesAreReadOnly() {
+        String key = "P1/2030-06-02";
+        Flight archived = system.getFlight(key);
+        assertThrows(IllegalStateException.class, () -> system.updateFlightStatus(key, "Delayed"));
+        assertThrows(IllegalStateException.class, () -> system.deleteFlight(key));
+        assertThrows(IllegalStateException.class, () -> system.manualDelay(archived, "Weather: fog"));
+        assertThrows(IllegalStateException.class, () -> system.cancelFlight(archived));
+        assertThrows(IllegalStateException.class, () -> system.ensureMaterialized(archived));
+        assertFalse(inMemory(key));
+        assertEquals("Arrived", system.getFlight(key).getStatus());
+    }
+
+    @Test
+    void archivedInstancesAreNotMaterializedAgain() {
+        system.materializeHorizon(JUNE_1, 10);
+        for (int i = 0; i < 5; i++) assertFalse(inMemory("P1/" + JUNE_1.plusDays(i)));
+        for (int i = 5; i < 10; i++) assertTrue(inMemory("P1/" + JUNE_1.plusDays(i)));
+        assertEquals(5, system.getArchivedCount());
+        assertNull(system.getFlight("P1/2030-07-01"));
+    }
+
+    @Test
+    void theHorizonRollsForwardOnceADay() {
+        LocalDate today = JUNE_1.plusDays(10);
+        assertTrue(system.rollHorizon(today));
+        assertTrue(inMemory("P1/2030-06-17"));
+        assertFalse(inMemory("P1/2030-06-18"));
+        assertFalse(system.rollHorizon(today));
+
+        assertTrue(system.rollHorizon(today.plusDays(1)));
+        assertTrue(inMemory("P1/2030-06-18"));
+        assertEquals(today.plusDays(1), system.getHorizonDay());
+    }
+}
@@ -0,0 +1,105 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BulkOperationsTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 6, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightManagementSystem system;
+    private Flight a1, a2, b1, b2;
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.plusHours(hour).plusMinutes(minute);
+    }
+
+    // Tail A turns A1 round into A2 with 30 minutes to spare; tail B has a long gap
+    @BeforeEach
+    void setUp() {
+        system = new FlightManagementSystem(dir);
+        Aircraft tailA = new Aircraft("9M-BKA", "Airbus", "A320", 180);
+        Aircraft tailB = new Aircraft("9M-BKB", "Airbus", "A320", 180);
+        system.addAircraft(tailA);
+        system.addAircraft(tailB);
+        a1 = new Flight("A1", "KUL", "PEN", at(8, 0), at(10, 0), tailA, 100);
+        a2 = new Flight("A2", "PEN", "KUL", at(10, 30), at(12, 0), tailA, 100);
+        b1 = new Flight("B1", "KUL", "SIN", at(9, 0), at(10, 0), tailB, 100);
+        b2 = new Flight("B2", "SIN", "KUL", at(13, 0), at(14, 0), tailB, 100);
+        system.addFlight(a1);
+        system.addFlight(a2);
+        system.addFlight(b1);
+        system.addFlight(b2);
+    }
+
+    @Test
+    void aDelayCascadesOncePerAircraft() {
+        FlightManagementSystem.BulkResult result =
+                system.delayWhere(f -> f.getDepartureTime().isBefore(at(9, 30)), 60, "Weather: storm");
+
+        assertEquals(Set.of(a1, b1), Set.copyOf(result.getChanged()));
+        assertEquals(2, result.getAircraftCount());
+        assertEquals(1, result.getCascadedCount());
+        assertEquals("Delayed", a1.getStatus());
+        assertEquals(60, a1.getDelayMinutes());
+        assertEquals(30, a2.getPropagatedDelayMinutes());
+        // B2 still has time after B1
+        assertEquals(at(13, 0), b2.getDepartureTime());
+    }
+
+    @Test
+    void flightsInTheAirAreLeftAlone() {
+        system.updateFlightStatus("B1", "Boarding");
+        system.updateFlightStatus("B1", "Departed");
+
+        FlightManagementSystem.BulkResult result = system.delayWhere(f -> true, 30, "ATC: flow control");
+
+        assertFalse(result.getChanged().contains(b1));
+        assertEquals(3, result.getChanged().size());
+        assertEquals(at(9, 0), b1.getDepartureTime());
+        assertEquals(0, b1.getDelayMinutes());
+    }
+
+    @Test
+    void cancellingATailCancelsEveryLegOnIt() {
+        FlightManagementSystem.BulkResult result =
+                system.cancelWhere(f -> f.getAircraft().getRegistrationNumber().equals("9M-BKA"));
+
+        assertEquals(Set.of(a1, a2), Set.copyOf(result.getChanged()));
+        assertEquals(1, result.getAircraftCount());
+        assertEquals("Cancelled", a1.getStatus());
+        assertEquals("Cancelled", a2.getStatus());
+        assertEquals("Scheduled", b1.getStatus());
+    }
+
+    @Test
+    void aLaterShiftCountsAsDelay() {
+        FlightManagementSystem.BulkResult result = system.shiftWindow(at(8, 0), at(9, 0), 45, "ATC: flow control");
+
+        assertEquals(Set.of(a1), Set.copyOf(result.getChanged()));
+        assertEquals(45, a1.getDelayMinutes());
+        assertEquals(15, a2.getPropagatedDelayMinutes());
+    }
+
+    @Test
+    void anEarlierShiftMovesTheTimesWithoutDelay() {
+        FlightManagementSystem.BulkResult result = system.shiftWindow(at(12, 0), at(14, 0), -30, "Ops: retimed");
+
+        assertEquals(Set.of(b2), Set.copyOf(result.getChanged()));
+        assertEquals(at(12, 30), b2.getDepartureTime());
+        assertEquals(at(13, 30), b2.getArrivalTime());
+        assertEquals(0, b2.getDelayMinutes());
+        assertEquals("Scheduled", b2.getStatus());
+    }
+}
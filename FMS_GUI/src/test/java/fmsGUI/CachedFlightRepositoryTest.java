@@ -0,0 +1,70 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CachedFlightRepositoryTest {
+
+    private static final Aircraft PLANE = new Aircraft("9M-LRU", "Boeing", "737", 160);
+    private static final LocalDateTime DEP = LocalDateTime.of(2030, 2, 1, 6, 0);
+
+    @TempDir
+    Path dir;
+
+    private CachedFlightRepository cache(int entries) throws IOException {
+        FlightDatabase db = new FlightDatabase(dir.resolve("archive.db"), reg -> PLANE);
+        for (int i = 0; i < 10; i++) {
+            LocalDateTime dep = DEP.plusHours(i);
+            db.save(new Flight("MH-" + i, "KUL", "PEN", dep, dep.plusMinutes(60), PLANE, 100));
+        }
+        return new CachedFlightRepository(db, entries);
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() throws IOException {
+        try (CachedFlightRepository repo = cache(3)) {
+            Flight first = repo.find("MH-0");
+            repo.find("MH-1");
+            repo.find("MH-2");
+            assertSame(first, repo.find("MH-0")); // MH-1 is now the eldest
+            repo.find("MH-3");
+
+            assertEquals(3, repo.getCachedCount());
+            assertEquals(1, repo.getEvictionCount());
+            assertSame(first, repo.find("MH-0"));
+            long misses = repo.getMissCount();
+            repo.find("MH-1");
+            assertEquals(misses + 1, repo.getMissCount());
+            assertEquals(3, repo.getCachedWeight());
+            assertEquals(2.0 / 7, repo.getHitRate(), 1e-9);
+        }
+    }
+
+    @Test
+    void savesReplaceCachedCopiesButDontPullFlightsIn() throws IOException {
+        try (CachedFlightRepository repo = cache(3)) {
+            Flight cached = repo.find("MH-0");
+            LocalDateTime dep = DEP.plusHours(20);
+            repo.save(new Flight("MH-20", "KUL", "PEN", dep, dep.plusMinutes(60), PLANE, 100));
+            assertEquals(1, repo.getCachedCount());
+
+            Flight updated = new Flight("MH-0", "KUL", "PEN", DEP, DEP.plusMinutes(60), PLANE, 100);
+            updated.setStatus("Arrived");
+            repo.save(updated);
+            assertNotSame(cached, repo.find("MH-0"));
+            assertEquals("Arrived", repo.find("MH-0").getStatus());
+
+            repo.delete("MH-0");
+            assertEquals(0, repo.getCachedCount());
+            assertEquals(null, repo.find("MH-0"));
+        }
+    }
+}
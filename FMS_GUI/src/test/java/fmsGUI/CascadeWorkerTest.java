@@ -0,0 +1,134 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CascadeWorkerTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 4, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightManagementSystem system;
+    // Stands in for the FX thread: results wait here until the test runs them
+    private final BlockingQueue<Runnable> updates = new LinkedBlockingQueue<>();
+    private Aircraft plane;
+    private Flight l1, l2, l3;
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.plusHours(hour).plusMinutes(minute);
+    }
+
+    private Flight add(String number, LocalDateTime dep, LocalDateTime arr) {
+        Flight f = new Flight(number, "KUL", "PEN", dep, arr, plane, 100);
+        system.addFlight(f);
+        return f;
+    }
+
+    private Runnable nextUpdate() throws InterruptedException {
+        Runnable r = updates.poll(5, TimeUnit.SECONDS);
+        assertNotNull(r, "no result reached the update thread");
+        return r;
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = new FlightManagementSystem(dir);
+        plane = new Aircraft("9M-CSW", "Airbus", "A320", 180);
+        system.addAircraft(plane);
+        l1 = add("L1", at(8, 0), at(10, 0));
+        l2 = add("L2", at(10, 30), at(12, 0));
+        l3 = add("L3", at(12, 15), at(13, 0));
+        system.setUpdateExecutor(updates::add);
+        system.enableAsyncCascades();
+    }
+
+    @Test
+    void aBurstIsOneCascadeWorkedOutOffTheUpdateThread() throws InterruptedException {
+        system.manualDelay(l1, "Weather: fog");
+        system.manualDelay(l1, "Weather: fog");
+        assertTrue(l2.isPendingPropagation());
+
+        Runnable result = nextUpdate();
+        // Worked out, but nothing moves until the update thread applies it
+        assertEquals(at(10, 30), l2.getDepartureTime());
+        result.run();
+
+        assertEquals(at(10, 0), l1.getDepartureTime());
+        assertEquals(at(12, 0), l2.getDepartureTime());
+        assertEquals(at(13, 30), l3.getDepartureTime());
+        assertFalse(l2.isPendingPropagation());
+        CascadeWorker worker = system.getCascadeWorker();
+        assertEquals(2, worker.getRequestCount());
+        assertEquals(1, worker.getCascadeCount());
+        assertNull(updates.poll(2 * CascadeWorker.COALESCE_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void aStaleResultIsWorkedOutAgain() throws InterruptedException {
+        system.manualDelay(l1, "Technical: door sensor");
+        Runnable result = nextUpdate();
+        // L3 changes before the result lands: the result was worked out from its old state
+        system.updateFlightStatus("L3", "Boarding");
+        result.run();
+        assertEquals(at(10, 30), l2.getDepartureTime());
+        assertEquals(1, system.getCascadeWorker().getStaleCount());
+
+        nextUpdate().run();
+        assertEquals(at(11, 0), l2.getDepartureTime());
+        assertEquals(at(12, 30), l3.getDepartureTime());
+        assertEquals(15, l3.getPropagatedDelayMinutes());
+    }
+
+    @Test
+    void drainAppliesEverythingOnTheCallingThread() {
+        system.manualDelay(l1, "Weather: storm");
+        CompletableFuture<Void> settled = system.whenSettled(plane);
+        assertFalse(settled.isDone());
+
+        system.getCascadeWorker().drain();
+        assertTrue(settled.isDone());
+        assertEquals(at(11, 0), l2.getDepartureTime());
+        assertFalse(l3.isPendingPropagation());
+        assertTrue(system.whenSettled(plane).isDone());
+    }
+
+    @Test
+    void aSaveTakesFlightsAsTheyStandAndTheLoadFinishesTheCascade() {
+        system.manualDelay(l1, "Weather: storm");
+        system.saveData();
+        // Saving applies nothing: the result lands on the update thread only
+        assertEquals(at(10, 30), l2.getDepartureTime());
+
+        FlightManagementSystem next = new FlightManagementSystem(dir);
+        next.loadData();
+        assertEquals(at(9, 0), next.getFlight("L1").getDepartureTime());
+        assertEquals(at(11, 0), next.getFlight("L2").getDepartureTime());
+        assertEquals(at(12, 30), next.getFlight("L3").getDepartureTime());
+    }
+
+    @Test
+    void waitersAreToldWhenTheResultLands() throws InterruptedException {
+        system.manualDelay(l1, "Weather: storm");
+        CompletableFuture<Void> settled = system.whenSettled(plane);
+        Runnable result = nextUpdate();
+        assertFalse(settled.isDone());
+        result.run();
+        assertTrue(settled.isDone());
+    }
+}
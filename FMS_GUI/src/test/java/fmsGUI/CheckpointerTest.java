@@ -0,0 +1,131 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointerTest {
+
+    @TempDir
+    Path dir;
+
+    private String read(String name) throws IOException {
+        return Files.readString(Checkpointer.resolve(dir, name), StandardCharsets.UTF_8);
+    }
+
+    // Flips one byte in the body of the current copy of 'name'
+    private void damage(String name) throws IOException {
+        Path file = Checkpointer.resolve(dir, name);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[0] ^= 0x20;
+        Files.write(file, bytes);
+    }
+
+    @Test
+    void savedFilesCarryAMatchingChecksum() throws IOException {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("a.txt", "one\ntwo\n");
+        files.put("b.txt", "three\n");
+        Checkpointer.write(dir, files);
+
+        assertTrue(read("a.txt").startsWith("one\ntwo\n"));
+        assertTrue(read("a.txt").contains(Checkpointer.TRAILER));
+        assertNull(Checkpointer.verify(Checkpointer.resolve(dir, "a.txt")));
+        assertNull(Checkpointer.verify(Checkpointer.resolve(dir, "b.txt")));
+
+        damage("a.txt");
+        assertNotNull(Checkpointer.verify(Checkpointer.resolve(dir, "a.txt")));
+        assertNull(Checkpointer.verify(Checkpointer.resolve(dir, "b.txt")));
+    }
+
+    @Test
+    void filesWithoutATrailerStillLoad() throws IOException {
+        Path plain = dir.resolve("old.txt");
+        Files.writeString(plain, "written,before,checksums\n");
+        assertNull(Checkpointer.verify(plain));
+        assertEquals(plain, Checkpointer.resolve(dir, "old.txt"));
+    }
+
+    @Test
+    void aPartialSaveKeepsTheOtherFilesAndDropsOldGenerations() throws IOException {
+        Checkpointer.write(dir, Map.of("a.txt", "a1\n", "b.txt", "b1\n"));
+        Path firstA = Checkpointer.resolve(dir, "a.txt");
+        Path firstB = Checkpointer.resolve(dir, "b.txt");
+
+        Checkpointer.write(dir, Map.of("a.txt", "a2\n"));
+        assertTrue(read("a.txt").startsWith("a2\n"));
+        assertTrue(read("b.txt").startsWith("b1\n"));
+        assertEquals(firstB, Checkpointer.resolve(dir, "b.txt"));
+        assertFalse(Files.exists(firstA));
+    }
+
+    @Test
+    void aDamagedManifestIsAnError() throws IOException {
+        Checkpointer.write(dir, Map.of("a.txt", "a1\n"));
+        Path manifest = dir.resolve(Checkpointer.MANIFEST);
+        byte[] bytes = Files.readAllBytes(manifest);
+        bytes[0] ^= 0x20;
+        Files.write(manifest, bytes);
+
+        assertThrows(IOException.class, () -> Checkpointer.resolve(dir, "a.txt"));
+        assertThrows(IOException.class, () -> Checkpointer.write(dir, Map.of("a.txt", "a2\n")));
+    }
+
+    @Test
+    void aDamagedFileIsNeitherLoadedNorSavedOver() throws IOException {
+        FlightManagementSystem system = new FlightManagementSystem(dir);
+        Aircraft plane = new Aircraft("9M-CRC", "Airbus", "A320", 180);
+        system.addAircraft(plane);
+        LocalDateTime dep = LocalDateTime.of(2030, 1, 1, 8, 0);
+        system.addFlight(new Flight("MH-1", "KUL", "PEN", dep, dep.plusMinutes(60), plane, 10));
+        system.saveData();
+        assertNull(system.getStorageError());
+
+        damage("aircrafts.txt");
+        Path damaged = Checkpointer.resolve(dir, "aircrafts.txt");
+        byte[] before = Files.readAllBytes(damaged);
+
+        FlightManagementSystem reloaded = new FlightManagementSystem(dir);
+        reloaded.loadData();
+        assertNotNull(reloaded.getStorageError());
+        assertTrue(reloaded.getAllFlights().isEmpty());
+
+        reloaded.saveData();
+        assertThrows(IOException.class, reloaded::flushRecords);
+        assertEquals(damaged, Checkpointer.resolve(dir, "aircrafts.txt"));
+        assertArrayEquals(before, Files.readAllBytes(damaged));
+        assertNull(reloaded.getLoadAudit());
+    }
+
+    @Test
+    void conflictsInTheLoadedDataAreReported() {
+        FlightManagementSystem system = new FlightManagementSystem(dir);
+        Aircraft plane = new Aircraft("9M-AUD", "Airbus", "A320", 180);
+        system.addAircraft(plane);
+        LocalDateTime dep = LocalDateTime.of(2030, 1, 1, 8, 0);
+        system.addFlight(new Flight("MH-1", "KUL", "PEN", dep, dep.plusMinutes(90), plane, 10));
+        system.addFlight(new Flight("MH-2", "PEN", "KUL", dep.plusMinutes(60), dep.plusMinutes(150), plane, 10));
+        system.saveData();
+
+        FlightManagementSystem reloaded = new FlightManagementSystem(dir);
+        reloaded.loadData();
+        assertEquals(1, reloaded.getLoadAudit().count(ScheduleAudit.OVERLAP));
+        // Reported only: nothing moved
+        assertEquals(dep.plusMinutes(60), reloaded.getFlight("MH-2").getDepartureTime());
+    }
+}
@@ -0,0 +1,99 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConnectionGraphTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 2, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightManagementSystem system;
+    private Aircraft tailA;
+    private Aircraft tailB;
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.plusHours(hour).plusMinutes(minute);
+    }
+
+    private Flight add(String number, Aircraft plane, LocalDateTime dep, LocalDateTime arr) {
+        Flight f = new Flight(number, "KUL", "PEN", dep, arr, plane, 100);
+        system.addFlight(f);
+        return f;
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = new FlightManagementSystem(dir);
+        tailA = new Aircraft("9M-CGA", "Airbus", "A320", 180);
+        tailB = new Aircraft("9M-CGB", "Airbus", "A320", 180);
+        system.addAircraft(tailA);
+        system.addAircraft(tailB);
+    }
+
+    @Test
+    void connectionsOfLegsMovedByTheCascadeAreHeld() throws Exception {
+        Flight a1 = add("A1", tailA, at(8, 0), at(10, 0));
+        Flight a2 = add("A2", tailA, at(10, 30), at(12, 0));
+        Flight b1 = add("B1", tailB, at(12, 45), at(14, 0));
+        Flight b2 = add("B2", tailB, at(14, 0), at(15, 0));
+        system.addConnection(a2, b1, 30, ConnectionGraph.CONNECTION);
+
+        system.manualDelay(a1, "Weather: fog");
+
+        assertEquals(at(11, 0), a2.getDepartureTime());
+        assertEquals(at(12, 30), a2.getArrivalTime());
+        assertEquals(at(13, 0), b1.getDepartureTime());
+        // B1 now lands at 14:15, so its own next leg moves too
+        assertEquals(at(14, 15), b2.getDepartureTime());
+    }
+
+    @Test
+    void aLegWithEnoughSlackEndsTheWalk() throws Exception {
+        Flight a1 = add("A1", tailA, at(8, 0), at(9, 0));
+        Flight b1 = add("B1", tailB, at(12, 0), at(13, 0));
+        Flight b2 = add("B2", tailB, at(13, 0), at(14, 0));
+        system.addConnection(a1, b1, 45, ConnectionGraph.CARGO);
+
+        system.manualDelay(a1, "Technical: hydraulics");
+
+        assertEquals(at(12, 0), b1.getDepartureTime());
+        assertEquals(at(13, 0), b2.getDepartureTime());
+        assertEquals(0, b1.getPropagatedDelayMinutes());
+    }
+
+    @Test
+    void dependenciesThatWouldCloseACycleAreRejected() throws Exception {
+        Flight a1 = add("A1", tailA, at(8, 0), at(10, 0));
+        Flight a2 = add("A2", tailA, at(10, 30), at(12, 0));
+        Flight b1 = add("B1", tailB, at(12, 45), at(14, 0));
+        system.addConnection(a2, b1, 30, ConnectionGraph.CONNECTION);
+
+        // A1 -> A2 (rotation) -> B1 (connection) already; B1 -> A1 would close the loop
+        Exception e = assertThrows(Exception.class, () -> system.addConnection(b1, a1, 30, ConnectionGraph.CONNECTION));
+        assertTrue(e.getMessage().contains("cycle"));
+        assertThrows(Exception.class, () -> system.addConnection(a1, a1, 30, ConnectionGraph.CONNECTION));
+        assertEquals(1, system.getConnections().getDependencies().size());
+    }
+
+    @Test
+    void addingAConnectionHoldsALateOutbound() throws Exception {
+        Flight a1 = add("A1", tailA, at(8, 0), at(12, 0));
+        Flight b1 = add("B1", tailB, at(12, 0), at(13, 0));
+
+        system.addConnection(a1, b1, 40, ConnectionGraph.CONNECTION);
+
+        assertEquals(at(12, 40), b1.getDepartureTime());
+        assertEquals(40, b1.getPropagatedDelayMinutes());
+    }
+}
@@ -0,0 +1,75 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvRepositoryTest {
+
+    private static final LocalDateTime DEP = LocalDateTime.of(2030, 7, 1, 8, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void anExportReadsBackIntoAnotherSystem() throws IOException {
+        FlightManagementSystem system = new FlightManagementSystem(dir.resolve("a"));
+        Aircraft plane = new Aircraft("9M-CSV", "Boeing", "737-800", 189);
+        system.addAircraft(plane);
+        Flight pax = new Flight("MH-10", "KUL", "SIN", DEP, DEP.plusMinutes(60), plane, 150);
+        system.addFlight(pax);
+        system.addFlight(new CargoFlight("MH-11", "SIN", "KUL", DEP.plusHours(2), DEP.plusHours(3), plane, 12.5));
+        system.manualDelay(pax, "Weather: haze");
+
+        Path aircraftFile = dir.resolve("fleet.csv");
+        Path flightFile = dir.resolve("flights.csv");
+        try (CsvAircraftRepository aircraftRepo = new CsvAircraftRepository(aircraftFile);
+             CsvFlightRepository flightRepo = new CsvFlightRepository(flightFile, system::getAircraft)) {
+            system.exportTo(aircraftRepo, flightRepo);
+        }
+
+        // The fleet goes in first, so the flights link to the new system's aircraft
+        FlightManagementSystem other = new FlightManagementSystem(dir.resolve("b"));
+        try (CsvAircraftRepository aircraftRepo = new CsvAircraftRepository(aircraftFile)) {
+            assertEquals(1, aircraftRepo.findAll().size());
+            aircraftRepo.findAll().forEach(other::addAircraft);
+            try (CsvFlightRepository flightRepo = new CsvFlightRepository(flightFile, other::getAircraft)) {
+                other.importFrom(aircraftRepo, flightRepo);
+            }
+        }
+
+        assertEquals("737-800", other.getAircraft("9M-CSV").getModel());
+        Flight read = other.getFlight("MH-10");
+        assertNotNull(read);
+        assertEquals(DEP.plusMinutes(60), read.getDepartureTime());
+        assertEquals(List.of("Weather: haze"), read.getDelayReasons());
+        assertEquals(60, read.getDelayMinutes());
+        Flight cargo = other.getFlight("MH-11");
+        assertTrue(cargo instanceof CargoFlight);
+        assertEquals(12.5, ((CargoFlight) cargo).getCargoCapacity());
+    }
+
+    @Test
+    void deletesAreWrittenOnFlush() throws IOException {
+        Path file = dir.resolve("fleet.csv");
+        try (CsvAircraftRepository repo = new CsvAircraftRepository(file)) {
+            repo.save(new Aircraft("9M-DEL", "Airbus", "A330", 290));
+            repo.save(new Aircraft("9M-KEP", "Airbus", "A350", 300));
+            repo.flush();
+            repo.delete("9M-DEL");
+        }
+        try (CsvAircraftRepository repo = new CsvAircraftRepository(file)) {
+            assertNull(repo.find("9M-DEL"));
+            assertEquals(300, repo.find("9M-KEP").getCapacity());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DelaySimulatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 4, 1);
+
+    private List<Flight> flights;
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.atTime(hour, minute);
+    }
+
+    // Tail A turns A1 straight into A2; tail B has six hours between B1 and B2
+    @BeforeEach
+    void setUp() {
+        Aircraft tailA = new Aircraft("9M-DSA", "Airbus", "A320", 180);
+        Aircraft tailB = new Aircraft("9M-DSB", "Airbus", "A320", 180);
+        Flight cancelled = new Flight("B3", "KUL", "PEN", at(18, 0), at(19, 0), tailB, 100);
+        cancelled.setStatus("Cancelled");
+        flights = List.of(
+                new Flight("A1", "KUL", "PEN", at(8, 0), at(10, 0), tailA, 100),
+                new Flight("A2", "PEN", "KUL", at(10, 0), at(11, 0), tailA, 100),
+                new Flight("B1", "KUL", "SIN", at(8, 0), at(10, 0), tailB, 100),
+                new Flight("B2", "SIN", "KUL", at(16, 0), at(17, 0), tailB, 100),
+                cancelled,
+                new Flight("A9", "KUL", "PEN", at(8, 0).plusDays(1), at(9, 0).plusDays(1), tailA, 100));
+    }
+
+    private static double averageDelay(DelaySimulator.Result result, String flightNumber) {
+        return result.getFragileFlights().stream()
+                .filter(f -> f.getFlightNumber().equals(flightNumber))
+                .findFirst().orElseThrow().getAverageDelay();
+    }
+
+    @Test
+    void withoutDisruptionsEverythingIsOnTime() {
+        DelaySimulator sim = new DelaySimulator(Map.of("Weather", 0.0), Map.of("Weather", 60.0));
+        DelaySimulator.Result result = sim.run(flights, DAY, 200, 1L);
+
+        // Only the day's flights that still operate are replayed
+        assertEquals(4, result.getFlights());
+        assertEquals(0.0, result.getExpectedDelayMinutes());
+        assertEquals(100.0, result.getOnTimePercentage());
+        assertTrue(result.getFragileFlights().stream().allMatch(f -> f.getLateProbability() == 0.0));
+    }
+
+    @Test
+    void theSameSeedGivesTheSameReplay() {
+        DelaySimulator sim = new DelaySimulator(Map.of("Weather", 0.3), Map.of("Weather", 45.0));
+        DelaySimulator.Result first = sim.run(flights, DAY, 500, 7L);
+        DelaySimulator.Result second = sim.run(flights, DAY, 500, 7L);
+
+        assertEquals(first.getExpectedDelayMinutes(), second.getExpectedDelayMinutes());
+        assertEquals(first.getOnTimePercentage(), second.getOnTimePercentage());
+        assertEquals(first.getMostFragile(4).stream().map(DelaySimulator.FragileFlight::getFlightNumber).toList(),
+                second.getMostFragile(4).stream().map(DelaySimulator.FragileFlight::getFlightNumber).toList());
+    }
+
+    @Test
+    void aTightTurnInheritsTheInboundDelay() {
+        DelaySimulator sim = new DelaySimulator(Map.of("Weather", 0.5), Map.of("Weather", 60.0));
+        DelaySimulator.Result result = sim.run(flights, DAY, 2000, 3L);
+
+        // A2 has no slack, so it is more fragile than B2, which can absorb B1's delay
+        assertTrue(averageDelay(result, "A2") > averageDelay(result, "B2") + 10);
+        assertEquals("A2", result.getMostFragile(1).get(0).getFlightNumber());
+    }
+
+    @Test
+    void historyLearnsPrimaryCausesOnly() {
+        Aircraft plane = new Aircraft("9M-DSH", "Airbus", "A320", 180);
+        Flight late = new Flight("H1", "KUL", "PEN", at(8, 0), at(9, 0), plane, 100);
+        late.addDelayReason("Weather: thunderstorm");
+        Flight knockOn = new Flight("H2", "PEN", "KUL", at(9, 30), at(10, 30), plane, 100);
+        knockOn.addDelayReason("Propagated Delay: from H1");
+
+        DelaySimulator sim = DelaySimulator.fromHistory(List.of(late, knockOn,
+                new Flight("H3", "KUL", "SIN", at(12, 0), at(13, 0), plane, 100),
+                new Flight("H4", "SIN", "KUL", at(14, 0), at(15, 0), plane, 100)));
+
+        assertEquals(List.of("Weather"), sim.getCategories());
+    }
+}
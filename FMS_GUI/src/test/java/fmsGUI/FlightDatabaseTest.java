@@ -0,0 +1,78 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightDatabaseTest {
+
+    private static final Aircraft PLANE = new Aircraft("9M-DBT", "Airbus", "A330", 290);
+    private static final LocalDateTime DEP = LocalDateTime.of(2030, 2, 1, 6, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightDatabase open() throws IOException {
+        return new FlightDatabase(dir.resolve("archive.db"), reg -> reg.equals(PLANE.getRegistrationNumber()) ? PLANE : null);
+    }
+
+    private static Flight flight(int i) {
+        LocalDateTime dep = DEP.plusHours(i);
+        Flight f = new Flight("MH-" + i, "KUL", "BKI", dep, dep.plusMinutes(150), PLANE, 200);
+        f.setStatus("Arrived");
+        return f;
+    }
+
+    @Test
+    void deletedSlotsAreReused() throws IOException {
+        try (FlightDatabase db = open()) {
+            for (int i = 0; i < 10; i++) db.save(flight(i));
+            long size = Files.size(dir.resolve("archive.db"));
+            db.delete("MH-3");
+            db.delete("MH-7");
+            assertEquals(2, db.getFreeSlotCount());
+
+            db.save(flight(20));
+            db.save(flight(21));
+            assertEquals(0, db.getFreeSlotCount());
+            assertEquals(size, Files.size(dir.resolve("archive.db")));
+            assertNull(db.find("MH-3"));
+            assertEquals("MH-20", db.find("MH-20").getKey());
+        }
+    }
+
+    @Test
+    void reopeningRebuildsTheIndexes() throws IOException {
+        try (FlightDatabase db = open()) {
+            for (int i = 0; i < 50; i++) db.save(flight(i));
+            // Long enough to continue over several slots
+            Flight longRecord = flight(50);
+            for (int r = 0; r < 40; r++) longRecord.getDelayReasons().add("Crew: late connection " + r);
+            db.save(longRecord);
+            db.delete("MH-10");
+            // Same size: rewritten in place
+            Flight changed = flight(11);
+            changed.setStatus("Diverted");
+            db.save(changed);
+        }
+
+        try (FlightDatabase db = open()) {
+            assertEquals(50, db.size());
+            assertNull(db.find("MH-10"));
+            assertEquals("Diverted", db.find("MH-11").getStatus());
+            assertEquals(40, db.find("MH-50").getDelayReasons().size());
+            assertEquals("BKI", db.find("MH-0").getDestination());
+            assertEquals(50, db.findByTail(PLANE.getRegistrationNumber()).size());
+            List<Flight> window = db.findDepartingBetween(DEP.plusHours(20), DEP.plusHours(25));
+            assertEquals(List.of("MH-20", "MH-21", "MH-22", "MH-23", "MH-24"), window.stream().map(Flight::getKey).toList());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightHistoryTest {
+
+    private static final LocalDateTime DEP = LocalDateTime.of(2030, 8, 1, 8, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightManagementSystem system;
+    private Aircraft plane;
+
+    private List<String> statuses(FlightManagementSystem s, String key) {
+        return s.getHistory().getChanges(key).stream()
+                .map(v -> v.isRemoval() ? "(removed)" : v.getState().getStatus())
+                .toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = new FlightManagementSystem(dir);
+        plane = new Aircraft("9M-HIS", "Airbus", "A320", 180);
+        system.addAircraft(plane);
+        system.addFlight(new Flight("H1", "KUL", "PEN", DEP, DEP.plusMinutes(60), plane, 100));
+        system.addFlight(new Flight("H2", "PEN", "KUL", DEP.plusHours(2), DEP.plusHours(3), plane, 100));
+        system.updateFlightStatus("H1", "Boarding");
+        system.updateFlightStatus("H1", "Departed");
+    }
+
+    @Test
+    void versionsSurviveARestart() {
+        system.saveData();
+
+        FlightManagementSystem next = new FlightManagementSystem(dir);
+        next.loadData();
+        assertEquals(List.of("Scheduled", "Boarding", "Departed"), statuses(next, "H1"));
+        assertFalse(next.getHistory().getChanges("H1").get(0).isOnFile());
+
+        // Later changes carry on from the logged chain
+        next.updateFlightStatus("H1", "Arrived");
+        next.saveData();
+        FlightManagementSystem third = new FlightManagementSystem(dir);
+        third.loadData();
+        assertEquals(List.of("Scheduled", "Boarding", "Departed", "Arrived"), statuses(third, "H1"));
+    }
+
+    @Test
+    void removedFlightsLeaveMemoryOnceLogged() throws IOException {
+        int before = system.getHistory().getVersionCount();
+        system.deleteFlight("H1");
+        system.flushRecords();
+
+        assertEquals(before - 3, system.getHistory().getVersionCount());
+        // Read back from the log when asked for
+        assertEquals(List.of("Scheduled", "Boarding", "Departed", "(removed)"), statuses(system, "H1"));
+        assertTrue(system.getHistory().getBoard(LocalDateTime.now().plusMinutes(1)).stream()
+                .noneMatch(s -> s.getKey().equals("H1")));
+    }
+
+    @Test
+    void aTornLastLineIsSkipped() throws IOException {
+        system.saveData();
+        Files.writeString(dir.resolve("history.log"), "H1,12345,4,0,Arr", StandardOpenOption.APPEND);
+
+        FlightManagementSystem next = new FlightManagementSystem(dir);
+        next.loadData();
+        assertEquals(List.of("Scheduled", "Boarding", "Departed"), statuses(next, "H1"));
+
+        // The next flush starts on a fresh line, so its versions read back intact
+        next.updateFlightStatus("H2", "Cancelled");
+        next.saveData();
+        FlightManagementSystem third = new FlightManagementSystem(dir);
+        third.loadData();
+        assertEquals(List.of("Scheduled", "Cancelled"), statuses(third, "H2"));
+    }
+}
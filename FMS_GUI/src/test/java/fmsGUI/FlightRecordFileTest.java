@@ -0,0 +1,95 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightRecordFileTest {
+
+    private static final LocalDateTime DEP = LocalDateTime.of(2030, 3, 1, 8, 0);
+
+    @TempDir
+    Path dir;
+
+    // A new run: symbol ids start over, and 'first' get the lowest ones
+    private static void restart(String... first) {
+        for (SymbolTable t : SymbolTable.ALL) t.clear();
+        for (String name : first) SymbolTable.AIRPORTS.id(name);
+    }
+
+    @Test
+    void recordsRoundTrip() throws IOException {
+        Aircraft plane = new Aircraft("9M-REC", "Boeing", "737", 160);
+        Flight pax = new Flight("MH-7", "KUL", "PEN", DEP, DEP.plusMinutes(55), plane, 120);
+        pax.setStatus("Delayed");
+        pax.getDelayReasons().add("Weather: storm");
+        pax.setDelayMinutes(25);
+        pax.setPropagatedDelayMinutes(10);
+        pax.setServiceDate(LocalDate.of(2030, 3, 1));
+        Flight cargo = new CargoFlight("MH-8", "PEN", "KUL", DEP.plusHours(3), DEP.plusHours(4), plane, 12.5);
+
+        FlightRecordFile file = new FlightRecordFile(dir.resolve("flights.dat"));
+        file.flightAdded(pax);
+        file.flightAdded(cargo);
+        file.write(file.takeDirty());
+        file.close();
+
+        List<FlightRecordFile.Record> read = new ArrayList<>();
+        new FlightRecordFile(dir.resolve("flights.dat")).load(read::add);
+        assertEquals(2, read.size());
+        FlightRecordFile.Record r = read.get(0);
+        assertEquals("MH-7", r.getFlightNumber());
+        assertEquals("KUL", r.getOrigin());
+        assertEquals("PEN", r.getDestination());
+        assertEquals("9M-REC", r.getRegistrationNumber());
+        assertEquals(DEP, r.getDepartureTime());
+        assertEquals("Delayed", r.getStatus());
+        assertEquals(List.of("Weather: storm"), r.getDelayReasons());
+        assertEquals(25, r.getDelayMinutes());
+        assertEquals(10, r.getPropagatedDelayMinutes());
+        assertEquals(LocalDate.of(2030, 3, 1), r.getServiceDate());
+        assertTrue(read.get(1).isCargo());
+        assertEquals(12.5, read.get(1).getCargoCapacity());
+    }
+
+    @Test
+    void untouchedRecordsSurviveRestartsWithOtherIds() throws IOException {
+        restart();
+        FlightManagementSystem system = new FlightManagementSystem(dir);
+        Aircraft plane = new Aircraft("9M-RST", "Airbus", "A320", 180);
+        system.addAircraft(plane);
+        system.addFlight(new Flight("F1", "BATU PAHAT", "PENANG", DEP, DEP.plusMinutes(60), plane, 10));
+        system.addFlight(new Flight("F2", "KUCHING", "SABAH", DEP.plusHours(3), DEP.plusHours(5), plane, 10));
+        system.saveData();
+
+        // Next run interns F2's airports first, then only F2 changes
+        restart("KUCHING", "SABAH");
+        system = new FlightManagementSystem(dir);
+        system.loadData();
+        system.updateFlightStatus("F2", "Boarding");
+        system.flushRecords();
+
+        restart("PENANG", "SABAH", "KUCHING");
+        system = new FlightManagementSystem(dir);
+        system.loadData();
+        Flight f1 = system.getFlight("F1");
+        Flight f2 = system.getFlight("F2");
+        assertNotNull(f1);
+        assertEquals("BATU PAHAT", f1.getOrigin());
+        assertEquals("PENANG", f1.getDestination());
+        assertEquals("9M-RST", f1.getAircraft().getRegistrationNumber());
+        assertEquals("KUCHING", f2.getOrigin());
+        assertEquals("SABAH", f2.getDestination());
+        assertEquals("Boarding", f2.getStatus());
+    }
+}
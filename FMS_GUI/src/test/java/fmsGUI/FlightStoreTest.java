@@ -0,0 +1,78 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class FlightStoreTest {
+
+    private static final Aircraft PLANE = new Aircraft("9M-TST", "Airbus", "A320", 180);
+    private static final LocalDateTime DEP = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    private static Flight flight(String key) {
+        return new Flight(key, "KUL", "PEN", DEP, DEP.plusMinutes(60), PLANE, 1);
+    }
+
+    @Test
+    void packedKeysRoundTrip() {
+        for (String key : new String[] {"MH-101", "AXM-0042", "MH-101/2026-01-05", "AK-999/2028-02-29"}) {
+            assertEquals(key, FlightStore.unpack(FlightStore.pack(key)));
+        }
+        assertEquals(0L, FlightStore.pack("MH-101/2026-02-30"));
+        assertEquals(0L, FlightStore.pack("not a flight"));
+    }
+
+    @Test
+    void iteratorRemoveVisitsEveryEntryOnce() {
+        Random rnd = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            FlightStore store = new FlightStore();
+            Map<String, Flight> expected = new HashMap<>();
+            int n = 1 + rnd.nextInt(1500);
+            for (int i = 0; i < n; i++) {
+                String key = rnd.nextInt(20) == 0 ? "charter " + i
+                        : String.format("MH-%03d/2030-01-%02d", rnd.nextInt(1000), 1 + rnd.nextInt(28));
+                Flight f = flight(key);
+                store.put(key, f);
+                expected.put(key, f);
+            }
+
+            // Removing while walking shifts entries backwards; none may be skipped or seen twice
+            Set<Flight> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            int stride = 2 + rnd.nextInt(3);
+            Iterator<Flight> it = store.values().iterator();
+            while (it.hasNext()) {
+                Flight f = it.next();
+                assertTrue(seen.add(f), "returned twice: " + f.getKey());
+                if (Math.floorMod(f.getKey().hashCode(), stride) == 0) it.remove();
+            }
+            assertEquals(expected.size(), seen.size());
+
+            expected.values().removeIf(f -> Math.floorMod(f.getKey().hashCode(), stride) == 0);
+            assertEquals(expected.size(), store.size());
+            for (Map.Entry<String, Flight> e : expected.entrySet()) assertSame(e.getValue(), store.get(e.getKey()));
+            assertEquals(expected.size(), store.snapshot().size());
+        }
+    }
+
+    @Test
+    void entryIteratorCanEmptyTheStore() {
+        FlightStore store = new FlightStore();
+        for (int i = 0; i < 500; i++) store.put("MH-" + (100 + i), flight("MH-" + (100 + i)));
+        store.put("odd key", flight("odd key"));
+        store.entrySet().removeIf(e -> true);
+        assertEquals(0, store.size());
+        assertEquals(null, store.get("MH-100"));
+    }
+}
@@ -0,0 +1,75 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RecoverySolverTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 5, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightManagementSystem system;
+    private Aircraft tailA;
+    private Aircraft tailB;
+    private Flight a1, a2;
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.plusHours(hour).plusMinutes(minute);
+    }
+
+    // A1 runs an hour late and pushes A2 back 30 minutes; tail B is free all day
+    @BeforeEach
+    void setUp() {
+        system = new FlightManagementSystem(dir);
+        tailA = new Aircraft("9M-RSA", "Airbus", "A320", 180);
+        tailB = new Aircraft("9M-RSB", "Airbus", "A320", 180);
+        system.addAircraft(tailA);
+        system.addAircraft(tailB);
+        a1 = new Flight("A1", "KUL", "PEN", at(8, 0), at(10, 0), tailA, 100);
+        a2 = new Flight("A2", "PEN", "KUL", at(10, 30), at(12, 0), tailA, 100);
+        system.addFlight(a1);
+        system.addFlight(a2);
+        system.manualDelay(a1, "Technical: brakes");
+        assertEquals(30, a2.getPropagatedDelayMinutes());
+    }
+
+    @Test
+    void theBestPlanMovesTheLateLegToTheFreeTail() {
+        List<RecoverySolver.SwapPlan> plans = new RecoverySolver(system).findPlans("9M-RSA", 5);
+        RecoverySolver.SwapPlan best = plans.get(0);
+        assertSame(tailB, best.getTo());
+        assertEquals(List.of(a2), best.getMoved());
+        assertEquals(30, best.getSavedMinutes());
+    }
+
+    @Test
+    void applyingAPlanIsOneChange() {
+        List<Collection<Flight>> events = new ArrayList<>();
+        system.addChangeListener(new FlightChangeListener() {
+            @Override
+            public void flightsChanged(Collection<Flight> changed) { events.add(List.copyOf(changed)); }
+        });
+
+        new RecoverySolver(system).apply(new RecoverySolver.SwapPlan(tailA, tailB, List.of(a2), List.of(), 30));
+
+        assertSame(tailB, a2.getAircraft());
+        assertEquals(at(10, 30), a2.getDepartureTime());
+        assertEquals(0, a2.getPropagatedDelayMinutes());
+        assertEquals(List.of(a1), system.getFlightsForAircraft("9M-RSA"));
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).contains(a2));
+    }
+}
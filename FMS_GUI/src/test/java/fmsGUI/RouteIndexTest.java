@@ -0,0 +1,39 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class RouteIndexTest {
+
+    private static final Aircraft PLANE = new Aircraft("9M-RTE", "Airbus", "A320", 180);
+    private static final LocalDateTime DEP = LocalDateTime.of(2030, 3, 1, 8, 0);
+
+    private static RouteIndex routeWithDelays(int... delays) {
+        RouteIndex index = new RouteIndex();
+        for (int i = 0; i < delays.length; i++) {
+            Flight f = new Flight("RT-" + (100 + i), "KUL", "PEN", DEP.plusHours(i), DEP.plusHours(i).plusMinutes(60), PLANE, 100);
+            f.setDelayMinutes(delays[i]);
+            index.flightAdded(f);
+        }
+        return index;
+    }
+
+    @Test
+    void onTimeFlightsGiveZero() {
+        RouteIndex.RouteStats s = routeWithDelays(0, 0, 0, 0, 0, 0, 0, 0, 0, 0).getTotals("KUL", "PEN");
+        assertEquals(0, s.getDelayPercentile(90));
+    }
+
+    @Test
+    void percentileIsInterpolatedWithinItsBucket() {
+        // 20-24 min bucket holds four flights: p50..p80 step through it
+        RouteIndex.RouteStats s = routeWithDelays(0, 0, 0, 0, 21, 21, 22, 23, 40, 40).getTotals("KUL", "PEN");
+        assertEquals(0, s.getDelayPercentile(40));
+        assertEquals(21, s.getDelayPercentile(50));
+        assertEquals(25, s.getDelayPercentile(80));
+        assertEquals(45, s.getDelayPercentile(100));
+    }
+}
@@ -0,0 +1,105 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SlotIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 9, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightManagementSystem system;
+
+    private static LocalDateTime at(int minutes) {
+        return DAY.plusMinutes(minutes);
+    }
+
+    @BeforeEach
+    void setUp() {
+        system = new FlightManagementSystem(dir);
+    }
+
+    @Test
+    void aCancelledLegLeavesItsSlotFree() {
+        Aircraft plane = new Aircraft("9M-SLT", "Airbus", "A320", 180);
+        system.addAircraft(plane);
+        system.addFlight(new Flight("S1", "KUL", "PEN", at(480), at(540), plane, 100));
+        Flight s2 = new Flight("S2", "PEN", "KUL", at(600), at(660), plane, 100);
+        s2.setStatus("Cancelled");
+        system.addFlight(s2);
+
+        assertFalse(system.getSlots().isFree("9M-SLT", at(500), at(560), 0));
+        assertTrue(system.getSlots().isFree("9M-SLT", at(600), at(660), 30));
+        assertFalse(system.getSlots().isFree("9M-SLT", at(560), at(620), 30));
+        assertEquals(List.of(at(570)), system.getSlots().nextSlots("9M-SLT", at(480), 60, 30, 1));
+    }
+
+    // Random rotations (overlaps and cancellations included) against a minute-by-minute scan
+    @Test
+    void gapSearchMatchesABruteForceScan() {
+        Random rnd = new Random(42);
+        for (int trial = 0; trial < 20; trial++) {
+            String reg = "9M-R" + trial;
+            Aircraft plane = new Aircraft(reg, "Airbus", "A320", 180);
+            system.addAircraft(plane);
+
+            List<int[]> active = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                int dep = rnd.nextInt(24 * 60);
+                int arr = dep + 30 + rnd.nextInt(150);
+                Flight f = new Flight("R" + trial + "-" + i, "KUL", "PEN", at(dep), at(arr), plane, 100);
+                if (rnd.nextInt(5) == 0) f.setStatus("Cancelled");
+                else active.add(new int[] { dep, arr });
+                system.addFlight(f);
+            }
+
+            for (int q = 0; q < 30; q++) {
+                int start = rnd.nextInt(26 * 60);
+                int duration = 30 + rnd.nextInt(120);
+                int turn = rnd.nextInt(46);
+                assertEquals(isFree(active, start, start + duration, turn),
+                        system.getSlots().isFree(reg, at(start), at(start + duration), turn),
+                        "isFree " + reg + " at " + start);
+
+                List<LocalDateTime> expected = new ArrayList<>();
+                for (int m : nextSlots(active, start, duration, turn, 3)) expected.add(at(m));
+                assertEquals(expected, system.getSlots().nextSlots(reg, at(start), duration, turn, 3),
+                        "nextSlots " + reg + " from " + start);
+            }
+        }
+    }
+
+    private static boolean isFree(List<int[]> legs, int start, int end, int turn) {
+        for (int[] leg : legs) {
+            if (!(leg[1] + turn <= start || end + turn <= leg[0])) return false;
+        }
+        return true;
+    }
+
+    // First minute of each run of feasible departures; the run after the last leg never ends
+    private static List<Integer> nextSlots(List<int[]> legs, int from, int duration, int turn, int count) {
+        int horizon = from;
+        for (int[] leg : legs) horizon = Math.max(horizon, leg[1] + turn);
+        List<Integer> result = new ArrayList<>();
+        boolean previousFree = false;
+        for (int s = from; s <= horizon && result.size() < count; s++) {
+            boolean free = isFree(legs, s, s + duration, turn);
+            if (free && !previousFree) result.add(s);
+            previousFree = free;
+        }
+        return result;
+    }
+}
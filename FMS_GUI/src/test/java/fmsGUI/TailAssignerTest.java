@@ -0,0 +1,91 @@
+package fmsGUI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TailAssignerTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private FlightManagementSystem system;
+    private Aircraft jet;
+    private Aircraft turboprop;
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.plusHours(hour).plusMinutes(minute);
+    }
+
+    private static TailAssigner.Assignment assignmentOf(TailAssigner.Result result, Flight f) {
+        return result.getAssignments().stream().filter(a -> a.getFlight() == f).findFirst().orElseThrow();
+    }
+
+    // The jet is busy 08:00-12:00; the turboprop is free but only seats 70
+    @BeforeEach
+    void setUp() {
+        system = new FlightManagementSystem(dir);
+        jet = new Aircraft("9M-TAJ", "Airbus", "A320", 180);
+        turboprop = new Aircraft("9M-TAT", "ATR", "72-600", 70);
+        system.addAircraft(jet);
+        system.addAircraft(turboprop);
+        system.addFlight(new Flight("J1", "KUL", "PEN", at(8, 0), at(12, 0), jet, 150));
+    }
+
+    @Test
+    void flightsGoToTheCheapestTailThatCanCarryThem() {
+        Flight small = new Flight("N1", "KUL", "LGK", at(10, 0), at(11, 0), jet, 60);
+        Flight large = new Flight("N2", "KUL", "SIN", at(10, 0), at(11, 0), jet, 120);
+
+        TailAssigner.Result result = new TailAssigner(system).assign(List.of(small, large), true);
+
+        assertSame(turboprop, assignmentOf(result, small).getAircraft());
+        assertEquals(0, assignmentOf(result, small).getDelayMinutes());
+        // Only the jet has the seats, so N2 waits for J1 to come back
+        assertSame(jet, assignmentOf(result, large).getAircraft());
+        assertEquals(120, assignmentOf(result, large).getDelayMinutes());
+        assertEquals(120, result.getTotalDelayMinutes());
+        assertTrue(result.getUnassigned().isEmpty());
+    }
+
+    @Test
+    void aFlightNoTailMayFlyIsLeftUnassigned() {
+        Flight f = new Flight("N3", "KUL", "PEN", at(14, 0), at(15, 0), jet, 60);
+        TailAssigner assigner = new TailAssigner(system);
+        assigner.setEligibility((flight, aircraft) -> aircraft.getCapacity() > 200);
+
+        TailAssigner.Result result = assigner.assign(List.of(f), false);
+
+        assertEquals(List.of(f), result.getUnassigned());
+        assertTrue(result.getAssignments().isEmpty());
+    }
+
+    @Test
+    void applyingMovesStoredFlightsAndAddsNewOnes() {
+        // J2 clashes with J1 on the jet
+        Flight clash = new Flight("J2", "PEN", "KUL", at(11, 0), at(12, 0), jet, 60);
+        system.addFlight(clash);
+        Flight extra = new Flight("N4", "KUL", "LGK", at(13, 0), at(14, 0), jet, 60);
+
+        TailAssigner assigner = new TailAssigner(system);
+        TailAssigner.Result result = assigner.assign(List.of(clash, extra), true);
+        assigner.apply(result);
+
+        assertSame(turboprop, clash.getAircraft());
+        assertEquals(at(11, 0), clash.getDepartureTime());
+        assertSame(extra, system.getFlight("N4"));
+        assertTrue(system.getFlightsForAircraft("9M-TAT").contains(clash));
+        assertEquals(List.of("J1", "N4"), system.getFlightsForAircraft("9M-TAJ").stream()
+                .map(Flight::getFlightNumber).toList());
+    }
+}